@@ -0,0 +1,30 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/** Chooses which of several suitable interviewers, or their interviews, a booking goes to. */
+public interface AssignmentStrategy {
+  /**
+   * Returns one of candidates for a booking at the given time.
+   *
+   * @param interviewerOf returns the interviewer of a candidate.
+   * @throws IllegalArgumentException if there are no candidates.
+   */
+  public <T> T choose(List<T> candidates, Function<T, String> interviewerOf, Instant when);
+}
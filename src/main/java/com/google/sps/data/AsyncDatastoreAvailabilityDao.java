@@ -0,0 +1,62 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Query.Filter;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accesses Datastore to support managing Availability entities, sending reads through
+ * AsyncDatastoreService so that several of them can be in flight at once.
+ */
+public class AsyncDatastoreAvailabilityDao extends DatastoreAvailabilityDao {
+  // @param asyncDatastore the AsyncDatastoreService used for reads that return futures.
+  private AsyncDatastoreService asyncDatastore;
+
+  /** Initializes the fields for AsyncDatastoreAvailabilityDao. */
+  public AsyncDatastoreAvailabilityDao() {
+    super();
+    asyncDatastore = DatastoreServiceFactory.getAsyncDatastoreService();
+  }
+
+  // Starts the query for a user's Availabilities ranging from minTime to maxTime. The query is
+  // prefetched in the background and only waited on when the future is read.
+  @Override
+  public PendingRead<List<Availability>> getInRangeForUserAsync(
+      String userId, Instant minTime, Instant maxTime) {
+    Filter userFilter = new FilterPredicate("userId", FilterOperator.EQUAL, userId);
+    List<Entity> entities =
+        asyncDatastore
+            .prepare(inRangeQuery(minTime, maxTime, Optional.of(userFilter)))
+            .asList(FetchOptions.Builder.withDefaults());
+    return PendingRead.waitingOn(
+        () -> {
+          List<Availability> availability = new ArrayList<Availability>();
+          for (Entity entity : entities) {
+            availability.add(entityToAvailability(entity));
+          }
+          return availability;
+        });
+  }
+}
@@ -0,0 +1,57 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.KeyFactory;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Accesses Datastore to support managing Person entities, sending reads through
+ * AsyncDatastoreService so that several of them can be in flight at once.
+ */
+public class AsyncDatastorePersonDao extends DatastorePersonDao {
+  // @param asyncDatastore the AsyncDatastoreService used for reads that return futures.
+  private AsyncDatastoreService asyncDatastore;
+
+  /** Initializes the fields for AsyncDatastorePersonDao. */
+  public AsyncDatastorePersonDao() {
+    super();
+    asyncDatastore = DatastoreServiceFactory.getAsyncDatastoreService();
+  }
+
+  // Starts the lookup of the person with the given id. If they aren't in Datastore, the future
+  // holds an empty Optional.
+  @Override
+  public PendingRead<Optional<Person>> getAsync(String id) {
+    Future<Entity> personEntity = asyncDatastore.get(KeyFactory.createKey("Person", id));
+    return PendingRead.waitingOn(
+        () -> {
+          try {
+            return Optional.of(entityToPerson(personEntity.get()));
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntityNotFoundException) {
+              return Optional.empty();
+            }
+            throw e;
+          }
+        });
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.KeyFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Accesses Datastore to support managing ScheduledInterview entities, sending reads through
+ * AsyncDatastoreService so that several of them can be in flight at once.
+ */
+public class AsyncDatastoreScheduledInterviewDao extends DatastoreScheduledInterviewDao {
+  // @param asyncDatastore the AsyncDatastoreService used for reads that return futures.
+  private AsyncDatastoreService asyncDatastore;
+
+  /** Initializes the fields for AsyncDatastoreScheduledInterviewDao. */
+  public AsyncDatastoreScheduledInterviewDao() {
+    super();
+    asyncDatastore = DatastoreServiceFactory.getAsyncDatastoreService();
+  }
+
+  // Starts the lookup of the ScheduledInterview with the given id. If it isn't in Datastore, the
+  // future holds an empty Optional.
+  @Override
+  public PendingRead<Optional<ScheduledInterview>> getAsync(long id) {
+    Future<Entity> scheduledInterviewEntity =
+        asyncDatastore.get(KeyFactory.createKey("ScheduledInterview", id));
+    return PendingRead.waitingOn(
+        () -> {
+          try {
+            return Optional.of(entityToScheduledInterview(scheduledInterviewEntity.get()));
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntityNotFoundException) {
+              return Optional.empty();
+            }
+            throw e;
+          }
+        });
+  }
+
+  // Starts the query for a user's ScheduledInterviews ranging from minTime to maxTime. The query
+  // is prefetched in the background and only waited on when the future is read.
+  @Override
+  public PendingRead<List<ScheduledInterview>> getScheduledInterviewsInRangeForUserAsync(
+      String userId, Instant minTime, Instant maxTime) {
+    List<Entity> entities =
+        asyncDatastore
+            .prepare(inRangeQuery(minTime, maxTime, Optional.of(getUserFilter(userId))))
+            .asList(FetchOptions.Builder.withDefaults());
+    return PendingRead.waitingOn(
+        () -> {
+          List<ScheduledInterview> scheduledInterviews = new ArrayList<ScheduledInterview>();
+          for (Entity entity : entities) {
+            scheduledInterviews.add(entityToScheduledInterview(entity));
+          }
+          return scheduledInterviews;
+        });
+  }
+}
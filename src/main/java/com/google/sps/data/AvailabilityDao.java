@@ -31,18 +31,47 @@ public interface AvailabilityDao {
   // (by ascending start times) list.
   public List<Availability> getInRangeForAll(Instant minTime, Instant maxTime);
 
+  // Starts fetching a sorted (by ascending start times) list of all Availabilities ranging from
+  // minTime to maxTime of a user. Implementations backed by an asynchronous store let several of
+  // these reads be in flight at once; by default the read happens immediately.
+  public default PendingRead<List<Availability>> getInRangeForUserAsync(
+      String userId, Instant minTime, Instant maxTime) {
+    return PendingRead.of(getInRangeForUser(userId, minTime, maxTime));
+  }
+
   // Returns the ids of all users that have availabilities within the specified time range.
   public Set<String> getUsersAvailableInRange(Instant minTime, Instant maxTime);
 
+  // Returns the ids of all users who have an unscheduled availability for every 15 minute slot
+  // from minTime to maxTime, such as the four slots of an hour long interview.
+  public Set<String> getUsersFreeThroughout(Instant minTime, Instant maxTime);
+
   // Returns the Availability entity with specified id.
   public Optional<Availability> get(long id);
 
   // Adds an Availability object into storage.
   public void create(Availability availability);
 
+  // Adds Availability objects into storage. By default they are added one at a time.
+  public default void createAll(List<Availability> availabilities) {
+    for (Availability availability : availabilities) {
+      create(availability);
+    }
+  }
+
   // Updates the specified id with the new availability.
   public void update(Availability availability);
 
+  // Updates each availability under its id. By default they are updated one at a time.
+  public default void updateAll(List<Availability> availabilities) {
+    for (Availability availability : availabilities) {
+      update(availability);
+    }
+  }
+
   // Deletes all Availability entities for a user ranging from minTime to maxTime.
   public void deleteInRangeForUser(String userId, Instant minTime, Instant maxTime);
+
+  // Deletes the stored availabilities with the same ids as the given ones.
+  public void deleteAll(List<Availability> availabilities);
 }
@@ -14,8 +14,6 @@
 
 package com.google.sps.data;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -73,12 +71,13 @@ public class AvailabilityTimeSlotGenerator {
    * @param timezoneOffsetMinutes An int that represents the difference between UTC and the user's
    *     current timezone. Example: A user in EST has a timezoneOffsetMinutes of -240 which means
    *     that EST is 240 minutes behind UTC.
+   * @param userId The id of the user whose Availabilities are shown as selected.
    * @param availabilityDao The AvailabilityDao that is used to get the selected Availabilities for
    *     the week.
    * @throws IllegalArgumentException if the magnitude of timezoneOffsetMinutes is greater than 720.
    */
   public static List<List<AvailabilityTimeSlot>> timeSlotsForWeek(
-      Instant instant, int timezoneOffsetMinutes, AvailabilityDao availabilityDao) {
+      Instant instant, int timezoneOffsetMinutes, String userId, AvailabilityDao availabilityDao) {
     Preconditions.checkArgument(
         Math.abs(timezoneOffsetMinutes) <= maxTimezoneOffsetMinutes,
         "Offset greater than %d minutes (%d hours): %d",
@@ -86,15 +85,6 @@ public class AvailabilityTimeSlotGenerator {
         maxTimezoneOffsetHours,
         timezoneOffsetMinutes);
     List<Instant> startAndEndOfWeek = getStartAndEndOfWeek(instant, timezoneOffsetMinutes);
-    UserService userService = UserServiceFactory.getUserService();
-    String email = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", email.hashCode());
-    }
-
     List<Availability> userAvailabilityForWeek =
         availabilityDao.getInRangeForUser(
             userId, startAndEndOfWeek.get(0), startAndEndOfWeek.get(1));
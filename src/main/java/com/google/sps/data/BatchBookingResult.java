@@ -0,0 +1,73 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+/** The outcome of booking one of the interviews asked for in a batch booking request. */
+public class BatchBookingResult {
+  public enum Status {
+    BOOKED,
+    // The item was missing a field or had an unreadable time or position.
+    INVALID,
+    // The interviewee already has an interview, or asked for another one, at an overlapping time.
+    CONFLICT,
+    // Nobody with the requested company and job is free to interview for the position then.
+    NO_INTERVIEWER
+  }
+
+  private String utcStartTime;
+  private String position;
+  private Status status;
+  // Only set when the interview was booked.
+  private Long interviewId;
+
+  private BatchBookingResult(
+      String utcStartTime, String position, Status status, Long interviewId) {
+    this.utcStartTime = utcStartTime;
+    this.position = position;
+    this.status = status;
+    this.interviewId = interviewId;
+  }
+
+  public static BatchBookingResult booked(InterviewPostOrPutRequest item, long interviewId) {
+    return new BatchBookingResult(
+        item.getUtcStartTime(), item.getPosition(), Status.BOOKED, interviewId);
+  }
+
+  public static BatchBookingResult notBooked(InterviewPostOrPutRequest item, Status status) {
+    return new BatchBookingResult(item.getUtcStartTime(), item.getPosition(), status, null);
+  }
+
+  public String getUtcStartTime() {
+    return utcStartTime;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Long getInterviewId() {
+    return interviewId;
+  }
+
+  public String toString() {
+    return String.format(
+        "BatchBookingResult= utcStartTime:%s, position:%s, status:%s, interviewId:%s",
+        utcStartTime, position, status, interviewId);
+  }
+}
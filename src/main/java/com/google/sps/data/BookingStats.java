@@ -0,0 +1,123 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts scheduled interviews per interviewer per week and per position per day, so that assignment
+ * and dashboards can read how busy someone or something is without querying ScheduledInterview.
+ * Weeks start on Monday and days are in UTC, by the interview's start.
+ *
+ * <p>Adding to a sharded counter takes a transaction, so when given a queue the counts aren't
+ * changed on the request that books: each changed counter becomes a task for TASK_PATH, and all of
+ * a write's tasks are added in one call. The counts then lag bookings by as long as the queue takes
+ * to run the tasks.
+ */
+public class BookingStats {
+  public static final String TASK_PATH = "/tasks/booking-counts";
+  // A queue takes at most this many tasks in one add.
+  static final int MAX_TASKS_PER_ADD = 100;
+  private static final String INTERVIEWS = "interviews";
+
+  private final CounterDao counterDao;
+  private final Optional<Queue> queue;
+
+  // Counts are changed as interviews are recorded.
+  public BookingStats(CounterDao counterDao) {
+    this.counterDao = counterDao;
+    this.queue = Optional.empty();
+  }
+
+  // Counts are changed by the tasks that recording adds to queue.
+  public BookingStats(CounterDao counterDao, Queue queue) {
+    this.counterDao = counterDao;
+    this.queue = Optional.of(queue);
+  }
+
+  /**
+   * Records that one write removed the removed interviews and stored the added ones. An update is
+   * its interview before removed and after added, so only the counters it moved between change.
+   */
+  public void record(List<ScheduledInterview> removed, List<ScheduledInterview> added) {
+    Map<String, Long> deltas = new HashMap<String, Long>();
+    for (ScheduledInterview interview : removed) {
+      addDeltas(deltas, interview, -1);
+    }
+    for (ScheduledInterview interview : added) {
+      addDeltas(deltas, interview, 1);
+    }
+    deltas.values().removeIf(delta -> delta == 0);
+    if (!queue.isPresent()) {
+      for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+        add(delta.getKey(), delta.getValue());
+      }
+      return;
+    }
+    List<TaskOptions> tasks = new ArrayList<TaskOptions>();
+    for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+      tasks.add(
+          TaskOptions.Builder.withUrl(TASK_PATH)
+              .param("counter", delta.getKey())
+              .param("delta", String.valueOf(delta.getValue())));
+    }
+    for (List<TaskOptions> batch : Lists.partition(tasks, MAX_TASKS_PER_ADD)) {
+      queue.get().add(batch);
+    }
+  }
+
+  /** Adds delta to the count of interviews in counter, as a task for TASK_PATH asks. */
+  public void add(String counter, long delta) {
+    counterDao.add(counter, ImmutableMap.of(INTERVIEWS, delta));
+  }
+
+  /** Returns how many interviews the interviewer has in the week containing day. */
+  public long interviewsForInterviewerInWeek(String interviewerId, LocalDate day) {
+    return counterDao.get(interviewerCounter(interviewerId, day)).getOrDefault(INTERVIEWS, 0L);
+  }
+
+  /** Returns how many interviews for position start on day. */
+  public long interviewsForPositionOnDay(Job position, LocalDate day) {
+    return counterDao.get(positionCounter(position, day)).getOrDefault(INTERVIEWS, 0L);
+  }
+
+  private static void addDeltas(
+      Map<String, Long> deltas, ScheduledInterview interview, long delta) {
+    LocalDate day = interview.when().start().atZone(ZoneOffset.UTC).toLocalDate();
+    deltas.merge(interviewerCounter(interview.interviewerId(), day), delta, Long::sum);
+    deltas.merge(positionCounter(interview.position(), day), delta, Long::sum);
+  }
+
+  static String interviewerCounter(String interviewerId, LocalDate day) {
+    LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    return String.format("bookings/interviewer/%s/week/%s", interviewerId, monday);
+  }
+
+  static String positionCounter(Job position, LocalDate day) {
+    return String.format("bookings/position/%s/day/%s", position.name(), day);
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads counters through memcache, so dashboards and searches reading the same counter don't each
+ * get every shard. An add drops the cached totals and the next read fills them in again. A read
+ * racing an add can cache totals from just before it, so cached totals expire after CACHE_SECONDS
+ * in any case. Memcache errors are logged and treated as misses.
+ */
+public class CachedCounterDao implements CounterDao {
+  static final int CACHE_SECONDS = 60;
+  private static final String KEY_PREFIX = "counter/";
+
+  private final CounterDao counterDao;
+  private final MemcacheService memcache;
+
+  public CachedCounterDao(CounterDao counterDao) {
+    this.counterDao = counterDao;
+    this.memcache = MemcacheServiceFactory.getMemcacheService();
+  }
+
+  @Override
+  public void add(String counter, Map<String, Long> deltas) {
+    counterDao.add(counter, deltas);
+    memcache.delete(KEY_PREFIX + counter);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<String, Long> get(String counter) {
+    Object cached = memcache.get(KEY_PREFIX + counter);
+    if (cached != null) {
+      return new HashMap<String, Long>((Map<String, Long>) cached);
+    }
+    HashMap<String, Long> totals = new HashMap<String, Long>(counterDao.get(counter));
+    memcache.put(KEY_PREFIX + counter, totals, Expiration.byDeltaSeconds(CACHE_SECONDS));
+    return totals;
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.Map;
+
+/**
+ * CounterDao includes the basic methods anything storing named counters must support. A counter is
+ * a set of fields, each a running total that is only ever added to.
+ */
+public interface CounterDao {
+  // Adds each delta to the field of the counter with the same name. Fields start at zero.
+  public void add(String counter, Map<String, Long> deltas);
+
+  // Returns the total of every field that has been added to in the counter.
+  public Map<String, Long> get(String counter);
+}
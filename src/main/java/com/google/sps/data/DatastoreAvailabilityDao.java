@@ -20,8 +20,6 @@ import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.PreparedQuery;
 import com.google.appengine.api.datastore.PropertyProjection;
-import com.google.appengine.api.datastore.Transaction;
-import com.google.appengine.api.datastore.TransactionOptions;
 import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.datastore.Query;
@@ -31,19 +29,24 @@ import com.google.appengine.api.datastore.Query.Filter;
 import com.google.appengine.api.datastore.Query.FilterOperator;
 import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /** Accesses Datastore to support managing Availability entities. */
 public class DatastoreAvailabilityDao implements AvailabilityDao {
+  // Keys are small, so a week of a user's slots (at most 672) comes back in one batch.
+  private static final int KEYS_PER_BATCH = 1000;
   // @param datastore the DatastoreService we're using to interact with Datastore.
   private DatastoreService datastore;
 
@@ -68,18 +71,45 @@ public class DatastoreAvailabilityDao implements AvailabilityDao {
     return Optional.of(entityToAvailability(availabilityEntity));
   }
 
-  // Adds an Availability object into Datastore.
+  // Adds an Availability object into Datastore, along with its slot in the user's summary for
+  // the day. This is createAll for one availability, so it costs no transaction; callers adding
+  // several should call createAll.
   @Override
   public void create(Availability avail) {
-    datastore.put(availabilityToNewEntity(avail));
+    createAll(ImmutableList.of(avail));
   }
 
-  // Updates the specified id with the new availability.
+  // Adds the availabilities with one batch put, and their slots to the day summaries with one
+  // more. Each Availability is its own entity group, so the SDK sends a batch as one RPC per 10
+  // of them. Neither this nor create is transactional; if the second write fails,
+  // rebuildDaySummaries repairs the summaries.
+  @Override
+  public void createAll(List<Availability> availabilities) {
+    List<Entity> entities = new ArrayList<Entity>();
+    for (Availability avail : availabilities) {
+      entities.add(availabilityToNewEntity(avail));
+    }
+    datastore.put(entities);
+    DatastoreAvailabilityDays.addSlots(datastore, availabilities);
+  }
+
+  // Updates the specified id with the new availability. Availabilities are only ever updated to
+  // change whether they are scheduled, never their time, so the day summaries stay as they are.
   @Override
   public void update(Availability avail) {
     datastore.put(availabilityToUpdatedEntity(avail));
   }
 
+  // Updates the availabilities in groups that are each stored in one transaction.
+  @Override
+  public void updateAll(List<Availability> availabilities) {
+    List<Entity> entities = new ArrayList<Entity>();
+    for (Availability avail : availabilities) {
+      entities.add(availabilityToUpdatedEntity(avail));
+    }
+    DatastoreBatches.putInGroups(datastore, entities);
+  }
+
   static Entity availabilityToNewEntity(Availability avail) {
     Entity availabilityEntity = new Entity("Availability");
     availabilityEntity.setProperty("userId", avail.userId());
@@ -108,25 +138,32 @@ public class DatastoreAvailabilityDao implements AvailabilityDao {
         (boolean) availabilityEntity.getProperty("scheduled"));
   }
 
-  // Deletes all Availability entities for a user ranging from minTime to maxTime.
+  // Deletes all Availability entities for a user ranging from minTime to maxTime. Only their keys
+  // are queried, and they are deleted with one batch delete, which the SDK sends as one RPC per 10
+  // entity groups.
   @Override
   public void deleteInRangeForUser(String userId, Instant minTime, Instant maxTime) {
     Filter userFilter = new FilterPredicate("userId", FilterOperator.EQUAL, userId);
-    List<Entity> entities = getEntitiesInRange(minTime, maxTime, Optional.of(userFilter));
+    Query keysQuery = inRangeQuery(minTime, maxTime, Optional.of(userFilter)).setKeysOnly();
     List<Key> keyList = new ArrayList<>();
-    for (Entity entity : entities) {
+    FetchOptions fetchOptions =
+        FetchOptions.Builder.withPrefetchSize(KEYS_PER_BATCH).chunkSize(KEYS_PER_BATCH);
+    for (Entity entity : datastore.prepare(keysQuery).asIterable(fetchOptions)) {
       keyList.add(entity.getKey());
     }
-    // This iterative deletion avoids XG transactions, which max out at 25 root entities.
-    // We include the individual deletion transactions within a larger group transaction
-    // to avoid replacing Availabilities before they are deleted.
-    Transaction groupTxn = datastore.beginTransaction();
-    for (Key key : keyList) {
-      Transaction txn = datastore.beginTransaction();
-      datastore.delete(txn, key);
-      txn.commit();
+    datastore.delete(keyList);
+    DatastoreAvailabilityDays.removeSlots(datastore, userId, minTime, maxTime);
+  }
+
+  // Deletes the availabilities with one batch delete.
+  @Override
+  public void deleteAll(List<Availability> availabilities) {
+    List<Key> keyList = new ArrayList<>();
+    for (Availability avail : availabilities) {
+      keyList.add(KeyFactory.createKey("Availability", avail.id()));
     }
-    groupTxn.commit();
+    datastore.delete(keyList);
+    DatastoreAvailabilityDays.removeSlots(datastore, availabilities);
   }
 
   // Returns a sorted (by ascending start times) list of all Availabilities ranging from
@@ -156,6 +193,14 @@ public class DatastoreAvailabilityDao implements AvailabilityDao {
 
   private List<Entity> getEntitiesInRange(
       Instant minTime, Instant maxTime, Optional<Filter> filterOpt) {
+    return datastore
+        .prepare(inRangeQuery(minTime, maxTime, filterOpt))
+        .asList(FetchOptions.Builder.withDefaults());
+  }
+
+  // Returns a query for Availabilities ranging from minTime to maxTime, sorted by ascending start
+  // time and narrowed by the filter in filterOpt if present.
+  static Query inRangeQuery(Instant minTime, Instant maxTime, Optional<Filter> filterOpt) {
     Filter startTimeFilter =
         new FilterPredicate(
             "startTime", FilterOperator.GREATER_THAN_OR_EQUAL, minTime.toEpochMilli());
@@ -172,36 +217,52 @@ public class DatastoreAvailabilityDao implements AvailabilityDao {
       startAndEndFilter = CompositeFilterOperator.and(startAndEndFilter, filterOpt.get());
     }
 
-    Query availQuery =
-        new Query("Availability")
-            .setFilter(startAndEndFilter)
-            .addSort("startTime", SortDirection.ASCENDING);
-    return datastore.prepare(availQuery).asList(FetchOptions.Builder.withDefaults());
+    return new Query("Availability")
+        .setFilter(startAndEndFilter)
+        .addSort("startTime", SortDirection.ASCENDING);
   }
 
-  // Returns the ids of all users that have availabilities within the specified time range.
+  // Returns the ids of all users that have availabilities within the specified time range. This
+  // reads the per-day summaries, so it returns a row per user per day rather than per slot.
   public Set<String> getUsersAvailableInRange(Instant minTime, Instant maxTime) {
-    Filter startTimeFilter =
-        new FilterPredicate(
-            "startTime", FilterOperator.GREATER_THAN_OR_EQUAL, minTime.toEpochMilli());
-    // Queries can only perform inequality filters on one parameter, and so instead
-    // of using endTime for the endTimeFilter, startTime is used and the maxTime has 15
-    // minutes subtracted from it to be equal to the latest possible startTime.
-    Filter endTimeFilter =
-        new FilterPredicate(
-            "startTime",
-            FilterOperator.LESS_THAN_OR_EQUAL,
-            maxTime.minus(15, ChronoUnit.MINUTES).toEpochMilli());
-    CompositeFilter startAndEndFilter = CompositeFilterOperator.and(startTimeFilter, endTimeFilter);
-    Query availQuery = new Query("Availability").setFilter(startAndEndFilter);
-    availQuery.addProjection(new PropertyProjection("userId", String.class));
-    availQuery.addProjection(new PropertyProjection("startTime", Long.class));
-    availQuery.setDistinct(true);
-    List<Entity> results =
-        datastore.prepare(availQuery).asList(FetchOptions.Builder.withDefaults());
-    Set<String> userIds = new HashSet<String>();
+    return DatastoreAvailabilityDays.usersWithSlotIn(datastore, minTime, maxTime);
+  }
+
+  // Rebuilds the per-day summaries of every user's availability from first to last inclusive,
+  // for availability written before the summaries were kept or summaries that have drifted.
+  // Returns the number of summaries written.
+  public int rebuildDaySummaries(LocalDate first, LocalDate last) {
+    int written = 0;
+    for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+      written += DatastoreAvailabilityDays.rebuildDay(datastore, day);
+    }
+    return written;
+  }
+
+  // Returns the ids of all users who have an unscheduled availability for every 15 minute slot
+  // from minTime to maxTime. This is one projection query over the range, grouped by user, rather
+  // than a query per user.
+  @Override
+  public Set<String> getUsersFreeThroughout(Instant minTime, Instant maxTime) {
+    Query freeQuery =
+        inRangeQuery(
+            minTime,
+            maxTime,
+            Optional.of(new FilterPredicate("scheduled", FilterOperator.EQUAL, false)));
+    freeQuery.addProjection(new PropertyProjection("userId", String.class));
+    freeQuery.addProjection(new PropertyProjection("startTime", Long.class));
+    freeQuery.setDistinct(true);
+    List<Entity> results = datastore.prepare(freeQuery).asList(FetchOptions.Builder.withDefaults());
+    Map<String, Integer> freeSlots = new HashMap<String, Integer>();
     for (Entity result : results) {
-      userIds.add((String) result.getProperty("userId"));
+      freeSlots.merge((String) result.getProperty("userId"), 1, Integer::sum);
+    }
+    long slotsNeeded = ChronoUnit.MINUTES.between(minTime, maxTime) / 15;
+    Set<String> userIds = new HashSet<String>();
+    for (Map.Entry<String, Integer> user : freeSlots.entrySet()) {
+      if (user.getValue() == slotsNeeded) {
+        userIds.add(user.getKey());
+      }
     }
     return userIds;
   }
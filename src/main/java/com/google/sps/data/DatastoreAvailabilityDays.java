@@ -0,0 +1,239 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.PropertyProjection;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.CompositeFilterOperator;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Keeps one AvailabilityDay entity per user per UTC day that they have availability, listing the
+ * start times of that day's slots. Finding who has availability in a window then reads one entity
+ * per user per day instead of one row per 15 minute slot. DatastoreAvailabilityDao keeps these up
+ * to date as availability is created and deleted; rebuildDay recomputes a day from scratch.
+ */
+final class DatastoreAvailabilityDays {
+  static final String KIND = "AvailabilityDay";
+
+  private DatastoreAvailabilityDays() {}
+
+  // Records the slots of newly created availabilities, reading and writing each affected
+  // summary once.
+  static void addSlots(DatastoreService datastore, List<Availability> availabilities) {
+    Map<Key, List<Long>> added = new LinkedHashMap<Key, List<Long>>();
+    for (Availability avail : availabilities) {
+      added
+          .computeIfAbsent(
+              key(avail.userId(), dayOf(avail.when().start())), k -> new ArrayList<Long>())
+          .add(avail.when().start().toEpochMilli());
+    }
+    Map<Key, Consumer<Set<Long>>> changes = new LinkedHashMap<Key, Consumer<Set<Long>>>();
+    for (Map.Entry<Key, List<Long>> day : added.entrySet()) {
+      changes.put(day.getKey(), slotStarts -> slotStarts.addAll(day.getValue()));
+    }
+    changeDays(datastore, changes);
+  }
+
+  // Forgets the slots of deleted availabilities.
+  static void removeSlots(DatastoreService datastore, List<Availability> availabilities) {
+    Map<Key, List<Long>> removed = new LinkedHashMap<Key, List<Long>>();
+    for (Availability avail : availabilities) {
+      removed
+          .computeIfAbsent(
+              key(avail.userId(), dayOf(avail.when().start())), k -> new ArrayList<Long>())
+          .add(avail.when().start().toEpochMilli());
+    }
+    Map<Key, Consumer<Set<Long>>> changes = new LinkedHashMap<Key, Consumer<Set<Long>>>();
+    for (Map.Entry<Key, List<Long>> day : removed.entrySet()) {
+      changes.put(day.getKey(), slotStarts -> slotStarts.removeAll(day.getValue()));
+    }
+    changeDays(datastore, changes);
+  }
+
+  // Forgets the user's slots that start from minTime up to 15 minutes before maxTime, the same
+  // slots that deleteInRangeForUser deletes.
+  static void removeSlots(
+      DatastoreService datastore, String userId, Instant minTime, Instant maxTime) {
+    long first = minTime.toEpochMilli();
+    long last = lastSlotStart(maxTime).toEpochMilli();
+    Map<Key, Consumer<Set<Long>>> changes = new LinkedHashMap<Key, Consumer<Set<Long>>>();
+    for (LocalDate day = dayOf(minTime);
+        !day.isAfter(dayOf(lastSlotStart(maxTime)));
+        day = day.plusDays(1)) {
+      changes.put(
+          key(userId, day), slotStarts -> slotStarts.removeIf(s -> s >= first && s <= last));
+    }
+    changeDays(datastore, changes);
+  }
+
+  // Applies each change to the slot start times of its summary, with one batch get for all of
+  // them and at most one batch put and one batch delete. Summaries left without slots are
+  // deleted. These writes aren't transactional: a user's summaries are only written by that
+  // user's own availability changes, and rebuildDay repairs any that a failure leaves behind.
+  private static void changeDays(
+      DatastoreService datastore, Map<Key, Consumer<Set<Long>>> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    Map<Key, Entity> stored = datastore.get(changes.keySet());
+    List<Entity> toPut = new ArrayList<Entity>();
+    List<Key> toDelete = new ArrayList<Key>();
+    for (Map.Entry<Key, Consumer<Set<Long>>> change : changes.entrySet()) {
+      Key key = change.getKey();
+      List<Long> before =
+          stored.containsKey(key) ? slotStarts(stored.get(key)) : new ArrayList<Long>();
+      TreeSet<Long> after = new TreeSet<Long>(before);
+      change.getValue().accept(after);
+      if (after.isEmpty()) {
+        if (stored.containsKey(key)) {
+          toDelete.add(key);
+        }
+      } else if (!new ArrayList<Long>(after).equals(before)) {
+        String name = key.getName();
+        int split = name.lastIndexOf(':');
+        toPut.add(
+            toEntity(name.substring(0, split), LocalDate.parse(name.substring(split + 1)), after));
+      }
+    }
+    if (!toDelete.isEmpty()) {
+      datastore.delete(toDelete);
+    }
+    if (!toPut.isEmpty()) {
+      datastore.put(toPut);
+    }
+  }
+
+  // Returns the ids of the users with a slot starting from minTime up to 15 minutes before
+  // maxTime, reading one summary per user per day of the window.
+  static Set<String> usersWithSlotIn(DatastoreService datastore, Instant minTime, Instant maxTime) {
+    long first = minTime.toEpochMilli();
+    long last = lastSlotStart(maxTime).toEpochMilli();
+    Query dayQuery =
+        new Query(KIND)
+            .setFilter(
+                CompositeFilterOperator.and(
+                    new FilterPredicate(
+                        "day", FilterOperator.GREATER_THAN_OR_EQUAL, dayStart(dayOf(minTime))),
+                    new FilterPredicate(
+                        "day",
+                        FilterOperator.LESS_THAN_OR_EQUAL,
+                        dayStart(dayOf(lastSlotStart(maxTime))))));
+    Set<String> userIds = new HashSet<String>();
+    for (Entity entity : datastore.prepare(dayQuery).asIterable()) {
+      String userId = (String) entity.getProperty("userId");
+      if (userIds.contains(userId)) {
+        continue;
+      }
+      // Days wholly inside the window need no further checking, but the first and last days of
+      // the window may only have slots outside it.
+      for (long start : slotStarts(entity)) {
+        if (start >= first && start <= last) {
+          userIds.add(userId);
+          break;
+        }
+      }
+    }
+    return userIds;
+  }
+
+  // Recomputes every user's summary for day from their Availability entities, replacing whatever
+  // was stored. Returns the number of summaries written.
+  static int rebuildDay(DatastoreService datastore, LocalDate day) {
+    Query slotQuery =
+        DatastoreAvailabilityDao.inRangeQuery(
+            Instant.ofEpochMilli(dayStart(day)),
+            Instant.ofEpochMilli(dayStart(day.plusDays(1))),
+            Optional.empty());
+    slotQuery.addProjection(new PropertyProjection("userId", String.class));
+    slotQuery.addProjection(new PropertyProjection("startTime", Long.class));
+    slotQuery.setDistinct(true);
+    Map<String, TreeSet<Long>> slotsByUser = new HashMap<String, TreeSet<Long>>();
+    for (Entity slot : datastore.prepare(slotQuery).asIterable()) {
+      slotsByUser
+          .computeIfAbsent((String) slot.getProperty("userId"), k -> new TreeSet<Long>())
+          .add((Long) slot.getProperty("startTime"));
+    }
+
+    Query staleQuery =
+        new Query(KIND)
+            .setFilter(new FilterPredicate("day", FilterOperator.EQUAL, dayStart(day)))
+            .setKeysOnly();
+    List<Key> stale = new ArrayList<Key>();
+    for (Entity entity : datastore.prepare(staleQuery).asIterable()) {
+      stale.add(entity.getKey());
+    }
+    List<Entity> summaries = new ArrayList<Entity>();
+    for (Map.Entry<String, TreeSet<Long>> user : slotsByUser.entrySet()) {
+      Entity summary = toEntity(user.getKey(), day, user.getValue());
+      stale.remove(summary.getKey());
+      summaries.add(summary);
+    }
+    datastore.delete(stale);
+    datastore.put(summaries);
+    return summaries.size();
+  }
+
+  static Key key(String userId, LocalDate day) {
+    return KeyFactory.createKey(KIND, userId + ":" + day);
+  }
+
+  static LocalDate dayOf(Instant instant) {
+    return instant.atZone(ZoneOffset.UTC).toLocalDate();
+  }
+
+  private static long dayStart(LocalDate day) {
+    return day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  // Slots are 15 minutes long, so the last one that ends by maxTime starts 15 minutes before it.
+  private static Instant lastSlotStart(Instant maxTime) {
+    return maxTime.minus(15, ChronoUnit.MINUTES);
+  }
+
+  private static Entity toEntity(String userId, LocalDate day, Set<Long> slotStarts) {
+    Entity entity = new Entity(key(userId, day));
+    entity.setProperty("userId", userId);
+    entity.setProperty("day", dayStart(day));
+    // The start times are only ever read back with the entity, so they aren't indexed.
+    entity.setUnindexedProperty("slotStarts", new ArrayList<Long>(slotStarts));
+    return entity;
+  }
+
+  private static List<Long> slotStarts(Entity entity) {
+    List<Long> slotStarts = (List<Long>) entity.getProperty("slotStarts");
+    return slotStarts == null ? new ArrayList<Long>() : slotStarts;
+  }
+}
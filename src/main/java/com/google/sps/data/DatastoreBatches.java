@@ -0,0 +1,51 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.appengine.api.datastore.TransactionOptions;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Writes many root entities with as few Datastore calls as transactions allow. */
+final class DatastoreBatches {
+  // A cross-group transaction can touch at most this many entity groups.
+  static final int MAX_XG_ENTITY_GROUPS = 25;
+
+  private DatastoreBatches() {}
+
+  // Puts entities, each the root of its own entity group, in cross-group transactions of up to
+  // MAX_XG_ENTITY_GROUPS entities. Each group of entities is written all or nothing. Returns the
+  // keys of the entities in the order they were given, including ids allocated for new entities.
+  static List<Key> putInGroups(DatastoreService datastore, List<Entity> entities) {
+    List<Key> keys = new ArrayList<Key>();
+    for (List<Entity> group : Lists.partition(entities, MAX_XG_ENTITY_GROUPS)) {
+      Transaction txn = datastore.beginTransaction(TransactionOptions.Builder.withXG(true));
+      try {
+        keys.addAll(datastore.put(txn, group));
+        txn.commit();
+      } finally {
+        if (txn.isActive()) {
+          txn.rollback();
+        }
+      }
+    }
+    return keys;
+  }
+}
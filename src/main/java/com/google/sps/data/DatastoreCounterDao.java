@@ -0,0 +1,104 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Transaction;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Accesses Datastore to keep counters split across SHARDS entities. An entity group only takes a
+ * write or so a second, so each add goes to a random shard, and reads get every shard of a counter
+ * by key in one batch and sum them. Reading a counter costs the same however much it has counted.
+ */
+public class DatastoreCounterDao implements CounterDao {
+  static final String KIND = "CounterShard";
+  static final int SHARDS = 20;
+  // Each retry picks another shard, so contention on one shard rarely fails the add.
+  static final int MAX_ATTEMPTS = 3;
+
+  // @param datastore The DatastoreService we're using to interact with Datastore.
+  private DatastoreService datastore;
+
+  /** Initializes the fields for DatastoreCounterDao. */
+  public DatastoreCounterDao() {
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public void add(String counter, Map<String, Long> deltas) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        addToShard(shardKey(counter, ThreadLocalRandom.current().nextInt(SHARDS)), deltas);
+        return;
+      } catch (ConcurrentModificationException e) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void addToShard(Key key, Map<String, Long> deltas) {
+    Transaction txn = datastore.beginTransaction();
+    try {
+      Entity shard;
+      try {
+        shard = datastore.get(txn, key);
+      } catch (EntityNotFoundException e) {
+        shard = new Entity(key);
+      }
+      for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+        Long total = (Long) shard.getProperty(delta.getKey());
+        shard.setUnindexedProperty(delta.getKey(), (total == null ? 0 : total) + delta.getValue());
+      }
+      datastore.put(txn, shard);
+      txn.commit();
+    } finally {
+      if (txn.isActive()) {
+        txn.rollback();
+      }
+    }
+  }
+
+  @Override
+  public Map<String, Long> get(String counter) {
+    List<Key> keys = new ArrayList<Key>();
+    for (int shard = 0; shard < SHARDS; shard++) {
+      keys.add(shardKey(counter, shard));
+    }
+    Map<String, Long> totals = new HashMap<String, Long>();
+    for (Entity shard : datastore.get(keys).values()) {
+      for (Map.Entry<String, Object> field : shard.getProperties().entrySet()) {
+        totals.merge(field.getKey(), (Long) field.getValue(), Long::sum);
+      }
+    }
+    return totals;
+  }
+
+  static Key shardKey(String counter, int shard) {
+    return KeyFactory.createKey(KIND, String.format("%s#%d", counter, shard));
+  }
+}
@@ -0,0 +1,172 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Accesses Datastore to support managing Feedback entities. Pending feedback carries an indexed
+ * dueAt property, and delivered or failed feedback does not, so finding the feedback that is due is
+ * a single inequality filter that never sees finished feedback and needs no composite index.
+ */
+public class DatastoreFeedbackDao implements FeedbackDao {
+  static final String KIND = "Feedback";
+  private static final Type ANSWERS_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+  // @param datastore The DatastoreService we're using to interact with Datastore.
+  private DatastoreService datastore;
+
+  /** Initializes the fields for DatastoreFeedbackDao. */
+  public DatastoreFeedbackDao() {
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public Feedback create(Feedback feedback) {
+    Entity entity = new Entity(KIND);
+    setProperties(entity, feedback);
+    datastore.put(entity);
+    return feedback.withId(entity.getKey().getId());
+  }
+
+  @Override
+  public Optional<Feedback> get(long id) {
+    try {
+      return Optional.of(entityToFeedback(datastore.get(KeyFactory.createKey(KIND, id))));
+    } catch (EntityNotFoundException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public List<Feedback> getDue(Instant now, int limit) {
+    Query query =
+        new Query(KIND)
+            .setFilter(
+                new FilterPredicate("dueAt", FilterOperator.LESS_THAN_OR_EQUAL, now.toEpochMilli()))
+            .addSort("dueAt", SortDirection.ASCENDING);
+    List<Feedback> due = new ArrayList<Feedback>();
+    FetchOptions options = FetchOptions.Builder.withLimit(limit);
+    for (Entity entity : datastore.prepare(query).asIterable(options)) {
+      due.add(entityToFeedback(entity));
+    }
+    return due;
+  }
+
+  /**
+   * Moves the feedback's next attempt to until in a transaction, if it is still pending with the
+   * same attempts and next attempt as when it was read. If another worker leases or updates it
+   * first, either the check or the transaction fails and the attempt is theirs.
+   */
+  @Override
+  public boolean lease(Feedback feedback, Instant until) {
+    Key key = KeyFactory.createKey(KIND, feedback.id());
+    Transaction txn = datastore.beginTransaction();
+    try {
+      Feedback stored = entityToFeedback(datastore.get(txn, key));
+      if (stored.status() != Feedback.Status.PENDING
+          || stored.attempts() != feedback.attempts()
+          || !stored.nextAttemptAt().equals(feedback.nextAttemptAt())) {
+        return false;
+      }
+      Entity entity = new Entity(key);
+      setProperties(entity, stored.toBuilder().setNextAttemptAt(until).build());
+      datastore.put(txn, entity);
+      txn.commit();
+      return true;
+    } catch (EntityNotFoundException | ConcurrentModificationException e) {
+      return false;
+    } finally {
+      if (txn.isActive()) {
+        txn.rollback();
+      }
+    }
+  }
+
+  @Override
+  public void update(Feedback feedback) {
+    Entity entity = new Entity(KeyFactory.createKey(KIND, feedback.id()));
+    setProperties(entity, feedback);
+    datastore.put(entity);
+  }
+
+  private static void setProperties(Entity entity, Feedback feedback) {
+    entity.setProperty("kind", feedback.kind().name());
+    entity.setProperty("scheduledInterviewId", feedback.scheduledInterviewId());
+    entity.setProperty("authorId", feedback.authorId());
+    entity.setProperty("recipientId", feedback.recipientId());
+    entity.setUnindexedProperty("recipientEmail", feedback.recipientEmail());
+    entity.setUnindexedProperty("answers", new Text(new Gson().toJson(feedback.answers())));
+    entity.setProperty("submittedAt", feedback.submittedAt().toEpochMilli());
+    entity.setProperty("status", feedback.status().name());
+    entity.setUnindexedProperty("attempts", (long) feedback.attempts());
+    entity.setUnindexedProperty("nextAttemptAt", feedback.nextAttemptAt().toEpochMilli());
+    if (feedback.status() == Feedback.Status.PENDING) {
+      entity.setProperty("dueAt", feedback.nextAttemptAt().toEpochMilli());
+    }
+    if (feedback.deliveredAt().isPresent()) {
+      entity.setUnindexedProperty("deliveredAt", feedback.deliveredAt().get().toEpochMilli());
+    }
+    entity.setUnindexedProperty("lastError", new Text(feedback.lastError()));
+  }
+
+  static Feedback entityToFeedback(Entity entity) {
+    Map<String, String> answers =
+        new Gson().fromJson(((Text) entity.getProperty("answers")).getValue(), ANSWERS_TYPE);
+    Feedback feedback =
+        Feedback.create(
+            FeedbackKind.valueOf((String) entity.getProperty("kind")),
+            (long) entity.getProperty("scheduledInterviewId"),
+            (String) entity.getProperty("authorId"),
+            (String) entity.getProperty("recipientId"),
+            (String) entity.getProperty("recipientEmail"),
+            answers,
+            Instant.ofEpochMilli((long) entity.getProperty("submittedAt")));
+    Optional<Instant> deliveredAt =
+        entity.hasProperty("deliveredAt")
+            ? Optional.of(Instant.ofEpochMilli((long) entity.getProperty("deliveredAt")))
+            : Optional.empty();
+    return feedback
+        .toBuilder()
+        .setId(entity.getKey().getId())
+        .setStatus(Feedback.Status.valueOf((String) entity.getProperty("status")))
+        .setAttempts((int) (long) entity.getProperty("attempts"))
+        .setNextAttemptAt(Instant.ofEpochMilli((long) entity.getProperty("nextAttemptAt")))
+        .setDeliveredAt(deliveredAt)
+        .setLastError(((Text) entity.getProperty("lastError")).getValue())
+        .build();
+  }
+}
@@ -29,12 +29,22 @@ import com.google.appengine.api.datastore.Query.FilterOperator;
 import com.google.appengine.api.datastore.Query.FilterPredicate;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /** Accesses Datastore to support managing Person entities. */
 public class DatastorePersonDao implements PersonDao {
+  // The jobs a person is qualified for are stored as one indexed list of job names. Entities saved
+  // before that have one boolean property per job instead; they are still read, and are rewritten
+  // in the new form the next time the person is saved.
+  static final String QUALIFIED_JOBS = "qualifiedJobs";
+
   // @param datastore the DatastoreService we're using to interact with Datastore.
   private DatastoreService datastore;
 
@@ -71,16 +81,65 @@ public class DatastorePersonDao implements PersonDao {
     return Optional.of(entityToPerson(personEntity));
   }
 
-  // Returns the job qualification booleans in personEntity as an EnumSet.
-  private static EnumSet<Job> entityBooleansToEnumSet(Entity personEntity) {
-    List<Job> qualifiedJobs = new ArrayList<>();
-    for (Job job : Job.values()) {
-      if ((boolean) personEntity.getProperty(job.toString())) qualifiedJobs.add(job);
+  /**
+   * Retrieves every person with one of the given ids in a single batch get, keyed by id. People who
+   * aren't in Datastore are left out.
+   */
+  @Override
+  public Map<String, Person> getAll(Collection<String> ids) {
+    List<Key> keys = new ArrayList<Key>();
+    for (String id : ids) {
+      keys.add(KeyFactory.createKey("Person", id));
     }
-    if (qualifiedJobs.isEmpty()) {
-      return EnumSet.noneOf(Job.class);
+    Map<String, Person> people = new HashMap<String, Person>();
+    for (Entity personEntity : datastore.get(keys).values()) {
+      Person person = entityToPerson(personEntity);
+      people.put(person.id(), person);
     }
-    return EnumSet.copyOf(qualifiedJobs);
+    return people;
+  }
+
+  /**
+   * Finds everyone qualified for job with keys-only queries on the qualifiedJobs index, so checking
+   * qualifications reads the index rather than each Person entity. People not saved since
+   * qualifiedJobs was added are found by their boolean property for the job.
+   */
+  @Override
+  public Set<String> getQualifiedIds(Job job) {
+    Set<String> ids = keysOf(new FilterPredicate(QUALIFIED_JOBS, FilterOperator.EQUAL, job.name()));
+    ids.addAll(keysOf(new FilterPredicate(job.name(), FilterOperator.EQUAL, true)));
+    return ids;
+  }
+
+  private Set<String> keysOf(Filter filter) {
+    Query query = new Query("Person").setFilter(filter).setKeysOnly();
+    Set<String> ids = new HashSet<String>();
+    for (Entity personEntity : datastore.prepare(query).asIterable()) {
+      ids.add(personEntity.getKey().getName());
+    }
+    return ids;
+  }
+
+  // Returns the jobs personEntity is qualified for, in either of the forms they are stored in.
+  @SuppressWarnings("unchecked")
+  private static EnumSet<Job> qualifiedJobsOf(Entity personEntity) {
+    EnumSet<Job> qualifiedJobs = EnumSet.noneOf(Job.class);
+    if (personEntity.hasProperty(QUALIFIED_JOBS)) {
+      // Datastore stores an empty list as null.
+      List<String> names = (List<String>) personEntity.getProperty(QUALIFIED_JOBS);
+      if (names != null) {
+        for (String name : names) {
+          qualifiedJobs.add(Job.valueOf(name));
+        }
+      }
+      return qualifiedJobs;
+    }
+    for (Job job : Job.values()) {
+      if (Boolean.TRUE.equals(personEntity.getProperty(job.name()))) {
+        qualifiedJobs.add(job);
+      }
+    }
+    return qualifiedJobs;
   }
 
   public static Person entityToPerson(Entity personEntity) {
@@ -92,7 +151,7 @@ public class DatastorePersonDao implements PersonDao {
         (String) personEntity.getProperty("company"),
         (String) personEntity.getProperty("job"),
         (String) personEntity.getProperty("linkedIn"),
-        entityBooleansToEnumSet(personEntity),
+        qualifiedJobsOf(personEntity),
         (boolean) personEntity.getProperty("okShadow"));
   }
 
@@ -106,12 +165,11 @@ public class DatastorePersonDao implements PersonDao {
     personEntity.setProperty("job", person.job());
     personEntity.setProperty("linkedIn", person.linkedIn());
     personEntity.setProperty("okShadow", person.okShadow());
+    List<String> qualifiedJobs = new ArrayList<String>();
     for (Job job : person.qualifiedJobs()) {
-      personEntity.setProperty(job.toString(), true);
-    }
-    for (Job job : EnumSet.complementOf(person.qualifiedJobs())) {
-      personEntity.setProperty(job.toString(), false);
+      qualifiedJobs.add(job.name());
     }
+    personEntity.setProperty(QUALIFIED_JOBS, qualifiedJobs);
     return personEntity;
   }
 }
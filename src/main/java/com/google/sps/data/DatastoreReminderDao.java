@@ -0,0 +1,88 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Transaction;
+import java.time.Instant;
+import java.util.ConcurrentModificationException;
+import java.util.Optional;
+
+/** Accesses Datastore to record the progress of the reminder scheduler. */
+public class DatastoreReminderDao implements ReminderDao {
+  private static final Key CURSOR_KEY = KeyFactory.createKey("ReminderCursor", "reminders");
+
+  // @param datastore the DatastoreService we're using to interact with Datastore.
+  private DatastoreService datastore;
+
+  /** Initializes the fields for DatastoreReminderDao. */
+  public DatastoreReminderDao() {
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public Optional<Long> getLastProcessedBucket() {
+    try {
+      return Optional.of((long) datastore.get(CURSOR_KEY).getProperty("lastProcessedBucket"));
+    } catch (EntityNotFoundException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void setLastProcessedBucket(long bucket) {
+    Entity cursor = new Entity(CURSOR_KEY);
+    cursor.setProperty("lastProcessedBucket", bucket);
+    datastore.put(cursor);
+  }
+
+  /**
+   * Creates a SentReminder entity for the interview and kind in a transaction, unless one exists.
+   * If another request creates it first, the transaction fails and the claim is theirs.
+   */
+  @Override
+  public boolean claim(long scheduledInterviewId, ReminderKind kind) {
+    Key key = markerKey(scheduledInterviewId, kind);
+    Transaction txn = datastore.beginTransaction();
+    try {
+      datastore.get(txn, key);
+      return false;
+    } catch (EntityNotFoundException e) {
+      Entity marker = new Entity(key);
+      marker.setProperty("scheduledInterviewId", scheduledInterviewId);
+      marker.setProperty("kind", kind.name());
+      marker.setProperty("claimedAt", Instant.now().toEpochMilli());
+      datastore.put(txn, marker);
+      txn.commit();
+      return true;
+    } catch (ConcurrentModificationException e) {
+      return false;
+    } finally {
+      if (txn.isActive()) {
+        txn.rollback();
+      }
+    }
+  }
+
+  static Key markerKey(long scheduledInterviewId, ReminderKind kind) {
+    return KeyFactory.createKey(
+        "SentReminder", String.format("%d:%s", scheduledInterviewId, kind.name()));
+  }
+}
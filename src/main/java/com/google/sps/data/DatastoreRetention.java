@@ -0,0 +1,266 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.common.collect.ImmutableList;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Removes data from before a retention horizon so that the indexes range queries use stop growing
+ * with the app's history. Availability and AvailabilityDay summaries from before the horizon are
+ * deleted, and ScheduledInterviews from before it are moved to the ArchivedScheduledInterview kind,
+ * keeping their ids.
+ *
+ * <p>The cutoff is fixed when a pass starts, at UTC midnight horizonDays ago, and a pass works
+ * through each kind in cursor-driven batches. Each run processes at most maxBatchesPerRun batches
+ * at no more than entitiesPerSecond, then saves where it stopped, so a large backlog is spread over
+ * several runs and a run that dies partway resumes from its last saved batch.
+ */
+public class DatastoreRetention {
+  static final String ARCHIVE_KIND = "ArchivedScheduledInterview";
+  static final int BATCH_SIZE = 500;
+  static final int MAX_BATCHES_PER_RUN = 40;
+  // Keeps the deletes from competing with user traffic for Datastore write throughput.
+  static final int ENTITIES_PER_SECOND = 500;
+  private static final Key STATE_KEY = KeyFactory.createKey("RetentionCursor", "retention");
+  // The kinds a pass works through, in order.
+  private static final ImmutableList<String> STEPS =
+      ImmutableList.of("Availability", DatastoreAvailabilityDays.KIND, "ScheduledInterview");
+  private static final Logger logger = Logger.getLogger(DatastoreRetention.class.getName());
+
+  private final DatastoreService datastore;
+  private final Clock clock;
+  private final int horizonDays;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final int entitiesPerSecond;
+
+  public DatastoreRetention(Clock clock, int horizonDays) {
+    this(
+        DatastoreServiceFactory.getDatastoreService(),
+        clock,
+        horizonDays,
+        BATCH_SIZE,
+        MAX_BATCHES_PER_RUN,
+        ENTITIES_PER_SECOND);
+  }
+
+  DatastoreRetention(
+      DatastoreService datastore,
+      Clock clock,
+      int horizonDays,
+      int batchSize,
+      int maxBatchesPerRun,
+      int entitiesPerSecond) {
+    this.datastore = datastore;
+    this.clock = clock;
+    this.horizonDays = horizonDays;
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.entitiesPerSecond = entitiesPerSecond;
+  }
+
+  /** What one run of the retention job did. */
+  public static class Run {
+    private String cutoff;
+    private long batches;
+    private long availabilitiesDeleted;
+    private long summariesDeleted;
+    private long interviewsArchived;
+    private boolean passFinished;
+    private long elapsedMillis;
+
+    // Everything before this instant is removed by the current pass.
+    public String cutoff() {
+      return cutoff;
+    }
+
+    public long batches() {
+      return batches;
+    }
+
+    public long availabilitiesDeleted() {
+      return availabilitiesDeleted;
+    }
+
+    public long summariesDeleted() {
+      return summariesDeleted;
+    }
+
+    public long interviewsArchived() {
+      return interviewsArchived;
+    }
+
+    // Whether the pass reached the end of every kind; if not, the next run carries on.
+    public boolean passFinished() {
+      return passFinished;
+    }
+
+    public long elapsedMillis() {
+      return elapsedMillis;
+    }
+
+    public double entitiesPerSecond() {
+      long entities = availabilitiesDeleted + summariesDeleted + interviewsArchived;
+      return elapsedMillis == 0 ? entities : entities * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "cutoff %s, %d batches, %d availabilities and %d day summaries deleted, "
+              + "%d interviews archived in %d ms (%.1f entities/s)%s",
+          cutoff,
+          batches,
+          availabilitiesDeleted,
+          summariesDeleted,
+          interviewsArchived,
+          elapsedMillis,
+          entitiesPerSecond(),
+          passFinished ? ", pass finished" : "");
+    }
+  }
+
+  /** Carries on with the current pass, or starts a new one, for up to maxBatchesPerRun batches. */
+  public Run run() throws InterruptedException {
+    long startNanos = System.nanoTime();
+    Entity state = loadState();
+    Instant cutoff = Instant.ofEpochMilli((long) state.getProperty("cutoff"));
+    int step = ((Long) state.getProperty("step")).intValue();
+    String cursor = (String) state.getProperty("cursor");
+
+    Run run = new Run();
+    run.cutoff = cutoff.toString();
+    long processed = 0;
+    while (step < STEPS.size() && run.batches < maxBatchesPerRun) {
+      FetchOptions page = FetchOptions.Builder.withLimit(batchSize);
+      if (cursor != null) {
+        page.startCursor(Cursor.fromWebSafeString(cursor));
+      }
+      QueryResultList<Entity> entities =
+          datastore.prepare(query(STEPS.get(step), cutoff)).asQueryResultList(page);
+      processed += remove(STEPS.get(step), entities, run);
+      run.batches++;
+      if (entities.size() < batchSize) {
+        step++;
+        cursor = null;
+      } else {
+        cursor = entities.getCursor().toWebSafeString();
+      }
+      state.setProperty("step", step);
+      state.setUnindexedProperty("cursor", cursor);
+      datastore.put(state);
+      throttle(startNanos, processed);
+    }
+    if (step == STEPS.size()) {
+      datastore.delete(STATE_KEY);
+      run.passFinished = true;
+    }
+    run.elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    logger.info("Retention run: " + run);
+    return run;
+  }
+
+  // Returns the saved state of the pass in progress, or the state of a new pass.
+  private Entity loadState() {
+    try {
+      return datastore.get(STATE_KEY);
+    } catch (EntityNotFoundException e) {
+      Entity state = new Entity(STATE_KEY);
+      LocalDate cutoffDay = LocalDate.now(clock.withZone(ZoneOffset.UTC)).minusDays(horizonDays);
+      state.setProperty(
+          "cutoff", cutoffDay.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+      state.setProperty("step", 0L);
+      state.setUnindexedProperty("cursor", null);
+      return state;
+    }
+  }
+
+  // The cutoff is a UTC midnight, so an AvailabilityDay is before it exactly when all of its
+  // availability is.
+  private static Query query(String kind, Instant cutoff) {
+    String property = kind.equals(DatastoreAvailabilityDays.KIND) ? "day" : "startTime";
+    Query query =
+        new Query(kind)
+            .setFilter(
+                new FilterPredicate(property, FilterOperator.LESS_THAN, cutoff.toEpochMilli()));
+    return kind.equals("ScheduledInterview") ? query : query.setKeysOnly();
+  }
+
+  // Deletes one batch of the kind, archiving it first if it is ScheduledInterview. Writing the
+  // archive before deleting means a batch that fails halfway is archived again, not lost.
+  private int remove(String kind, List<Entity> entities, Run run) {
+    List<Key> keys = new ArrayList<Key>();
+    for (Entity entity : entities) {
+      keys.add(entity.getKey());
+    }
+    if (kind.equals("ScheduledInterview")) {
+      List<Entity> archived = new ArrayList<Entity>();
+      for (Entity entity : entities) {
+        archived.add(toArchive(entity));
+      }
+      datastore.put(archived);
+      run.interviewsArchived += entities.size();
+    } else if (kind.equals("Availability")) {
+      run.availabilitiesDeleted += entities.size();
+    } else {
+      run.summariesDeleted += entities.size();
+    }
+    datastore.delete(keys);
+    return entities.size();
+  }
+
+  // Archived interviews are only read back in bulk, so only startTime is indexed.
+  static Entity toArchive(Entity interview) {
+    Entity archived = new Entity(ARCHIVE_KIND, interview.getKey().getId());
+    for (Map.Entry<String, Object> property : interview.getProperties().entrySet()) {
+      if (property.getKey().equals("startTime")) {
+        archived.setProperty(property.getKey(), property.getValue());
+      } else {
+        archived.setUnindexedProperty(property.getKey(), property.getValue());
+      }
+    }
+    return archived;
+  }
+
+  // Sleeps until processing this many entities since startNanos is within entitiesPerSecond.
+  private void throttle(long startNanos, long processed) throws InterruptedException {
+    long earliestNanos = processed * 1_000_000_000L / entitiesPerSecond;
+    long sleepMillis = (earliestNanos - (System.nanoTime() - startNanos)) / 1_000_000;
+    if (sleepMillis > 0) {
+      Thread.sleep(sleepMillis);
+    }
+  }
+}
@@ -28,20 +28,46 @@ import com.google.appengine.api.datastore.Query.Filter;
 import com.google.appengine.api.datastore.Query.FilterOperator;
 import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.appengine.api.datastore.TransactionOptions;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.common.collect.ImmutableList;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-/** Accesses Datastore to support managing ScheduledInterview entities. */
+/**
+ * Accesses Datastore to support managing ScheduledInterview entities. Every write is also counted
+ * in BookingStats; updates and deletes read the interviews they replace first so that the counts
+ * they were in can be decremented.
+ */
 public class DatastoreScheduledInterviewDao implements ScheduledInterviewDao {
+  private static final Logger logger =
+      Logger.getLogger(DatastoreScheduledInterviewDao.class.getName());
+
   // @param datastore The DatastoreService we're using to interact with Datastore.
   private DatastoreService datastore;
+  private BookingStats bookingStats;
 
-  /** Initializes the fields for ScheduledInterviewDatastoreDAO. */
+  /**
+   * Initializes the fields for ScheduledInterviewDatastoreDAO. Booking counts are changed by tasks
+   * on the default queue, so a write only waits for the tasks to be added.
+   */
   public DatastoreScheduledInterviewDao() {
+    this(
+        new BookingStats(
+            new CachedCounterDao(new DatastoreCounterDao()), QueueFactory.getDefaultQueue()));
+  }
+
+  DatastoreScheduledInterviewDao(BookingStats bookingStats) {
     datastore = DatastoreServiceFactory.getDatastoreService();
+    this.bookingStats = bookingStats;
   }
 
   /**
@@ -118,7 +144,7 @@ public class DatastoreScheduledInterviewDao implements ScheduledInterviewDao {
   }
 
   // Returns a filter checking if userId is any role in a ScheduledInterview.
-  private CompositeFilter getUserFilter(String userId) {
+  static CompositeFilter getUserFilter(String userId) {
     Filter interviewerFilter = new FilterPredicate("interviewer", FilterOperator.EQUAL, userId);
     Filter intervieweeFilter = new FilterPredicate("interviewee", FilterOperator.EQUAL, userId);
     Filter shadowFilter = new FilterPredicate("shadow", FilterOperator.EQUAL, userId);
@@ -143,19 +169,140 @@ public class DatastoreScheduledInterviewDao implements ScheduledInterviewDao {
   @Override
   public void create(ScheduledInterview scheduledInterview) {
     datastore.put(scheduledInterviewToEntity(scheduledInterview));
+    countBookings(ImmutableList.of(), ImmutableList.of(scheduledInterview));
+  }
+
+  /** Creates ScheduledInterview Entities in groups that are each stored in one transaction. */
+  @Override
+  public List<ScheduledInterview> createAll(List<ScheduledInterview> scheduledInterviews) {
+    List<Entity> entities = new ArrayList<Entity>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      entities.add(scheduledInterviewToEntity(scheduledInterview));
+    }
+    List<Key> keys = DatastoreBatches.putInGroups(datastore, entities);
+    List<ScheduledInterview> created = new ArrayList<ScheduledInterview>();
+    for (int i = 0; i < scheduledInterviews.size(); i++) {
+      created.add(scheduledInterviews.get(i).withId(keys.get(i).getId()));
+    }
+    countBookings(ImmutableList.of(), created);
+    return created;
+  }
+
+  /**
+   * Creates a ScheduledInterview Entity and marks the availabilities scheduled in one cross-group
+   * transaction, after reading the availabilities again within it. A booking of any of them that
+   * commits first makes this one fail rather than both succeeding. Only Datastore availability is
+   * checked, so availabilityDao isn't used.
+   */
+  @Override
+  public Optional<ScheduledInterview> createIfFree(
+      ScheduledInterview scheduledInterview,
+      List<Availability> availabilities,
+      AvailabilityDao availabilityDao) {
+    // The new interview is an entity group of its own as well.
+    if (availabilities.size() + 1 > DatastoreBatches.MAX_XG_ENTITY_GROUPS) {
+      throw new IllegalArgumentException(
+          "Can't book " + availabilities.size() + " availabilities in one transaction");
+    }
+    List<Key> availabilityKeys = new ArrayList<Key>();
+    for (Availability avail : availabilities) {
+      availabilityKeys.add(KeyFactory.createKey("Availability", avail.id()));
+    }
+    Entity entity = scheduledInterviewToEntity(scheduledInterview);
+    Transaction txn = datastore.beginTransaction(TransactionOptions.Builder.withXG(true));
+    try {
+      Map<Key, Entity> current = datastore.get(txn, availabilityKeys);
+      if (current.size() < availabilityKeys.size()) {
+        return Optional.empty();
+      }
+      List<Entity> writes = new ArrayList<Entity>();
+      for (Entity availabilityEntity : current.values()) {
+        if ((boolean) availabilityEntity.getProperty("scheduled")) {
+          return Optional.empty();
+        }
+        availabilityEntity.setProperty("scheduled", true);
+        writes.add(availabilityEntity);
+      }
+      writes.add(entity);
+      datastore.put(txn, writes);
+      txn.commit();
+    } catch (ConcurrentModificationException e) {
+      // Another transaction wrote one of the availabilities after this one read it.
+      return Optional.empty();
+    } finally {
+      if (txn.isActive()) {
+        txn.rollback();
+      }
+    }
+    ScheduledInterview created = scheduledInterview.withId(entity.getKey().getId());
+    countBookings(ImmutableList.of(), ImmutableList.of(created));
+    return Optional.of(created);
   }
 
   /** Updates an entity in datastore. */
   @Override
   public void update(ScheduledInterview scheduledInterview) {
+    Optional<ScheduledInterview> before = get(scheduledInterview.id());
     datastore.put(scheduledInterviewToEntityForUpdate(scheduledInterview));
+    countBookings(
+        before.isPresent() ? ImmutableList.of(before.get()) : ImmutableList.of(),
+        ImmutableList.of(scheduledInterview));
+  }
+
+  /** Updates entities in groups that are each stored in one transaction. */
+  @Override
+  public void updateAll(List<ScheduledInterview> scheduledInterviews) {
+    List<Entity> entities = new ArrayList<Entity>();
+    List<Key> keys = new ArrayList<Key>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      Entity entity = scheduledInterviewToEntityForUpdate(scheduledInterview);
+      entities.add(entity);
+      keys.add(entity.getKey());
+    }
+    Map<Key, Entity> before = datastore.get(keys);
+    DatastoreBatches.putInGroups(datastore, entities);
+    countBookings(entitiesToScheduledInterviews(before.values()), scheduledInterviews);
   }
 
   /** Deletes an entity in datastore. */
   @Override
   public void delete(long id) {
+    Optional<ScheduledInterview> before = get(id);
     Key key = KeyFactory.createKey("ScheduledInterview", id);
     datastore.delete(key);
+    if (before.isPresent()) {
+      countBookings(ImmutableList.of(before.get()), ImmutableList.of());
+    }
+  }
+
+  /** Deletes the entities with the given ids in one batch. */
+  @Override
+  public void deleteAll(List<Long> ids) {
+    List<Key> keys = new ArrayList<Key>();
+    for (long id : ids) {
+      keys.add(KeyFactory.createKey("ScheduledInterview", id));
+    }
+    Map<Key, Entity> before = datastore.get(keys);
+    datastore.delete(keys);
+    countBookings(entitiesToScheduledInterviews(before.values()), ImmutableList.of());
+  }
+
+  private List<ScheduledInterview> entitiesToScheduledInterviews(Iterable<Entity> entities) {
+    List<ScheduledInterview> scheduledInterviews = new ArrayList<ScheduledInterview>();
+    for (Entity entity : entities) {
+      scheduledInterviews.add(entityToScheduledInterview(entity));
+    }
+    return scheduledInterviews;
+  }
+
+  // The interviews are already written, so a failure to count them is logged rather than failing
+  // the write.
+  private void countBookings(List<ScheduledInterview> removed, List<ScheduledInterview> added) {
+    try {
+      bookingStats.record(removed, added);
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Failed to count bookings", e);
+    }
   }
 
   /** Creates a ScheduledInterview object from a datastore entity. */
@@ -207,18 +354,24 @@ public class DatastoreScheduledInterviewDao implements ScheduledInterviewDao {
    */
   private List<Entity> getEntitiesInRange(
       Instant minTime, Instant maxTime, Optional<Filter> filterOpt) {
+    return datastore
+        .prepare(inRangeQuery(minTime, maxTime, filterOpt))
+        .asList(FetchOptions.Builder.withDefaults());
+  }
+
+  // Returns a query for ScheduledInterviews ranging from minTime to maxTime in the order in which
+  // they occur, narrowed by the filter in filterOpt if present.
+  static Query inRangeQuery(Instant minTime, Instant maxTime, Optional<Filter> filterOpt) {
     CompositeFilter startAndEndFilter = getTimeFilter(minTime, maxTime);
     if (filterOpt.isPresent()) {
       startAndEndFilter = CompositeFilterOperator.and(startAndEndFilter, filterOpt.get());
     }
-    Query scheduledInterviewQuery =
-        new Query("ScheduledInterview")
-            .setFilter(startAndEndFilter)
-            .addSort("startTime", SortDirection.ASCENDING);
-    return datastore.prepare(scheduledInterviewQuery).asList(FetchOptions.Builder.withDefaults());
+    return new Query("ScheduledInterview")
+        .setFilter(startAndEndFilter)
+        .addSort("startTime", SortDirection.ASCENDING);
   }
 
-  private CompositeFilter getTimeFilter(Instant minTime, Instant maxTime) {
+  private static CompositeFilter getTimeFilter(Instant minTime, Instant maxTime) {
     Filter startTimeFilter =
         new FilterPredicate(
             "startTime", FilterOperator.GREATER_THAN_OR_EQUAL, minTime.toEpochMilli());
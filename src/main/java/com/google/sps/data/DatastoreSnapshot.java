@@ -0,0 +1,369 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.KeyRange;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.appengine.api.datastore.Text;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Exports the app's entities as newline-delimited JSON, one entity per line, and imports them
+ * again. Export pages through each kind with cursors and import writes batched puts with a bounded
+ * number in flight, so neither holds more than a few pages of entities in memory however large the
+ * snapshot is.
+ *
+ * <p>App Engine limits a request or response to 32 MB and a request to 60 seconds, so a snapshot is
+ * moved in chunks. One export writes at most maxPagesPerExport pages and returns where the next
+ * should carry on, and one import takes at most maxImportEntities entities. The entities here are
+ * at most a few KB each, so a chunk of the default size stays well inside both limits.
+ *
+ * <p>A line looks like {"kind":"Person","name":"123","properties":{...},"unindexed":[...]}, with
+ * "id" in place of "name" for entities with numeric ids. Property values are the strings, longs,
+ * booleans and lists of them that the DAOs store, and long text as {"text":"..."}.
+ */
+public class DatastoreSnapshot {
+  // Everything needed to seed another environment. Reminder bookkeeping is left out, since it
+  // only makes sense alongside the emails that were actually sent.
+  static final ImmutableList<String> KINDS =
+      ImmutableList.of(
+          "Person",
+          "Availability",
+          DatastoreAvailabilityDays.KIND,
+          "ScheduledInterview",
+          DatastoreFeedbackDao.KIND,
+          DatastoreRetention.ARCHIVE_KIND,
+          DatastoreCounterDao.KIND);
+  static final int PAGE_SIZE = 500;
+  // Datastore accepts at most 500 entities in one put.
+  static final int IMPORT_BATCH_SIZE = 500;
+  static final int MAX_BATCHES_IN_FLIGHT = 8;
+  // 5,000 entities per chunk either way.
+  static final int MAX_PAGES_PER_EXPORT = 10;
+  static final int MAX_IMPORT_ENTITIES = 5000;
+
+  private final DatastoreService datastore;
+  private final int pageSize;
+  private final int importBatchSize;
+  private final int maxPagesPerExport;
+  private final int maxImportEntities;
+
+  public DatastoreSnapshot() {
+    this(
+        DatastoreServiceFactory.getDatastoreService(),
+        PAGE_SIZE,
+        IMPORT_BATCH_SIZE,
+        MAX_PAGES_PER_EXPORT,
+        MAX_IMPORT_ENTITIES);
+  }
+
+  DatastoreSnapshot(
+      DatastoreService datastore,
+      int pageSize,
+      int importBatchSize,
+      int maxPagesPerExport,
+      int maxImportEntities) {
+    this.datastore = datastore;
+    this.pageSize = pageSize;
+    this.importBatchSize = importBatchSize;
+    this.maxPagesPerExport = maxPagesPerExport;
+    this.maxImportEntities = maxImportEntities;
+  }
+
+  /** What one export wrote, and where the next one should carry on. */
+  public static class Export {
+    private long written;
+    private Optional<String> next = Optional.empty();
+
+    public long written() {
+      return written;
+    }
+
+    // Where the next export should start, or empty once every kind has been written.
+    public Optional<String> next() {
+      return next;
+    }
+  }
+
+  /**
+   * Writes the entities of each kind in KINDS to out, a page at a time, flushing after each page
+   * and stopping after maxPagesPerExport pages. A snapshot is started with an empty from and
+   * continued with the next of the export before.
+   *
+   * @throws IllegalArgumentException if from isn't the next of an earlier export.
+   */
+  public Export export(Writer out, Optional<String> from) throws IOException {
+    int step = 0;
+    Cursor cursor = null;
+    if (from.isPresent()) {
+      String[] parts = from.get().split(":", 2);
+      try {
+        step = Integer.parseInt(parts[0]);
+        if (parts.length != 2 || step < 0 || step >= KINDS.size()) {
+          throw new IllegalArgumentException("No such step");
+        }
+        if (!parts[1].isEmpty()) {
+          cursor = Cursor.fromWebSafeString(parts[1]);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Can't continue from " + from.get(), e);
+      }
+    }
+
+    Export export = new Export();
+    int pages = 0;
+    while (step < KINDS.size()) {
+      if (pages == maxPagesPerExport) {
+        export.next = Optional.of(step + ":" + (cursor == null ? "" : cursor.toWebSafeString()));
+        break;
+      }
+      FetchOptions page = FetchOptions.Builder.withLimit(pageSize);
+      if (cursor != null) {
+        page.startCursor(cursor);
+      }
+      QueryResultList<Entity> entities =
+          datastore.prepare(new Query(KINDS.get(step))).asQueryResultList(page);
+      for (Entity entity : entities) {
+        out.write(toJson(entity).toString());
+        out.write('\n');
+        export.written++;
+      }
+      out.flush();
+      pages++;
+      if (entities.size() < pageSize) {
+        step++;
+        cursor = null;
+      } else {
+        cursor = entities.getCursor();
+      }
+    }
+    return export;
+  }
+
+  // Reads a snapshot written by export and puts its entities in batches on executor, blocking
+  // the reader while MAX_BATCHES_IN_FLIGHT batches are being written. Entities keep their keys,
+  // so importing a snapshot twice leaves the same data as importing it once, and a snapshot too
+  // large for one import can be imported in pieces. The numeric ids of each batch are reserved
+  // before it is put, so that entities created later aren't given an imported id and overwrite
+  // it. Returns the number of entities imported.
+  //
+  // @throws IllegalArgumentException if a line isn't an entity, or there are more than
+  //     maxImportEntities of them. The entities before that point may have been imported.
+  public long importFrom(BufferedReader in, ExecutorService executor) throws IOException {
+    Semaphore inFlight = new Semaphore(MAX_BATCHES_IN_FLIGHT);
+    List<Future<?>> writes = new ArrayList<Future<?>>();
+    List<Entity> batch = new ArrayList<Entity>();
+    long read = 0;
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      read++;
+      if (read > maxImportEntities) {
+        throw new IllegalArgumentException(
+            String.format(
+                "At most %d entities can be imported at once; split the snapshot",
+                maxImportEntities));
+      }
+      try {
+        batch.add(fromJson(new JsonParser().parse(line).getAsJsonObject()));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException(String.format("Line %d: %s", read, e.getMessage()), e);
+      }
+      if (batch.size() == importBatchSize) {
+        writes.add(put(batch, executor, inFlight));
+        batch = new ArrayList<Entity>();
+      }
+    }
+    if (!batch.isEmpty()) {
+      writes.add(put(batch, executor, inFlight));
+    }
+    for (Future<?> write : writes) {
+      try {
+        write.get();
+      } catch (ExecutionException e) {
+        throw new IOException("Import failed", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for the import to finish");
+      }
+    }
+    return read;
+  }
+
+  private Future<?> put(List<Entity> batch, ExecutorService executor, Semaphore inFlight) {
+    inFlight.acquireUninterruptibly();
+    try {
+      return executor.submit(
+          () -> {
+            try {
+              reserveIds(batch);
+              datastore.put(batch);
+            } finally {
+              inFlight.release();
+            }
+          });
+    } catch (RuntimeException e) {
+      inFlight.release();
+      throw e;
+    }
+  }
+
+  // Allocates, for each kind in batch, the range from its lowest numeric id to its highest, so
+  // Datastore won't hand out those ids again. The range may also cover ids the batch doesn't use.
+  private void reserveIds(List<Entity> batch) {
+    Map<String, long[]> idRanges = new HashMap<String, long[]>();
+    for (Entity entity : batch) {
+      Key key = entity.getKey();
+      if (key.getName() != null) {
+        continue;
+      }
+      long[] range = idRanges.computeIfAbsent(key.getKind(), k -> new long[] {key.getId(), 0});
+      range[0] = Math.min(range[0], key.getId());
+      range[1] = Math.max(range[1], key.getId());
+    }
+    for (Map.Entry<String, long[]> range : idRanges.entrySet()) {
+      // The state only says whether the ids were already in use, which they are when a snapshot
+      // is imported again; the range is reserved either way.
+      datastore.allocateIdRange(
+          new KeyRange(null, range.getKey(), range.getValue()[0], range.getValue()[1]));
+    }
+  }
+
+  static JsonObject toJson(Entity entity) {
+    JsonObject json = new JsonObject();
+    Key key = entity.getKey();
+    json.addProperty("kind", key.getKind());
+    if (key.getName() != null) {
+      json.addProperty("name", key.getName());
+    } else {
+      json.addProperty("id", key.getId());
+    }
+    JsonObject properties = new JsonObject();
+    JsonArray unindexed = new JsonArray();
+    for (Map.Entry<String, Object> property : entity.getProperties().entrySet()) {
+      properties.add(property.getKey(), toJsonValue(property.getValue()));
+      if (entity.isUnindexedProperty(property.getKey())) {
+        unindexed.add(property.getKey());
+      }
+    }
+    json.add("properties", properties);
+    json.add("unindexed", unindexed);
+    return json;
+  }
+
+  static Entity fromJson(JsonObject json) {
+    String kind = json.get("kind").getAsString();
+    Key key =
+        json.has("name")
+            ? KeyFactory.createKey(kind, json.get("name").getAsString())
+            : KeyFactory.createKey(kind, json.get("id").getAsLong());
+    Entity entity = new Entity(key);
+    List<String> unindexed = new ArrayList<String>();
+    for (JsonElement name : json.getAsJsonArray("unindexed")) {
+      unindexed.add(name.getAsString());
+    }
+    for (Map.Entry<String, JsonElement> property : json.getAsJsonObject("properties").entrySet()) {
+      Object value = fromJsonValue(property.getValue());
+      if (unindexed.contains(property.getKey())) {
+        entity.setUnindexedProperty(property.getKey(), value);
+      } else {
+        entity.setProperty(property.getKey(), value);
+      }
+    }
+    return entity;
+  }
+
+  private static JsonElement toJsonValue(Object value) {
+    if (value == null) {
+      return JsonNull.INSTANCE;
+    }
+    if (value instanceof List) {
+      JsonArray values = new JsonArray();
+      for (Object element : (List<?>) value) {
+        values.add(toJsonValue(element));
+      }
+      return values;
+    }
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    }
+    if (value instanceof Text) {
+      JsonObject text = new JsonObject();
+      text.addProperty("text", ((Text) value).getValue());
+      return text;
+    }
+    if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    }
+    if (value instanceof Long || value instanceof Double) {
+      return new JsonPrimitive((Number) value);
+    }
+    throw new IllegalArgumentException("Can't export a property of type " + value.getClass());
+  }
+
+  private static Object fromJsonValue(JsonElement value) {
+    if (value.isJsonNull()) {
+      return null;
+    }
+    if (value.isJsonArray()) {
+      List<Object> values = new ArrayList<Object>();
+      for (JsonElement element : value.getAsJsonArray()) {
+        values.add(fromJsonValue(element));
+      }
+      return values;
+    }
+    if (value.isJsonObject()) {
+      return new Text(value.getAsJsonObject().get("text").getAsString());
+    }
+    JsonPrimitive primitive = value.getAsJsonPrimitive();
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean();
+    }
+    if (primitive.isNumber()) {
+      String number = primitive.getAsString();
+      return number.matches("-?[0-9]+") ? (Object) Long.valueOf(number) : Double.valueOf(number);
+    }
+    return primitive.getAsString();
+  }
+}
@@ -0,0 +1,72 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.util.List;
+import java.util.Optional;
+
+/** The outcome of one request to the email service, which may have covered many recipients. */
+@AutoValue
+public abstract class EmailBatchResult {
+  public abstract ImmutableList<Email> recipients();
+
+  // The status code the email service answered with, or empty if no answer was received.
+  public abstract Optional<Integer> statusCode();
+
+  // Why the request failed, if it did.
+  public abstract Optional<String> error();
+
+  public boolean succeeded() {
+    return statusCode().isPresent() && statusCode().get() >= 200 && statusCode().get() < 300;
+  }
+
+  public static EmailBatchResult create(List<Email> recipients, int statusCode) {
+    Optional<String> error =
+        statusCode >= 200 && statusCode < 300
+            ? Optional.empty()
+            : Optional.of(String.format("Email service answered %d", statusCode));
+    return builder()
+        .setRecipients(ImmutableList.copyOf(recipients))
+        .setStatusCode(Optional.of(statusCode))
+        .setError(error)
+        .build();
+  }
+
+  public static EmailBatchResult failed(List<Email> recipients, String error) {
+    return builder()
+        .setRecipients(ImmutableList.copyOf(recipients))
+        .setStatusCode(Optional.empty())
+        .setError(Optional.of(error))
+        .build();
+  }
+
+  static Builder builder() {
+    return new AutoValue_EmailBatchResult.Builder();
+  }
+
+  @AutoValue.Builder
+  abstract static class Builder {
+    abstract Builder setRecipients(ImmutableList<Email> recipients);
+
+    abstract Builder setStatusCode(Optional<Integer> statusCode);
+
+    abstract Builder setError(Optional<String> error);
+
+    abstract EmailBatchResult build();
+  }
+}
@@ -0,0 +1,49 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.util.Map;
+
+/**
+ * One recipient of a bulk email, along with the values that fill in the email template's
+ * placeholders for them.
+ */
+@AutoValue
+public abstract class EmailRecipient {
+  public abstract Email email();
+
+  // Keyed by placeholder, such as "{{interviewer_first_name}}".
+  public abstract ImmutableMap<String, String> substitutions();
+
+  public static EmailRecipient create(Email email, Map<String, String> substitutions) {
+    return builder().setEmail(email).setSubstitutions(ImmutableMap.copyOf(substitutions)).build();
+  }
+
+  static Builder builder() {
+    return new AutoValue_EmailRecipient.Builder();
+  }
+
+  @AutoValue.Builder
+  abstract static class Builder {
+    abstract Builder setEmail(Email email);
+
+    abstract Builder setSubstitutions(ImmutableMap<String, String> substitutions);
+
+    abstract EmailRecipient build();
+  }
+}
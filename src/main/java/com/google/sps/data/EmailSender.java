@@ -14,11 +14,14 @@
 
 package com.google.sps.data;
 
+import com.google.common.collect.ImmutableList;
+import com.google.sps.utils.EmailTemplate;
 import com.sendgrid.Response;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 
 /** EmailSender includes the basic methods anything managing sending emails must support. */
 public interface EmailSender {
@@ -26,4 +29,22 @@ public interface EmailSender {
   // Sends an email to the "recipient" Email, with specified subject and content. Returns a response
   // from the sendgrid email sending service.
   public int sendEmail(Email recipient, String subject, Content content) throws IOException;
+
+  // Sends the template to every recipient, filled in with that recipient's substitutions. Returns
+  // the result of each request made to the email service; one failing does not stop the rest. By
+  // default every recipient gets their own request.
+  public default ImmutableList<EmailBatchResult> sendBulkEmail(
+      EmailTemplate template, String subject, List<EmailRecipient> recipients) {
+    ImmutableList.Builder<EmailBatchResult> results = ImmutableList.builder();
+    for (EmailRecipient recipient : recipients) {
+      List<Email> batch = ImmutableList.of(recipient.email());
+      Content content = new Content("text/plain", template.render(recipient.substitutions()));
+      try {
+        results.add(EmailBatchResult.create(batch, sendEmail(recipient.email(), subject, content)));
+      } catch (IOException e) {
+        results.add(EmailBatchResult.failed(batch, e.getMessage()));
+      }
+    }
+    return results.build();
+  }
 }
@@ -15,11 +15,14 @@
 package com.google.sps.data;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
@@ -70,6 +73,14 @@ public class FakeAvailabilityDao implements AvailabilityDao {
     }
   }
 
+  /** Deletes the Availabilities in storedObjects with the same ids as the given ones. */
+  @Override
+  public void deleteAll(List<Availability> availabilities) {
+    for (Availability avail : availabilities) {
+      storedObjects.remove(avail.id());
+    }
+  }
+
   /**
    * Collects all Availabilities for the specified user within the specified time range and returns
    * them in order (by ascending start times).
@@ -134,4 +145,27 @@ public class FakeAvailabilityDao implements AvailabilityDao {
     }
     return userIds;
   }
+
+  /**
+   * Returns the ids of all users who have an unscheduled availability for every 15 minute slot
+   * within the specified time range.
+   */
+  @Override
+  public Set<String> getUsersFreeThroughout(Instant minTime, Instant maxTime) {
+    Map<String, Set<Instant>> freeSlots = new HashMap<String, Set<Instant>>();
+    for (Availability avail : getInRangeForAll(minTime, maxTime)) {
+      if (!avail.scheduled()) {
+        freeSlots.computeIfAbsent(avail.userId(), k -> new HashSet<Instant>());
+        freeSlots.get(avail.userId()).add(avail.when().start());
+      }
+    }
+    long slotsNeeded = ChronoUnit.MINUTES.between(minTime, maxTime) / 15;
+    Set<String> userIds = new HashSet<String>();
+    for (Map.Entry<String, Set<Instant>> user : freeSlots.entrySet()) {
+      if (user.getValue().size() == slotsNeeded) {
+        userIds.add(user.getKey());
+      }
+    }
+    return userIds;
+  }
 }
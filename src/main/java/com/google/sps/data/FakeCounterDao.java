@@ -0,0 +1,42 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Mimics accessing Datastore to keep counters. */
+public class FakeCounterDao implements CounterDao {
+  // data is the fake database
+  private final Map<String, Map<String, Long>> data;
+
+  /** Initializes the fields for FakeCounterDao. */
+  public FakeCounterDao() {
+    data = new HashMap<String, Map<String, Long>>();
+  }
+
+  @Override
+  public synchronized void add(String counter, Map<String, Long> deltas) {
+    Map<String, Long> fields = data.computeIfAbsent(counter, c -> new HashMap<String, Long>());
+    for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+      fields.merge(delta.getKey(), delta.getValue(), Long::sum);
+    }
+  }
+
+  @Override
+  public synchronized Map<String, Long> get(String counter) {
+    return new HashMap<String, Long>(data.getOrDefault(counter, new HashMap<String, Long>()));
+  }
+}
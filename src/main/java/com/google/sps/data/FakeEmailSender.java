@@ -24,6 +24,8 @@ import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -34,15 +36,27 @@ import java.net.URL;
 @WebServlet("/email")
 public class FakeEmailSender implements EmailSender {
   private final Email sender;
+  private final List<Mail> sentEmails;
 
   public FakeEmailSender(Email sender) throws IOException {
     this.sender = sender;
+    this.sentEmails = new ArrayList<Mail>();
   }
 
   // Sends an email from the "sender" Email to the "recipient" Email, with specified subject and
   // content. Returns a response from the sendgrid email sending service.
   @Override
   public int sendEmail(Email recipient, String subject, Content content) throws IOException {
+    synchronized (sentEmails) {
+      sentEmails.add(new Mail(sender, subject, recipient, content));
+    }
     return 200;
   }
+
+  // Returns every email this sender has been asked to send, in order.
+  public List<Mail> getSentEmails() {
+    synchronized (sentEmails) {
+      return new ArrayList<Mail>(sentEmails);
+    }
+  }
 }
@@ -0,0 +1,78 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/** Mimics accessing Datastore to support managing Feedback entities. */
+public class FakeFeedbackDao implements FeedbackDao {
+  // data is the fake database
+  private final Map<Long, Feedback> data;
+  private long nextId;
+
+  /** Initializes the fields for FakeFeedbackDao. */
+  public FakeFeedbackDao() {
+    data = new HashMap<Long, Feedback>();
+    nextId = 1;
+  }
+
+  @Override
+  public synchronized Feedback create(Feedback feedback) {
+    Feedback stored = feedback.withId(nextId++);
+    data.put(stored.id(), stored);
+    return stored;
+  }
+
+  @Override
+  public synchronized Optional<Feedback> get(long id) {
+    return Optional.ofNullable(data.get(id));
+  }
+
+  @Override
+  public synchronized List<Feedback> getDue(Instant now, int limit) {
+    List<Feedback> due = new ArrayList<Feedback>();
+    for (Feedback feedback : data.values()) {
+      if (feedback.status() == Feedback.Status.PENDING && !feedback.nextAttemptAt().isAfter(now)) {
+        due.add(feedback);
+      }
+    }
+    due.sort(Comparator.comparing(Feedback::nextAttemptAt));
+    return new ArrayList<Feedback>(due.subList(0, Math.min(limit, due.size())));
+  }
+
+  @Override
+  public synchronized boolean lease(Feedback feedback, Instant until) {
+    Feedback stored = data.get(feedback.id());
+    if (stored == null
+        || stored.status() != Feedback.Status.PENDING
+        || stored.attempts() != feedback.attempts()
+        || !stored.nextAttemptAt().equals(feedback.nextAttemptAt())) {
+      return false;
+    }
+    data.put(stored.id(), stored.toBuilder().setNextAttemptAt(until).build());
+    return true;
+  }
+
+  @Override
+  public synchronized void update(Feedback feedback) {
+    data.put(feedback.id(), feedback);
+  }
+}
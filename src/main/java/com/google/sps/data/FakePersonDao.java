@@ -15,10 +15,14 @@
 package com.google.sps.data;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 
 /** Mimics accessing Datastore to support managing Person entities. */
 public class FakePersonDao implements PersonDao {
@@ -52,4 +56,28 @@ public class FakePersonDao implements PersonDao {
     }
     return Optional.empty();
   }
+
+  /** Retrieves every person in storedObjects with one of the given ids, keyed by id. */
+  @Override
+  public Map<String, Person> getAll(Collection<String> ids) {
+    Map<String, Person> people = new HashMap<String, Person>();
+    for (String id : ids) {
+      if (storedObjects.containsKey(id)) {
+        people.put(id, storedObjects.get(id));
+      }
+    }
+    return people;
+  }
+
+  /** Returns the id of every person in storedObjects qualified for job. */
+  @Override
+  public Set<String> getQualifiedIds(Job job) {
+    Set<String> ids = new HashSet<String>();
+    for (Person person : storedObjects.values()) {
+      if (person.qualifiedJobs().contains(job)) {
+        ids.add(person.id());
+      }
+    }
+    return ids;
+  }
 }
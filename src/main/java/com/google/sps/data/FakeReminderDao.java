@@ -0,0 +1,46 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/** Mimics accessing Datastore to record the progress of the reminder scheduler. */
+public class FakeReminderDao implements ReminderDao {
+  private Optional<Long> lastProcessedBucket;
+  private Set<String> claims;
+
+  /** Initializes the fields for FakeReminderDao. */
+  public FakeReminderDao() {
+    lastProcessedBucket = Optional.empty();
+    claims = new HashSet<String>();
+  }
+
+  @Override
+  public synchronized Optional<Long> getLastProcessedBucket() {
+    return lastProcessedBucket;
+  }
+
+  @Override
+  public synchronized void setLastProcessedBucket(long bucket) {
+    lastProcessedBucket = Optional.of(bucket);
+  }
+
+  @Override
+  public synchronized boolean claim(long scheduledInterviewId, ReminderKind kind) {
+    return claims.add(String.format("%d:%s", scheduledInterviewId, kind.name()));
+  }
+}
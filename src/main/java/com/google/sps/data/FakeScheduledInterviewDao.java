@@ -171,6 +171,18 @@ public class FakeScheduledInterviewDao implements ScheduledInterviewDao {
     data.put(scheduledInterview.id(), scheduledInterview);
   }
 
+  /** Stores each scheduledInterview under a new id and returns them with their ids. */
+  @Override
+  public List<ScheduledInterview> createAll(List<ScheduledInterview> scheduledInterviews) {
+    List<ScheduledInterview> created = new ArrayList<ScheduledInterview>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      ScheduledInterview stored = scheduledInterview.withId(new Random().nextLong());
+      data.put(stored.id(), stored);
+      created.add(stored);
+    }
+    return created;
+  }
+
   /** Deletes an entity. */
   @Override
   public void delete(long id) {
@@ -0,0 +1,163 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Feedback one participant of an interview submitted for the other, stored until it has been
+ * emailed to them.
+ */
+@AutoValue
+public abstract class Feedback {
+  /** Where the feedback is in being delivered. */
+  public enum Status {
+    // Waiting to be emailed, possibly after failed attempts.
+    PENDING,
+    DELIVERED,
+    // Every attempt to email it failed.
+    FAILED
+  }
+
+  public abstract long id();
+
+  public abstract FeedbackKind kind();
+
+  public abstract long scheduledInterviewId();
+
+  public abstract String authorId();
+
+  public abstract String recipientId();
+
+  public abstract String recipientEmail();
+
+  // Keyed by placeholder in the kind's template, such as "{{question_1}}".
+  public abstract ImmutableMap<String, String> answers();
+
+  public abstract Instant submittedAt();
+
+  public abstract Status status();
+
+  // How many times emailing the feedback has been tried.
+  public abstract int attempts();
+
+  // When the feedback should next be tried. Only meaningful while it is pending.
+  public abstract Instant nextAttemptAt();
+
+  public abstract Optional<Instant> deliveredAt();
+
+  // Why the last attempt failed, or empty if none has.
+  public abstract String lastError();
+
+  /** Creates newly submitted feedback, due to be emailed straight away. */
+  public static Feedback create(
+      FeedbackKind kind,
+      long scheduledInterviewId,
+      String authorId,
+      String recipientId,
+      String recipientEmail,
+      Map<String, String> answers,
+      Instant submittedAt) {
+    return builder()
+        .setId(-1)
+        .setKind(kind)
+        .setScheduledInterviewId(scheduledInterviewId)
+        .setAuthorId(authorId)
+        .setRecipientId(recipientId)
+        .setRecipientEmail(recipientEmail)
+        .setAnswers(ImmutableMap.copyOf(answers))
+        .setSubmittedAt(submittedAt)
+        .setStatus(Status.PENDING)
+        .setAttempts(0)
+        .setNextAttemptAt(submittedAt)
+        .setDeliveredAt(Optional.empty())
+        .setLastError("")
+        .build();
+  }
+
+  abstract Builder toBuilder();
+
+  // Returns a new Feedback with the old information stored under a new id.
+  public Feedback withId(long id) {
+    return toBuilder().setId(id).build();
+  }
+
+  // Returns a new Feedback that was emailed at deliveredAt.
+  public Feedback delivered(Instant deliveredAt) {
+    return toBuilder()
+        .setStatus(Status.DELIVERED)
+        .setAttempts(attempts() + 1)
+        .setDeliveredAt(Optional.of(deliveredAt))
+        .build();
+  }
+
+  // Returns a new Feedback whose latest attempt failed with error, to be tried again at
+  // nextAttemptAt.
+  public Feedback retryAt(Instant nextAttemptAt, String error) {
+    return toBuilder()
+        .setAttempts(attempts() + 1)
+        .setNextAttemptAt(nextAttemptAt)
+        .setLastError(error)
+        .build();
+  }
+
+  // Returns a new Feedback whose latest attempt failed with error and that won't be tried again.
+  public Feedback failed(String error) {
+    return toBuilder()
+        .setStatus(Status.FAILED)
+        .setAttempts(attempts() + 1)
+        .setLastError(error)
+        .build();
+  }
+
+  static Builder builder() {
+    return new AutoValue_Feedback.Builder();
+  }
+
+  @AutoValue.Builder
+  abstract static class Builder {
+    abstract Builder setId(long id);
+
+    abstract Builder setKind(FeedbackKind kind);
+
+    abstract Builder setScheduledInterviewId(long scheduledInterviewId);
+
+    abstract Builder setAuthorId(String authorId);
+
+    abstract Builder setRecipientId(String recipientId);
+
+    abstract Builder setRecipientEmail(String recipientEmail);
+
+    abstract Builder setAnswers(ImmutableMap<String, String> answers);
+
+    abstract Builder setSubmittedAt(Instant submittedAt);
+
+    abstract Builder setStatus(Status status);
+
+    abstract Builder setAttempts(int attempts);
+
+    abstract Builder setNextAttemptAt(Instant nextAttemptAt);
+
+    abstract Builder setDeliveredAt(Optional<Instant> deliveredAt);
+
+    abstract Builder setLastError(String lastError);
+
+    abstract Feedback build();
+  }
+}
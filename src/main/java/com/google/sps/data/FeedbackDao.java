@@ -0,0 +1,39 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/** FeedbackDao includes the basic methods anything storing submitted Feedback must support. */
+public interface FeedbackDao {
+  // Stores new feedback and returns it with the id it was stored under.
+  public Feedback create(Feedback feedback);
+
+  // Returns the Feedback with the specified id.
+  public Optional<Feedback> get(long id);
+
+  // Returns up to limit pending Feedback whose next attempt is due by now, soonest due first.
+  public List<Feedback> getDue(Instant now, int limit);
+
+  // Claims pending feedback for one delivery attempt by moving its next attempt to until. Returns
+  // false, without changing anything, if it has changed since it was read, such as by another
+  // worker claiming it first. If the attempt never finishes, the feedback is due again at until.
+  public boolean lease(Feedback feedback, Instant until);
+
+  // Replaces the stored Feedback with the same id.
+  public void update(Feedback feedback);
+}
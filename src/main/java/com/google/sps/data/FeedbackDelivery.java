@@ -0,0 +1,186 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.sps.utils.EmailTemplate;
+import com.google.sps.utils.EmailTemplates;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Emails stored Feedback to its recipient. The feedback servlets only store what was submitted, so
+ * submitting never waits on SendGrid; each run sends the feedback that is due and records the
+ * result. An attempt that fails is retried with exponential backoff until MAX_ATTEMPTS, after which
+ * the feedback is marked failed and left in storage.
+ *
+ * <p>Feedback is leased through FeedbackDao before it is sent, so overlapping runs don't send it
+ * twice. A run that dies mid-send leaves the lease to expire, and the feedback is tried again then;
+ * in that case it may be sent twice, which is better than not at all.
+ */
+public class FeedbackDelivery {
+  static final int MAX_ATTEMPTS = 6;
+  static final Duration FIRST_RETRY_DELAY = Duration.ofMinutes(1);
+  // Long enough for one send to finish, so only a run that died leaves a lease to expire.
+  static final Duration LEASE = Duration.ofMinutes(5);
+  // Bounds how much one run sends so that it finishes well within a request deadline.
+  static final int MAX_PER_RUN = 50;
+  private static final Logger logger = Logger.getLogger(FeedbackDelivery.class.getName());
+
+  private final FeedbackDao feedbackDao;
+  private final EmailSender emailSender;
+  private final Clock clock;
+  private final ImmutableMap<FeedbackKind, EmailTemplate> templates;
+
+  public FeedbackDelivery(FeedbackDao feedbackDao, EmailSender emailSender, Clock clock) {
+    this.feedbackDao = feedbackDao;
+    this.emailSender = emailSender;
+    this.clock = clock;
+    Map<FeedbackKind, EmailTemplate> templates =
+        new EnumMap<FeedbackKind, EmailTemplate>(FeedbackKind.class);
+    for (FeedbackKind kind : FeedbackKind.values()) {
+      EmailTemplate template = EmailTemplates.get(kind.templateName());
+      template.checkFilledBy(kind.placeholders());
+      templates.put(kind, template);
+    }
+    this.templates = ImmutableMap.copyOf(templates);
+  }
+
+  /** What one run of delivery did. */
+  public static class Run {
+    private long due;
+    private long alreadyLeased;
+    private long delivered;
+    private long retried;
+    private long failed;
+    private long totalLatencyMillis;
+    private long maxLatencyMillis;
+    private long elapsedMillis;
+
+    public long due() {
+      return due;
+    }
+
+    // Feedback that was due but that an overlapping run leased first.
+    public long alreadyLeased() {
+      return alreadyLeased;
+    }
+
+    public long delivered() {
+      return delivered;
+    }
+
+    // Feedback whose attempt failed and that will be tried again.
+    public long retried() {
+      return retried;
+    }
+
+    // Feedback whose last allowed attempt failed.
+    public long failed() {
+      return failed;
+    }
+
+    // The average time from submission to delivery of the feedback delivered in this run.
+    public long averageLatencyMillis() {
+      return delivered == 0 ? 0 : totalLatencyMillis / delivered;
+    }
+
+    public long maxLatencyMillis() {
+      return maxLatencyMillis;
+    }
+
+    public long elapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d due (%d already leased), %d delivered, %d retried, %d failed, latency %d ms "
+              + "average %d ms max, in %d ms",
+          due,
+          alreadyLeased,
+          delivered,
+          retried,
+          failed,
+          averageLatencyMillis(),
+          maxLatencyMillis,
+          elapsedMillis);
+    }
+  }
+
+  /** Sends up to MAX_PER_RUN of the feedback that is due. */
+  public Run deliverDue() {
+    long startNanos = System.nanoTime();
+    Run run = new Run();
+    Instant now = clock.instant();
+    for (Feedback feedback : feedbackDao.getDue(now, MAX_PER_RUN)) {
+      run.due++;
+      if (!feedbackDao.lease(feedback, now.plus(LEASE))) {
+        run.alreadyLeased++;
+        continue;
+      }
+      deliver(feedback, run);
+    }
+    run.elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    logger.info("Feedback delivery run: " + run);
+    return run;
+  }
+
+  private void deliver(Feedback feedback, Run run) {
+    String error;
+    try {
+      Content content =
+          new Content("text/plain", templates.get(feedback.kind()).render(feedback.answers()));
+      int status =
+          emailSender.sendEmail(
+              new Email(feedback.recipientEmail()), feedback.kind().subject(), content);
+      if (status >= 200 && status < 300) {
+        Instant deliveredAt = clock.instant();
+        feedbackDao.update(feedback.delivered(deliveredAt));
+        long latency = Duration.between(feedback.submittedAt(), deliveredAt).toMillis();
+        run.delivered++;
+        run.totalLatencyMillis += latency;
+        run.maxLatencyMillis = Math.max(run.maxLatencyMillis, latency);
+        return;
+      }
+      error = "SendGrid responded " + status;
+    } catch (Exception e) {
+      error = String.valueOf(e.getMessage());
+    }
+
+    if (feedback.attempts() + 1 >= MAX_ATTEMPTS) {
+      feedbackDao.update(feedback.failed(error));
+      run.failed++;
+      logger.warning(
+          String.format(
+              "Feedback %d failed after %d attempts: %s", feedback.id(), MAX_ATTEMPTS, error));
+    } else {
+      feedbackDao.update(feedback.retryAt(clock.instant().plus(retryDelay(feedback)), error));
+      run.retried++;
+    }
+  }
+
+  // Doubles with each failed attempt: 1, 2, 4, 8 then 16 minutes.
+  static Duration retryDelay(Feedback feedback) {
+    return FIRST_RETRY_DELAY.multipliedBy(1L << feedback.attempts());
+  }
+}
@@ -0,0 +1,64 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableSet;
+
+/** The two directions feedback on an interview can go in, and the email each is sent as. */
+public enum FeedbackKind {
+  // An interviewer's feedback, sent to their interviewee.
+  TO_INTERVIEWEE(
+      "feedbackToInterviewee.txt",
+      "Your Interviewer has submitted feedback for your interview!",
+      /*questionCount=*/ 11),
+  // An interviewee's feedback, sent to their interviewer.
+  TO_INTERVIEWER(
+      "feedbackToInterviewer.txt",
+      "Your Interviewee has submitted feedback for your interview!",
+      /*questionCount=*/ 9);
+
+  private final String templateName;
+  private final String subject;
+  private final int questionCount;
+
+  private FeedbackKind(String templateName, String subject, int questionCount) {
+    this.templateName = templateName;
+    this.subject = subject;
+    this.questionCount = questionCount;
+  }
+
+  public String templateName() {
+    return templateName;
+  }
+
+  public String subject() {
+    return subject;
+  }
+
+  // The number of questions on the feedback form, one {{question_N}} placeholder each.
+  public int questionCount() {
+    return questionCount;
+  }
+
+  // The placeholders filled in from the form's answers and the interview.
+  public ImmutableSet<String> placeholders() {
+    ImmutableSet.Builder<String> placeholders = ImmutableSet.builder();
+    placeholders.add("{{formatted_date}}");
+    for (int i = 1; i <= questionCount; i++) {
+      placeholders.add(String.format("{{question_%s}}", i));
+    }
+    return placeholders.build();
+  }
+}
@@ -0,0 +1,141 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps running totals of submitted feedback in counters, so summaries are read from a fixed number
+ * of counter shards instead of by scanning every Feedback. Each piece of feedback is added to a
+ * counter for its position and kind, and feedback on an interviewer is also added to a counter for
+ * that interviewer. Multiple choice answers are scored from 1 (Strongly Disagree) to 5 (Strongly
+ * Agree); written answers are not scored.
+ */
+public class FeedbackStats {
+  static final ImmutableMap<String, Long> SCORES =
+      ImmutableMap.of(
+          "Strongly Agree", 5L,
+          "Agree", 4L,
+          "Neutral", 3L,
+          "Disagree", 2L,
+          "Strongly Disagree", 1L);
+  private static final String COUNT = "count";
+  private static final int MAX_QUESTIONS =
+      Math.max(
+          FeedbackKind.TO_INTERVIEWEE.questionCount(), FeedbackKind.TO_INTERVIEWER.questionCount());
+
+  private final CounterDao counterDao;
+
+  public FeedbackStats(CounterDao counterDao) {
+    this.counterDao = counterDao;
+  }
+
+  /** A summary of the feedback added to one counter. */
+  public static class Summary {
+    private final long feedbackCount;
+    // Keyed by question number, only for questions with scored answers.
+    private final SortedMap<Integer, Question> questions;
+
+    Summary(long feedbackCount, SortedMap<Integer, Question> questions) {
+      this.feedbackCount = feedbackCount;
+      this.questions = questions;
+    }
+
+    public long feedbackCount() {
+      return feedbackCount;
+    }
+
+    public SortedMap<Integer, Question> questions() {
+      return questions;
+    }
+  }
+
+  /** The scored answers to one question. */
+  public static class Question {
+    private final long answered;
+    private final double averageScore;
+
+    Question(long answered, double averageScore) {
+      this.answered = answered;
+      this.averageScore = averageScore;
+    }
+
+    public long answered() {
+      return answered;
+    }
+
+    public double averageScore() {
+      return averageScore;
+    }
+  }
+
+  /** Adds newly submitted feedback on an interview for position to its counters. */
+  public void record(Feedback feedback, Job position) {
+    Map<String, Long> deltas = new HashMap<String, Long>();
+    deltas.put(COUNT, 1L);
+    for (int i = 1; i <= feedback.kind().questionCount(); i++) {
+      Long score = SCORES.get(feedback.answers().get(String.format("{{question_%s}}", i)));
+      if (score != null) {
+        deltas.put(answeredField(i), 1L);
+        deltas.put(totalField(i), score);
+      }
+    }
+    counterDao.add(positionCounter(position, feedback.kind()), deltas);
+    if (feedback.kind() == FeedbackKind.TO_INTERVIEWER) {
+      counterDao.add(interviewerCounter(feedback.recipientId()), deltas);
+    }
+  }
+
+  /** Summarizes the feedback interviewees have given the interviewer. */
+  public Summary forInterviewer(String interviewerId) {
+    return summarize(counterDao.get(interviewerCounter(interviewerId)));
+  }
+
+  /** Summarizes the feedback of the given kind for interviews for position. */
+  public Summary forPosition(Job position, FeedbackKind kind) {
+    return summarize(counterDao.get(positionCounter(position, kind)));
+  }
+
+  private static Summary summarize(Map<String, Long> totals) {
+    SortedMap<Integer, Question> questions = new TreeMap<Integer, Question>();
+    for (int i = 1; i <= MAX_QUESTIONS; i++) {
+      long answered = totals.getOrDefault(answeredField(i), 0L);
+      if (answered > 0) {
+        questions.put(i, new Question(answered, (double) totals.get(totalField(i)) / answered));
+      }
+    }
+    return new Summary(totals.getOrDefault(COUNT, 0L), questions);
+  }
+
+  private static String answeredField(int question) {
+    return String.format("q%d_answered", question);
+  }
+
+  private static String totalField(int question) {
+    return String.format("q%d_total", question);
+  }
+
+  static String interviewerCounter(String interviewerId) {
+    return "feedback/interviewer/" + interviewerId;
+  }
+
+  static String positionCounter(Job position, FeedbackKind kind) {
+    return String.format("feedback/position/%s/%s", position.name(), kind.name());
+  }
+}
@@ -85,9 +85,16 @@ public class GoogleCalendarAccess implements CalendarAccess {
   // Makes a Calendar service.
   public static Calendar MakeCalendar(SecretFetcher secretFetcher)
       throws GeneralSecurityException, IOException {
-    String key = secretFetcher.getSecretValue("SERVICE_ACCT_KEY");
+    return MakeCalendar(
+        secretFetcher.getSecretValue("SERVICE_ACCT_KEY"),
+        GoogleNetHttpTransport.newTrustedTransport());
+  }
+
+  // Makes a Calendar service that signs in with the service account key and sends its requests
+  // through transport, which can be shared with other clients.
+  public static Calendar MakeCalendar(String key, HttpTransport transport) throws IOException {
     return new Calendar.Builder(
-            GoogleNetHttpTransport.newTrustedTransport(),
+            transport,
             JacksonFactory.getDefaultInstance(),
             GoogleCredential.fromStream(new ByteArrayInputStream(key.getBytes()))
                 .createScoped(Collections.singletonList(CalendarScopes.CALENDAR)))
@@ -0,0 +1,24 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+
+/** Reports how busy interviewers are, so that new interviews can be spread between them. */
+public interface InterviewerLoad {
+  // Returns how many interviews the interviewer has in the week (Monday to Sunday, UTC) that
+  // contains the given time.
+  public int bookedInWeekOf(String interviewerId, Instant when);
+}
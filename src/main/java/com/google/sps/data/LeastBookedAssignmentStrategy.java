@@ -0,0 +1,54 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.base.Preconditions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Chooses the candidate whose interviewer has the fewest interviews in the week of the booking,
+ * breaking ties at random.
+ */
+public class LeastBookedAssignmentStrategy implements AssignmentStrategy {
+  private final InterviewerLoad load;
+  private final Random random;
+
+  public LeastBookedAssignmentStrategy(InterviewerLoad load, Random random) {
+    this.load = load;
+    this.random = random;
+  }
+
+  @Override
+  public <T> T choose(List<T> candidates, Function<T, String> interviewerOf, Instant when) {
+    Preconditions.checkArgument(!candidates.isEmpty(), "There are no candidates to choose from");
+    List<T> leastBooked = new ArrayList<T>();
+    int fewest = Integer.MAX_VALUE;
+    for (T candidate : candidates) {
+      int booked = load.bookedInWeekOf(interviewerOf.apply(candidate), when);
+      if (booked < fewest) {
+        fewest = booked;
+        leastBooked.clear();
+      }
+      if (booked == fewest) {
+        leastBooked.add(candidate);
+      }
+    }
+    return leastBooked.get(random.nextInt(leastBooked.size()));
+  }
+}
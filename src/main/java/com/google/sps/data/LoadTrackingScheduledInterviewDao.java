@@ -0,0 +1,150 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Wraps a ScheduledInterviewDao and keeps a WeeklyInterviewerLoad up to date with the interviews
+ * written through it. Reads are passed straight through.
+ */
+public class LoadTrackingScheduledInterviewDao implements ScheduledInterviewDao {
+  private final ScheduledInterviewDao delegate;
+  private final WeeklyInterviewerLoad load;
+
+  public LoadTrackingScheduledInterviewDao(
+      ScheduledInterviewDao delegate, WeeklyInterviewerLoad load) {
+    this.delegate = delegate;
+    this.load = load;
+  }
+
+  @Override
+  public Optional<ScheduledInterview> get(long id) {
+    return delegate.get(id);
+  }
+
+  @Override
+  public PendingRead<Optional<ScheduledInterview>> getAsync(long id) {
+    return delegate.getAsync(id);
+  }
+
+  @Override
+  public List<ScheduledInterview> getInRange(Instant minTime, Instant maxTime) {
+    return delegate.getInRange(minTime, maxTime);
+  }
+
+  @Override
+  public List<ScheduledInterview> getForPositionWithoutShadowInRange(
+      Job position, Instant minTime, Instant maxTime) {
+    return delegate.getForPositionWithoutShadowInRange(position, minTime, maxTime);
+  }
+
+  @Override
+  public List<ScheduledInterview> getForPerson(String userId) {
+    return delegate.getForPerson(userId);
+  }
+
+  @Override
+  public List<ScheduledInterview> getScheduledInterviewsInRangeForUser(
+      String userId, Instant minTime, Instant maxTime) {
+    return delegate.getScheduledInterviewsInRangeForUser(userId, minTime, maxTime);
+  }
+
+  @Override
+  public PendingRead<List<ScheduledInterview>> getScheduledInterviewsInRangeForUserAsync(
+      String userId, Instant minTime, Instant maxTime) {
+    return delegate.getScheduledInterviewsInRangeForUserAsync(userId, minTime, maxTime);
+  }
+
+  @Override
+  public void create(ScheduledInterview scheduledInterview) {
+    delegate.create(scheduledInterview);
+    load.record(scheduledInterview, 1);
+  }
+
+  @Override
+  public List<ScheduledInterview> createAll(List<ScheduledInterview> scheduledInterviews) {
+    List<ScheduledInterview> created = delegate.createAll(scheduledInterviews);
+    for (ScheduledInterview scheduledInterview : created) {
+      load.record(scheduledInterview, 1);
+    }
+    return created;
+  }
+
+  @Override
+  public Optional<ScheduledInterview> createIfFree(
+      ScheduledInterview scheduledInterview,
+      List<Availability> availabilities,
+      AvailabilityDao availabilityDao) {
+    Optional<ScheduledInterview> created =
+        delegate.createIfFree(scheduledInterview, availabilities, availabilityDao);
+    created.ifPresent(interview -> load.record(interview, 1));
+    return created;
+  }
+
+  // The interview being replaced is read first in case its interviewer or time changed.
+  @Override
+  public void update(ScheduledInterview scheduledInterview) {
+    Optional<ScheduledInterview> previous = delegate.get(scheduledInterview.id());
+    delegate.update(scheduledInterview);
+    previous.ifPresent(interview -> load.record(interview, -1));
+    load.record(scheduledInterview, 1);
+  }
+
+  // The interviews being replaced are all read before any are waited on.
+  @Override
+  public void updateAll(List<ScheduledInterview> scheduledInterviews) {
+    List<PendingRead<Optional<ScheduledInterview>>> previous =
+        new ArrayList<PendingRead<Optional<ScheduledInterview>>>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      previous.add(delegate.getAsync(scheduledInterview.id()));
+    }
+    for (PendingRead<Optional<ScheduledInterview>> interview : previous) {
+      interview.join().ifPresent(replaced -> load.record(replaced, -1));
+    }
+    delegate.updateAll(scheduledInterviews);
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      load.record(scheduledInterview, 1);
+    }
+  }
+
+  @Override
+  public void delete(long id) {
+    Optional<ScheduledInterview> previous = delegate.get(id);
+    delegate.delete(id);
+    previous.ifPresent(interview -> load.record(interview, -1));
+  }
+
+  // The interviews being deleted are all read before any are waited on.
+  @Override
+  public void deleteAll(List<Long> ids) {
+    List<PendingRead<Optional<ScheduledInterview>>> previous =
+        new ArrayList<PendingRead<Optional<ScheduledInterview>>>();
+    for (long id : ids) {
+      previous.add(delegate.getAsync(id));
+    }
+    List<ScheduledInterview> deleted = new ArrayList<ScheduledInterview>();
+    for (PendingRead<Optional<ScheduledInterview>> interview : previous) {
+      interview.join().ifPresent(deleted::add);
+    }
+    delegate.deleteAll(ids);
+    for (ScheduledInterview interview : deleted) {
+      load.record(interview, -1);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A read that has been started, such as a Datastore call AsyncDatastoreService has already sent.
+ * App Engine only lets request threads wait on Datastore, so rather than handing the wait to
+ * another thread, the read is waited on (and its result converted) the first time join is called.
+ * Nothing completes it before then, which is why this is not a CompletableFuture: a callback
+ * chained onto it could never run on its own. Callers should start every read they need before
+ * joining any of them.
+ */
+public final class PendingRead<T> {
+  private Callable<T> resolver;
+  private T value;
+  private CompletionException failure;
+
+  private PendingRead(Callable<T> resolver) {
+    this.resolver = resolver;
+  }
+
+  /** Returns a read that has already finished with value. */
+  public static <T> PendingRead<T> of(T value) {
+    return new PendingRead<T>(() -> value);
+  }
+
+  /**
+   * Returns a read whose result is resolver's, called the first time the read is joined. An
+   * ExecutionException resolver throws is unwrapped, as if the read itself had failed.
+   */
+  public static <T> PendingRead<T> waitingOn(Callable<T> resolver) {
+    return new PendingRead<T>(resolver);
+  }
+
+  /**
+   * Waits for the read and returns its result. Later calls return the same result without waiting
+   * again.
+   *
+   * @throws CompletionException if the read failed, with the failure as its cause.
+   */
+  public synchronized T join() {
+    if (resolver != null) {
+      try {
+        value = resolver.call();
+      } catch (CompletionException e) {
+        failure = e;
+      } catch (ExecutionException e) {
+        failure = new CompletionException(e.getCause());
+      } catch (Exception e) {
+        failure = new CompletionException(e);
+      }
+      resolver = null;
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return value;
+  }
+}
@@ -15,11 +15,15 @@
 package com.google.sps.data;
 
 import com.google.auto.value.AutoValue;
+import java.io.Serializable;
 import java.util.EnumSet;
 
-/** Represents a user on the site. The email is used as the key to the user table. */
+/**
+ * Represents a user on the site. The email is used as the key to the user table. People are
+ * Serializable so that a user's own profile can be kept in their session.
+ */
 @AutoValue
-public abstract class Person {
+public abstract class Person implements Serializable {
   public abstract String id();
 
   public abstract String email();
@@ -14,13 +14,38 @@
 
 package com.google.sps.data;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /** PersonDao includes the basic methods anything managing Person entities must support. */
 public interface PersonDao {
   // Returns a Person object from storage, with the specified id.
   public Optional<Person> get(String id);
 
+  // Starts fetching the Person with the specified id. Implementations backed by an asynchronous
+  // store let several of these reads be in flight at once; by default the read happens
+  // immediately.
+  public default PendingRead<Optional<Person>> getAsync(String id) {
+    return PendingRead.of(get(id));
+  }
+
+  // Returns the stored Person for each of the specified ids, keyed by id. Ids without a Person are
+  // left out. By default the people are read one at a time.
+  public default Map<String, Person> getAll(Collection<String> ids) {
+    Map<String, Person> people = new HashMap<String, Person>();
+    for (String id : ids) {
+      get(id).ifPresent(person -> people.put(id, person));
+    }
+    return people;
+  }
+
+  // Returns the ids of everyone qualified to interview for job, without reading their Person
+  // objects.
+  public Set<String> getQualifiedIds(Job job);
+
   // Adds a Person object into storage.
   public void create(Person person);
 
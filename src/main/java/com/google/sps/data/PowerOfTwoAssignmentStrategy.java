@@ -0,0 +1,56 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.base.Preconditions;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Picks two candidates at random and chooses the one whose interviewer has fewer interviews in the
+ * week of the booking. This keeps nearly all of the balance of always choosing the least booked
+ * interviewer, but does not send every booking to the same person while the counts of several
+ * instances lag behind each other.
+ */
+public class PowerOfTwoAssignmentStrategy implements AssignmentStrategy {
+  private final InterviewerLoad load;
+  private final Random random;
+
+  public PowerOfTwoAssignmentStrategy(InterviewerLoad load, Random random) {
+    this.load = load;
+    this.random = random;
+  }
+
+  @Override
+  public <T> T choose(List<T> candidates, Function<T, String> interviewerOf, Instant when) {
+    Preconditions.checkArgument(!candidates.isEmpty(), "There are no candidates to choose from");
+    int firstIndex = random.nextInt(candidates.size());
+    T first = candidates.get(firstIndex);
+    if (candidates.size() == 1) {
+      return first;
+    }
+    // Picks the second from the others by skipping over the first's index.
+    int secondIndex = random.nextInt(candidates.size() - 1);
+    if (secondIndex >= firstIndex) {
+      secondIndex++;
+    }
+    T second = candidates.get(secondIndex);
+    int firstBooked = load.bookedInWeekOf(interviewerOf.apply(first), when);
+    int secondBooked = load.bookedInWeekOf(interviewerOf.apply(second), when);
+    return secondBooked < firstBooked ? second : first;
+  }
+}
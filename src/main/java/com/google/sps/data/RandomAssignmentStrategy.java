@@ -0,0 +1,36 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.base.Preconditions;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/** Chooses uniformly at random, without regard to how busy the interviewers are. */
+public class RandomAssignmentStrategy implements AssignmentStrategy {
+  private final Random random;
+
+  public RandomAssignmentStrategy(Random random) {
+    this.random = random;
+  }
+
+  @Override
+  public <T> T choose(List<T> candidates, Function<T, String> interviewerOf, Instant when) {
+    Preconditions.checkArgument(!candidates.isEmpty(), "There are no candidates to choose from");
+    return candidates.get(random.nextInt(candidates.size()));
+  }
+}
@@ -0,0 +1,34 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.Optional;
+
+/**
+ * ReminderDao includes the basic methods anything recording which reminders have been sent must
+ * support.
+ */
+public interface ReminderDao {
+  // Returns the last time bucket that the reminder scheduler finished, if it has run before.
+  public Optional<Long> getLastProcessedBucket();
+
+  // Records that the reminder scheduler finished the time bucket.
+  public void setLastProcessedBucket(long bucket);
+
+  // Records that the reminder of the given kind is being sent for the interview. Returns false,
+  // without recording anything, if it has been claimed already, so each reminder is sent at most
+  // once even if the scheduler runs twice at the same time.
+  public boolean claim(long scheduledInterviewId, ReminderKind kind);
+}
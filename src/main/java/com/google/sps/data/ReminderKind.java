@@ -0,0 +1,68 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/** The emails sent to the participants of an interview at set times around it. */
+public enum ReminderKind {
+  DAY_BEFORE("Reminder.txt", "Your mock interview is tomorrow!", Duration.ofHours(24), false),
+  FIFTEEN_MINUTES_BEFORE(
+      "Reminder.txt", "Your mock interview starts soon!", Duration.ofMinutes(15), false),
+  // Asks both sides for feedback once the interview is over.
+  FEEDBACK_NUDGE("FeedbackNudge.txt", "How did your mock interview go?", Duration.ofHours(1), true);
+
+  // Interviews are an hour long; the ScheduledInterview range queries depend on this too.
+  static final Duration INTERVIEW_LENGTH = Duration.ofHours(1);
+
+  private final String templateName;
+  private final String subject;
+  private final Duration offset;
+  private final boolean afterEnd;
+
+  private ReminderKind(String templateName, String subject, Duration offset, boolean afterEnd) {
+    this.templateName = templateName;
+    this.subject = subject;
+    this.offset = offset;
+    this.afterEnd = afterEnd;
+  }
+
+  public String templateName() {
+    return templateName;
+  }
+
+  public String subject() {
+    return subject;
+  }
+
+  // Returns when this reminder should go out for interview.
+  public Instant dueTime(ScheduledInterview interview) {
+    if (afterEnd) {
+      return interview.when().end().plus(offset);
+    }
+    return interview.when().start().minus(offset);
+  }
+
+  // Returns a range that contains every interview this reminder is due for between from and to.
+  // The range can hold interviews whose reminder is due outside of [from, to), so callers still
+  // check dueTime.
+  TimeRange interviewsDueBetween(Instant from, Instant to) {
+    if (afterEnd) {
+      return new TimeRange(from.minus(offset).minus(INTERVIEW_LENGTH), to.minus(offset));
+    }
+    return new TimeRange(from.plus(offset), to.plus(offset).plus(INTERVIEW_LENGTH));
+  }
+}
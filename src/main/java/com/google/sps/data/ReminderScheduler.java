@@ -0,0 +1,321 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.sps.utils.EmailTemplate;
+import com.google.sps.utils.EmailTemplates;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Sends the reminders in ReminderKind as they come due. Time is split into buckets of BUCKET_WIDTH,
+ * and each run sends the reminders due in every bucket up to the current one that has not been
+ * processed yet, so a bucket is processed once however often the scheduler runs. A reminder can go
+ * out up to one bucket before it is due.
+ *
+ * <p>Each run makes one range query per kind of reminder, covering every bucket it processes, and
+ * indexes the results by bucket rather than scanning all scheduled interviews. Reminders are
+ * claimed through ReminderDao before they are sent, so they are sent at most once even if runs
+ * overlap; a reminder whose email fails is counted and not retried.
+ */
+public class ReminderScheduler {
+  public static final Duration BUCKET_WIDTH = Duration.ofMinutes(5);
+  // After an outage, buckets further back than this are skipped rather than sent late.
+  static final int MAX_CATCH_UP_BUCKETS = 12;
+  static final String FEEDBACK_LINK_FORMAT =
+      "http://interview-me-step-2020.appspot.com/feedback.html?interview=%d&role=%s";
+  static final ImmutableSet<String> REMINDER_PLACEHOLDERS =
+      ImmutableSet.of("{{first_name}}", "{{formatted_date}}", "{{time_until}}", "{{chat_link}}");
+  static final ImmutableSet<String> FEEDBACK_NUDGE_PLACEHOLDERS =
+      ImmutableSet.of("{{first_name}}", "{{formatted_date}}", "{{form_link}}");
+  private static final Logger logger = Logger.getLogger(ReminderScheduler.class.getName());
+
+  private final ScheduledInterviewDao scheduledInterviewDao;
+  private final PersonDao personDao;
+  private final ReminderDao reminderDao;
+  private final EmailSender emailSender;
+  private final Clock clock;
+  private final ImmutableMap<ReminderKind, EmailTemplate> templates;
+
+  public ReminderScheduler(
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      ReminderDao reminderDao,
+      EmailSender emailSender,
+      Clock clock) {
+    this.scheduledInterviewDao = scheduledInterviewDao;
+    this.personDao = personDao;
+    this.reminderDao = reminderDao;
+    this.emailSender = emailSender;
+    this.clock = clock;
+    Map<ReminderKind, EmailTemplate> templates =
+        new EnumMap<ReminderKind, EmailTemplate>(ReminderKind.class);
+    for (ReminderKind kind : ReminderKind.values()) {
+      EmailTemplate template = EmailTemplates.get(kind.templateName());
+      template.checkFilledBy(
+          kind == ReminderKind.FEEDBACK_NUDGE
+              ? FEEDBACK_NUDGE_PLACEHOLDERS
+              : REMINDER_PLACEHOLDERS);
+      templates.put(kind, template);
+    }
+    this.templates = ImmutableMap.copyOf(templates);
+  }
+
+  /** What one run of the scheduler did. */
+  public static class Run {
+    private long bucketsProcessed;
+    private long bucketsSkipped;
+    private long remindersDue;
+    private long remindersAlreadyClaimed;
+    private long emailsSent;
+    private long emailsFailed;
+    private long elapsedMillis;
+
+    public long bucketsProcessed() {
+      return bucketsProcessed;
+    }
+
+    // Buckets that were too far in the past to send when the run caught up.
+    public long bucketsSkipped() {
+      return bucketsSkipped;
+    }
+
+    public long remindersDue() {
+      return remindersDue;
+    }
+
+    // Reminders that were due but that an earlier or overlapping run had already claimed.
+    public long remindersAlreadyClaimed() {
+      return remindersAlreadyClaimed;
+    }
+
+    public long emailsSent() {
+      return emailsSent;
+    }
+
+    public long emailsFailed() {
+      return emailsFailed;
+    }
+
+    public long elapsedMillis() {
+      return elapsedMillis;
+    }
+
+    public double emailsPerSecond() {
+      return elapsedMillis == 0 ? emailsSent : emailsSent * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d buckets (%d skipped), %d reminders due (%d already claimed), %d emails sent, "
+              + "%d failed in %d ms (%.1f emails/s)",
+          bucketsProcessed,
+          bucketsSkipped,
+          remindersDue,
+          remindersAlreadyClaimed,
+          emailsSent,
+          emailsFailed,
+          elapsedMillis,
+          emailsPerSecond());
+    }
+  }
+
+  // A reminder of one kind for one interview.
+  private static class DueReminder {
+    private final ReminderKind kind;
+    private final ScheduledInterview interview;
+
+    DueReminder(ReminderKind kind, ScheduledInterview interview) {
+      this.kind = kind;
+      this.interview = interview;
+    }
+  }
+
+  /** Sends the reminders in every bucket that is due and has not been processed yet. */
+  public Run runDueBuckets() {
+    long startNanos = System.nanoTime();
+    Run run = new Run();
+    long currentBucket = bucketOf(clock.instant());
+    long firstBucket = reminderDao.getLastProcessedBucket().map(b -> b + 1).orElse(currentBucket);
+    if (firstBucket < currentBucket - MAX_CATCH_UP_BUCKETS) {
+      run.bucketsSkipped = currentBucket - MAX_CATCH_UP_BUCKETS - firstBucket;
+      firstBucket = currentBucket - MAX_CATCH_UP_BUCKETS;
+    }
+
+    if (firstBucket <= currentBucket) {
+      TreeMap<Long, List<DueReminder>> index = indexByBucket(firstBucket, currentBucket);
+      for (long bucket = firstBucket; bucket <= currentBucket; bucket++) {
+        processBucket(index.getOrDefault(bucket, Collections.emptyList()), run);
+        reminderDao.setLastProcessedBucket(bucket);
+        run.bucketsProcessed++;
+      }
+    }
+    run.elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    logger.info("Reminder run: " + run);
+    return run;
+  }
+
+  static long bucketOf(Instant instant) {
+    return Math.floorDiv(instant.toEpochMilli(), BUCKET_WIDTH.toMillis());
+  }
+
+  static Instant bucketStart(long bucket) {
+    return Instant.ofEpochMilli(bucket * BUCKET_WIDTH.toMillis());
+  }
+
+  // Returns the reminders due from the start of firstBucket to the end of lastBucket, keyed by the
+  // bucket they are due in.
+  private TreeMap<Long, List<DueReminder>> indexByBucket(long firstBucket, long lastBucket) {
+    Instant from = bucketStart(firstBucket);
+    Instant to = bucketStart(lastBucket + 1);
+    TreeMap<Long, List<DueReminder>> index = new TreeMap<Long, List<DueReminder>>();
+    for (ReminderKind kind : ReminderKind.values()) {
+      TimeRange candidates = kind.interviewsDueBetween(from, to);
+      for (ScheduledInterview interview :
+          scheduledInterviewDao.getInRange(candidates.start(), candidates.end())) {
+        Instant due = kind.dueTime(interview);
+        if (due.isBefore(from) || !due.isBefore(to)) {
+          continue;
+        }
+        index
+            .computeIfAbsent(bucketOf(due), bucket -> new ArrayList<DueReminder>())
+            .add(new DueReminder(kind, interview));
+      }
+    }
+    return index;
+  }
+
+  private void processBucket(List<DueReminder> due, Run run) {
+    run.remindersDue += due.size();
+    List<DueReminder> claimed = new ArrayList<DueReminder>();
+    for (DueReminder reminder : due) {
+      if (reminderDao.claim(reminder.interview.id(), reminder.kind)) {
+        claimed.add(reminder);
+      } else {
+        run.remindersAlreadyClaimed++;
+      }
+    }
+    if (claimed.isEmpty()) {
+      return;
+    }
+
+    Map<String, Optional<Person>> participants = getParticipants(claimed);
+    Map<ReminderKind, List<EmailRecipient>> recipients =
+        new EnumMap<ReminderKind, List<EmailRecipient>>(ReminderKind.class);
+    for (DueReminder reminder : claimed) {
+      List<EmailRecipient> kindRecipients =
+          recipients.computeIfAbsent(reminder.kind, kind -> new ArrayList<EmailRecipient>());
+      ScheduledInterview interview = reminder.interview;
+      if (reminder.kind == ReminderKind.FEEDBACK_NUDGE) {
+        addNudge(
+            kindRecipients, interview, participants.get(interview.interviewerId()), "interviewer");
+        addNudge(
+            kindRecipients, interview, participants.get(interview.intervieweeId()), "interviewee");
+      } else {
+        for (String participantId : participantIds(reminder)) {
+          addReminder(kindRecipients, reminder, participants.get(participantId));
+        }
+      }
+    }
+
+    for (Map.Entry<ReminderKind, List<EmailRecipient>> kindRecipients : recipients.entrySet()) {
+      ReminderKind kind = kindRecipients.getKey();
+      List<EmailBatchResult> results =
+          emailSender.sendBulkEmail(templates.get(kind), kind.subject(), kindRecipients.getValue());
+      for (EmailBatchResult result : results) {
+        if (result.succeeded()) {
+          run.emailsSent += result.recipients().size();
+        } else {
+          run.emailsFailed += result.recipients().size();
+          logger.warning(
+              String.format(
+                  "%s reminders to %d recipients failed: %s",
+                  kind, result.recipients().size(), result.error().orElse("")));
+        }
+      }
+    }
+  }
+
+  // Starts every participant's read before waiting on any of them.
+  private Map<String, Optional<Person>> getParticipants(List<DueReminder> reminders) {
+    Map<String, PendingRead<Optional<Person>>> futures =
+        new HashMap<String, PendingRead<Optional<Person>>>();
+    for (DueReminder reminder : reminders) {
+      for (String participantId : participantIds(reminder)) {
+        futures.computeIfAbsent(participantId, personDao::getAsync);
+      }
+    }
+    Map<String, Optional<Person>> participants = new HashMap<String, Optional<Person>>();
+    for (Map.Entry<String, PendingRead<Optional<Person>>> future : futures.entrySet()) {
+      participants.put(future.getKey(), future.getValue().join());
+    }
+    return participants;
+  }
+
+  // Shadows are reminded about the interview but are not asked for feedback.
+  private static List<String> participantIds(DueReminder reminder) {
+    List<String> ids = new ArrayList<String>();
+    ids.add(reminder.interview.interviewerId());
+    ids.add(reminder.interview.intervieweeId());
+    if (reminder.kind != ReminderKind.FEEDBACK_NUDGE && !reminder.interview.shadowId().isEmpty()) {
+      ids.add(reminder.interview.shadowId());
+    }
+    return ids;
+  }
+
+  private static void addReminder(
+      List<EmailRecipient> recipients, DueReminder reminder, Optional<Person> participant) {
+    if (!participant.isPresent()) {
+      return;
+    }
+    Map<String, String> substitutions = new HashMap<String, String>();
+    substitutions.put("{{first_name}}", participant.get().firstName());
+    substitutions.put("{{formatted_date}}", reminder.interview.getDateString());
+    substitutions.put(
+        "{{time_until}}", reminder.kind == ReminderKind.DAY_BEFORE ? "tomorrow" : "in 15 minutes");
+    substitutions.put("{{chat_link}}", reminder.interview.meetLink());
+    recipients.add(EmailRecipient.create(new Email(participant.get().email()), substitutions));
+  }
+
+  // Each participant is sent the feedback form for their own role, as in the booking emails.
+  private static void addNudge(
+      List<EmailRecipient> recipients,
+      ScheduledInterview interview,
+      Optional<Person> participant,
+      String role) {
+    if (!participant.isPresent()) {
+      return;
+    }
+    Map<String, String> substitutions = new HashMap<String, String>();
+    substitutions.put("{{first_name}}", participant.get().firstName());
+    substitutions.put("{{formatted_date}}", interview.getDateString());
+    substitutions.put("{{form_link}}", String.format(FEEDBACK_LINK_FORMAT, interview.id(), role));
+    recipients.add(EmailRecipient.create(new Email(participant.get().email()), substitutions));
+  }
+}
@@ -66,6 +66,11 @@ public abstract class ScheduledInterview {
     return toBuilder().setShadowId(shadowId).build();
   }
 
+  // Returns a new ScheduledInterview with the old information stored under a new id.
+  public ScheduledInterview withId(long id) {
+    return toBuilder().setId(id).build();
+  }
+
   // Returns a new ScheduledInterview with the old information plus an added meetlink.
   public ScheduledInterview withMeetLink(String meetLink) {
     return toBuilder().setMeetLink(meetLink).build();
@@ -15,6 +15,8 @@
 package com.google.sps.data;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.List;
 
@@ -26,6 +28,12 @@ public interface ScheduledInterviewDao {
   // Returns the ScheduledInterview object.
   public Optional<ScheduledInterview> get(long id);
 
+  // Starts fetching the ScheduledInterview object. Implementations backed by an asynchronous store
+  // let several of these reads be in flight at once; by default the read happens immediately.
+  public default PendingRead<Optional<ScheduledInterview>> getAsync(long id) {
+    return PendingRead.of(get(id));
+  }
+
   // Returns a list, sorted by start time, of all ScheduledInterview objects ranging from
   // minTime to maxTime.
   public List<ScheduledInterview> getInRange(Instant minTime, Instant maxTime);
@@ -43,12 +51,60 @@ public interface ScheduledInterviewDao {
   public List<ScheduledInterview> getScheduledInterviewsInRangeForUser(
       String userId, Instant minTime, Instant maxTime);
 
+  // Starts fetching a list of all ScheduledInterview objects ranging from minTime to maxTime of a
+  // user. By default the read happens immediately.
+  public default PendingRead<List<ScheduledInterview>> getScheduledInterviewsInRangeForUserAsync(
+      String userId, Instant minTime, Instant maxTime) {
+    return PendingRead.of(getScheduledInterviewsInRangeForUser(userId, minTime, maxTime));
+  }
+
   // Creates a ScheduledInterview entity.
   public void create(ScheduledInterview scheduledInterview);
 
+  // Creates ScheduledInterview entities together and returns them, in the same order, with the
+  // ids they were stored under.
+  public List<ScheduledInterview> createAll(List<ScheduledInterview> scheduledInterviews);
+
+  // Creates a ScheduledInterview entity and marks the availabilities it takes as scheduled, as long
+  // as none of them has been scheduled or deleted since it was read. Returns the interview with
+  // the id it was stored under, or empty if an availability was taken first. By default the check
+  // and the writes are separate calls to availabilityDao and this, so a booking made between them
+  // isn't noticed; Datastore makes them in one transaction.
+  public default Optional<ScheduledInterview> createIfFree(
+      ScheduledInterview scheduledInterview,
+      List<Availability> availabilities,
+      AvailabilityDao availabilityDao) {
+    List<Availability> taken = new ArrayList<Availability>();
+    for (Availability avail : availabilities) {
+      Optional<Availability> current = availabilityDao.get(avail.id());
+      if (!current.isPresent() || current.get().scheduled()) {
+        return Optional.empty();
+      }
+      taken.add(current.get().withScheduled(true));
+    }
+    List<ScheduledInterview> created = createAll(Arrays.asList(scheduledInterview));
+    availabilityDao.updateAll(taken);
+    return Optional.of(created.get(0));
+  }
+
   // Updates a ScheduledInterview.
   public void update(ScheduledInterview scheduledInterview);
 
+  // Updates ScheduledInterviews together. By default they are updated one at a time.
+  public default void updateAll(List<ScheduledInterview> scheduledInterviews) {
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      update(scheduledInterview);
+    }
+  }
+
   // Deletes a ScheduledInterview entity.
   public void delete(long id);
+
+  // Deletes the ScheduledInterview entities with the given ids. By default they are deleted one at
+  // a time.
+  public default void deleteAll(List<Long> ids) {
+    for (long id : ids) {
+      delete(id);
+    }
+  }
 }
@@ -16,6 +16,9 @@ package com.google.sps.data;
 
 // using SendGrid's Java Library
 // https://github.com/sendgrid/sendgrid-java
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.sps.utils.EmailTemplate;
 import com.sendgrid.Method;
 import com.sendgrid.Request;
 import com.sendgrid.Response;
@@ -23,7 +26,12 @@ import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -33,28 +41,98 @@ import java.net.URL;
 // Handles sending emails.
 @WebServlet("/email")
 public class SendgridEmailSender implements EmailSender {
+  // SendGrid accepts at most this many personalizations in one request.
+  static final int MAX_PERSONALIZATIONS = 1000;
+  // SendGrid rejects a personalization whose substitutions add up to more than this many bytes.
+  static final int MAX_SUBSTITUTION_BYTES = 10000;
+
   private final Email sender;
   private final SendGrid sg;
 
   public SendgridEmailSender(Email sender) throws IOException {
+    this(sender, new SecretFetcher("interviewme2020").getSecretValue("SENDGRID_API_KEY"));
+  }
+
+  // Sends with an API key that has already been fetched.
+  public SendgridEmailSender(Email sender, String apiKey) {
+    this(sender, new SendGrid(apiKey));
+  }
+
+  // Sends through the given client, which tests point at a local server.
+  SendgridEmailSender(Email sender, SendGrid sg) {
     this.sender = sender;
-    this.sg =
-        new SendGrid(
-            new SecretFetcher("interviewme2020").getSecretValue("SENDGRID_API_KEY"));
+    this.sg = sg;
   }
 
   // Sends an email from the "sender" Email to the "recipient" Email, with specified subject and
   // content. Returns a response from the sendgrid email sending service.
   @Override
   public int sendEmail(Email recipient, String subject, Content content) throws IOException {
-    Mail mail = new Mail(sender, subject, recipient, content);
+    return send(new Mail(sender, subject, recipient, content));
+  }
+
+  // Sends the template once per batch of up to MAX_PERSONALIZATIONS recipients. SendGrid fills in
+  // each recipient's copy from their personalization's substitutions. Recipients whose
+  // substitutions are too large for a personalization are sent their own rendered email instead.
+  @Override
+  public ImmutableList<EmailBatchResult> sendBulkEmail(
+      EmailTemplate template, String subject, List<EmailRecipient> recipients) {
+    List<EmailRecipient> personalized = new ArrayList<EmailRecipient>();
+    List<EmailRecipient> oversized = new ArrayList<EmailRecipient>();
+    for (EmailRecipient recipient : recipients) {
+      if (substitutionBytes(recipient) > MAX_SUBSTITUTION_BYTES) {
+        oversized.add(recipient);
+      } else {
+        personalized.add(recipient);
+      }
+    }
+
+    ImmutableList.Builder<EmailBatchResult> results = ImmutableList.builder();
+    for (List<EmailRecipient> batch : Lists.partition(personalized, MAX_PERSONALIZATIONS)) {
+      results.add(sendBatch(template, subject, batch));
+    }
+    results.addAll(EmailSender.super.sendBulkEmail(template, subject, oversized));
+    return results.build();
+  }
 
+  private EmailBatchResult sendBatch(
+      EmailTemplate template, String subject, List<EmailRecipient> batch) {
+    Mail mail = new Mail();
+    mail.setFrom(sender);
+    mail.setSubject(subject);
+    mail.addContent(new Content("text/plain", template.text()));
+    List<Email> batchRecipients = new ArrayList<Email>();
+    for (EmailRecipient recipient : batch) {
+      Personalization personalization = new Personalization();
+      personalization.addTo(recipient.email());
+      for (Map.Entry<String, String> substitution : recipient.substitutions().entrySet()) {
+        personalization.addSubstitution(substitution.getKey(), substitution.getValue());
+      }
+      mail.addPersonalization(personalization);
+      batchRecipients.add(recipient.email());
+    }
+    try {
+      return EmailBatchResult.create(batchRecipients, send(mail));
+    } catch (IOException e) {
+      return EmailBatchResult.failed(batchRecipients, e.getMessage());
+    }
+  }
+
+  private int send(Mail mail) throws IOException {
     Request request = new Request();
-    Response response;
     request.setMethod(Method.POST);
     request.setEndpoint("mail/send");
     request.setBody(mail.build());
-    response = sg.api(request);
+    Response response = sg.api(request);
     return response.getStatusCode();
   }
+
+  private static int substitutionBytes(EmailRecipient recipient) {
+    int bytes = 0;
+    for (Map.Entry<String, String> substitution : recipient.substitutions().entrySet()) {
+      bytes += substitution.getKey().getBytes(StandardCharsets.UTF_8).length;
+      bytes += substitution.getValue().getBytes(StandardCharsets.UTF_8).length;
+    }
+    return bytes;
+  }
 }
@@ -0,0 +1,120 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A collection of TimeRanges kept in {@link TimeRange#ORDER_BY_START} order. Checking whether many
+ * instants fall within any of the ranges is done as a single merge of the two sorted lists instead
+ * of comparing every instant against every range.
+ */
+public final class SortedTimeRanges {
+  private final ImmutableList<TimeRange> ranges;
+
+  private SortedTimeRanges(ImmutableList<TimeRange> ranges) {
+    this.ranges = ranges;
+  }
+
+  /** Creates a SortedTimeRanges from ranges given in any order. */
+  public static SortedTimeRanges of(Collection<TimeRange> ranges) {
+    List<TimeRange> sortedRanges = new ArrayList<TimeRange>(ranges);
+    sortedRanges.sort(TimeRange.ORDER_BY_START);
+    return new SortedTimeRanges(ImmutableList.copyOf(sortedRanges));
+  }
+
+  /** Creates a SortedTimeRanges from the times of the given ScheduledInterviews. */
+  public static SortedTimeRanges ofScheduledInterviews(
+      Collection<ScheduledInterview> scheduledInterviews) {
+    List<TimeRange> ranges = new ArrayList<TimeRange>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      ranges.add(scheduledInterview.when());
+    }
+    return of(ranges);
+  }
+
+  /** Returns the ranges in ascending order of their start times. */
+  public ImmutableList<TimeRange> ranges() {
+    return ranges;
+  }
+
+  /**
+   * Returns, for each instant in {@code sortedInstants}, whether at least one of the ranges
+   * contains it (using the semantics of {@link TimeRange#contains(Instant)}). Both lists are walked
+   * once, so this is O(n + m).
+   *
+   * @throws IllegalArgumentException if the instants are not in ascending order.
+   */
+  public boolean[] containsEach(List<Instant> sortedInstants) {
+    boolean[] contained = new boolean[sortedInstants.size()];
+    // Every range that starts at or before the current instant could contain it, and it does so
+    // exactly when the latest end among those ranges is after the instant.
+    Instant latestEnd = Instant.MIN;
+    int nextRange = 0;
+    Instant previous = Instant.MIN;
+    for (int i = 0; i < sortedInstants.size(); i++) {
+      Instant instant = sortedInstants.get(i);
+      Preconditions.checkArgument(
+          !instant.isBefore(previous), "Instants are not sorted: %s before %s", previous, instant);
+      previous = instant;
+      while (nextRange < ranges.size() && !ranges.get(nextRange).start().isAfter(instant)) {
+        Instant end = ranges.get(nextRange).end();
+        if (end.isAfter(latestEnd)) {
+          latestEnd = end;
+        }
+        nextRange++;
+      }
+      contained[i] = latestEnd.isAfter(instant);
+    }
+    return contained;
+  }
+
+  /**
+   * Returns the items whose instant, as given by {@code instantOf}, falls within at least one of
+   * the ranges. {@code instantOf} is applied once per item; the items are then sorted by instant
+   * and checked with a single sweep.
+   */
+  public <T> Set<T> itemsContained(Collection<T> items, Function<T, Instant> instantOf) {
+    Map<T, Instant> instants = new HashMap<T, Instant>();
+    for (T item : items) {
+      instants.put(item, instantOf.apply(item));
+    }
+    List<T> sortedItems = new ArrayList<T>(instants.keySet());
+    sortedItems.sort(Comparator.comparing(instants::get));
+    List<Instant> sortedInstants = new ArrayList<Instant>();
+    for (T item : sortedItems) {
+      sortedInstants.add(instants.get(item));
+    }
+    boolean[] contained = containsEach(sortedInstants);
+    Set<T> containedItems = new HashSet<T>();
+    for (int i = 0; i < sortedItems.size(); i++) {
+      if (contained[i]) {
+        containedItems.add(sortedItems.get(i));
+      }
+    }
+    return containedItems;
+  }
+}
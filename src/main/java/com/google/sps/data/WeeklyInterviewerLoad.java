@@ -0,0 +1,114 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory count of each interviewer's interviews per week. A week is loaded from
+ * ScheduledInterviewDao the first time it is asked about and is then kept up to date by
+ * LoadTrackingScheduledInterviewDao as interviews are written. Every instance keeps its own counts,
+ * so a week is reloaded once it is RELOAD_AFTER old to pick up the other instances' bookings; in
+ * between the counts are approximate, which is all that spreading interviews out needs.
+ */
+public class WeeklyInterviewerLoad implements InterviewerLoad {
+  static final Duration RELOAD_AFTER = Duration.ofMinutes(10);
+
+  private final ScheduledInterviewDao scheduledInterviewDao;
+  private final Clock clock;
+  private final Map<LocalDate, Week> weeks = new ConcurrentHashMap<LocalDate, Week>();
+
+  // The interview counts of one week, keyed by interviewer id.
+  private static class Week {
+    private final Instant loadedAt;
+    private final Map<String, AtomicInteger> booked =
+        new ConcurrentHashMap<String, AtomicInteger>();
+
+    Week(Instant loadedAt) {
+      this.loadedAt = loadedAt;
+    }
+
+    void add(String interviewerId, int delta) {
+      booked.computeIfAbsent(interviewerId, id -> new AtomicInteger()).addAndGet(delta);
+    }
+  }
+
+  /**
+   * @param scheduledInterviewDao where weeks are loaded from. This should not be a
+   *     LoadTrackingScheduledInterviewDao, since the counts are only changed through record.
+   */
+  public WeeklyInterviewerLoad(ScheduledInterviewDao scheduledInterviewDao, Clock clock) {
+    this.scheduledInterviewDao = scheduledInterviewDao;
+    this.clock = clock;
+  }
+
+  @Override
+  public int bookedInWeekOf(String interviewerId, Instant when) {
+    AtomicInteger booked = week(weekOf(when)).booked.get(interviewerId);
+    return booked == null ? 0 : booked.get();
+  }
+
+  // Adds delta to the count of the interview's week for its interviewer. Weeks that have not been
+  // loaded are left alone, since loading them will read the write.
+  void record(ScheduledInterview interview, int delta) {
+    Week week = weeks.get(weekOf(interview.when().start()));
+    if (week != null) {
+      week.add(interview.interviewerId(), delta);
+    }
+  }
+
+  private Week week(LocalDate weekStart) {
+    Instant now = clock.instant();
+    Week week = weeks.get(weekStart);
+    if (week != null && week.loadedAt.plus(RELOAD_AFTER).isAfter(now)) {
+      return week;
+    }
+    // Weeks that are over will not be booked into again.
+    weeks.keySet().removeIf(loaded -> loaded.isBefore(weekOf(now)));
+    week = load(weekStart, now);
+    weeks.put(weekStart, week);
+    return week;
+  }
+
+  private Week load(LocalDate weekStart, Instant now) {
+    Week week = new Week(now);
+    Instant start = weekStart.atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant end = weekStart.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    // getInRange only returns interviews that end by its maxTime, so it is stretched to include
+    // interviews that start at the end of the week.
+    for (ScheduledInterview interview :
+        scheduledInterviewDao.getInRange(start, end.plus(ReminderKind.INTERVIEW_LENGTH))) {
+      if (interview.when().start().isBefore(end)) {
+        week.add(interview.interviewerId(), 1);
+      }
+    }
+    return week;
+  }
+
+  static LocalDate weekOf(Instant when) {
+    return when.atZone(ZoneOffset.UTC)
+        .toLocalDate()
+        .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+  }
+}
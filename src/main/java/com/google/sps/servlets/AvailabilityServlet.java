@@ -14,10 +14,7 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.sps.data.Availability;
 import com.google.sps.data.AvailabilityDao;
@@ -26,6 +23,7 @@ import com.google.sps.data.DatastoreScheduledInterviewDao;
 import com.google.sps.data.PutAvailabilityRequest;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
+import com.google.sps.data.SortedTimeRanges;
 import com.google.sps.data.TimeRange;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -33,6 +31,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -64,7 +63,7 @@ public class AvailabilityServlet extends HttpServlet {
 
     PutAvailabilityRequest utcEncodings;
     try {
-      utcEncodings = new Gson().fromJson(jsonString, PutAvailabilityRequest.class);
+      utcEncodings = SharedResources.gson().fromJson(jsonString, PutAvailabilityRequest.class);
     } catch (JsonSyntaxException jse) {
       response.sendError(400);
       return;
@@ -74,14 +73,7 @@ public class AvailabilityServlet extends HttpServlet {
       return;
     }
 
-    UserService userService = UserServiceFactory.getUserService();
-    String email = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", email.hashCode());
-    }
+    String userId = CurrentUser.of(request).userId();
 
     Instant minTime = Instant.parse(utcEncodings.getFirstSlot());
     // The last slot for the week starts 15 minutes before the true end of the week.
@@ -89,22 +81,21 @@ public class AvailabilityServlet extends HttpServlet {
     availabilityDao.deleteInRangeForUser(userId, minTime, maxTime);
     List<ScheduledInterview> scheduledInterviewsForUser =
         scheduledInterviewDao.getScheduledInterviewsInRangeForUser(userId, minTime, maxTime);
+    // Marked slots that fall within one of the user's interviews are stored as scheduled.
+    Set<String> scheduledSlots =
+        SortedTimeRanges.ofScheduledInterviews(scheduledInterviewsForUser)
+            .itemsContained(utcEncodings.getMarkedSlots(), Instant::parse);
+    List<Availability> marked = new ArrayList<Availability>();
     for (String markedSlot : utcEncodings.getMarkedSlots()) {
-      createAndStoreAvailability(markedSlot, userId, scheduledInterviewsForUser);
+      marked.add(toAvailability(markedSlot, userId, scheduledSlots.contains(markedSlot)));
     }
+    availabilityDao.createAll(marked);
+    LoadInterviewsServlet.invalidateSearchCache();
   }
 
-  private void createAndStoreAvailability(
-      String utc, String userId, List<ScheduledInterview> scheduledInterviews) {
-    TimeRange when =
-        new TimeRange(Instant.parse(utc), Instant.parse(utc).plus(15, ChronoUnit.MINUTES));
-    boolean scheduled = false;
-    for (ScheduledInterview interview : scheduledInterviews) {
-      if (interview.when().contains(Instant.parse(utc))) {
-        scheduled = true;
-      }
-    }
-    Availability avail = Availability.create(userId, when, -1, scheduled);
-    availabilityDao.create(avail);
+  private Availability toAvailability(String utc, String userId, boolean scheduled) {
+    Instant start = Instant.parse(utc);
+    TimeRange when = new TimeRange(start, start.plus(15, ChronoUnit.MINUTES));
+    return Availability.create(userId, when, -1, scheduled);
   }
 }
@@ -0,0 +1,86 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.DatastoreAvailabilityDao;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet an admin runs to rebuild the per-day availability summaries, such as after deploying
+// them over existing availability, which searches can't see until this has run. Takes optional
+// "from" and "to" dates (yyyy-MM-dd, UTC) spanning at most DEFAULT_DAYS days; by default it
+// rebuilds the days that interviews can currently be booked for.
+@WebServlet("/admin/rebuild-availability-summaries")
+public class AvailabilitySummaryBackfillServlet extends HttpServlet {
+  // LoadInterviewsServlet offers interviews up to 27 days ahead, so this covers every day that
+  // the summaries are read for. It is also the most one request rebuilds, since each day is a
+  // query over all of that day's availability.
+  static final int DEFAULT_DAYS = 28;
+  private DatastoreAvailabilityDao availabilityDao;
+  private Clock clock;
+
+  @Override
+  public void init() {
+    init(new DatastoreAvailabilityDao(), Clock.systemUTC());
+  }
+
+  public void init(DatastoreAvailabilityDao availabilityDao, Clock clock) {
+    this.availabilityDao = availabilityDao;
+    this.clock = clock;
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!CurrentUser.of(request).isAdmin()) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    LocalDate from;
+    LocalDate to;
+    try {
+      from = dateParameter(request, "from", LocalDate.now(clock));
+      to = dateParameter(request, "to", from.plusDays(DEFAULT_DAYS - 1));
+    } catch (DateTimeParseException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= DEFAULT_DAYS) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    int written = availabilityDao.rebuildDaySummaries(from, to);
+    Map<String, Object> result = new LinkedHashMap<String, Object>();
+    result.put("from", from.toString());
+    result.put("to", to.toString());
+    result.put("summariesWritten", written);
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(result));
+  }
+
+  private static LocalDate dateParameter(
+      HttpServletRequest request, String name, LocalDate defaultDate) {
+    String value = request.getParameter(name);
+    return value == null ? defaultDate : LocalDate.parse(value);
+  }
+}
@@ -0,0 +1,76 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.AvailabilityDao;
+import com.google.sps.data.AvailabilityTimeSlot;
+import com.google.sps.data.AvailabilityTimeSlotGenerator;
+import com.google.sps.data.DatastoreAvailabilityDao;
+import com.google.sps.views.AvailabilityTableView;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that shows the current user a week of time slots, marking the ones they are available
+// for and the ones they have interviews in.
+@WebServlet("/availability-table")
+public class AvailabilityTableServlet extends HttpServlet {
+  private AvailabilityDao availabilityDao;
+  private Clock clock;
+
+  @Override
+  public void init() {
+    init(new DatastoreAvailabilityDao(), Clock.systemUTC());
+  }
+
+  public void init(AvailabilityDao availabilityDao, Clock clock) {
+    this.availabilityDao = availabilityDao;
+    this.clock = clock;
+  }
+
+  // Takes the user's timeZoneOffset in minutes and the page, the number of weeks from this one.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    int timeZoneOffset;
+    int daysOffset;
+    try {
+      timeZoneOffset = Integer.parseInt(request.getParameter("timeZoneOffset"));
+      daysOffset = Integer.parseInt(request.getParameter("page")) * 7;
+    } catch (NumberFormatException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    List<List<AvailabilityTimeSlot>> availabilityTable =
+        AvailabilityTimeSlotGenerator.timeSlotsForWeek(
+            clock.instant().plus(daysOffset, ChronoUnit.DAYS),
+            timeZoneOffset,
+            CurrentUser.of(request).userId(),
+            availabilityDao);
+    request.setAttribute("availabilityTable", availabilityTable);
+    RequestDispatcher rd = request.getRequestDispatcher(AvailabilityTableView.PATH);
+    try {
+      rd.forward(request, response);
+    } catch (ServletException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,389 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.sps.data.AssignmentStrategy;
+import com.google.sps.data.AsyncDatastoreAvailabilityDao;
+import com.google.sps.data.AsyncDatastorePersonDao;
+import com.google.sps.data.AsyncDatastoreScheduledInterviewDao;
+import com.google.sps.data.Availability;
+import com.google.sps.data.AvailabilityDao;
+import com.google.sps.data.BatchBookingResult;
+import com.google.sps.data.CalendarAccess;
+import com.google.sps.data.EmailRecipient;
+import com.google.sps.data.EmailSender;
+import com.google.sps.data.InterviewPostOrPutRequest;
+import com.google.sps.data.Job;
+import com.google.sps.data.LoadTrackingScheduledInterviewDao;
+import com.google.sps.data.PendingRead;
+import com.google.sps.data.Person;
+import com.google.sps.data.PersonDao;
+import com.google.sps.data.PowerOfTwoAssignmentStrategy;
+import com.google.sps.data.ScheduledInterview;
+import com.google.sps.data.ScheduledInterviewDao;
+import com.google.sps.data.TimeRange;
+import com.google.sps.data.WeeklyInterviewerLoad;
+import com.google.sps.utils.EmailTemplate;
+import com.google.sps.utils.EmailTemplates;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Books several interviews for the current user in one request. The request body is a JSON list of
+ * InterviewPostOrPutRequests and the response is a JSON list of BatchBookingResults in the same
+ * order. Existing interviews and profiles are read once for the whole batch rather than once per
+ * interview, and availability once per distinct hour asked for. Each new interview is written in a
+ * transaction of its own along with the availabilities it takes, which are read again there, so an
+ * item whose interviewer was booked by someone else since the batch read is reported as a conflict.
+ */
+@WebServlet("/batch-scheduled-interviews")
+public class BatchScheduledInterviewServlet extends HttpServlet {
+  // Bounds the time range read for a batch, and how long the request spends on calendar events.
+  static final int MAX_BATCH_SIZE = 20;
+  // The number of 15 minute availabilities that make up an hour long interview.
+  private static final int SLOTS_PER_INTERVIEW = 4;
+  private static final Logger logger =
+      Logger.getLogger(BatchScheduledInterviewServlet.class.getName());
+
+  private ScheduledInterviewDao scheduledInterviewDao;
+  private AvailabilityDao availabilityDao;
+  private PersonDao personDao;
+  private CalendarAccess calendarAccess;
+  private EmailSender emailSender;
+  private AssignmentStrategy assignmentStrategy;
+  private final EmailTemplate interviewerTemplate =
+      EmailTemplates.get("NewInterview_Interviewer.txt");
+  private final EmailTemplate intervieweeTemplate =
+      EmailTemplates.get("NewInterview_Interviewee.txt");
+
+  @Override
+  public void init() {
+    WeeklyInterviewerLoad load = SharedResources.interviewerLoad();
+    init(
+        new LoadTrackingScheduledInterviewDao(new AsyncDatastoreScheduledInterviewDao(), load),
+        new AsyncDatastoreAvailabilityDao(),
+        new AsyncDatastorePersonDao(),
+        SharedResources.calendar(),
+        SharedResources.emailSender(),
+        new PowerOfTwoAssignmentStrategy(load, new Random()));
+  }
+
+  public void init(
+      ScheduledInterviewDao scheduledInterviewDao,
+      AvailabilityDao availabilityDao,
+      PersonDao personDao,
+      CalendarAccess calendarAccess,
+      EmailSender emailSender,
+      AssignmentStrategy assignmentStrategy) {
+    this.scheduledInterviewDao = scheduledInterviewDao;
+    this.availabilityDao = availabilityDao;
+    this.personDao = personDao;
+    this.calendarAccess = calendarAccess;
+    this.emailSender = emailSender;
+    this.assignmentStrategy = assignmentStrategy;
+    interviewerTemplate.checkFilledBy(ScheduledInterviewServlet.NEW_INTERVIEW_PLACEHOLDERS);
+    intervieweeTemplate.checkFilledBy(ScheduledInterviewServlet.NEW_INTERVIEW_PLACEHOLDERS);
+  }
+
+  // Books an interview for each item in the request that can be booked, and reports what happened
+  // to every item.
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    String intervieweeId = CurrentUser.of(request).userId();
+    InterviewPostOrPutRequest[] items;
+    try {
+      items =
+          SharedResources.gson()
+              .fromJson(
+                  ScheduledInterviewServlet.getJsonString(request),
+                  InterviewPostOrPutRequest[].class);
+    } catch (JsonSyntaxException jse) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    if (items == null || items.length == 0 || items.length > MAX_BATCH_SIZE) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+
+    List<BatchBookingResult> results = new ArrayList<BatchBookingResult>();
+    List<TimeRange> ranges = new ArrayList<TimeRange>();
+    Instant windowStart = null;
+    Instant windowEnd = null;
+    for (InterviewPostOrPutRequest item : items) {
+      TimeRange range = parseRange(item);
+      ranges.add(range);
+      results.add(range == null ? invalid(item) : null);
+      if (range == null) {
+        continue;
+      }
+      if (windowStart == null || range.start().isBefore(windowStart)) {
+        windowStart = range.start();
+      }
+      if (windowEnd == null || range.end().isAfter(windowEnd)) {
+        windowEnd = range.end();
+      }
+    }
+    if (windowStart == null) {
+      writeResults(response, results);
+      return;
+    }
+
+    // The user's own interviews are read once for the span of time the batch covers. Interviews
+    // are an hour long, so any that overlaps the span lies within an hour of it.
+    PendingRead<List<ScheduledInterview>> existingInterviewsFuture =
+        scheduledInterviewDao.getScheduledInterviewsInRangeForUserAsync(
+            intervieweeId,
+            windowStart.minus(1, ChronoUnit.HOURS),
+            windowEnd.plus(1, ChronoUnit.HOURS));
+    // Everyone's availability is only read for the hours the items ask for, not the whole span,
+    // so the read is bounded by MAX_BATCH_SIZE however far apart the items are.
+    List<TimeRange> itemRanges = new ArrayList<TimeRange>();
+    for (TimeRange range : ranges) {
+      if (range != null && !itemRanges.contains(range)) {
+        itemRanges.add(range);
+      }
+    }
+    Map<String, List<Availability>> freeAvailabilities = new HashMap<String, List<Availability>>();
+    Set<Long> readAvailabilityIds = new HashSet<Long>();
+    for (TimeRange range : itemRanges) {
+      for (Availability avail : availabilityDao.getInRangeForAll(range.start(), range.end())) {
+        // Items may overlap, so a slot can be read more than once.
+        if (!avail.scheduled() && readAvailabilityIds.add(avail.id())) {
+          freeAvailabilities.computeIfAbsent(avail.userId(), k -> new ArrayList<Availability>());
+          freeAvailabilities.get(avail.userId()).add(avail);
+        }
+      }
+    }
+    Map<String, PendingRead<Optional<Person>>> peopleFutures =
+        new HashMap<String, PendingRead<Optional<Person>>>();
+    peopleFutures.put(intervieweeId, personDao.getAsync(intervieweeId));
+    for (String userId : freeAvailabilities.keySet()) {
+      peopleFutures.putIfAbsent(userId, personDao.getAsync(userId));
+    }
+    Map<String, Optional<Person>> people = new HashMap<String, Optional<Person>>();
+    for (Map.Entry<String, PendingRead<Optional<Person>>> entry : peopleFutures.entrySet()) {
+      people.put(entry.getKey(), entry.getValue().join());
+    }
+
+    // Items are booked in the order they were given, so an earlier item takes precedence over a
+    // later one wanting the same interviewer's time.
+    List<TimeRange> bookedRanges = new ArrayList<TimeRange>();
+    for (ScheduledInterview existing : existingInterviewsFuture.join()) {
+      bookedRanges.add(existing.when());
+    }
+    Set<Long> usedAvailabilityIds = new HashSet<Long>();
+    List<Integer> bookedItems = new ArrayList<Integer>();
+    List<ScheduledInterview> created = new ArrayList<ScheduledInterview>();
+    for (int i = 0; i < items.length; i++) {
+      TimeRange range = ranges.get(i);
+      if (range == null) {
+        continue;
+      }
+      if (overlapsAny(bookedRanges, range)) {
+        results.set(i, BatchBookingResult.notBooked(items[i], BatchBookingResult.Status.CONFLICT));
+        continue;
+      }
+      Job position = Job.valueOf(items[i].getPosition());
+      Map<String, List<Availability>> candidates = new HashMap<String, List<Availability>>();
+      for (Map.Entry<String, List<Availability>> entry : freeAvailabilities.entrySet()) {
+        String userId = entry.getKey();
+        Optional<Person> person = people.get(userId);
+        if (userId.equals(intervieweeId)
+            || !person.isPresent()
+            || !person.get().qualifiedJobs().contains(position)
+            || !person.get().company().equals(items[i].getCompany())
+            || !person.get().job().equals(items[i].getJob())) {
+          continue;
+        }
+        List<Availability> slots = freeSlotsIn(entry.getValue(), range, usedAvailabilityIds);
+        if (slots.size() == SLOTS_PER_INTERVIEW) {
+          candidates.put(userId, slots);
+        }
+      }
+      if (candidates.isEmpty()) {
+        results.set(
+            i, BatchBookingResult.notBooked(items[i], BatchBookingResult.Status.NO_INTERVIEWER));
+        continue;
+      }
+      String interviewerId =
+          assignmentStrategy.choose(
+              new ArrayList<String>(candidates.keySet()), id -> id, range.start());
+      // Since an interview is being scheduled, both parties' availabilities must be updated.
+      List<Availability> taken = new ArrayList<Availability>(candidates.get(interviewerId));
+      taken.addAll(
+          freeSlotsIn(
+              freeAvailabilities.getOrDefault(intervieweeId, new ArrayList<Availability>()),
+              range,
+              usedAvailabilityIds));
+      for (Availability avail : taken) {
+        usedAvailabilityIds.add(avail.id());
+      }
+      // Shadow is empty because when an interview is first made, only interviewee and
+      // interviewer are involved.
+      Optional<ScheduledInterview> interview =
+          scheduledInterviewDao.createIfFree(
+              ScheduledInterview.create(
+                  -1,
+                  range,
+                  interviewerId,
+                  intervieweeId,
+                  /*meetLink*/ "",
+                  position,
+                  /*shadowId=*/ ""),
+              taken,
+              availabilityDao);
+      if (!interview.isPresent()) {
+        results.set(i, BatchBookingResult.notBooked(items[i], BatchBookingResult.Status.CONFLICT));
+        continue;
+      }
+      bookedRanges.add(range);
+      bookedItems.add(i);
+      created.add(interview.get());
+    }
+    if (created.isEmpty()) {
+      writeResults(response, results);
+      return;
+    }
+
+    List<ScheduledInterview> withMeetLinks = new ArrayList<ScheduledInterview>();
+    for (ScheduledInterview interview : created) {
+      try {
+        withMeetLinks.add(interview.withMeetLink(calendarAccess.getMeetLink(interview)));
+      } catch (IOException | GeneralSecurityException e) {
+        // The interview is already booked, so it keeps an empty link rather than failing.
+        logger.log(Level.WARNING, "Could not create a meet link for " + interview.id(), e);
+        withMeetLinks.add(interview);
+      }
+    }
+    scheduledInterviewDao.updateAll(withMeetLinks);
+    LoadInterviewsServlet.invalidateSearchCache();
+    for (int j = 0; j < bookedItems.size(); j++) {
+      int item = bookedItems.get(j);
+      results.set(item, BatchBookingResult.booked(items[item], withMeetLinks.get(j).id()));
+    }
+
+    sendEmails(withMeetLinks, people);
+    writeResults(response, results);
+  }
+
+  // Returns the hour long interview an item asks for, or null if the item is incomplete or can't
+  // be read.
+  private static TimeRange parseRange(InterviewPostOrPutRequest item) {
+    if (item == null || !item.allFieldsPopulated()) {
+      return null;
+    }
+    try {
+      Job.valueOf(item.getPosition());
+      Instant start = Instant.parse(item.getUtcStartTime());
+      return new TimeRange(start, start.plus(1, ChronoUnit.HOURS));
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static BatchBookingResult invalid(InterviewPostOrPutRequest item) {
+    if (item == null) {
+      item = new InterviewPostOrPutRequest(null, null, null, null);
+    }
+    return BatchBookingResult.notBooked(item, BatchBookingResult.Status.INVALID);
+  }
+
+  private static boolean overlapsAny(List<TimeRange> ranges, TimeRange range) {
+    for (TimeRange other : ranges) {
+      if (other.overlaps(range)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // The availabilities within range that haven't been taken by an earlier item in the batch.
+  private static List<Availability> freeSlotsIn(
+      List<Availability> availabilities, TimeRange range, Set<Long> usedAvailabilityIds) {
+    List<Availability> slots = new ArrayList<Availability>();
+    for (Availability avail : availabilities) {
+      if (range.contains(avail.when()) && !usedAvailabilityIds.contains(avail.id())) {
+        slots.add(avail);
+      }
+    }
+    return slots;
+  }
+
+  // Sends every interviewee email in one bulk send and every interviewer email in another.
+  private void sendEmails(
+      List<ScheduledInterview> interviews, Map<String, Optional<Person>> people) {
+    List<EmailRecipient> interviewees = new ArrayList<EmailRecipient>();
+    List<EmailRecipient> interviewers = new ArrayList<EmailRecipient>();
+    for (ScheduledInterview interview : interviews) {
+      Optional<Person> interviewer = people.get(interview.interviewerId());
+      Optional<Person> interviewee = people.get(interview.intervieweeId());
+      Map<String, String> emailedDetails = new HashMap<String, String>();
+      emailedDetails.put(
+          "{{formatted_date}}", ScheduledInterviewServlet.getEmailDateString(interview.when()));
+      emailedDetails.put(
+          "{{interviewer_first_name}}", interviewer.map(Person::firstName).orElse("None"));
+      emailedDetails.put(
+          "{{interviewee_first_name}}", interviewee.map(Person::firstName).orElse("None"));
+      emailedDetails.put(
+          "{{position}}",
+          ScheduledInterviewServlet.formatPositionString(interview.position().name()));
+      emailedDetails.put("{{chat_link}}", interview.meetLink());
+      if (interviewee.isPresent()) {
+        emailedDetails.put(
+            "{{form_link}}",
+            ScheduledInterviewServlet.getFeedbackLink(interview.id(), "interviewee"));
+        interviewees.add(
+            EmailRecipient.create(new Email(interviewee.get().email()), emailedDetails));
+      }
+      if (interviewer.isPresent()) {
+        emailedDetails.put(
+            "{{form_link}}",
+            ScheduledInterviewServlet.getFeedbackLink(interview.id(), "interviewer"));
+        interviewers.add(
+            EmailRecipient.create(new Email(interviewer.get().email()), emailedDetails));
+      }
+    }
+    emailSender.sendBulkEmail(
+        intervieweeTemplate, "You have been registered for a mock interview!", interviewees);
+    emailSender.sendBulkEmail(
+        interviewerTemplate, "You have been requested to conduct a mock interview!", interviewers);
+  }
+
+  private static void writeResults(HttpServletResponse response, List<BatchBookingResult> results)
+      throws IOException {
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(results));
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.BookingStats;
+import com.google.sps.data.CachedCounterDao;
+import com.google.sps.data.DatastoreCounterDao;
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that the task queue calls to change one booking counter, for the tasks BookingStats adds
+// when interviews are written. Takes the "counter" and the "delta" to add to it. A failed add
+// responds with an error, so the queue retries the task.
+@WebServlet(BookingStats.TASK_PATH)
+public class BookingCountsTaskServlet extends HttpServlet {
+  private BookingStats bookingStats;
+
+  @Override
+  public void init() {
+    init(new BookingStats(new CachedCounterDao(new DatastoreCounterDao())));
+  }
+
+  public void init(BookingStats bookingStats) {
+    this.bookingStats = bookingStats;
+  }
+
+  // App Engine strips the queue header from outside requests, so only the task queue can count.
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (request.getHeader("X-AppEngine-QueueName") == null) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    String counter = request.getParameter("counter");
+    long delta;
+    try {
+      delta = Long.parseLong(request.getParameter("delta"));
+    } catch (NumberFormatException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    if (counter == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    bookingStats.add(counter, delta);
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.BookingStats;
+import com.google.sps.data.CachedCounterDao;
+import com.google.sps.data.DatastoreCounterDao;
+import com.google.sps.data.Job;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that returns booking counts. Interviewers can read how many interviews they have in a
+// week; admins can also read anyone else's and how many interviews a position has on a day.
+@WebServlet("/booking-stats")
+public class BookingStatsServlet extends HttpServlet {
+  private BookingStats bookingStats;
+  private Clock clock;
+
+  @Override
+  public void init() {
+    init(new BookingStats(new CachedCounterDao(new DatastoreCounterDao())), Clock.systemUTC());
+  }
+
+  public void init(BookingStats bookingStats, Clock clock) {
+    this.bookingStats = bookingStats;
+    this.clock = clock;
+  }
+
+  // Takes either an interviewer parameter, defaulting to the current user, or a position, and a
+  // UTC date, defaulting to today. An interviewer's count is for the week containing the date.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    CurrentUser currentUser = CurrentUser.of(request);
+    if (!currentUser.isLoggedIn()) {
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
+    }
+    String userId = currentUser.userId();
+
+    LocalDate date;
+    String dateParameter = request.getParameter("date");
+    try {
+      date = dateParameter == null ? LocalDate.now(clock) : LocalDate.parse(dateParameter);
+    } catch (DateTimeParseException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+
+    BookingCount count = new BookingCount();
+    String position = request.getParameter("position");
+    if (position != null) {
+      if (!currentUser.isAdmin()) {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+      try {
+        count.interviews = bookingStats.interviewsForPositionOnDay(Job.valueOf(position), date);
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        return;
+      }
+    } else {
+      String interviewerId = request.getParameter("interviewer");
+      if (interviewerId == null) {
+        interviewerId = userId;
+      } else if (!interviewerId.equals(userId) && !currentUser.isAdmin()) {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+      count.interviews = bookingStats.interviewsForInterviewerInWeek(interviewerId, date);
+    }
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(count));
+  }
+
+  private static class BookingCount {
+    long interviews;
+  }
+}
@@ -0,0 +1,105 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.sps.data.AsyncDatastorePersonDao;
+import com.google.sps.data.PendingRead;
+import com.google.sps.data.Person;
+import com.google.sps.data.PersonDao;
+import java.io.IOException;
+import java.util.Optional;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that returns everything a page needs when it first loads: the login state, the user's
+// Person and, if a view is named, the contents the page would otherwise fetch next. This saves
+// pages from waiting on /login, then /person, then their own data one after another.
+@WebServlet("/bootstrap")
+public class BootstrapServlet extends HttpServlet {
+  // The views that can be loaded with the bootstrap, and the path that renders each of them. The
+  // bootstrap request's parameters are passed through to that path unchanged.
+  static final ImmutableMap<String, String> VIEWS =
+      ImmutableMap.of(
+          "scheduled-interviews", "/scheduled-interviews",
+          "availability", "/availability-table",
+          "feedback", "/feedback");
+
+  private PersonDao personDao;
+
+  @Override
+  public void init() {
+    init(new AsyncDatastorePersonDao());
+  }
+
+  public void init(PersonDao personDao) {
+    this.personDao = personDao;
+  }
+
+  // Takes an optional view parameter naming one of VIEWS. Responds with a Bootstrap; the person
+  // and the view are left out if the user hasn't registered.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    String view = request.getParameter("view");
+    if (view != null && !VIEWS.containsKey(view)) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    CurrentUser currentUser = CurrentUser.of(request);
+    Bootstrap bootstrap = new Bootstrap(LogInServlet.getLoginInfo(request, "/"));
+    if (currentUser.isLoggedIn()) {
+      // The profile read is sent first so that it is in flight while the view renders.
+      PendingRead<Optional<Person>> profile = currentUser.profileAsync(request, personDao);
+      if (view != null) {
+        CapturedResponse rendered = new CapturedResponse(response);
+        try {
+          RequestDispatcher dispatcher = request.getRequestDispatcher(VIEWS.get(view));
+          dispatcher.include(request, rendered);
+        } catch (ServletException e) {
+          throw new RuntimeException(e);
+        }
+        bootstrap.viewStatus = rendered.getStatus();
+        if (rendered.getStatus() == HttpServletResponse.SC_OK) {
+          bootstrap.view = rendered.text();
+        }
+      }
+      bootstrap.person = profile.join().orElse(null);
+      if (bootstrap.person == null) {
+        // Unregistered users are sent to registration, so they never see the view.
+        bootstrap.view = null;
+        bootstrap.viewStatus = null;
+      }
+    }
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(bootstrap));
+  }
+
+  // What a page needs when it first loads. Fields that don't apply are null and left out.
+  static class Bootstrap {
+    final LogInServlet.LoginInfo login;
+    Person person;
+    // The rendered view, if it rendered successfully.
+    String view;
+    Integer viewStatus;
+
+    Bootstrap(LogInServlet.LoginInfo login) {
+      this.login = login;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Keeps the body written to a response in memory rather than sending it, so that a filter or
+ * servlet can decide what to do with it afterwards. Headers and status still go to the wrapped
+ * response.
+ */
+class BufferedResponse extends HttpServletResponseWrapper {
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+  private final ServletOutputStream outputStream =
+      new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+          body.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {}
+      };
+  private PrintWriter writer;
+
+  BufferedResponse(HttpServletResponse response) {
+    super(response);
+  }
+
+  // The writer encodes with whatever the content type set so far calls for, just as the wrapped
+  // response's writer would have.
+  @Override
+  public PrintWriter getWriter() {
+    if (writer == null) {
+      writer =
+          new PrintWriter(new OutputStreamWriter(body, Charset.forName(getCharacterEncoding())));
+    }
+    return writer;
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  // The length of the body that is finally sent may differ, so it is left to the container.
+  @Override
+  public void setContentLength(int length) {}
+
+  @Override
+  public void setContentLengthLong(long length) {}
+
+  @Override
+  public void flushBuffer() {
+    if (writer != null) {
+      writer.flush();
+    }
+  }
+
+  @Override
+  public void resetBuffer() {
+    flushBuffer();
+    body.reset();
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    resetBuffer();
+  }
+
+  /** Returns the bytes written so far. */
+  byte[] body() {
+    flushBuffer();
+    return body.toByteArray();
+  }
+}
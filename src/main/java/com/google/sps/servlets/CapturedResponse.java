@@ -0,0 +1,73 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.nio.charset.Charset;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Holds on to everything a servlet or JSP writes, so that its output can be embedded in another
+ * response. Errors and redirects are recorded as the status rather than sent.
+ */
+class CapturedResponse extends BufferedResponse {
+  private int status = HttpServletResponse.SC_OK;
+
+  CapturedResponse(HttpServletResponse response) {
+    super(response);
+  }
+
+  @Override
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  @Override
+  public void sendError(int status) {
+    this.status = status;
+  }
+
+  @Override
+  public void sendError(int status, String message) {
+    this.status = status;
+  }
+
+  @Override
+  public void sendRedirect(String location) {
+    status = HttpServletResponse.SC_FOUND;
+  }
+
+  @Override
+  public int getStatus() {
+    return status;
+  }
+
+  // Nothing reaches the wrapped response, so a forward can always discard what was written.
+  @Override
+  public boolean isCommitted() {
+    return false;
+  }
+
+  // Only the captured output is reset; the wrapped response belongs to the servlet capturing it.
+  @Override
+  public void reset() {
+    resetBuffer();
+    status = HttpServletResponse.SC_OK;
+  }
+
+  /** Returns what has been written so far. */
+  String text() {
+    return new String(body(), Charset.forName(getCharacterEncoding()));
+  }
+}
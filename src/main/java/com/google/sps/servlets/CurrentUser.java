@@ -0,0 +1,158 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.api.users.User;
+import com.google.appengine.api.users.UserService;
+import com.google.appengine.api.users.UserServiceFactory;
+import com.google.common.base.Preconditions;
+import com.google.sps.data.PendingRead;
+import com.google.sps.data.Person;
+import com.google.sps.data.PersonDao;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * The user making a request, resolved once per request by IdentityFilter and shared by everything
+ * that handles the request. The signed in user is read from the request each time, so signing out
+ * takes effect straight away, but their Person profile is kept in the session for PROFILE_TTL so
+ * that pages which load several endpoints in a row read it once.
+ */
+public final class CurrentUser {
+  static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+  static final String PROFILE_SESSION_ATTRIBUTE = CurrentUser.class.getName() + ".profile";
+  static final Duration PROFILE_TTL = Duration.ofMinutes(1);
+
+  private final boolean loggedIn;
+  private final boolean admin;
+  private final String email;
+  private final String userId;
+
+  private CurrentUser(boolean loggedIn, boolean admin, String email, String userId) {
+    this.loggedIn = loggedIn;
+    this.admin = admin;
+    this.email = email;
+    this.userId = userId;
+  }
+
+  // A profile, or the absence of one, read for a user at a time. Sessions are serialized between
+  // requests, so this holds the Person directly rather than an Optional.
+  private static class CachedProfile implements Serializable {
+    private final String userId;
+    private final long expiresAtMillis;
+    private final Person person;
+
+    CachedProfile(String userId, long expiresAtMillis, Person person) {
+      this.userId = userId;
+      this.expiresAtMillis = expiresAtMillis;
+      this.person = person;
+    }
+  }
+
+  /**
+   * Returns the user making the request. Requests that didn't pass through IdentityFilter, such as
+   * in tests, resolve the user the first time they ask.
+   */
+  public static CurrentUser of(HttpServletRequest request) {
+    Object resolved = request.getAttribute(REQUEST_ATTRIBUTE);
+    if (resolved instanceof CurrentUser) {
+      return (CurrentUser) resolved;
+    }
+    CurrentUser currentUser = resolve(UserServiceFactory.getUserService());
+    request.setAttribute(REQUEST_ATTRIBUTE, currentUser);
+    return currentUser;
+  }
+
+  static CurrentUser resolve(UserService userService) {
+    if (!userService.isUserLoggedIn()) {
+      return new CurrentUser(false, false, "", "");
+    }
+    User user = userService.getCurrentUser();
+    String userId = user.getUserId();
+    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
+    // the userId equal to a hashcode.
+    if (userId == null) {
+      userId = String.format("%d", user.getEmail().hashCode());
+    }
+    return new CurrentUser(true, userService.isUserAdmin(), user.getEmail(), userId);
+  }
+
+  public boolean isLoggedIn() {
+    return loggedIn;
+  }
+
+  public boolean isAdmin() {
+    return admin;
+  }
+
+  // @throws IllegalStateException if no user is signed in.
+  public String email() {
+    Preconditions.checkState(loggedIn, "No user is signed in");
+    return email;
+  }
+
+  // @throws IllegalStateException if no user is signed in.
+  public String userId() {
+    Preconditions.checkState(loggedIn, "No user is signed in");
+    return userId;
+  }
+
+  /**
+   * Returns the user's Person, or empty if they haven't registered, reading it from personDao only
+   * if the session doesn't hold a recent copy.
+   */
+  public Optional<Person> profile(HttpServletRequest request, PersonDao personDao) {
+    return profileAsync(request, personDao).join();
+  }
+
+  /**
+   * Starts reading the user's Person, so that it can be in flight while the caller does other work.
+   * The session's copy is refreshed once the read is waited on.
+   */
+  public PendingRead<Optional<Person>> profileAsync(
+      HttpServletRequest request, PersonDao personDao) {
+    HttpSession session = request.getSession();
+    long now = System.currentTimeMillis();
+    Object cached = session.getAttribute(PROFILE_SESSION_ATTRIBUTE);
+    if (cached instanceof CachedProfile) {
+      CachedProfile profile = (CachedProfile) cached;
+      if (profile.userId.equals(userId()) && profile.expiresAtMillis > now) {
+        return PendingRead.of(Optional.ofNullable(profile.person));
+      }
+    }
+    String userId = userId();
+    PendingRead<Optional<Person>> person = personDao.getAsync(userId);
+    // Datastore reads only finish when they are joined, so the session is updated by the join.
+    return PendingRead.waitingOn(
+        () -> {
+          Optional<Person> read = person.join();
+          session.setAttribute(
+              PROFILE_SESSION_ATTRIBUTE,
+              new CachedProfile(userId, now + PROFILE_TTL.toMillis(), read.orElse(null)));
+          return read;
+        });
+  }
+
+  /** Drops the session's copy of the user's profile, after it has been changed. */
+  public static void forgetProfile(HttpServletRequest request) {
+    HttpSession session = request.getSession(false);
+    if (session != null) {
+      session.removeAttribute(PROFILE_SESSION_ATTRIBUTE);
+    }
+  }
+}
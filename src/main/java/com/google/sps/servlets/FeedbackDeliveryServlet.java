@@ -0,0 +1,54 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.DatastoreFeedbackDao;
+import com.google.sps.data.EmailSender;
+import com.google.sps.data.FeedbackDao;
+import com.google.sps.data.FeedbackDelivery;
+import java.io.IOException;
+import java.time.Clock;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that the cron service calls every minute to email the feedback that is due.
+@WebServlet("/cron/feedback-delivery")
+public class FeedbackDeliveryServlet extends HttpServlet {
+  private FeedbackDelivery feedbackDelivery;
+
+  @Override
+  public void init() {
+    init(new DatastoreFeedbackDao(), SharedResources.emailSender(), Clock.systemUTC());
+  }
+
+  public void init(FeedbackDao feedbackDao, EmailSender emailSender, Clock clock) {
+    feedbackDelivery = new FeedbackDelivery(feedbackDao, emailSender, clock);
+  }
+
+  // Sends the due feedback and responds with what was sent. App Engine strips the cron header
+  // from outside requests, so only the cron service can start a run.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!"true".equals(request.getHeader("X-Appengine-Cron"))) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    FeedbackDelivery.Run run = feedbackDelivery.deliverDue();
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(run));
+  }
+}
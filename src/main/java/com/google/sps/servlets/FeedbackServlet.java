@@ -18,6 +18,7 @@ import com.google.sps.data.DatastoreScheduledInterviewDao;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
 import com.google.sps.data.TimeRange;
+import com.google.sps.views.FeedbackFormView;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -53,7 +54,7 @@ public class FeedbackServlet extends HttpServlet {
     boolean feedbackOpen = feedbackIsOpen(userTime, timeZone, scheduledInterviewId);
     request.setAttribute("feedbackOpen", feedbackOpen);
     request.setAttribute("role", role);
-    RequestDispatcher rd = request.getRequestDispatcher("/feedback.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(FeedbackFormView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
@@ -0,0 +1,84 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.CachedCounterDao;
+import com.google.sps.data.DatastoreCounterDao;
+import com.google.sps.data.FeedbackKind;
+import com.google.sps.data.FeedbackStats;
+import com.google.sps.data.Job;
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that returns summaries of submitted feedback. Interviewers can read the summary of the
+// feedback given to them; admins can also read anyone else's and the summaries for a position.
+@WebServlet("/feedback-stats")
+public class FeedbackStatsServlet extends HttpServlet {
+  private FeedbackStats feedbackStats;
+
+  @Override
+  public void init() {
+    init(new FeedbackStats(new CachedCounterDao(new DatastoreCounterDao())));
+  }
+
+  public void init(FeedbackStats feedbackStats) {
+    this.feedbackStats = feedbackStats;
+  }
+
+  // Takes either an interviewer parameter, defaulting to the current user, or a position and
+  // optionally the kind of feedback, defaulting to feedback on interviewers.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    CurrentUser currentUser = CurrentUser.of(request);
+    if (!currentUser.isLoggedIn()) {
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
+    }
+    String userId = currentUser.userId();
+
+    FeedbackStats.Summary summary;
+    String position = request.getParameter("position");
+    if (position != null) {
+      if (!currentUser.isAdmin()) {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+      String kind = request.getParameter("kind");
+      try {
+        summary =
+            feedbackStats.forPosition(
+                Job.valueOf(position),
+                kind == null ? FeedbackKind.TO_INTERVIEWER : FeedbackKind.valueOf(kind));
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        return;
+      }
+    } else {
+      String interviewerId = request.getParameter("interviewer");
+      if (interviewerId == null) {
+        interviewerId = userId;
+      } else if (!interviewerId.equals(userId) && !currentUser.isAdmin()) {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+      summary = feedbackStats.forInterviewer(interviewerId);
+    }
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(summary));
+  }
+}
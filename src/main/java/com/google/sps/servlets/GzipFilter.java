@@ -0,0 +1,79 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Filter that gzips the JSON sent by the servlets that return it, for clients that accept gzip.
+// The response is buffered first, so that bodies too small to gain from compression are sent as
+// they are.
+@WebFilter({"/bootstrap", "/login", "/person", "/feedback-stats", "/batch-scheduled-interviews"})
+public class GzipFilter implements Filter {
+  static final int MIN_GZIP_BYTES = 1024;
+
+  @Override
+  public void init(FilterConfig filterConfig) {}
+
+  @Override
+  public void doFilter(
+      ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+      throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    // Caches must keep compressed and uncompressed copies apart either way.
+    response.addHeader("Vary", "Accept-Encoding");
+    if (!acceptsGzip(request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    BufferedResponse buffered = new BufferedResponse(response);
+    chain.doFilter(request, buffered);
+    // Errors and redirects have already been sent.
+    if (response.isCommitted()) {
+      return;
+    }
+    byte[] body = buffered.body();
+    String contentType = response.getContentType();
+    if (body.length < MIN_GZIP_BYTES
+        || contentType == null
+        || !contentType.startsWith("application/json")) {
+      response.getOutputStream().write(body);
+      return;
+    }
+    response.setHeader("Content-Encoding", "gzip");
+    try (OutputStream gzip = new GZIPOutputStream(response.getOutputStream())) {
+      gzip.write(body);
+    }
+  }
+
+  private static boolean acceptsGzip(HttpServletRequest request) {
+    String acceptEncoding = request.getHeader("Accept-Encoding");
+    return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+  }
+
+  @Override
+  public void destroy() {}
+}
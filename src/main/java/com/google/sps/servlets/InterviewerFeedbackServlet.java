@@ -14,28 +14,29 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
+import com.google.common.base.Strings;
+import com.google.sps.data.CachedCounterDao;
+import com.google.sps.data.DatastoreCounterDao;
+import com.google.sps.data.DatastoreFeedbackDao;
 import com.google.sps.data.DatastorePersonDao;
 import com.google.sps.data.DatastoreScheduledInterviewDao;
-import com.google.sps.data.EmailSender;
+import com.google.sps.data.Feedback;
+import com.google.sps.data.FeedbackDao;
+import com.google.sps.data.FeedbackKind;
+import com.google.sps.data.FeedbackStats;
 import com.google.sps.data.Person;
 import com.google.sps.data.PersonDao;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
-import com.google.sps.data.SendgridEmailSender;
-import com.google.sps.utils.EmailUtils;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
-import java.nio.file.Paths;
-import java.nio.file.Path;
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -43,33 +44,37 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 
-// Servlet that gets the feedback from an interviewee and sends it to an interviewer.
+// Servlet that gets the feedback from an interviewee and stores it to be sent to an interviewer.
 @WebServlet("/interviewer-feedback")
 public class InterviewerFeedbackServlet extends HttpServlet {
+  private static final Logger logger = Logger.getLogger(InterviewerFeedbackServlet.class.getName());
   private ScheduledInterviewDao scheduledInterviewDao;
   private PersonDao personDao;
-  private EmailSender emailSender;
-  static final Email sender = new Email("interviewme.business@gmail.com");
-  private Path emailsPath =
-      Paths.get(
-          System.getProperty("user.home") + "/InterviewMe/src/main/resources/templates/email");
+  private FeedbackDao feedbackDao;
+  private FeedbackStats feedbackStats;
+  private Clock clock;
 
   @Override
   public void init() {
-    EmailSender emailSender;
-    try {
-      emailSender = new SendgridEmailSender(sender);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
-    init(new DatastoreScheduledInterviewDao(), new DatastorePersonDao(), emailSender);
+    init(
+        new DatastoreScheduledInterviewDao(),
+        new DatastorePersonDao(),
+        new DatastoreFeedbackDao(),
+        new FeedbackStats(new CachedCounterDao(new DatastoreCounterDao())),
+        Clock.systemUTC());
   }
 
   public void init(
-      ScheduledInterviewDao scheduledInterviewDao, PersonDao personDao, EmailSender emailSender) {
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      FeedbackDao feedbackDao,
+      FeedbackStats feedbackStats,
+      Clock clock) {
     this.scheduledInterviewDao = scheduledInterviewDao;
     this.personDao = personDao;
-    this.emailSender = emailSender;
+    this.feedbackDao = feedbackDao;
+    this.feedbackStats = feedbackStats;
+    this.clock = clock;
   }
 
   @Override
@@ -80,16 +85,10 @@ public class InterviewerFeedbackServlet extends HttpServlet {
     for (int i = 1; i <= numberOfQuestions; i++) {
       String template = String.format("{{question_%s}}", i);
       String param = String.format("question%s", i);
-      answers.put(template, request.getParameter(param));
+      answers.put(template, Strings.nullToEmpty(request.getParameter(param)));
     }
 
-    String userEmail = UserServiceFactory.getUserService().getCurrentUser().getEmail();
-    String userId = UserServiceFactory.getUserService().getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userEmail.hashCode());
-    }
+    String userId = CurrentUser.of(request).userId();
 
     Optional<ScheduledInterview> scheduledInterviewOpt =
         scheduledInterviewDao.get(scheduledInterviewId);
@@ -112,14 +111,32 @@ public class InterviewerFeedbackServlet extends HttpServlet {
       return;
     }
 
+    // The feedback is emailed by FeedbackDeliveryServlet, so once it is stored the user is done.
     Person interviewer = interviewerOpt.get();
+    Feedback feedback;
     try {
-      sendFeedback(interviewer.email(), answers);
+      feedback =
+          feedbackDao.create(
+              Feedback.create(
+                  FeedbackKind.TO_INTERVIEWER,
+                  scheduledInterview.id(),
+                  userId,
+                  interviewer.id(),
+                  interviewer.email(),
+                  answers,
+                  clock.instant()));
     } catch (Exception e) {
-      e.printStackTrace();
+      logger.log(
+          Level.WARNING, "Could not store feedback for interview " + scheduledInterview.id(), e);
       response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
       return;
     }
+    // The feedback is already stored, so failing to count it shouldn't ask the user to resubmit.
+    try {
+      feedbackStats.record(feedback, scheduledInterview.position());
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Could not count feedback " + feedback.id(), e);
+    }
     response.sendRedirect("/scheduled-interviews.html");
     return;
   }
@@ -131,14 +148,4 @@ public class InterviewerFeedbackServlet extends HttpServlet {
   private Optional<Person> getInterviewer(ScheduledInterview scheduledInterview) {
     return personDao.get(scheduledInterview.interviewerId());
   }
-
-  private void sendFeedback(String interviewerEmail, HashMap<String, String> answers)
-      throws IOException {
-    String subject = "Your Interviewee has submitted feedback for your interview!";
-    Email recipient = new Email(interviewerEmail);
-    String contentString =
-        EmailUtils.fileContentToString(emailsPath + "/feedbackToInterviewer.txt");
-    Content content = new Content("text/plain", EmailUtils.replaceAllPairs(answers, contentString));
-    emailSender.sendEmail(recipient, subject, content);
-  }
 }
@@ -14,27 +14,34 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.sps.data.Availability;
 import com.google.sps.data.AvailabilityDao;
-import com.google.sps.data.DatastoreAvailabilityDao;
+import com.google.sps.data.AsyncDatastoreAvailabilityDao;
 import com.google.sps.data.DatastorePersonDao;
 import com.google.sps.data.DatastoreScheduledInterviewDao;
 import com.google.sps.data.Job;
+import com.google.sps.data.PendingRead;
 import com.google.sps.data.PersonDao;
 import com.google.sps.data.PossibleInterviewSlot;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
+import com.google.sps.data.SortedTimeRanges;
 import com.google.sps.data.TimeRange;
 import com.google.sps.data.TimeUtils;
+import com.google.sps.utils.ExpiringCache;
+import com.google.sps.utils.FanOut;
+import com.google.sps.utils.TokenBucketLimiter;
+import com.google.sps.views.PossibleInterviewTimesView;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.lang.Integer;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -43,9 +50,15 @@ import java.time.format.TextStyle;
 import java.util.EnumSet;
 import java.util.Locale;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -58,20 +71,39 @@ import java.util.Optional;
 @WebServlet("/load-interviews")
 public class LoadInterviewsServlet extends HttpServlet {
 
+  private static final Logger logger = Logger.getLogger(LoadInterviewsServlet.class.getName());
+  // How long one request waits on the interviewer searches before showing what it has so far.
+  static final Duration SEARCH_DEADLINE = Duration.ofSeconds(10);
+  // Each user can run a burst of this many searches, then one every two seconds.
+  static final int SEARCH_BURST = 10;
+  static final double SEARCHES_PER_SECOND = 0.5;
+  static final int SC_TOO_MANY_REQUESTS = 429;
+  // How long a search stays cached. Writes on this instance invalidate it straight away, so this
+  // bounds how long writes made on other instances take to show up.
+  static final Duration SEARCH_CACHE_TTL = Duration.ofSeconds(30);
+  // Shared by every request on this instance. Partial results aren't cached, so a slow query
+  // doesn't hide an interviewer for the whole time to live.
+  private static final ExpiringCache<String, FanOut.Result<String, List<Instant>>>
+      sharedSearchCache = newSearchCache();
+
   private AvailabilityDao availabilityDao;
   private ScheduledInterviewDao scheduledInterviewDao;
   private PersonDao personDao;
   private Instant currentTime;
+  private TokenBucketLimiter searchLimiter;
+  private ExpiringCache<String, FanOut.Result<String, List<Instant>>> searchCache;
   private final int maxTimezoneOffsetMinutes = 720;
   private final int maxTimezoneOffsetHours = 12;
 
   @Override
   public void init() {
     init(
-        new DatastoreAvailabilityDao(),
+        new AsyncDatastoreAvailabilityDao(),
         new DatastoreScheduledInterviewDao(),
         new DatastorePersonDao(),
-        Instant.now());
+        Instant.now(),
+        new TokenBucketLimiter(Clock.systemUTC(), SEARCH_BURST, SEARCHES_PER_SECOND),
+        sharedSearchCache);
   }
 
   public void init(
@@ -79,10 +111,53 @@ public class LoadInterviewsServlet extends HttpServlet {
       ScheduledInterviewDao scheduledInterviewDao,
       PersonDao personDao,
       Instant currentTime) {
+    init(
+        availabilityDao,
+        scheduledInterviewDao,
+        personDao,
+        currentTime,
+        new TokenBucketLimiter(Clock.systemUTC(), SEARCH_BURST, SEARCHES_PER_SECOND));
+  }
+
+  public void init(
+      AvailabilityDao availabilityDao,
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      Instant currentTime,
+      TokenBucketLimiter searchLimiter) {
+    init(
+        availabilityDao,
+        scheduledInterviewDao,
+        personDao,
+        currentTime,
+        searchLimiter,
+        newSearchCache());
+  }
+
+  public void init(
+      AvailabilityDao availabilityDao,
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      Instant currentTime,
+      TokenBucketLimiter searchLimiter,
+      ExpiringCache<String, FanOut.Result<String, List<Instant>>> searchCache) {
     this.availabilityDao = availabilityDao;
     this.scheduledInterviewDao = scheduledInterviewDao;
     this.personDao = personDao;
     this.currentTime = currentTime;
+    this.searchLimiter = searchLimiter;
+    this.searchCache = searchCache;
+  }
+
+  static ExpiringCache<String, FanOut.Result<String, List<Instant>>> newSearchCache() {
+    return new ExpiringCache<String, FanOut.Result<String, List<Instant>>>(
+        Clock.systemUTC(), SEARCH_CACHE_TTL, result -> !result.isPartial());
+  }
+
+  // Servlets call this after changing availability, interviews or qualifications, so that
+  // searches on this instance reflect the change.
+  static void invalidateSearchCache() {
+    sharedSearchCache.invalidateAll();
   }
 
   @Override
@@ -103,12 +178,19 @@ public class LoadInterviewsServlet extends HttpServlet {
         new TimeRange(utcTime.toInstant(), utcTime.toInstant().plus(27, ChronoUnit.DAYS));
     String position = request.getParameter("position");
     Job selectedPosition = Job.valueOf(Job.class, position);
+    String userId = CurrentUser.of(request).userId();
+    if (!searchLimiter.tryAcquire(userId)) {
+      response.setHeader("Retry-After", String.valueOf(searchLimiter.secondsPerToken()));
+      response.sendError(SC_TOO_MANY_REQUESTS);
+      return;
+    }
     List<PossibleInterviewSlot> possibleInterviews =
-        getPossibleInterviewSlots(selectedPosition, interviewSearchTimeRange, timezoneOffset);
+        getPossibleInterviewSlots(
+            selectedPosition, interviewSearchTimeRange, timezoneOffset, userId);
     List<ArrayList<PossibleInterviewSlot>> possibleInterviewsForMonth =
         orderPossibleInterviewSlotsIntoDays(possibleInterviews);
     request.setAttribute("monthList", possibleInterviewsForMonth);
-    RequestDispatcher rd = request.getRequestDispatcher("/possibleInterviewTimes.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(PossibleInterviewTimesView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
@@ -117,41 +199,43 @@ public class LoadInterviewsServlet extends HttpServlet {
   }
 
   private List<PossibleInterviewSlot> getPossibleInterviewSlots(
-      Job position, TimeRange range, ZoneOffset timezoneOffset) {
-    Set<String> interviewers = availabilityDao.getUsersAvailableInRange(range.start(), range.end());
+      Job position, TimeRange range, ZoneOffset timezoneOffset, String userId) {
+    // Which interviewers have free hours doesn't depend on who is searching, so it is found once
+    // per position and UTC day, over a range covering every search that can start that day, and
+    // shared by everyone searching.
+    LocalDate searchDay = range.start().atZone(ZoneOffset.UTC).toLocalDate();
+    Instant dayStart = searchDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+    TimeRange cachedRange = new TimeRange(dayStart, dayStart.plus(28, ChronoUnit.DAYS));
+    FanOut.Result<String, List<Instant>> hourStarts =
+        searchCache.get(
+            position.name() + "|" + searchDay,
+            () -> getHourStartsByInterviewer(position, cachedRange));
+    // An hour has to end by the end of the range.
+    Instant lastStart = range.end().minus(1, ChronoUnit.HOURS);
     Set<PossibleInterviewSlot> possibleInterviews = new HashSet<PossibleInterviewSlot>();
-    // We don't want to schedule an interview for a user with themself, so we are removing
-    // the current user's id from the list.
-    UserService userService = UserServiceFactory.getUserService();
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userEmail.hashCode());
-    }
-    interviewers.remove(userId);
-    // We need to check that the interviewers are qualified to give an interview for the specified
-    // position.
-    interviewers.removeIf(
-        interviewer -> !personDao.get(interviewer).get().qualifiedJobs().contains(position));
-    for (String interviewer : interviewers) {
-      possibleInterviews.addAll(
-          getPossibleInterviewSlotsForPerson(interviewer, range, timezoneOffset));
+    for (Map.Entry<String, List<Instant>> interviewer : hourStarts.results().entrySet()) {
+      // We don't want to schedule an interview for a user with themself.
+      if (interviewer.getKey().equals(userId)) {
+        continue;
+      }
+      for (Instant start : interviewer.getValue()) {
+        if (!start.isBefore(range.start()) && !start.isAfter(lastStart)) {
+          possibleInterviews.add(
+              PossibleInterviewSlot.create(
+                  start.toString(),
+                  TimeUtils.getDate(start, timezoneOffset),
+                  TimeUtils.getTime(start, timezoneOffset)));
+        }
+      }
     }
     // We need to check that the person looking to schedule is not already scheduled during any of
     // the proposed times.
     List<ScheduledInterview> userScheduledInterviews =
         scheduledInterviewDao.getScheduledInterviewsInRangeForUser(
             userId, range.start(), range.end());
-    Set<PossibleInterviewSlot> conflictingInterviews = new HashSet<PossibleInterviewSlot>();
-    for (PossibleInterviewSlot slot : possibleInterviews) {
-      for (ScheduledInterview userInterview : userScheduledInterviews) {
-        if (userInterview.when().contains(Instant.parse(slot.utcEncoding()))) {
-          conflictingInterviews.add(slot);
-        }
-      }
-    }
+    Set<PossibleInterviewSlot> conflictingInterviews =
+        SortedTimeRanges.ofScheduledInterviews(userScheduledInterviews)
+            .itemsContained(possibleInterviews, slot -> Instant.parse(slot.utcEncoding()));
     possibleInterviews.removeAll(conflictingInterviews);
     List<PossibleInterviewSlot> possibleInterviewList =
         new ArrayList<PossibleInterviewSlot>(possibleInterviews);
@@ -159,25 +243,44 @@ public class LoadInterviewsServlet extends HttpServlet {
     return possibleInterviewList;
   }
 
-  private List<PossibleInterviewSlot> getPossibleInterviewSlotsForPerson(
-      String userId, TimeRange range, ZoneOffset timezoneOffset) {
-    List<Availability> availabilities =
-        availabilityDao.getInRangeForUser(userId, range.start(), range.end());
+  // Returns the start of every free hour in range of each interviewer qualified for position.
+  private FanOut.Result<String, List<Instant>> getHourStartsByInterviewer(
+      Job position, TimeRange range) {
+    Set<String> interviewers = availabilityDao.getUsersAvailableInRange(range.start(), range.end());
+    // We need to check that the interviewers are qualified to give an interview for the specified
+    // position.
+    interviewers.retainAll(personDao.getQualifiedIds(position));
+    // Each interviewer's availability is its own query, so every query is started before any is
+    // waited on, and the request waits on the slowest one rather than on all of them in turn.
+    Map<String, Supplier<List<Instant>>> searches = new HashMap<String, Supplier<List<Instant>>>();
+    for (String interviewer : interviewers) {
+      PendingRead<List<Availability>> availabilities =
+          availabilityDao.getInRangeForUserAsync(interviewer, range.start(), range.end());
+      searches.put(interviewer, () -> getHourStarts(availabilities.join()));
+    }
+    FanOut.Result<String, List<Instant>> hourStarts =
+        FanOut.collect(searches, Clock.systemUTC(), SEARCH_DEADLINE);
+    if (hourStarts.isPartial()) {
+      logger.warning(
+          String.format(
+              "Showing partial results; no slots found in time for %d of %d interviewers",
+              hourStarts.missing().size(), searches.size()));
+    }
+    return hourStarts;
+  }
+
+  // Returns the start of every free hour among one interviewer's availabilities.
+  private List<Instant> getHourStarts(List<Availability> availabilities) {
     availabilities.removeIf(avail -> avail.scheduled());
-    List<PossibleInterviewSlot> possibleInterviewSlotsForPerson =
-        new ArrayList<PossibleInterviewSlot>();
+    List<Instant> hourStarts = new ArrayList<Instant>();
     int numberOfSlotsAfterFirstInAnHour = 3;
     int lastFirstSlotOfAnHour = availabilities.size() - numberOfSlotsAfterFirstInAnHour;
     for (int i = 0; i < lastFirstSlotOfAnHour; i++) {
       if (isAnHourWorthOfSlots(availabilities, i, numberOfSlotsAfterFirstInAnHour)) {
-        possibleInterviewSlotsForPerson.add(
-            PossibleInterviewSlot.create(
-                availabilities.get(i).when().start().toString(),
-                TimeUtils.getDate(availabilities.get(i).when().start(), timezoneOffset),
-                TimeUtils.getTime(availabilities.get(i).when().start(), timezoneOffset)));
+        hourStarts.add(availabilities.get(i).when().start());
       }
     }
-    return possibleInterviewSlotsForPerson;
+    return Collections.unmodifiableList(hourStarts);
   }
 
   // The current indexed slot is the start of an hour of availability if there are 3 other
@@ -192,19 +295,13 @@ public class LoadInterviewsServlet extends HttpServlet {
         .equals(availabilities.get(index + numberOfSlotsAfterFirstInAnHour).when().start());
   }
 
+  // Each utcEncoding is parsed once up front rather than on every comparison.
   private void sortInterviews(List<PossibleInterviewSlot> possibleInterviewSlots) {
-    possibleInterviewSlots.sort(
-        (PossibleInterviewSlot p1, PossibleInterviewSlot p2) -> {
-          Instant p1Instant = Instant.parse(p1.utcEncoding());
-          Instant p2Instant = Instant.parse(p2.utcEncoding());
-          if (p1Instant.equals(p2Instant)) {
-            return 0;
-          }
-          if (p1Instant.isBefore(p2Instant)) {
-            return -1;
-          }
-          return 1;
-        });
+    Map<PossibleInterviewSlot, Instant> slotStarts = new HashMap<PossibleInterviewSlot, Instant>();
+    for (PossibleInterviewSlot slot : possibleInterviewSlots) {
+      slotStarts.put(slot, Instant.parse(slot.utcEncoding()));
+    }
+    possibleInterviewSlots.sort(Comparator.comparing(slotStarts::get));
   }
 
   static List<ArrayList<PossibleInterviewSlot>> orderPossibleInterviewSlotsIntoDays(
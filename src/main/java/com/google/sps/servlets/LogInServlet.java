@@ -1,8 +1,6 @@
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
-import com.google.gson.Gson;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,18 +15,16 @@ public class LogInServlet extends HttpServlet {
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     response.setContentType("application/json;");
-    response.getWriter().println(new Gson().toJson(getLoginInfo("/")));
+    response.getWriter().println(SharedResources.gson().toJson(getLoginInfo(request, "/")));
   }
 
   // Returns a LoginInfo that represents the logged in status.
-  public static LoginInfo getLoginInfo(String rootUrl) {
-    UserService userService = UserServiceFactory.getUserService();
-    boolean loggedIn = userService.isUserLoggedIn();
-    LoginInfo toSend;
-    if (loggedIn) {
-      return new LoginInfo(loggedIn, "", userService.getCurrentUser().getEmail());
+  public static LoginInfo getLoginInfo(HttpServletRequest request, String rootUrl) {
+    CurrentUser currentUser = CurrentUser.of(request);
+    if (currentUser.isLoggedIn()) {
+      return new LoginInfo(true, "", currentUser.email());
     }
-    return new LoginInfo(loggedIn, userService.createLoginURL(rootUrl), "");
+    return new LoginInfo(false, UserServiceFactory.getUserService().createLoginURL(rootUrl), "");
   }
 
   // Represents the logged in status of the site.
@@ -14,10 +14,7 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.sps.data.DatastorePersonDao;
 import com.google.sps.data.Person;
@@ -35,7 +32,6 @@ import java.util.Optional;
 public class PersonServlet extends HttpServlet {
 
   private PersonDao personDao;
-  private final UserService userService = UserServiceFactory.getUserService();
 
   @Override
   public void init() {
@@ -52,14 +48,16 @@ public class PersonServlet extends HttpServlet {
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
     PersonRequest personRequest;
     try {
-      personRequest = new Gson().fromJson(getJsonString(request), PersonRequest.class);
+      personRequest = SharedResources.gson().fromJson(getJsonString(request), PersonRequest.class);
     } catch (JsonSyntaxException jse) {
       response.sendError(400);
       return;
     }
-    String email = userService.getCurrentUser().getEmail();
-    String userId = getUserId();
-    personDao.create(Person.createFromRequest(userId, email, personRequest));
+    CurrentUser currentUser = CurrentUser.of(request);
+    personDao.create(
+        Person.createFromRequest(currentUser.userId(), currentUser.email(), personRequest));
+    CurrentUser.forgetProfile(request);
+    LoadInterviewsServlet.invalidateSearchCache();
   }
 
   // Updates Datastore with the Person information in request. Sends a 400 error if
@@ -68,14 +66,16 @@ public class PersonServlet extends HttpServlet {
   public void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
     PersonRequest personRequest;
     try {
-      personRequest = new Gson().fromJson(getJsonString(request), PersonRequest.class);
+      personRequest = SharedResources.gson().fromJson(getJsonString(request), PersonRequest.class);
     } catch (JsonSyntaxException jse) {
       response.sendError(400);
       return;
     }
-    String email = userService.getCurrentUser().getEmail();
-    String userId = getUserId();
-    personDao.update(Person.createFromRequest(userId, email, personRequest));
+    CurrentUser currentUser = CurrentUser.of(request);
+    personDao.update(
+        Person.createFromRequest(currentUser.userId(), currentUser.email(), personRequest));
+    CurrentUser.forgetProfile(request);
+    LoadInterviewsServlet.invalidateSearchCache();
   }
 
   // Get Json from request body.
@@ -92,23 +92,12 @@ public class PersonServlet extends HttpServlet {
   // registration page.
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    String userId = getUserId();
-    Optional<Person> personOpt = personDao.get(userId);
+    Optional<Person> personOpt = CurrentUser.of(request).profile(request, personDao);
     if (!personOpt.isPresent()) {
       response.sendRedirect("/register.html");
       return;
     }
     response.setContentType("application/json;");
-    response.getWriter().println(new Gson().toJson(personOpt.get()));
-  }
-
-  private String getUserId() {
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userService.getCurrentUser().getEmail().hashCode());
-    }
-    return userId;
+    response.getWriter().println(SharedResources.gson().toJson(personOpt.get()));
   }
 }
@@ -0,0 +1,69 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.AsyncDatastorePersonDao;
+import com.google.sps.data.DatastoreReminderDao;
+import com.google.sps.data.DatastoreScheduledInterviewDao;
+import com.google.sps.data.EmailSender;
+import com.google.sps.data.PersonDao;
+import com.google.sps.data.ReminderDao;
+import com.google.sps.data.ReminderScheduler;
+import com.google.sps.data.ScheduledInterviewDao;
+import java.io.IOException;
+import java.time.Clock;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that the cron service calls every few minutes to send the reminders that are due.
+@WebServlet("/cron/reminders")
+public class ReminderServlet extends HttpServlet {
+  private ReminderScheduler reminderScheduler;
+
+  @Override
+  public void init() {
+    init(
+        new DatastoreScheduledInterviewDao(),
+        new AsyncDatastorePersonDao(),
+        new DatastoreReminderDao(),
+        SharedResources.emailSender(),
+        Clock.systemUTC());
+  }
+
+  public void init(
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      ReminderDao reminderDao,
+      EmailSender emailSender,
+      Clock clock) {
+    reminderScheduler =
+        new ReminderScheduler(scheduledInterviewDao, personDao, reminderDao, emailSender, clock);
+  }
+
+  // Sends the due reminders and responds with what was sent. App Engine strips the cron header
+  // from outside requests, so only the cron service can start a run.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!"true".equals(request.getHeader("X-Appengine-Cron"))) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    ReminderScheduler.Run run = reminderScheduler.runDueBuckets();
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(run));
+  }
+}
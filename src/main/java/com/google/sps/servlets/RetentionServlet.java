@@ -0,0 +1,76 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.DatastoreRetention;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.function.IntFunction;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet that the cron service calls to delete and archive data from before the retention
+// horizon. Takes an optional "horizonDays" parameter, which only applies when a new pass starts.
+@WebServlet("/cron/retention")
+public class RetentionServlet extends HttpServlet {
+  static final int DEFAULT_HORIZON_DAYS = 90;
+  // Interviews stay readable for at least this long, so feedback can still be left on them.
+  static final int MIN_HORIZON_DAYS = 14;
+  private IntFunction<DatastoreRetention> retentionForHorizon;
+
+  @Override
+  public void init() {
+    init(horizonDays -> new DatastoreRetention(Clock.systemUTC(), horizonDays));
+  }
+
+  public void init(IntFunction<DatastoreRetention> retentionForHorizon) {
+    this.retentionForHorizon = retentionForHorizon;
+  }
+
+  // Runs the retention job and responds with what it did. App Engine strips the cron header from
+  // outside requests, so only the cron service can start a run.
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!"true".equals(request.getHeader("X-Appengine-Cron"))) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    int horizonDays;
+    try {
+      String horizonParameter = request.getParameter("horizonDays");
+      horizonDays =
+          horizonParameter == null ? DEFAULT_HORIZON_DAYS : Integer.parseInt(horizonParameter);
+    } catch (NumberFormatException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    if (horizonDays < MIN_HORIZON_DAYS) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    DatastoreRetention.Run run;
+    try {
+      run = retentionForHorizon.apply(horizonDays).run();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      return;
+    }
+    response.setContentType("application/json;");
+    response.getWriter().println(SharedResources.gson().toJson(run));
+  }
+}
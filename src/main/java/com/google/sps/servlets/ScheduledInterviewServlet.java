@@ -15,10 +15,12 @@
 package com.google.sps.servlets;
 
 import com.google.api.services.calendar.Calendar;
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
-import com.google.gson.Gson;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonSyntaxException;
+import com.google.sps.data.AssignmentStrategy;
+import com.google.sps.data.AsyncDatastoreAvailabilityDao;
+import com.google.sps.data.AsyncDatastorePersonDao;
+import com.google.sps.data.AsyncDatastoreScheduledInterviewDao;
 import com.google.sps.data.Availability;
 import com.google.sps.data.AvailabilityDao;
 import com.google.sps.data.CalendarAccess;
@@ -26,25 +28,27 @@ import com.google.sps.data.DatastoreAvailabilityDao;
 import com.google.sps.data.DatastorePersonDao;
 import com.google.sps.data.DatastoreScheduledInterviewDao;
 import com.google.sps.data.EmailSender;
-import com.google.sps.data.GoogleCalendarAccess;
 import com.google.sps.data.InterviewPostOrPutRequest;
 import com.google.sps.data.Job;
+import com.google.sps.data.LoadTrackingScheduledInterviewDao;
+import com.google.sps.data.PendingRead;
 import com.google.sps.data.Person;
 import com.google.sps.data.PersonDao;
+import com.google.sps.data.PowerOfTwoAssignmentStrategy;
+import com.google.sps.data.RandomAssignmentStrategy;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
 import com.google.sps.data.ScheduledInterviewRequest;
-import com.google.sps.data.SecretFetcher;
-import com.google.sps.data.SendgridEmailSender;
 import com.google.sps.data.TimeRange;
-import com.google.sps.utils.EmailUtils;
+import com.google.sps.data.WeeklyInterviewerLoad;
+import com.google.sps.utils.EmailTemplate;
+import com.google.sps.utils.EmailTemplates;
+import com.google.sps.views.ScheduledInterviewsView;
 import com.sendgrid.Response;
 import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
-import java.nio.file.Paths;
-import java.nio.file.Path;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.security.GeneralSecurityException;
@@ -61,7 +65,9 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -79,36 +85,39 @@ public class ScheduledInterviewServlet extends HttpServlet {
   private PersonDao personDao;
   private EmailSender emailSender;
   private CalendarAccess calendarAccess;
+  private AssignmentStrategy assignmentStrategy;
   private Calendar service;
-  private final UserService userService = UserServiceFactory.getUserService();
-  static final Email sender = new Email("interviewme.business@gmail.com");
+  // The placeholders filled in for the interviewer and interviewee of a new interview.
+  static final ImmutableSet<String> NEW_INTERVIEW_PLACEHOLDERS =
+      ImmutableSet.of(
+          "{{formatted_date}}",
+          "{{interviewer_first_name}}",
+          "{{interviewee_first_name}}",
+          "{{form_link}}",
+          "{{position}}",
+          "{{chat_link}}");
+  // The placeholders filled in for a shadow joining an interview.
+  static final ImmutableSet<String> NEW_SHADOW_PLACEHOLDERS =
+      ImmutableSet.of(
+          "{{formatted_date}}", "{{shadow_first_name}}", "{{chat_link}}", "{{position}}");
+  private final EmailTemplate interviewerTemplate =
+      EmailTemplates.get("NewInterview_Interviewer.txt");
+  private final EmailTemplate intervieweeTemplate =
+      EmailTemplates.get("NewInterview_Interviewee.txt");
+  private final EmailTemplate shadowTemplate = EmailTemplates.get("NewInterview_Shadow.txt");
 
   @Override
   public void init() {
-    EmailSender emailSender;
-    try {
-      emailSender = new SendgridEmailSender(sender);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
-
-    CalendarAccess calendar;
-    try {
-      calendar =
-          new GoogleCalendarAccess(
-              GoogleCalendarAccess.MakeCalendar(new SecretFetcher("interviewme2020")));
-    } catch (GeneralSecurityException e) {
-      throw new RuntimeException(e);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
-
+    // Bookings go to less busy interviewers, going by the interviews written through this
+    // instance and what it last read from Datastore. The counts are shared with the batch servlet.
+    WeeklyInterviewerLoad load = SharedResources.interviewerLoad();
     init(
-        new DatastoreScheduledInterviewDao(),
-        new DatastoreAvailabilityDao(),
-        new DatastorePersonDao(),
-        calendar,
-        emailSender);
+        new LoadTrackingScheduledInterviewDao(new AsyncDatastoreScheduledInterviewDao(), load),
+        new AsyncDatastoreAvailabilityDao(),
+        new AsyncDatastorePersonDao(),
+        SharedResources.calendar(),
+        SharedResources.emailSender(),
+        new PowerOfTwoAssignmentStrategy(load, new Random()));
   }
 
   public void init(
@@ -117,11 +126,31 @@ public class ScheduledInterviewServlet extends HttpServlet {
       PersonDao personDao,
       CalendarAccess calendarAccess,
       EmailSender emailSender) {
+    init(
+        scheduledInterviewDao,
+        availabilityDao,
+        personDao,
+        calendarAccess,
+        emailSender,
+        new RandomAssignmentStrategy(new Random()));
+  }
+
+  public void init(
+      ScheduledInterviewDao scheduledInterviewDao,
+      AvailabilityDao availabilityDao,
+      PersonDao personDao,
+      CalendarAccess calendarAccess,
+      EmailSender emailSender,
+      AssignmentStrategy assignmentStrategy) {
     this.scheduledInterviewDao = scheduledInterviewDao;
     this.availabilityDao = availabilityDao;
     this.personDao = personDao;
     this.calendarAccess = calendarAccess;
     this.emailSender = emailSender;
+    this.assignmentStrategy = assignmentStrategy;
+    interviewerTemplate.checkFilledBy(NEW_INTERVIEW_PLACEHOLDERS);
+    intervieweeTemplate.checkFilledBy(NEW_INTERVIEW_PLACEHOLDERS);
+    shadowTemplate.checkFilledBy(NEW_SHADOW_PLACEHOLDERS);
   }
 
   // Gets the current user's email and returns the ScheduledInterviews for that person.
@@ -129,13 +158,12 @@ public class ScheduledInterviewServlet extends HttpServlet {
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     String timeZoneId = request.getParameter("timeZone");
     String userTime = request.getParameter("userTime");
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = getUserId();
+    String userId = CurrentUser.of(request).userId();
     List<ScheduledInterviewRequest> scheduledInterviews =
         scheduledInterviewsToRequestObjects(
-            scheduledInterviewDao.getForPerson(userId), timeZoneId, userTime);
+            scheduledInterviewDao.getForPerson(userId), timeZoneId, userTime, userId);
     request.setAttribute("scheduledInterviews", scheduledInterviews);
-    RequestDispatcher rd = request.getRequestDispatcher("/scheduled-interviews.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(ScheduledInterviewsView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
@@ -146,11 +174,11 @@ public class ScheduledInterviewServlet extends HttpServlet {
   // Send the request's contents to Datastore in the form of a new ScheduledInterview object.
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    String intervieweeEmail = userService.getCurrentUser().getEmail();
-    String intervieweeId = getUserId();
+    String intervieweeId = CurrentUser.of(request).userId();
     InterviewPostOrPutRequest postRequest;
     try {
-      postRequest = new Gson().fromJson(getJsonString(request), InterviewPostOrPutRequest.class);
+      postRequest =
+          SharedResources.gson().fromJson(getJsonString(request), InterviewPostOrPutRequest.class);
     } catch (JsonSyntaxException jse) {
       response.sendError(HttpServletResponse.SC_BAD_REQUEST);
       return;
@@ -173,13 +201,23 @@ public class ScheduledInterviewServlet extends HttpServlet {
     Job selectedPosition = Job.valueOf(Job.class, position);
     List<Person> allAvailableInterviewers =
         ShowInterviewersServlet.getPossiblePeople(
-            personDao, availabilityDao, selectedPosition, interviewRange);
+            personDao, availabilityDao, selectedPosition, interviewRange, intervieweeId);
     String interviewerCompany = postRequest.getCompany();
     String interviewerJob = postRequest.getJob();
     List<String> possibleInterviewers =
         getPossibleInterviewerIds(allAvailableInterviewers, interviewerCompany, interviewerJob);
-    int randomNumber = (int) (Math.random() * possibleInterviewers.size());
-    String interviewerId = possibleInterviewers.get(randomNumber);
+    String interviewerId =
+        assignmentStrategy.choose(possibleInterviewers, id -> id, interviewRange.start());
+    // These reads don't depend on each other or on the interview being stored, so they are all
+    // started now and only waited on when they are needed.
+    PendingRead<Optional<Person>> interviewerFuture = personDao.getAsync(interviewerId);
+    PendingRead<Optional<Person>> intervieweeFuture = personDao.getAsync(intervieweeId);
+    PendingRead<List<Availability>> intervieweeAvailabilityFuture =
+        availabilityDao.getInRangeForUserAsync(
+            intervieweeId, interviewRange.start(), interviewRange.end());
+    PendingRead<List<Availability>> interviewerAvailabilityFuture =
+        availabilityDao.getInRangeForUserAsync(
+            interviewerId, interviewRange.start(), interviewRange.end());
     // Shadow is empty because when an interview is first made, only interviewee and
     // interviewer are involved.
     scheduledInterviewDao.create(
@@ -198,15 +236,8 @@ public class ScheduledInterviewServlet extends HttpServlet {
             .getScheduledInterviewsInRangeForUser(
                 intervieweeId, interviewRange.start(), interviewRange.end())
             .get(0);
-    String interviewId = String.valueOf(scheduledInterview.id());
-    String intervieweeFeedbackLink =
-        String.format(
-            "http://interview-me-step-2020.appspot.com/feedback.html?interview=%s&role=interviewee",
-            interviewId);
-    String interviewerFeedbackLink =
-        String.format(
-            "http://interview-me-step-2020.appspot.com/feedback.html?interview=%s&role=interviewer",
-            interviewId);
+    String intervieweeFeedbackLink = getFeedbackLink(scheduledInterview.id(), "interviewee");
+    String interviewerFeedbackLink = getFeedbackLink(scheduledInterview.id(), "interviewer");
     try {
       scheduledInterviewDao.update(
           scheduledInterview.withMeetLink(calendarAccess.getMeetLink(scheduledInterview)));
@@ -214,17 +245,21 @@ public class ScheduledInterviewServlet extends HttpServlet {
       response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
       return;
     }
+    Optional<Person> interviewer = interviewerFuture.join();
+    Optional<Person> interviewee = intervieweeFuture.join();
     emailedDetails.put("{{formatted_date}}", getEmailDateString(interviewRange));
-    emailedDetails.put("{{interviewer_first_name}}", getFirstName(interviewerId));
-    emailedDetails.put("{{interviewee_first_name}}", getFirstName(intervieweeId));
+    emailedDetails.put(
+        "{{interviewer_first_name}}", interviewer.map(Person::firstName).orElse("None"));
+    emailedDetails.put(
+        "{{interviewee_first_name}}", interviewee.map(Person::firstName).orElse("None"));
     emailedDetails.put("{{form_link}}", intervieweeFeedbackLink);
     emailedDetails.put("{{position}}", formatPositionString(position));
     emailedDetails.put("{{chat_link}}", scheduledInterview.meetLink());
 
     try {
-      sendParticipantEmail(scheduledInterview, intervieweeId, emailedDetails);
+      sendParticipantEmail(scheduledInterview, intervieweeId, interviewee, emailedDetails);
       emailedDetails.put("{{form_link}}", interviewerFeedbackLink);
-      sendParticipantEmail(scheduledInterview, interviewerId, emailedDetails);
+      sendParticipantEmail(scheduledInterview, interviewerId, interviewer, emailedDetails);
     } catch (IOException e) {
       response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
       return;
@@ -232,28 +267,23 @@ public class ScheduledInterviewServlet extends HttpServlet {
 
     // Since an interview was scheduled, both parties' availabilities must be updated.
     List<Availability> affectedAvailability = new ArrayList<Availability>();
-    List<Availability> intervieweeAffectedAvailability =
-        availabilityDao.getInRangeForUser(
-            intervieweeId, interviewRange.start(), interviewRange.end());
-    List<Availability> interviewerAffectedAvailability =
-        availabilityDao.getInRangeForUser(
-            interviewerId, interviewRange.start(), interviewRange.end());
-    affectedAvailability.addAll(intervieweeAffectedAvailability);
-    affectedAvailability.addAll(interviewerAffectedAvailability);
+    affectedAvailability.addAll(intervieweeAvailabilityFuture.join());
+    affectedAvailability.addAll(interviewerAvailabilityFuture.join());
     for (Availability avail : affectedAvailability) {
       availabilityDao.update(avail.withScheduled(true));
     }
+    LoadInterviewsServlet.invalidateSearchCache();
   }
 
   // Send the request's contents to Datastore in the form of an updated ScheduledInterview object.
   // Adds the current user as a shadow.
   @Override
   public void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    String shadowEmail = userService.getCurrentUser().getEmail();
-    String shadowId = getUserId();
+    String shadowId = CurrentUser.of(request).userId();
     InterviewPostOrPutRequest putRequest;
     try {
-      putRequest = new Gson().fromJson(getJsonString(request), InterviewPostOrPutRequest.class);
+      putRequest =
+          SharedResources.gson().fromJson(getJsonString(request), InterviewPostOrPutRequest.class);
     } catch (JsonSyntaxException jse) {
       response.sendError(400);
       return;
@@ -289,24 +319,31 @@ public class ScheduledInterviewServlet extends HttpServlet {
       }
     }
     possibleInterviews.removeAll(notValidInterviews);
-    int randomNumber = (int) (Math.random() * possibleInterviews.size());
-    ScheduledInterview selectedInterview = possibleInterviews.get(randomNumber);
+    ScheduledInterview selectedInterview =
+        assignmentStrategy.choose(
+            possibleInterviews, ScheduledInterview::interviewerId, interviewRange.start());
+    // The shadow's profile and availability are independent reads, so both are started before
+    // the interview is updated.
+    PendingRead<Optional<Person>> shadowFuture = personDao.getAsync(shadowId);
+    PendingRead<List<Availability>> shadowAvailabilityFuture =
+        availabilityDao.getInRangeForUserAsync(
+            shadowId, interviewRange.start(), interviewRange.end());
     scheduledInterviewDao.update(selectedInterview.withShadow(shadowId));
     // Since the shadow commited to this interview, their availabilities must be updated
-    List<Availability> affectedAvailability =
-        availabilityDao.getInRangeForUser(shadowId, interviewRange.start(), interviewRange.end());
-    for (Availability avail : affectedAvailability) {
+    for (Availability avail : shadowAvailabilityFuture.join()) {
       availabilityDao.update(avail.withScheduled(true));
     }
+    LoadInterviewsServlet.invalidateSearchCache();
     ScheduledInterview scheduledInterview = scheduledInterviewDao.get(selectedInterview.id()).get();
+    Optional<Person> shadow = shadowFuture.join();
     HashMap<String, String> emailedDetails = new HashMap<String, String>();
     emailedDetails.put("{{formatted_date}}", getEmailDateString(interviewRange));
-    emailedDetails.put("{{shadow_first_name}}", getFirstName(shadowId));
+    emailedDetails.put("{{shadow_first_name}}", shadow.map(Person::firstName).orElse("None"));
     emailedDetails.put("{{chat_link}}", scheduledInterview.meetLink());
     emailedDetails.put("{{position}}", formatPositionString(position));
 
     try {
-      sendParticipantEmail(scheduledInterview, shadowId, emailedDetails);
+      sendParticipantEmail(scheduledInterview, shadowId, shadow, emailedDetails);
     } catch (IOException e) {
       response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
       return;
@@ -314,7 +351,7 @@ public class ScheduledInterviewServlet extends HttpServlet {
   }
 
   // Get Json from request body.
-  private static String getJsonString(HttpServletRequest request) throws IOException {
+  static String getJsonString(HttpServletRequest request) throws IOException {
     BufferedReader reader = request.getReader();
     StringBuffer buffer = new StringBuffer();
     String payloadLine = null;
@@ -336,16 +373,47 @@ public class ScheduledInterviewServlet extends HttpServlet {
   public List<ScheduledInterviewRequest> scheduledInterviewsToRequestObjects(
       List<ScheduledInterview> scheduledInterviews,
       String timeZoneIdString,
-      String userTimeString) {
+      String userTimeString,
+      String userId) {
     ZoneId timeZoneId = ZoneId.of(timeZoneIdString);
     Instant userTime = Instant.parse(userTimeString);
+    Map<String, String> firstNames = getFirstNames(scheduledInterviews);
     List<ScheduledInterviewRequest> requestObjects = new ArrayList<ScheduledInterviewRequest>();
     for (ScheduledInterview scheduledInterview : scheduledInterviews) {
-      requestObjects.add(makeScheduledInterviewRequest(scheduledInterview, timeZoneId, userTime));
+      requestObjects.add(
+          makeScheduledInterviewRequest(
+              scheduledInterview, timeZoneId, userTime, firstNames, userId));
     }
     return requestObjects;
   }
 
+  // Looks up the first name of everyone taking part in the interviews. Every Person read is
+  // started before any is waited on, so the page costs one round trip rather than one per person.
+  private Map<String, String> getFirstNames(List<ScheduledInterview> scheduledInterviews) {
+    Map<String, PendingRead<Optional<Person>>> people =
+        new HashMap<String, PendingRead<Optional<Person>>>();
+    for (ScheduledInterview scheduledInterview : scheduledInterviews) {
+      List<String> participantIds = new ArrayList<String>();
+      participantIds.add(scheduledInterview.interviewerId());
+      participantIds.add(scheduledInterview.intervieweeId());
+      // An interview without a shadow has an empty shadowId, which can't be used as a key.
+      if (!scheduledInterview.shadowId().equals("")) {
+        participantIds.add(scheduledInterview.shadowId());
+      }
+      for (String participantId : participantIds) {
+        if (!people.containsKey(participantId)) {
+          people.put(participantId, personDao.getAsync(participantId));
+        }
+      }
+    }
+    Map<String, String> firstNames = new HashMap<String, String>();
+    for (Map.Entry<String, PendingRead<Optional<Person>>> person : people.entrySet()) {
+      firstNames.put(
+          person.getKey(), person.getValue().join().map(Person::firstName).orElse("None"));
+    }
+    return firstNames;
+  }
+
   // Gets the formatted date for the string that is shown on the scheduledInterviews page.
   private String getDateString(TimeRange when, ZoneId timeZoneId) {
     LocalDateTime start = LocalDateTime.ofInstant(when.start(), timeZoneId);
@@ -357,19 +425,21 @@ public class ScheduledInterviewServlet extends HttpServlet {
   }
 
   private ScheduledInterviewRequest makeScheduledInterviewRequest(
-      ScheduledInterview scheduledInterview, ZoneId timeZoneId, Instant userTime) {
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = getUserId();
+      ScheduledInterview scheduledInterview,
+      ZoneId timeZoneId,
+      Instant userTime,
+      Map<String, String> firstNames,
+      String userId) {
     String date = getDateString(scheduledInterview.when(), timeZoneId);
-    String interviewer = getFirstName(scheduledInterview.interviewerId());
-    String interviewee = getFirstName(scheduledInterview.intervieweeId());
+    String interviewer = firstNames.get(scheduledInterview.interviewerId());
+    String interviewee = firstNames.get(scheduledInterview.intervieweeId());
     String shadowId = scheduledInterview.shadowId();
     // When an interview is first scheduled, the shadowId is set to an empty string. Since this
     // behaviour is expected, here we prevent a null or empty name exception with creating keys
     // in datastore.
     String shadow = "None";
     if (!scheduledInterview.shadowId().equals("")) {
-      shadow = getFirstName(scheduledInterview.shadowId());
+      shadow = firstNames.get(scheduledInterview.shadowId());
     }
     String role = getUserRole(scheduledInterview, userId);
     boolean hasStarted =
@@ -401,64 +471,53 @@ public class ScheduledInterviewServlet extends HttpServlet {
     return "unknown";
   }
 
-  private String getUserId() {
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userService.getCurrentUser().getEmail().hashCode());
-    }
-    return userId;
+  // Returns the link to the feedback form for the given role in an interview.
+  static String getFeedbackLink(long interviewId, String role) {
+    return String.format(
+        "http://interview-me-step-2020.appspot.com/feedback.html?interview=%d&role=%s",
+        interviewId, role);
   }
 
   // Gets formatted date for the string that is used in the email sent to users
-  private String getEmailDateString(TimeRange when) {
+  static String getEmailDateString(TimeRange when) {
     LocalDateTime start = LocalDateTime.ofInstant(when.start(), ZoneId.systemDefault());
     String startTime = start.format(DateTimeFormatter.ofPattern("h:mm a"));
     String day = start.format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy"));
     return String.format("%s at %s UTC", day, startTime);
   }
 
-  private String getEmail(String participantId) {
-    return personDao.get(participantId).map(Person::email).orElse("None");
-  }
-
-  private String getFirstName(String participantId) {
-    return personDao.get(participantId).map(Person::firstName).orElse("None");
-  }
-
   private void sendParticipantEmail(
       ScheduledInterview scheduledInterview,
       String participantId,
+      Optional<Person> participant,
       HashMap<String, String> emailedDetails)
       throws IOException {
-    String recipientEmail = getEmail(participantId);
+    String recipientEmail = participant.map(Person::email).orElse("None");
 
     if (recipientEmail.equals("Nonexistent User")) {
       return;
     }
 
     String subject = "You have been requested to conduct a mock interview!";
-    String contentString = EmailUtils.fileContentToString("NewInterview_Interviewer.txt");
+    EmailTemplate template = interviewerTemplate;
 
     if (participantId.equals(scheduledInterview.intervieweeId())) {
       subject = "You have been registered for a mock interview!";
-      contentString = EmailUtils.fileContentToString("NewInterview_Interviewee.txt");
+      template = intervieweeTemplate;
     }
 
     if (participantId.equals(scheduledInterview.shadowId())) {
       subject = "You have been registered for a mock interview!";
-      contentString = EmailUtils.fileContentToString("NewInterview_Shadow.txt");
+      template = shadowTemplate;
     }
 
     Email recipient = new Email(recipientEmail);
-    Content content =
-        new Content("text/plain", EmailUtils.replaceAllPairs(emailedDetails, contentString));
+    Content content = new Content("text/plain", template.render(emailedDetails));
     emailSender.sendEmail(recipient, subject, content);
   }
   // Formats the position string that is sent in an email. For example SOFTWARE_ENGINEER -> Software
   // Engineer.
-  private static String formatPositionString(String str) {
+  static String formatPositionString(String str) {
     String splitString[] = str.split("_", 0);
     String formattedPositionString = "";
     for (String s : splitString) {
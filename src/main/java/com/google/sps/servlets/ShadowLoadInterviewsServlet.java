@@ -14,8 +14,6 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
@@ -31,9 +29,12 @@ import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
 import com.google.sps.data.TimeRange;
 import com.google.sps.data.TimeUtils;
+import com.google.sps.utils.TokenBucketLimiter;
+import com.google.sps.views.PossibleInterviewTimesView;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.lang.Integer;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.ZoneId;
@@ -60,6 +61,7 @@ public class ShadowLoadInterviewsServlet extends HttpServlet {
   private ScheduledInterviewDao scheduledInterviewDao;
   private PersonDao personDao;
   private Instant currentTime;
+  private TokenBucketLimiter searchLimiter;
   private final int maxTimezoneOffsetMinutes = 720;
   private final int maxTimezoneOffsetHours = 12;
 
@@ -70,9 +72,25 @@ public class ShadowLoadInterviewsServlet extends HttpServlet {
 
   public void init(
       ScheduledInterviewDao scheduledInterviewDao, PersonDao personDao, Instant currentTime) {
+    init(
+        scheduledInterviewDao,
+        personDao,
+        currentTime,
+        new TokenBucketLimiter(
+            Clock.systemUTC(),
+            LoadInterviewsServlet.SEARCH_BURST,
+            LoadInterviewsServlet.SEARCHES_PER_SECOND));
+  }
+
+  public void init(
+      ScheduledInterviewDao scheduledInterviewDao,
+      PersonDao personDao,
+      Instant currentTime,
+      TokenBucketLimiter searchLimiter) {
     this.scheduledInterviewDao = scheduledInterviewDao;
     this.personDao = personDao;
     this.currentTime = currentTime;
+    this.searchLimiter = searchLimiter;
   }
 
   @Override
@@ -92,25 +110,27 @@ public class ShadowLoadInterviewsServlet extends HttpServlet {
     // current time.
     TimeRange interviewSearchTimeRange =
         new TimeRange(utcTime.toInstant(), utcTime.toInstant().plus(27, ChronoUnit.DAYS));
-    UserService userService = UserServiceFactory.getUserService();
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userEmail.hashCode());
+    String userId = CurrentUser.of(request).userId();
+    if (!searchLimiter.tryAcquire(userId)) {
+      response.setHeader("Retry-After", String.valueOf(searchLimiter.secondsPerToken()));
+      response.sendError(LoadInterviewsServlet.SC_TOO_MANY_REQUESTS);
+      return;
     }
     String position = request.getParameter("position");
     Job selectedPosition = Job.valueOf(Job.class, position);
-    List<ScheduledInterview> possibleInterviews =
-        getPossibleInterviews(
-            scheduledInterviewDao, selectedPosition, interviewSearchTimeRange, personDao, userId);
     List<PossibleInterviewSlot> possibleInterviewSlots =
-        scheduledInterviewsToPossibleInterviewSlots(possibleInterviews, timezoneOffset);
+        scheduledInterviewsToPossibleInterviewSlots(
+            getPossibleInterviews(
+                scheduledInterviewDao,
+                selectedPosition,
+                interviewSearchTimeRange,
+                personDao,
+                userId),
+            timezoneOffset);
     List<ArrayList<PossibleInterviewSlot>> possibleInterviewsForMonth =
         LoadInterviewsServlet.orderPossibleInterviewSlotsIntoDays(possibleInterviewSlots);
     request.setAttribute("monthList", possibleInterviewsForMonth);
-    RequestDispatcher rd = request.getRequestDispatcher("/possibleInterviewTimes.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(PossibleInterviewTimesView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
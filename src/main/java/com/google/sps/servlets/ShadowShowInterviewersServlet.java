@@ -14,8 +14,6 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.sps.data.Availability;
@@ -30,6 +28,7 @@ import com.google.sps.data.PossibleInterviewer;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
 import com.google.sps.data.TimeRange;
+import com.google.sps.views.PossibleInterviewersView;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.lang.Integer;
@@ -74,14 +73,7 @@ public class ShadowShowInterviewersServlet extends HttpServlet {
     TimeRange interviewTimeRange =
         new TimeRange(
             Instant.parse(utcStartTime), Instant.parse(utcStartTime).plus(1, ChronoUnit.HOURS));
-    UserService userService = UserServiceFactory.getUserService();
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userEmail.hashCode());
-    }
+    String userId = CurrentUser.of(request).userId();
     String position = request.getParameter("position");
     Job selectedPosition = Job.valueOf(Job.class, position);
     List<ScheduledInterview> possibleInterviews =
@@ -94,7 +86,7 @@ public class ShadowShowInterviewersServlet extends HttpServlet {
       possibleInterviewers.add(PossibleInterviewer.create(company, job));
     }
     request.setAttribute("interviewers", possibleInterviewers);
-    RequestDispatcher rd = request.getRequestDispatcher("/possibleInterviewers.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(PossibleInterviewersView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
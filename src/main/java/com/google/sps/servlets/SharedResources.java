@@ -0,0 +1,117 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpTransport;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.gson.Gson;
+import com.google.sps.data.AsyncDatastoreScheduledInterviewDao;
+import com.google.sps.data.CalendarAccess;
+import com.google.sps.data.EmailSender;
+import com.google.sps.data.GoogleCalendarAccess;
+import com.google.sps.data.SecretFetcher;
+import com.google.sps.data.SendgridEmailSender;
+import com.google.sps.data.WeeklyInterviewerLoad;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+
+/**
+ * The clients that are slow to build and safe to share, and the state servlets must not each keep
+ * their own copy of, built at most once per instance. Servlets take them from here in init()
+ * instead of building their own, and WarmupServlet builds the clients before the instance gets user
+ * requests. A client that fails to build is tried again the next time it is asked for.
+ */
+final class SharedResources {
+  static final String PROJECT_ID = "interviewme2020";
+  static final Email SENDER = new Email("interviewme.business@gmail.com");
+  // Gson instances are thread-safe, and this one has no settings, so every servlet can use it.
+  private static final Gson GSON = new Gson();
+
+  private static final Supplier<String> sendgridApiKey =
+      Suppliers.memoize(() -> secret("SENDGRID_API_KEY"));
+  private static final Supplier<String> serviceAccountKey =
+      Suppliers.memoize(() -> secret("SERVICE_ACCT_KEY"));
+  // Loads Google's trust store, which takes a while.
+  private static final Supplier<HttpTransport> httpTransport =
+      Suppliers.memoize(
+          () -> {
+            try {
+              return GoogleNetHttpTransport.newTrustedTransport();
+            } catch (GeneralSecurityException | IOException e) {
+              throw new RuntimeException(e);
+            }
+          });
+  private static final Supplier<EmailSender> emailSender =
+      Suppliers.memoize(() -> new SendgridEmailSender(SENDER, sendgridApiKey.get()));
+  private static final Supplier<CalendarAccess> calendar =
+      Suppliers.memoize(
+          () -> {
+            try {
+              return new GoogleCalendarAccess(
+                  GoogleCalendarAccess.MakeCalendar(serviceAccountKey.get(), httpTransport.get()));
+            } catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          });
+  // Every servlet that books interviews records them in the same counts, so each instance keeps
+  // one count per interviewer and week however many of those servlets it has loaded.
+  private static final Supplier<WeeklyInterviewerLoad> interviewerLoad =
+      Suppliers.memoize(
+          () ->
+              new WeeklyInterviewerLoad(
+                  new AsyncDatastoreScheduledInterviewDao(), Clock.systemUTC()));
+
+  private SharedResources() {}
+
+  static Gson gson() {
+    return GSON;
+  }
+
+  static String sendgridApiKey() {
+    return sendgridApiKey.get();
+  }
+
+  static String serviceAccountKey() {
+    return serviceAccountKey.get();
+  }
+
+  static HttpTransport httpTransport() {
+    return httpTransport.get();
+  }
+
+  static EmailSender emailSender() {
+    return emailSender.get();
+  }
+
+  static CalendarAccess calendar() {
+    return calendar.get();
+  }
+
+  static WeeklyInterviewerLoad interviewerLoad() {
+    return interviewerLoad.get();
+  }
+
+  private static String secret(String secretId) {
+    try {
+      return new SecretFetcher(PROJECT_ID).getSecretValue(secretId);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -14,8 +14,6 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.users.UserService;
-import com.google.appengine.api.users.UserServiceFactory;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.sps.data.Availability;
@@ -30,6 +28,7 @@ import com.google.sps.data.PossibleInterviewer;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.ScheduledInterviewDao;
 import com.google.sps.data.TimeRange;
+import com.google.sps.views.PossibleInterviewersView;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.lang.Integer;
@@ -78,10 +77,15 @@ public class ShowInterviewersServlet extends HttpServlet {
     String position = request.getParameter("position");
     Job selectedPosition = Job.valueOf(Job.class, position);
     List<Person> possiblePeople =
-        getPossiblePeople(personDao, availabilityDao, selectedPosition, interviewTimeRange);
+        getPossiblePeople(
+            personDao,
+            availabilityDao,
+            selectedPosition,
+            interviewTimeRange,
+            CurrentUser.of(request).userId());
     Set<PossibleInterviewer> possibleInterviewers = peopleToPossibleInterviewers(possiblePeople);
     request.setAttribute("interviewers", possibleInterviewers);
-    RequestDispatcher rd = request.getRequestDispatcher("/possibleInterviewers.jsp");
+    RequestDispatcher rd = request.getRequestDispatcher(PossibleInterviewersView.PATH);
     try {
       rd.forward(request, response);
     } catch (ServletException e) {
@@ -89,32 +93,24 @@ public class ShowInterviewersServlet extends HttpServlet {
     }
   }
 
+  // Returns the people other than userId qualified for position who are free for all of range. This
+  // costs the same two reads however many people are available: one query for who is free
+  // throughout the range and one batch get of their profiles.
   static List<Person> getPossiblePeople(
-      PersonDao personDao, AvailabilityDao availabilityDao, Job position, TimeRange range) {
+      PersonDao personDao,
+      AvailabilityDao availabilityDao,
+      Job position,
+      TimeRange range,
+      String userId) {
     Set<String> allInterviewers =
-        availabilityDao.getUsersAvailableInRange(range.start(), range.end());
+        availabilityDao.getUsersFreeThroughout(range.start(), range.end());
     // We don't want to schedule an interview for a user with themself, so we are removing
     // the current user's id from the list.
-    UserService userService = UserServiceFactory.getUserService();
-    String userEmail = userService.getCurrentUser().getEmail();
-    String userId = userService.getCurrentUser().getUserId();
-    // Since Users returned from the LocalUserService (in tests) do not have userIds, here we set
-    // the userId equal to a hashcode.
-    if (userId == null) {
-      userId = String.format("%d", userEmail.hashCode());
-    }
     allInterviewers.remove(userId);
     // We need to check that the interviewers are qualified to give an interview for the specified
-    // position
-    allInterviewers.removeIf(
-        interviewer -> !personDao.get(interviewer).get().qualifiedJobs().contains(position));
-    List<Person> possibleInterviewers = new ArrayList<Person>();
-    for (String interviewer : allInterviewers) {
-      if (personHasPossibleInterviewSlot(availabilityDao, interviewer, range)) {
-        possibleInterviewers.add(personDao.get(interviewer).get());
-      }
-    }
-    return possibleInterviewers;
+    // position, so only qualified interviewers are read.
+    allInterviewers.retainAll(personDao.getQualifiedIds(position));
+    return new ArrayList<Person>(personDao.getAll(allInterviewers).values());
   }
 
   private Set<PossibleInterviewer> peopleToPossibleInterviewers(List<Person> possiblePeople) {
@@ -125,16 +121,6 @@ public class ShowInterviewersServlet extends HttpServlet {
     return possibleInterviewers;
   }
 
-  static boolean personHasPossibleInterviewSlot(
-      AvailabilityDao availabilityDao, String userId, TimeRange range) {
-    List<Availability> availabilities =
-        availabilityDao.getInRangeForUser(userId, range.start(), range.end());
-    availabilities.removeIf(avail -> avail.scheduled());
-    // If they have 4 unscheduled availabilities during the hour-long range, then they have
-    // a possible interview slot.
-    return availabilities.size() == 4;
-  }
-
   private PossibleInterviewer personToPossibleInterviewer(Person person) {
     return PossibleInterviewer.create(person.company(), person.job());
   }
@@ -0,0 +1,100 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.api.ThreadManager;
+import com.google.sps.data.DatastoreSnapshot;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Servlet an admin uses to copy the app's data between environments. GET returns a chunk of a
+// snapshot of every entity as newline-delimited JSON and POST imports a chunk sent as the request
+// body. A whole snapshot doesn't fit in one request, so the admin repeats the GET with from set to
+// the X-Snapshot-Next header until a response has no such header, and POSTs the snapshot in
+// pieces of at most DatastoreSnapshot.MAX_IMPORT_ENTITIES lines.
+@WebServlet("/admin/snapshot")
+public class SnapshotServlet extends HttpServlet {
+  // How many batched puts an import writes at the same time.
+  static final int IMPORT_THREADS = 4;
+  static final String NEXT_HEADER = "X-Snapshot-Next";
+  private DatastoreSnapshot snapshot;
+  private Supplier<ExecutorService> importExecutors;
+
+  @Override
+  public void init() {
+    // App Engine API calls can only be made from threads tied to the current request, so each
+    // import gets its own pool from the request thread factory.
+    init(
+        new DatastoreSnapshot(),
+        () ->
+            Executors.newFixedThreadPool(
+                IMPORT_THREADS, ThreadManager.currentRequestThreadFactory()));
+  }
+
+  public void init(DatastoreSnapshot snapshot, Supplier<ExecutorService> importExecutors) {
+    this.snapshot = snapshot;
+    this.importExecutors = importExecutors;
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!CurrentUser.of(request).isAdmin()) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    // App Engine buffers the whole response before sending it anyway, so the chunk is built in
+    // memory; that lets the header saying where to carry on go before it.
+    StringWriter chunk = new StringWriter();
+    DatastoreSnapshot.Export export;
+    try {
+      export = snapshot.export(chunk, Optional.ofNullable(request.getParameter("from")));
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    response.setContentType("application/x-ndjson;");
+    response.setHeader("Content-Disposition", "attachment; filename=\"snapshot.ndjson\"");
+    export.next().ifPresent(next -> response.setHeader(NEXT_HEADER, next));
+    response.getWriter().write(chunk.toString());
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (!CurrentUser.of(request).isAdmin()) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    ExecutorService executor = importExecutors.get();
+    long imported;
+    try {
+      imported = snapshot.importFrom(request.getReader(), executor);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    } finally {
+      executor.shutdown();
+    }
+    response.setContentType("application/json;");
+    response.getWriter().println(String.format("{\"imported\":%d}", imported));
+  }
+}
@@ -0,0 +1,131 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.sps.data.DatastoreAvailabilityDao;
+import com.google.sps.data.DatastoreFeedbackDao;
+import com.google.sps.data.DatastorePersonDao;
+import com.google.sps.data.DatastoreScheduledInterviewDao;
+import com.google.sps.utils.EmailTemplates;
+import com.google.sps.views.FeedbackFormView;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Handles the warm-up request App Engine sends a new instance before routing user requests to it.
+ * It builds everything that is slow to build the first time, so a cold start lands on this request
+ * rather than on a user's, and responds with how long each step took.
+ *
+ * <p>A step that fails is logged and the others still run. The instance serves users either way,
+ * building what failed on first use, so the response only reports the failure.
+ */
+@WebServlet("/_ah/warmup")
+public class WarmupServlet extends HttpServlet {
+  private static final Logger logger = Logger.getLogger(WarmupServlet.class.getName());
+  // A person id that is never used, looked up to open the connection to Datastore.
+  private static final String UNUSED_PERSON_ID = "warmup";
+  private ImmutableMap<String, Runnable> steps;
+
+  @Override
+  public void init() {
+    init(
+        ImmutableMap.<String, Runnable>builder()
+            .put("gson", SharedResources::gson)
+            .put("templates", WarmupServlet::loadTemplates)
+            .put("datastore", WarmupServlet::connectToDatastore)
+            .put("secrets", WarmupServlet::fetchSecrets)
+            .put("httpTransport", SharedResources::httpTransport)
+            .put("emailSender", SharedResources::emailSender)
+            .put("calendar", SharedResources::calendar)
+            .build());
+  }
+
+  // Runs the steps in the order given.
+  public void init(ImmutableMap<String, Runnable> steps) {
+    this.steps = steps;
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Timings timings = new Timings();
+    // How long the instance took to get this far: starting the JVM, loading the app and
+    // initializing this servlet.
+    timings.sinceJvmStartMs = ManagementFactory.getRuntimeMXBean().getUptime();
+    long start = System.nanoTime();
+    for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+      long stepStart = System.nanoTime();
+      try {
+        step.getValue().run();
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Warm-up step " + step.getKey() + " failed", e);
+        timings.failed.add(step.getKey());
+      }
+      timings.stepsMs.put(step.getKey(), millisSince(stepStart));
+    }
+    timings.totalMs = millisSince(start);
+
+    String breakdown = SharedResources.gson().toJson(timings);
+    logger.info("Warm-up took " + breakdown);
+    response.setContentType("application/json;");
+    response.getWriter().println(breakdown);
+  }
+
+  private static double millisSince(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1e6;
+  }
+
+  private static void loadTemplates() {
+    EmailTemplates.all();
+    // The feedback forms are read when the view's class is initialized.
+    try {
+      Class.forName(FeedbackFormView.class.getName(), true, WarmupServlet.class.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  // Builds the DAOs the servlets use, loading their classes, and makes one small read so the
+  // first user request doesn't set up the Datastore connection.
+  private static void connectToDatastore() {
+    new DatastoreAvailabilityDao();
+    new DatastoreScheduledInterviewDao();
+    new DatastoreFeedbackDao();
+    new DatastorePersonDao().get(UNUSED_PERSON_ID);
+  }
+
+  private static void fetchSecrets() {
+    SharedResources.sendgridApiKey();
+    SharedResources.serviceAccountKey();
+  }
+
+  // The breakdown reported for one warm-up, in milliseconds.
+  private static class Timings {
+    long sinceJvmStartMs;
+    double totalMs;
+    Map<String, Double> stepsMs = new LinkedHashMap<String, Double>();
+    List<String> failed = new ArrayList<String>();
+  }
+}
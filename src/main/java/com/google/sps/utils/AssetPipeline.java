@@ -0,0 +1,232 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prepares the webapp for packaging. Everything is copied to an output directory, and each JS and
+ * CSS file is also minified and written to /assets under a name that includes a hash of its
+ * contents. The HTML and JSP pages are then pointed at those copies. An asset's name changes
+ * whenever its contents do, so /assets can be cached for good while the pages are revalidated.
+ *
+ * <p>The build runs this before packaging, with the webapp and output directories as arguments.
+ */
+public final class AssetPipeline {
+  static final String ASSET_DIRECTORY = "assets";
+  // The length of the content hash added to asset names.
+  private static final int HASH_LENGTH = 10;
+  private static final Pattern REFERENCE = Pattern.compile("(src|href)=\"([^\"]+)\"");
+
+  private AssetPipeline() {}
+
+  public static void main(String[] args) throws IOException {
+    Preconditions.checkArgument(args.length == 2, "Usage: AssetPipeline <webapp> <output>");
+    Map<String, String> assets = run(Paths.get(args[0]), Paths.get(args[1]));
+    System.out.printf("Fingerprinted %d assets into %s%n", assets.size(), args[1]);
+  }
+
+  /**
+   * Copies webapp to output, fingerprinting its assets and rewriting its pages. Returns the
+   * fingerprinted path of every asset keyed by its original path, both starting with a slash.
+   */
+  public static ImmutableMap<String, String> run(Path webapp, Path output) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(webapp)) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+
+    ImmutableMap.Builder<String, String> assets = ImmutableMap.builder();
+    for (Path file : files) {
+      String name = webPath(webapp, file);
+      Path target = output.resolve(webapp.relativize(file).toString());
+      Files.createDirectories(target.getParent());
+      Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+      if (isAsset(name)) {
+        String minified = minify(name, read(file));
+        String fingerprinted = "/" + ASSET_DIRECTORY + fingerprint(name, minified);
+        Path assetTarget = output.resolve(fingerprinted.substring(1));
+        Files.createDirectories(assetTarget.getParent());
+        Files.write(assetTarget, minified.getBytes(StandardCharsets.UTF_8));
+        assets.put(name, fingerprinted);
+      }
+    }
+    ImmutableMap<String, String> fingerprinted = assets.build();
+
+    for (Path file : files) {
+      String name = webPath(webapp, file);
+      if (name.endsWith(".html") || name.endsWith(".jsp")) {
+        String page = rewriteReferences(name, read(file), fingerprinted);
+        Path target = output.resolve(webapp.relativize(file).toString());
+        Files.write(target, page.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return fingerprinted;
+  }
+
+  // Returns "/dir/name.HASH.ext" for the asset "/dir/name.ext".
+  static String fingerprint(String name, String contents) {
+    String hash =
+        Hashing.sha256()
+            .hashString(contents, StandardCharsets.UTF_8)
+            .toString()
+            .substring(0, HASH_LENGTH);
+    int extension = name.lastIndexOf('.');
+    return name.substring(0, extension) + "." + hash + name.substring(extension);
+  }
+
+  /**
+   * Points every src and href in page that names a fingerprinted asset at the fingerprinted copy.
+   * References are resolved relative to the page, which is at pageName.
+   */
+  static String rewriteReferences(String pageName, String page, Map<String, String> assets) {
+    Matcher matcher = REFERENCE.matcher(page);
+    StringBuffer rewritten = new StringBuffer();
+    while (matcher.find()) {
+      String asset = assets.get(resolve(pageName, matcher.group(2)));
+      String replacement =
+          asset == null ? matcher.group() : String.format("%s=\"%s\"", matcher.group(1), asset);
+      matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+    }
+    matcher.appendTail(rewritten);
+    return rewritten.toString();
+  }
+
+  // Returns the path that reference names, or null if it isn't a plain path within the webapp.
+  private static String resolve(String pageName, String reference) {
+    if (reference.startsWith("//") || reference.contains(":") || reference.contains("?")) {
+      return null;
+    }
+    try {
+      return URI.create(pageName).resolve(reference).getPath();
+    } catch (IllegalArgumentException e) {
+      // JSP expressions and the like aren't valid URIs.
+      return null;
+    }
+  }
+
+  static String minify(String name, String source) {
+    return name.endsWith(".css") ? minifyCss(source) : minifyJs(source);
+  }
+
+  /**
+   * Removes indentation, blank lines and lines holding only a comment. Line breaks are kept so that
+   * automatic semicolon insertion is unaffected, and template literals are left as they are.
+   */
+  static String minifyJs(String source) {
+    StringBuilder minified = new StringBuilder();
+    boolean inTemplate = false;
+    boolean inComment = false;
+    for (String line : source.split("\r?\n")) {
+      if (inTemplate) {
+        minified.append(line).append('\n');
+        inTemplate = endsInTemplate(line, true);
+        continue;
+      }
+      String code = stripLeading(line);
+      if (inComment) {
+        int end = code.indexOf("*/");
+        if (end < 0) {
+          continue;
+        }
+        inComment = false;
+        code = stripLeading(code.substring(end + 2));
+      }
+      if (code.startsWith("/*")) {
+        int end = code.indexOf("*/", 2);
+        if (end < 0) {
+          inComment = true;
+          continue;
+        }
+        code = stripLeading(code.substring(end + 2));
+      }
+      if (code.trim().isEmpty() || code.startsWith("//")) {
+        continue;
+      }
+      inTemplate = endsInTemplate(code, false);
+      // Trailing whitespace on a line that opens a template literal is part of the literal.
+      minified.append(inTemplate ? code : code.trim()).append('\n');
+    }
+    return minified.toString();
+  }
+
+  // Returns whether line, starting inside a template literal or not, ends inside one.
+  private static boolean endsInTemplate(String line, boolean inTemplate) {
+    char quote = 0;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (inTemplate) {
+        inTemplate = c != '`';
+      } else if (quote != 0) {
+        quote = c == quote ? 0 : quote;
+      } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+        break;
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '`') {
+        inTemplate = true;
+      }
+    }
+    return inTemplate;
+  }
+
+  private static String stripLeading(String line) {
+    return line.replaceFirst("^\\s+", "");
+  }
+
+  /** Removes comments and the whitespace that CSS doesn't need. */
+  static String minifyCss(String source) {
+    return source
+        .replaceAll("(?s)/\\*.*?\\*/", "")
+        .replaceAll("\\s+", " ")
+        .replaceAll(" ?([{};,]) ?", "$1")
+        .replace(";}", "}")
+        .trim();
+  }
+
+  private static boolean isAsset(String name) {
+    return (name.endsWith(".js") || name.endsWith(".css")) && !name.startsWith("/WEB-INF/");
+  }
+
+  // Returns the path file is served at, such as "/about.js".
+  private static String webPath(Path webapp, Path file) {
+    StringBuilder path = new StringBuilder();
+    for (Path part : webapp.relativize(file)) {
+      path.append('/').append(part.toString());
+    }
+    return path.toString();
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,118 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An email template that has been split into literal text and {{placeholder}} segments, so that
+ * rendering it is a single pass over the segments instead of one search of the whole text per
+ * placeholder.
+ */
+public final class EmailTemplate {
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{[A-Za-z0-9_]+\\}\\}");
+  // Each thread renders into its own builder, which is reused from one email to the next.
+  private static final ThreadLocal<StringBuilder> RENDER_BUFFER =
+      ThreadLocal.withInitial(StringBuilder::new);
+
+  private final String name;
+  private final String text;
+  // The template is literals[0] placeholders[0] literals[1] ... placeholders[n-1] literals[n].
+  private final ImmutableList<String> literals;
+  private final ImmutableList<String> placeholders;
+
+  private EmailTemplate(
+      String name,
+      String text,
+      ImmutableList<String> literals,
+      ImmutableList<String> placeholders) {
+    this.name = name;
+    this.text = text;
+    this.literals = literals;
+    this.placeholders = placeholders;
+  }
+
+  /** Splits the text of the template called name into its literal and placeholder segments. */
+  public static EmailTemplate parse(String name, String text) {
+    ImmutableList.Builder<String> literals = ImmutableList.builder();
+    ImmutableList.Builder<String> placeholders = ImmutableList.builder();
+    Matcher matcher = PLACEHOLDER.matcher(text);
+    int literalStart = 0;
+    while (matcher.find()) {
+      literals.add(text.substring(literalStart, matcher.start()));
+      placeholders.add(matcher.group());
+      literalStart = matcher.end();
+    }
+    literals.add(text.substring(literalStart));
+    return new EmailTemplate(name, text, literals.build(), placeholders.build());
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /** Returns the text of the template with its placeholders still in it. */
+  public String text() {
+    return text;
+  }
+
+  /** Returns every distinct placeholder in the template, such as "{{position}}". */
+  public ImmutableSet<String> placeholders() {
+    return ImmutableSet.copyOf(placeholders);
+  }
+
+  /**
+   * Returns the template with each placeholder replaced by its value in values. Values are inserted
+   * as they are, so a value that looks like a placeholder is not replaced again. A placeholder
+   * without a value is left in the text.
+   */
+  // Ex. template = "You are interviewing {{interviewee_first_name}} on {{formatted_date}}."
+  // values = { ("{{interviewee_first_name}}", "Tess"), ("{{formatted_date}}", "June 6, 2022") }
+  // Returned: "You are interviewing Tess on June 6, 2022."
+  public String render(Map<String, String> values) {
+    StringBuilder rendered = RENDER_BUFFER.get();
+    rendered.setLength(0);
+    rendered.append(literals.get(0));
+    for (int i = 0; i < placeholders.size(); i++) {
+      String value = values.get(placeholders.get(i));
+      rendered.append(value == null ? placeholders.get(i) : value);
+      rendered.append(literals.get(i + 1));
+    }
+    return rendered.toString();
+  }
+
+  /**
+   * Checks that every placeholder in the template is one of filledPlaceholders, the placeholders a
+   * sender fills in. Senders call this when they start up so that a template and its sender falling
+   * out of step is found then, rather than when an email goes out.
+   *
+   * @throws IllegalStateException if the template has placeholders the sender never fills.
+   */
+  public void checkFilledBy(Set<String> filledPlaceholders) {
+    Set<String> unfilled = new TreeSet<String>(placeholders);
+    unfilled.removeAll(filledPlaceholders);
+    if (!unfilled.isEmpty()) {
+      throw new IllegalStateException(
+          String.format(
+              "Email template %s has placeholders that are never filled: %s", name, unfilled));
+    }
+  }
+}
@@ -0,0 +1,107 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The email templates in /templates/email on the classpath. They are all read and parsed once, the
+ * first time any of them is used, instead of being read from disk for every email.
+ */
+public final class EmailTemplates {
+  private static final String TEMPLATE_DIRECTORY = "/templates/email";
+  private static final ImmutableMap<String, EmailTemplate> TEMPLATES = loadAll();
+
+  private EmailTemplates() {}
+
+  /**
+   * Returns the template with the given file name, such as "NewInterview_Shadow.txt".
+   *
+   * @throws IllegalArgumentException if there is no such template.
+   */
+  public static EmailTemplate get(String fileName) {
+    EmailTemplate template = TEMPLATES.get(fileName);
+    if (template == null) {
+      throw new IllegalArgumentException(
+          String.format("No email template %s in %s", fileName, TEMPLATE_DIRECTORY));
+    }
+    return template;
+  }
+
+  /** Returns every template, keyed by file name. */
+  public static ImmutableMap<String, EmailTemplate> all() {
+    return TEMPLATES;
+  }
+
+  private static ImmutableMap<String, EmailTemplate> loadAll() {
+    URL directory = EmailTemplates.class.getResource(TEMPLATE_DIRECTORY);
+    if (directory == null) {
+      throw new IllegalStateException(TEMPLATE_DIRECTORY + " is not on the classpath");
+    }
+    try {
+      URI directoryUri = directory.toURI();
+      // Resources packaged in a jar have to be listed through a file system for that jar.
+      if (directoryUri.getScheme().equals("jar")) {
+        try (FileSystem jar =
+            FileSystems.newFileSystem(directoryUri, Collections.<String, Object>emptyMap())) {
+          return loadFrom(jar.getPath(TEMPLATE_DIRECTORY));
+        }
+      }
+      return loadFrom(Paths.get(directoryUri));
+    } catch (IOException | URISyntaxException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static ImmutableMap<String, EmailTemplate> loadFrom(Path directory) throws IOException {
+    ImmutableMap.Builder<String, EmailTemplate> templates = ImmutableMap.builder();
+    try (Stream<Path> files = Files.list(directory)) {
+      Iterator<Path> fileIterator = files.iterator();
+      while (fileIterator.hasNext()) {
+        Path file = fileIterator.next();
+        if (!Files.isRegularFile(file)) {
+          continue;
+        }
+        String fileName = file.getFileName().toString();
+        templates.put(fileName, EmailTemplate.parse(fileName, readTemplate(file)));
+      }
+    }
+    return templates.build();
+  }
+
+  // Every line of the template is ended with a newline, including the last one.
+  private static String readTemplate(Path file) throws IOException {
+    StringBuilder content = new StringBuilder();
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    for (String line : lines) {
+      content.append(line).append("\n");
+    }
+    return content.toString();
+  }
+}
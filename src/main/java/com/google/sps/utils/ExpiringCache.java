@@ -0,0 +1,94 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches computed values for a fixed time to live, for results that are expensive to compute and
+ * may be slightly out of date. invalidateAll drops every value, including any being computed when
+ * it was called, so a write followed by a read never sees a value computed before the write.
+ *
+ * <p>Misses aren't shared between requests: the app isn't threadsafe, so an instance serves one
+ * request at a time and there is never a second miss on the same key to share with.
+ */
+public class ExpiringCache<K, V> {
+  private final Clock clock;
+  private final Duration timeToLive;
+  private final Predicate<V> cacheable;
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+  // Incremented by invalidateAll. A value is only stored if no invalidation happened while it was
+  // being computed.
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private static class Entry<V> {
+    private final V value;
+    private final long generation;
+    private final Instant expiresAt;
+
+    Entry(V value, long generation, Instant expiresAt) {
+      this.value = value;
+      this.generation = generation;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  // @param cacheable decides whether a computed value is kept, such as to skip partial results.
+  public ExpiringCache(Clock clock, Duration timeToLive, Predicate<V> cacheable) {
+    this.clock = clock;
+    this.timeToLive = timeToLive;
+    this.cacheable = cacheable;
+  }
+
+  /** Returns the cached value for key, computing it with compute if it is missing or expired. */
+  public V get(K key, Supplier<V> compute) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null
+        && entry.generation == generation.get()
+        && clock.instant().isBefore(entry.expiresAt)) {
+      hits.incrementAndGet();
+      return entry.value;
+    }
+    misses.incrementAndGet();
+    long computedGeneration = generation.get();
+    V value = compute.get();
+    if (cacheable.test(value) && computedGeneration == generation.get()) {
+      entries.put(key, new Entry<V>(value, computedGeneration, clock.instant().plus(timeToLive)));
+    }
+    return value;
+  }
+
+  /** Drops every cached value, for when the data they were computed from has changed. */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  public long hits() {
+    return hits.get();
+  }
+
+  public long misses() {
+    return misses.get();
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects the results of independent reads that have already been started, such as queries sent
+ * through AsyncDatastoreService, until a deadline. Since the reads are all in flight at once, they
+ * are waited on one at a time on the calling thread and the wait is as long as the slowest one.
+ * Reads that fail, or that haven't been waited on when the deadline passes, are left out of the
+ * results and reported as missing, so callers get a partial answer instead of waiting on the
+ * slowest read forever.
+ */
+public class FanOut {
+  private static final Logger logger = Logger.getLogger(FanOut.class.getName());
+
+  /** The results of a fan out, keyed the same way as the reads that produced them. */
+  public static class Result<K, V> {
+    private final ImmutableMap<K, V> results;
+    private final ImmutableSet<K> missing;
+
+    Result(Map<K, V> results, Set<K> missing) {
+      this.results = ImmutableMap.copyOf(results);
+      this.missing = ImmutableSet.copyOf(missing);
+    }
+
+    // The results of every read that finished successfully before the deadline.
+    public ImmutableMap<K, V> results() {
+      return results;
+    }
+
+    // The keys of the reads that failed or were not waited on before the deadline.
+    public ImmutableSet<K> missing() {
+      return missing;
+    }
+
+    public boolean isPartial() {
+      return !missing.isEmpty();
+    }
+  }
+
+  /**
+   * Waits on each of {@code reads} in turn until {@code deadline} has passed on {@code clock}. The
+   * deadline is checked between waits, so a read already being waited on isn't cut short.
+   */
+  public static <K, V> Result<K, V> collect(
+      Map<K, Supplier<V>> reads, Clock clock, Duration deadline) {
+    Instant stopAt = clock.instant().plus(deadline);
+    Map<K, V> results = new HashMap<K, V>();
+    for (Map.Entry<K, Supplier<V>> read : reads.entrySet()) {
+      if (clock.instant().isAfter(stopAt)) {
+        break;
+      }
+      try {
+        V value = read.getValue().get();
+        if (value != null) {
+          results.put(read.getKey(), value);
+        }
+      } catch (RuntimeException e) {
+        // The key is all that tells one read's failure from another's, such as which
+        // interviewer's search failed.
+        logger.log(Level.WARNING, "Read for " + read.getKey() + " failed", e);
+      }
+    }
+    Set<K> missing = new HashSet<K>(reads.keySet());
+    missing.removeAll(results.keySet());
+    return new Result<K, V>(results, missing);
+  }
+}
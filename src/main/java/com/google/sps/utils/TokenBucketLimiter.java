@@ -0,0 +1,109 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often each key, such as a user id, can do something. Every key has a bucket of up to
+ * capacity tokens that refills at tokensPerSecond, and each action takes one token, so a key can
+ * burst up to capacity actions and then keeps to the refill rate.
+ */
+public class TokenBucketLimiter {
+  // Past this many buckets, buckets that have refilled completely are dropped. A full bucket
+  // behaves the same as a new one, so dropping it changes nothing.
+  static final int MAX_BUCKETS = 10000;
+
+  private final Clock clock;
+  private final double capacity;
+  private final double tokensPerSecond;
+  private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+  private final AtomicLong allowed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  public TokenBucketLimiter(Clock clock, int capacity, double tokensPerSecond) {
+    this.clock = clock;
+    this.capacity = capacity;
+    this.tokensPerSecond = tokensPerSecond;
+  }
+
+  private class Bucket {
+    private double tokens = capacity;
+    private long refilledAtMillis;
+
+    Bucket(long nowMillis) {
+      refilledAtMillis = nowMillis;
+    }
+
+    // Must be called holding the bucket's lock.
+    private void refill(long nowMillis) {
+      if (nowMillis > refilledAtMillis) {
+        tokens =
+            Math.min(capacity, tokens + (nowMillis - refilledAtMillis) * tokensPerSecond / 1000);
+        refilledAtMillis = nowMillis;
+      }
+    }
+  }
+
+  /** Takes a token from the key's bucket, returning false if it is empty. */
+  public boolean tryAcquire(String key) {
+    long nowMillis = clock.millis();
+    Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(nowMillis));
+    boolean acquired;
+    synchronized (bucket) {
+      bucket.refill(nowMillis);
+      acquired = bucket.tokens >= 1;
+      if (acquired) {
+        bucket.tokens--;
+      }
+    }
+    (acquired ? allowed : rejected).incrementAndGet();
+    if (buckets.size() > MAX_BUCKETS) {
+      dropFullBuckets(nowMillis);
+    }
+    return acquired;
+  }
+
+  // How long an empty bucket takes to refill enough for one more action, rounded up to seconds.
+  public long secondsPerToken() {
+    return (long) Math.ceil(1 / tokensPerSecond);
+  }
+
+  public long allowed() {
+    return allowed.get();
+  }
+
+  public long rejected() {
+    return rejected.get();
+  }
+
+  int trackedKeys() {
+    return buckets.size();
+  }
+
+  private void dropFullBuckets(long nowMillis) {
+    buckets
+        .values()
+        .removeIf(
+            bucket -> {
+              synchronized (bucket) {
+                bucket.refill(nowMillis);
+                return bucket.tokens >= capacity;
+              }
+            });
+  }
+}
@@ -0,0 +1,61 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.sps.data.AvailabilityTimeSlot;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+// Renders the week in the "availabilityTable" request attribute, which holds one list of time
+// slots per day, as a table with a column per day and a row per time of day.
+@WebServlet(AvailabilityTableView.PATH)
+public class AvailabilityTableView extends HtmlView {
+  public static final String PATH = "/views/availability-table";
+
+  @Override
+  protected void render(HttpServletRequest request, StringBuilder html) {
+    @SuppressWarnings("unchecked")
+    List<List<AvailabilityTimeSlot>> days =
+        (List<List<AvailabilityTimeSlot>>) request.getAttribute("availabilityTable");
+    html.append("<table class=\"table table-sm text-center\">\n")
+        .append("  <thead>\n")
+        .append("    <tr>\n")
+        .append("      <th scope=\"col\"></th>\n");
+    for (List<AvailabilityTimeSlot> day : days) {
+      html.append(String.format("      <th scope=\"col\">%s</th>\n", escape(day.get(0).date())));
+    }
+    html.append("    </tr>\n").append("  </thead>\n").append("  <tbody>\n");
+
+    // Every day has the same times, so the first day labels the rows.
+    List<AvailabilityTimeSlot> times = days.get(0);
+    for (int i = 0; i < times.size(); i++) {
+      // The rows on the hour are taller than those for the quarter hours between.
+      html.append(String.format("    <tr class=\"%s\">\n", i % 4 == 0 ? "tall" : "short"))
+          .append(String.format("      <td>%s</td>\n", escape(times.get(i).time())));
+      for (List<AvailabilityTimeSlot> day : days) {
+        AvailabilityTimeSlot slot = day.get(i);
+        html.append(
+            String.format(
+                "      <td onmouseenter=\"event.preventDefault(); toggleTile(this);\""
+                    + " onmousedown=\"event.preventDefault(); markMouseDown(); toggleTile(this);\""
+                    + " data-utc=\"%s\" class=\"%s\"></td>\n",
+                escape(slot.utcEncoding()), escape(slot.getClassList())));
+      }
+      html.append("    </tr>\n");
+    }
+    html.append("  </tbody>\n").append("</table>\n");
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+// Renders the feedback form for the "role" request attribute, or a notice if the "feedbackOpen"
+// request attribute says the interview hasn't started yet. The forms don't change, so they are
+// read from the classpath once.
+@WebServlet(FeedbackFormView.PATH)
+public class FeedbackFormView extends HtmlView {
+  public static final String PATH = "/views/feedback";
+  // The form an interviewee fills in about their interviewer, and the one an interviewer fills in
+  // about their interviewee.
+  private static final String INTERVIEWER_FEEDBACK_FORM = load("interviewerFeedbackForm.html");
+  private static final String INTERVIEWEE_FEEDBACK_FORM = load("intervieweeFeedbackForm.html");
+
+  @Override
+  protected void render(HttpServletRequest request, StringBuilder html) {
+    if (!Boolean.TRUE.equals(request.getAttribute("feedbackOpen"))) {
+      html.append("<h2 style=\"text-align: center\">You may not submit feedback yet.</h2>\n");
+      return;
+    }
+    Object role = request.getAttribute("role");
+    if ("Interviewee".equals(role)) {
+      html.append(INTERVIEWER_FEEDBACK_FORM);
+    } else if ("Interviewer".equals(role)) {
+      html.append(INTERVIEWEE_FEEDBACK_FORM);
+    }
+  }
+
+  private static String load(String fileName) {
+    try {
+      return Resources.toString(
+          Resources.getResource(FeedbackFormView.class, "/templates/html/" + fileName),
+          StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
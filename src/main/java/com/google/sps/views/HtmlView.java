@@ -0,0 +1,77 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.common.html.HtmlEscapers;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A servlet that renders an HTML fragment from the request attributes set by the servlet that
+ * forwarded to it. Views replace the JSPs the site used to have: they are compiled with the rest of
+ * the app, so no request waits on JSP compilation, and they read their data with plain Java rather
+ * than evaluating EL for every cell.
+ *
+ * <p>Views are only reached through a RequestDispatcher. Their paths are still URLs, but a request
+ * made to one directly has none of the attributes the view reads, so it is answered with a 404.
+ *
+ * <p>Each render reports how long it took in a Server-Timing header. The first render in an
+ * instance is also logged, so cold and warm renders can be compared.
+ */
+public abstract class HtmlView extends HttpServlet {
+  private static final Logger logger = Logger.getLogger(HtmlView.class.getName());
+  private final AtomicBoolean rendered = new AtomicBoolean(false);
+
+  @Override
+  public final void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    if (request.getAttribute(RequestDispatcher.FORWARD_REQUEST_URI) == null
+        && request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI) == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    long start = System.nanoTime();
+    StringBuilder html = new StringBuilder();
+    render(request, html);
+    double millis = (System.nanoTime() - start) / 1e6;
+
+    response.setContentType("text/html;");
+    response.setHeader("Server-Timing", String.format("render;dur=%.2f", millis));
+    response.getWriter().print(html);
+    boolean first = rendered.compareAndSet(false, true);
+    logger.log(
+        first ? Level.INFO : Level.FINE,
+        String.format(
+            "%s rendered in %.2f ms%s",
+            getClass().getSimpleName(), millis, first ? " (first render in this instance)" : ""));
+  }
+
+  /** Appends the fragment for request to html. */
+  protected abstract void render(HttpServletRequest request, StringBuilder html);
+
+  /**
+   * Returns value escaped for use in HTML text or a quoted attribute. Like EL, a null value renders
+   * as nothing.
+   */
+  protected static String escape(Object value) {
+    return value == null ? "" : HtmlEscapers.htmlEscaper().escape(value.toString());
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.sps.data.PossibleInterviewSlot;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+// Renders a picker for each day of the "monthList" request attribute, which holds the interview
+// slots that can be booked grouped by day.
+@WebServlet(PossibleInterviewTimesView.PATH)
+public class PossibleInterviewTimesView extends HtmlView {
+  public static final String PATH = "/views/possible-interview-times";
+
+  @Override
+  protected void render(HttpServletRequest request, StringBuilder html) {
+    @SuppressWarnings("unchecked")
+    List<? extends List<PossibleInterviewSlot>> days =
+        (List<? extends List<PossibleInterviewSlot>>) request.getAttribute("monthList");
+    if (days.isEmpty()) {
+      html.append(
+          "<h2 style=\"text-align: center\">No interviews are available at this time.</h2>\n");
+      return;
+    }
+    for (List<PossibleInterviewSlot> day : days) {
+      String date = escape(day.get(0).date());
+      html.append("<form>\n")
+          .append("  <div class=\"form-row\">\n")
+          .append("    <div class=\"col-3 date-label\">\n")
+          .append(String.format("      <label>%s</label>\n", date))
+          .append("    </div>\n")
+          .append("    <div class=\"col-5\">\n")
+          .append(String.format("      <select class=\"form-control\" id=\"%s\">\n", date));
+      for (PossibleInterviewSlot slot : day) {
+        html.append(
+            String.format(
+                "        <option value=\"%s\" data-date=\"%s\">%s</option>\n",
+                escape(slot.utcEncoding()), escape(slot.date()), escape(slot.time())));
+      }
+      html.append("      </select>\n")
+          .append("    </div>\n")
+          .append("    <div class=\"col-4\">\n")
+          .append(
+              String.format(
+                  "      <button type=\"button\" class=\"btn btn-primary mb-2\""
+                      + " onclick=\"showInterviewers(this)\" data-date=\"%s\">Select</button>\n",
+                  date))
+          .append("    </div>\n")
+          .append("  </div>\n")
+          .append("</form>\n")
+          .append("<br>\n");
+    }
+  }
+}
@@ -0,0 +1,64 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.sps.data.PossibleInterviewer;
+import java.util.Set;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+// Renders a row for each of the "interviewers" request attribute, with a button that books the
+// slot given by the utcStartTime, date and time parameters with that interviewer.
+@WebServlet(PossibleInterviewersView.PATH)
+public class PossibleInterviewersView extends HtmlView {
+  public static final String PATH = "/views/possible-interviewers";
+
+  @Override
+  protected void render(HttpServletRequest request, StringBuilder html) {
+    @SuppressWarnings("unchecked")
+    Set<PossibleInterviewer> interviewers =
+        (Set<PossibleInterviewer>) request.getAttribute("interviewers");
+    String slot =
+        String.format(
+            "data-utc=\"%s\" data-time=\"%s\" data-date=\"%s\"",
+            escape(request.getParameter("utcStartTime")),
+            escape(request.getParameter("time")),
+            escape(request.getParameter("date")));
+    html.append("<table class=\"table\">\n")
+        .append("  <thead>\n")
+        .append("    <tr>\n")
+        .append("      <th scope=\"col\">Company</th>\n")
+        .append("      <th scope=\"col\">Job</th>\n")
+        .append("    </tr>\n")
+        .append("  </thead>\n")
+        .append("  <tbody>\n");
+    for (PossibleInterviewer interviewer : interviewers) {
+      String company = escape(interviewer.company());
+      String job = escape(interviewer.job());
+      html.append("    <tr>\n")
+          .append(String.format("      <td class=\"check-specified\">%s</td>\n", company))
+          .append(String.format("      <td class=\"check-specified\">%s</td>\n", job))
+          .append("      <td>\n")
+          .append(
+              String.format(
+                  "        <button type=\"button\" class=\"btn btn-primary\" data-company=\"%s\""
+                      + " data-job=\"%s\" %s onclick=\"selectInterview(this)\">Select</button>\n",
+                  company, job, slot))
+          .append("      </td>\n")
+          .append("    </tr>\n");
+    }
+    html.append("  </tbody>\n").append("</table>\n");
+  }
+}
@@ -0,0 +1,85 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.sps.data.ScheduledInterviewRequest;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+// Renders a card for each of the "scheduledInterviews" request attribute.
+@WebServlet(ScheduledInterviewsView.PATH)
+public class ScheduledInterviewsView extends HtmlView {
+  public static final String PATH = "/views/scheduled-interviews";
+
+  @Override
+  protected void render(HttpServletRequest request, StringBuilder html) {
+    @SuppressWarnings("unchecked")
+    List<ScheduledInterviewRequest> scheduledInterviews =
+        (List<ScheduledInterviewRequest>) request.getAttribute("scheduledInterviews");
+    if (scheduledInterviews.isEmpty()) {
+      html.append("<h2 style=\"text-align: center\">No Scheduled Interviews</h2>\n");
+      return;
+    }
+    for (ScheduledInterviewRequest scheduledInterview : scheduledInterviews) {
+      String role = scheduledInterview.getRole();
+      long id = scheduledInterview.getId();
+      html.append(String.format("<div data-id=\"%d\" class=\"row\">\n", id))
+          .append("  <div class=\"card w-75 scheduled-interview-card\">\n")
+          .append("    <div class=\"card-body\">\n")
+          .append(
+              String.format("      <h5 class=\"card-title\">Your Role: %s</h5>\n", escape(role)))
+          .append(
+              String.format(
+                  "      <p class=\"card-text\">%s</p>\n",
+                  escape(scheduledInterview.getDateString())))
+          .append("    </div>\n")
+          .append("    <ul class=\"list-group list-group-flush\">\n")
+          .append(listItem("Interviewee: " + scheduledInterview.getInterviewee()))
+          .append(listItem("Interviewer: " + scheduledInterview.getInterviewer()))
+          .append(listItem("Shadow: " + scheduledInterview.getShadow()))
+          .append("      <li class=\"list-group-item\">\n")
+          .append(
+              String.format(
+                  "        <a href=\"%s\" target=\"_blank\">Meet Link</a>\n",
+                  escape(scheduledInterview.getMeetLink())))
+          .append("      </li>\n")
+          .append("    </ul>\n");
+      // Shadows don't give feedback.
+      if (role.equals("Interviewer") || role.equals("Interviewee")) {
+        if (scheduledInterview.getHasStarted()) {
+          String feedbackLink =
+              String.format("feedback.html?interview=%d&role=%s", scheduledInterview.getId(), role);
+          html.append(
+                  String.format(
+                      "    <a href=\"%s\" style=\"text-align:center\">\n", escape(feedbackLink)))
+              .append(
+                  "      <button class=\"btn btn-primary\" type=\"button\">Submit Feedback"
+                      + "</button>\n")
+              .append("    </a>\n");
+        } else {
+          html.append(
+              "    <p style=\"text-align:center\">You may begin feedback 5 minutes after the"
+                  + " interview has started.</p>\n");
+        }
+      }
+      html.append("  </div>\n").append("</div>\n");
+    }
+  }
+
+  private static String listItem(String text) {
+    return String.format("      <li class=\"list-group-item\">%s</li>\n", escape(text));
+  }
+}
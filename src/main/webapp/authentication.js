@@ -19,6 +19,26 @@ function ifLoggedOutRedirectHome(loginInfo) {
   }
 }
 
+// Loads the login state, the user's Person and, if a view is named, that view's contents in a
+// single request. Redirects home if the user is logged out and to registration if they haven't
+// registered. Any params are passed on to the view.
+function bootstrap(view, params = {}) {
+  const query = new URLSearchParams(params);
+  if (view) {
+    query.set('view', view);
+  }
+  return fetch(`/bootstrap?${query}`)
+    .then(response => response.json())
+    .then(page => {
+      if (!page.login.loggedIn) {
+        window.location.replace('/');
+      } else if (!page.person) {
+        window.location.href = '/register.html';
+      }
+      return page;
+    });
+}
+
 function getLoginInfo() {
   return fetch('/login').then(response => {
     return response.json();
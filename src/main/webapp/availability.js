@@ -15,10 +15,12 @@
 let mousedown = false;
 
 function onAvailabilityLoad() {
-  const loginInfo = getLoginInfo();
-  loginInfo.then(ifLoggedOutRedirectHome); 
-  loginInfo.then(getUserOrRedirectRegistration);
-  loadAvailabilityTable(availabilityTableDiv(), browserTimezoneOffset());
+  bootstrap('availability', {timeZoneOffset: browserTimezoneOffset(), page: page})
+    .then(loaded => {
+      if (loaded.view !== undefined) {
+        availabilityTableDiv().innerHTML = loaded.view;
+      }
+    });
 }
 
 function markMouseDown() {
@@ -47,7 +49,7 @@ function toggleTile(tile) {
 }
 
 function loadAvailabilityTable(tableDiv, timezoneOffset) {
-  fetch(`/availabilityTable.jsp?timeZoneOffset=${timezoneOffset}&page=${page}`)
+  fetch(`/availability-table?timeZoneOffset=${timezoneOffset}&page=${page}`)
     .then(response => response.text())
     .then(tableContents => {
       tableDiv.innerHTML = tableContents;
@@ -13,19 +13,17 @@
 // limitations under the License.
 
 function onFeedbackLoad() {
-  const loginInfo = getLoginInfo();
-  loginInfo.then(ifLoggedOutRedirectHome); 
-  loginInfo.then(getUserOrRedirectRegistration);
-  loadFeedback(); 
-}
-
-// Calls the feedback servlet which determines whether or not the feedback form is submitted or not.
-function loadFeedback() {
-  fetch(`/feedback?timeZone=${getBrowserTimeZone()}&userTime=${getCurrentTime()}&interview=${getScheduledInterviewId()}&role=${getRole()}`)
-    .then(response => response.text())
-    .then(form => {
-      document.getElementById('feedBackForm').innerHTML = form;
-    }); 
+  const params = {
+    timeZone: getBrowserTimeZone(),
+    userTime: getCurrentTime(),
+    interview: getScheduledInterviewId(),
+    role: getRole()
+  };
+  bootstrap('feedback', params).then(page => {
+    if (page.view !== undefined) {
+      document.getElementById('feedBackForm').innerHTML = page.view;
+    }
+  });
 }
 
 // Returns the id of the interview that feedback is for.
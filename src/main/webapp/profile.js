@@ -13,10 +13,10 @@
 // limitations under the License.
 
 function onProfileLoad() {
-  const loginInfo = getLoginInfo();
-  loginInfo.then(ifLoggedOutRedirectHome); 
-  loginInfo.then(getUserOrRedirectRegistration).then((person) => {
-    autofillForm(person);      
+  bootstrap().then(page => {
+    if (page.person) {
+      autofillForm(page.person);
+    }
   });
 }
 
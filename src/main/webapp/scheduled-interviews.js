@@ -13,16 +13,10 @@
 // limitations under the License.
 
 function onScheduledInterviewsLoad() {
-  const loginInfo = getLoginInfo();
-  loginInfo.then(ifLoggedOutRedirectHome); 
-  loginInfo.then(getUserOrRedirectRegistration);
-  loadScheduledInterviewCards(); 
-}
-
-function loadScheduledInterviewCards() {
-  fetch(`/scheduled-interviews?timeZone=${getBrowserTimeZone()}&userTime=${getCurrentTime()}`)
-    .then(response => response.text())
-    .then(listOfCards => {
-      document.getElementById('scheduled-interviews-cards').innerHTML = listOfCards;
+  bootstrap('scheduled-interviews', {timeZone: getBrowserTimeZone(), userTime: getCurrentTime()})
+    .then(page => {
+      if (page.view !== undefined) {
+        document.getElementById('scheduled-interviews-cards').innerHTML = page.view;
+      }
     });
 }
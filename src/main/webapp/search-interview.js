@@ -13,9 +13,7 @@
 // limitations under the License.
 
 function onSearchInterviewLoad() {
-  const loginInfo = getLoginInfo();
-  loginInfo.then(ifLoggedOutRedirectHome); 
-  loginInfo.then(getUserOrRedirectRegistration);
+  bootstrap();
 }
 
 // Queries Datastore for available interview times and renders them on the
@@ -0,0 +1,129 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Simulates a week of bookings where a few popular interviewers are available for most requests,
+ * and compares how long interviewees wait under each assignment strategy. Each interviewer gives
+ * CAPACITY interviews a week, so an interviewer's nth booking waits (n - 1) / CAPACITY weeks.
+ */
+@RunWith(JUnit4.class)
+public final class AssignmentSimulationTest {
+  private static final Instant WEEK_START = Instant.parse("2020-07-06T00:00:00Z");
+  private static final int INTERVIEWERS = 40;
+  private static final int REQUESTS = 400;
+  private static final int CAPACITY = 10;
+  private static final int TRIALS = 20;
+
+  // Summary of the waits, in weeks, of every booking in a simulation.
+  private static class Waits {
+    private final int median;
+    private final int p99;
+    private final int max;
+
+    Waits(List<Integer> waits) {
+      Collections.sort(waits);
+      median = waits.get(waits.size() / 2);
+      p99 = waits.get((int) (waits.size() * 0.99));
+      max = waits.get(waits.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("median %d, p99 %d, max %d weeks", median, p99, max);
+    }
+  }
+
+  @Test
+  public void loadAwareStrategiesShortenTailWaits() {
+    Waits random = simulate(load -> new RandomAssignmentStrategy(new Random(1)));
+    Waits leastBooked = simulate(load -> new LeastBookedAssignmentStrategy(load, new Random(1)));
+    Waits powerOfTwo = simulate(load -> new PowerOfTwoAssignmentStrategy(load, new Random(1)));
+
+    Assert.assertTrue(
+        "least booked " + leastBooked + ", random " + random, leastBooked.p99 < random.p99);
+    Assert.assertTrue(
+        "power of two " + powerOfTwo + ", random " + random, powerOfTwo.p99 < random.p99);
+    // Neither load-aware strategy should make the worst wait longer either.
+    Assert.assertTrue(
+        "least booked " + leastBooked + ", random " + random, leastBooked.max <= random.max);
+    Assert.assertTrue(
+        "power of two " + powerOfTwo + ", random " + random, powerOfTwo.max <= random.max);
+  }
+
+  // Books REQUESTS interviews TRIALS times, each time into an empty week, with the strategy fed
+  // by a WeeklyInterviewerLoad kept up to date through LoadTrackingScheduledInterviewDao.
+  private static Waits simulate(Function<InterviewerLoad, AssignmentStrategy> makeStrategy) {
+    Random random = new Random(32);
+    List<Integer> waits = new ArrayList<Integer>();
+    for (int trial = 0; trial < TRIALS; trial++) {
+      FakeScheduledInterviewDao datastore = new FakeScheduledInterviewDao();
+      WeeklyInterviewerLoad load =
+          new WeeklyInterviewerLoad(datastore, Clock.fixed(WEEK_START, ZoneOffset.UTC));
+      ScheduledInterviewDao scheduledInterviewDao =
+          new LoadTrackingScheduledInterviewDao(datastore, load);
+      AssignmentStrategy strategy = makeStrategy.apply(load);
+      Map<String, Integer> booked = new HashMap<String, Integer>();
+
+      for (int request = 0; request < REQUESTS; request++) {
+        Instant start = WEEK_START.plus(Duration.ofHours(request % 160));
+        String interviewerId = strategy.choose(candidates(random), id -> id, start);
+        scheduledInterviewDao.create(
+            ScheduledInterview.create(
+                -1,
+                new TimeRange(start, start.plus(Duration.ofHours(1))),
+                interviewerId,
+                "interviewee" + request,
+                "",
+                Job.SOFTWARE_ENGINEER,
+                ""));
+        int bookings = booked.merge(interviewerId, 1, Integer::sum);
+        waits.add((bookings - 1) / CAPACITY);
+      }
+    }
+    return new Waits(waits);
+  }
+
+  // The interviewers available for a request. Interviewer i is available with a probability that
+  // falls off with i, so the first few are available for most requests.
+  private static List<String> candidates(Random random) {
+    List<String> candidates = new ArrayList<String>();
+    for (int i = 0; i < INTERVIEWERS; i++) {
+      if (random.nextDouble() < 0.8 / (1 + i / 4.0)) {
+        candidates.add("interviewer" + i);
+      }
+    }
+    if (candidates.isEmpty()) {
+      candidates.add("interviewer" + random.nextInt(INTERVIEWERS));
+    }
+    return candidates;
+  }
+}
@@ -0,0 +1,171 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class AssignmentStrategyTest {
+  // A Monday.
+  private static final Instant WEEK_START = Instant.parse("2020-07-06T00:00:00Z");
+  private static final Instant BOOKING = WEEK_START.plus(Duration.ofDays(2));
+
+  private Map<String, Integer> booked;
+  private InterviewerLoad load;
+
+  @Before
+  public void setUp() {
+    booked = new HashMap<String, Integer>();
+    load = (interviewerId, when) -> booked.getOrDefault(interviewerId, 0);
+  }
+
+  @Test
+  public void leastBookedChoosesFewest() {
+    booked.put("busy", 5);
+    booked.put("quiet", 1);
+    booked.put("medium", 3);
+    AssignmentStrategy strategy = new LeastBookedAssignmentStrategy(load, new Random(1));
+    for (int i = 0; i < 20; i++) {
+      Assert.assertEquals(
+          "quiet", strategy.choose(Arrays.asList("busy", "quiet", "medium"), id -> id, BOOKING));
+    }
+  }
+
+  // With two candidates both are always compared, so the busier one is never chosen.
+  @Test
+  public void powerOfTwoChoosesLessBookedOfPair() {
+    booked.put("busy", 5);
+    AssignmentStrategy strategy = new PowerOfTwoAssignmentStrategy(load, new Random(2));
+    for (int i = 0; i < 20; i++) {
+      Assert.assertEquals(
+          "quiet", strategy.choose(Arrays.asList("busy", "quiet"), id -> id, BOOKING));
+    }
+  }
+
+  // Interviews are compared by the load of their interviewers.
+  @Test
+  public void choosesBetweenInterviews() {
+    booked.put("busy", 5);
+    ScheduledInterview busyInterview = interview("busy", BOOKING);
+    ScheduledInterview quietInterview = interview("quiet", BOOKING);
+    AssignmentStrategy strategy = new LeastBookedAssignmentStrategy(load, new Random(3));
+    Assert.assertEquals(
+        quietInterview,
+        strategy.choose(
+            Arrays.asList(busyInterview, quietInterview),
+            ScheduledInterview::interviewerId,
+            BOOKING));
+  }
+
+  @Test
+  public void noCandidatesRejected() {
+    List<String> none = Collections.emptyList();
+    for (AssignmentStrategy strategy :
+        Arrays.asList(
+            new RandomAssignmentStrategy(new Random(4)),
+            new LeastBookedAssignmentStrategy(load, new Random(4)),
+            new PowerOfTwoAssignmentStrategy(load, new Random(4)))) {
+      Assertions.assertThrows(
+          IllegalArgumentException.class, () -> strategy.choose(none, id -> id, BOOKING));
+    }
+  }
+
+  // Counts are loaded per week and then follow the writes made through the tracking DAO.
+  @Test
+  public void weeklyLoadFollowsWrites() {
+    FakeScheduledInterviewDao datastore = new FakeScheduledInterviewDao();
+    datastore.create(interview("ian", WEEK_START.plus(Duration.ofHours(9))));
+    datastore.create(interview("ian", WEEK_START.plus(Duration.ofDays(7))));
+    // Starts on the last hour of the week, so it ends in the next one.
+    datastore.create(interview("ian", WEEK_START.plus(Duration.ofDays(7)).minusSeconds(3600)));
+    WeeklyInterviewerLoad weeklyLoad =
+        new WeeklyInterviewerLoad(datastore, Clock.fixed(WEEK_START, ZoneOffset.UTC));
+    ScheduledInterviewDao tracked = new LoadTrackingScheduledInterviewDao(datastore, weeklyLoad);
+    Assert.assertEquals(2, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+    Assert.assertEquals(0, weeklyLoad.bookedInWeekOf("amy", BOOKING));
+
+    tracked.create(interview("amy", BOOKING));
+    Assert.assertEquals(1, weeklyLoad.bookedInWeekOf("amy", BOOKING));
+
+    ScheduledInterview stored =
+        datastore.getInRange(BOOKING, BOOKING.plus(Duration.ofHours(1))).get(0);
+    tracked.update(
+        ScheduledInterview.create(
+            stored.id(), stored.when(), "ian", "interviewee", "", Job.SOFTWARE_ENGINEER, ""));
+    Assert.assertEquals(0, weeklyLoad.bookedInWeekOf("amy", BOOKING));
+    Assert.assertEquals(3, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+
+    tracked.delete(stored.id());
+    Assert.assertEquals(2, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+  }
+
+  // Bookings made by other instances show up once the week is reloaded.
+  @Test
+  public void weeklyLoadReloads() {
+    FakeScheduledInterviewDao datastore = new FakeScheduledInterviewDao();
+    Instant[] now = {WEEK_START};
+    Clock clock =
+        new Clock() {
+          @Override
+          public Instant instant() {
+            return now[0];
+          }
+
+          @Override
+          public ZoneId getZone() {
+            return ZoneOffset.UTC;
+          }
+
+          @Override
+          public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+          }
+        };
+    WeeklyInterviewerLoad weeklyLoad = new WeeklyInterviewerLoad(datastore, clock);
+    Assert.assertEquals(0, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+
+    datastore.create(interview("ian", BOOKING));
+    Assert.assertEquals(0, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+    now[0] = WEEK_START.plus(WeeklyInterviewerLoad.RELOAD_AFTER);
+    Assert.assertEquals(1, weeklyLoad.bookedInWeekOf("ian", BOOKING));
+  }
+
+  private static ScheduledInterview interview(String interviewerId, Instant start) {
+    return ScheduledInterview.create(
+        -1,
+        new TimeRange(start, start.plus(Duration.ofHours(1))),
+        interviewerId,
+        "interviewee",
+        "",
+        Job.SOFTWARE_ENGINEER,
+        "");
+  }
+}
@@ -0,0 +1,121 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.Test;
+
+/** Checks that the Async Datastore DAOs' futures hold the same results as the synchronous reads. */
+@RunWith(JUnit4.class)
+public class AsyncDatastoreDaoTest {
+
+  private final LocalServiceTestHelper helper =
+      // High replication like production, with every write visible to queries right away.
+      new LocalServiceTestHelper(
+          new LocalDatastoreServiceTestConfig().setApplyAllHighRepJobPolicy());
+
+  private AsyncDatastoreAvailabilityDao availabilityDao;
+  private AsyncDatastorePersonDao personDao;
+  private AsyncDatastoreScheduledInterviewDao scheduledInterviewDao;
+
+  private final Person person =
+      Person.create(
+          "id_a", "a@gmail.com", "a", "a", "", "", "", EnumSet.of(Job.SOFTWARE_ENGINEER), true);
+  private final TimeRange interviewRange =
+      new TimeRange(Instant.parse("2020-07-07T12:00:00Z"), Instant.parse("2020-07-07T13:00:00Z"));
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    availabilityDao = new AsyncDatastoreAvailabilityDao();
+    personDao = new AsyncDatastorePersonDao();
+    scheduledInterviewDao = new AsyncDatastoreScheduledInterviewDao();
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  @Test
+  public void getsPersonAsync() {
+    personDao.create(person);
+    Assert.assertEquals(Optional.of(person), personDao.getAsync(person.id()).join());
+  }
+
+  @Test
+  public void failsToGetPersonAsync() {
+    Assert.assertEquals(Optional.empty(), personDao.getAsync("$").join());
+  }
+
+  // Several reads can be started before any of them is read.
+  @Test
+  public void getsAvailabilitiesForSeveralUsersAsync() {
+    availabilityDao.create(
+        Availability.create(
+            "user1",
+            new TimeRange(
+                Instant.parse("2020-07-07T12:00:00Z"), Instant.parse("2020-07-07T12:15:00Z")),
+            -1,
+            false));
+    availabilityDao.create(
+        Availability.create(
+            "user2",
+            new TimeRange(
+                Instant.parse("2020-07-07T12:15:00Z"), Instant.parse("2020-07-07T12:30:00Z")),
+            -1,
+            false));
+    PendingRead<List<Availability>> user1Future =
+        availabilityDao.getInRangeForUserAsync(
+            "user1", interviewRange.start(), interviewRange.end());
+    PendingRead<List<Availability>> user2Future =
+        availabilityDao.getInRangeForUserAsync(
+            "user2", interviewRange.start(), interviewRange.end());
+    Assert.assertEquals(
+        availabilityDao.getInRangeForUser("user2", interviewRange.start(), interviewRange.end()),
+        user2Future.join());
+    Assert.assertEquals(
+        availabilityDao.getInRangeForUser("user1", interviewRange.start(), interviewRange.end()),
+        user1Future.join());
+    Assert.assertEquals(1, user1Future.join().size());
+  }
+
+  @Test
+  public void getsScheduledInterviewAsync() {
+    scheduledInterviewDao.create(
+        ScheduledInterview.create(
+            -1, interviewRange, "interviewer", "interviewee", "", Job.SOFTWARE_ENGINEER, ""));
+    List<ScheduledInterview> interviews =
+        scheduledInterviewDao
+            .getScheduledInterviewsInRangeForUserAsync(
+                "interviewee", interviewRange.start(), interviewRange.end())
+            .join();
+    Assert.assertEquals(1, interviews.size());
+    Assert.assertEquals(
+        Optional.of(interviews.get(0)),
+        scheduledInterviewDao.getAsync(interviews.get(0).id()).join());
+    Assert.assertEquals(Optional.empty(), scheduledInterviewDao.getAsync(12345).join());
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.tools.development.testing.LocalMemcacheServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class CachedCounterDaoTest {
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalMemcacheServiceTestConfig());
+
+  private CountingCounterDao counters;
+  private CachedCounterDao cached;
+
+  // Counts the reads that get past the cache.
+  private static class CountingCounterDao extends FakeCounterDao {
+    private int reads = 0;
+
+    @Override
+    public synchronized Map<String, Long> get(String counter) {
+      reads++;
+      return super.get(counter);
+    }
+  }
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    counters = new CountingCounterDao();
+    cached = new CachedCounterDao(counters);
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // Repeated reads are served from memcache until an add drops the cached totals.
+  @Test
+  public void readsThroughCacheUntilAdd() {
+    cached.add("bookings", ImmutableMap.of("interviews", 1L));
+    Assert.assertEquals(ImmutableMap.of("interviews", 1L), cached.get("bookings"));
+    Assert.assertEquals(ImmutableMap.of("interviews", 1L), cached.get("bookings"));
+    Assert.assertEquals(1, counters.reads);
+
+    cached.add("bookings", ImmutableMap.of("interviews", 2L));
+    Assert.assertEquals(ImmutableMap.of("interviews", 3L), cached.get("bookings"));
+    Assert.assertEquals(2, counters.reads);
+  }
+}
@@ -26,6 +26,8 @@ import com.google.appengine.api.datastore.Query.SortDirection;
 import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
 import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -43,7 +45,12 @@ import org.junit.Test;
 public class DatastoreAvailabilityDaoTest {
 
   private final LocalServiceTestHelper helper =
-      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+      // High replication like production, with every write visible to queries right away.
+      new LocalServiceTestHelper(
+          new LocalDatastoreServiceTestConfig().setApplyAllHighRepJobPolicy());
+
+  // The most entity groups the SDK puts in one RPC of a non-transactional batch write.
+  private static final int MAX_ENTITY_GROUPS_PER_RPC = 10;
 
   private DatastoreAvailabilityDao dao;
   private DatastoreService datastore;
@@ -367,4 +374,193 @@ public class DatastoreAvailabilityDaoTest {
     expected.add("user2");
     Assert.assertEquals(expected, actual);
   }
+
+  // Checks that only users with an unscheduled availability for every slot in the range are
+  // returned.
+  @Test
+  public void usersFreeThroughoutRangeReturned() {
+    Instant start = Instant.parse("2020-07-07T12:00:00Z");
+    for (int i = 0; i < 4; i++) {
+      TimeRange slot = new TimeRange(start.plusSeconds(900 * i), start.plusSeconds(900 * (i + 1)));
+      // user1 has the whole hour free, user2 has one slot scheduled and user3 is missing one.
+      dao.create(Availability.create("user1", slot, /*id=*/ -1, /*scheduled=*/ false));
+      dao.create(Availability.create("user2", slot, /*id=*/ -1, /*scheduled=*/ i == 2));
+      if (i != 3) {
+        dao.create(Availability.create("user3", slot, /*id=*/ -1, /*scheduled=*/ false));
+      }
+    }
+
+    Set<String> actual = dao.getUsersFreeThroughout(start, start.plusSeconds(3600));
+    Set<String> expected = new HashSet<String>();
+    expected.add("user1");
+    Assert.assertEquals(expected, actual);
+  }
+
+  // Checks that creating availability keeps one summary per user per day listing its slots.
+  @Test
+  public void createKeepsDaySummaries() {
+    dao.create(availabilityOne);
+    dao.create(availabilityTwo);
+    dao.create(availabilityFour);
+    dao.create(
+        Availability.create(
+            "user1",
+            new TimeRange(
+                Instant.parse("2020-07-08T09:00:00Z"), Instant.parse("2020-07-08T09:15:00Z")),
+            /*id=*/ -1,
+            /*scheduled=*/ false));
+
+    List<Entity> summaries =
+        datastore
+            .prepare(new Query(DatastoreAvailabilityDays.KIND))
+            .asList(FetchOptions.Builder.withDefaults());
+    Assert.assertEquals(2, summaries.size());
+    List<Long> expectedStarts = new ArrayList<Long>();
+    expectedStarts.add(availabilityOne.when().start().toEpochMilli());
+    expectedStarts.add(availabilityTwo.when().start().toEpochMilli());
+    expectedStarts.add(availabilityFour.when().start().toEpochMilli());
+    Entity july7 =
+        summaries.stream()
+            .filter(summary -> summary.getKey().getName().equals("user1:2020-07-07"))
+            .findFirst()
+            .get();
+    Assert.assertEquals(expectedStarts, july7.getProperty("slotStarts"));
+  }
+
+  // Checks that a user whose slots that day all fall outside the window isn't returned.
+  @Test
+  public void userWithSlotsOnlyOutsideWindowNotReturned() {
+    dao.create(availabilityOne);
+    dao.create(availabilityFour);
+
+    Set<String> actual =
+        dao.getUsersAvailableInRange(
+            Instant.parse("2020-07-07T13:00:00Z"), Instant.parse("2020-07-07T22:30:00Z"));
+    Assert.assertEquals(new HashSet<String>(), actual);
+  }
+
+  // Checks that deleting a user's availability removes it from their summaries.
+  @Test
+  public void deleteUpdatesDaySummaries() {
+    dao.create(availabilityOne);
+    dao.create(availabilityTwo);
+    dao.create(availabilityThree);
+
+    dao.deleteInRangeForUser("user1", availabilityOne.when().start(), availabilityTwo.when().end());
+
+    Set<String> actual =
+        dao.getUsersAvailableInRange(
+            availabilityOne.when().start(), availabilityThree.when().end());
+    Set<String> expected = new HashSet<String>();
+    expected.add("user2");
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(
+        1,
+        datastore
+            .prepare(new Query(DatastoreAvailabilityDays.KIND))
+            .countEntities(FetchOptions.Builder.withDefaults()));
+  }
+
+  // Checks that the backfill summarizes availability stored without summaries and drops
+  // summaries that no longer have any availability.
+  @Test
+  public void rebuildReplacesDaySummaries() {
+    datastore.put(DatastoreAvailabilityDao.availabilityToNewEntity(availabilityTwo));
+    datastore.put(DatastoreAvailabilityDao.availabilityToNewEntity(availabilityThree));
+    // user3's availability is deleted without going through the dao, leaving their summary.
+    dao.create(availabilityFive);
+    Query user3Query =
+        new Query("Availability")
+            .setFilter(new Query.FilterPredicate("userId", Query.FilterOperator.EQUAL, "user3"));
+    datastore.delete(datastore.prepare(user3Query).asSingleEntity().getKey());
+    Instant dayStart = Instant.parse("2020-07-07T00:00:00Z");
+    Instant dayEnd = Instant.parse("2020-07-08T00:00:00Z");
+    Assert.assertEquals("user3", dao.getUsersAvailableInRange(dayStart, dayEnd).iterator().next());
+
+    int written =
+        dao.rebuildDaySummaries(LocalDate.parse("2020-07-06"), LocalDate.parse("2020-07-08"));
+
+    Set<String> expected = new HashSet<String>();
+    expected.add("user1");
+    expected.add("user2");
+    Assert.assertEquals(2, written);
+    Assert.assertEquals(expected, dao.getUsersAvailableInRange(dayStart, dayEnd));
+  }
+
+  // Checks that replacing a week of a user's availability costs one keys-only query, one batch
+  // delete of the old slots and one batch put of the new ones, plus one batch read and one batch
+  // write of the day summaries for each. With high replication the SDK splits a non-transactional
+  // batch into RPCs of at most 10 entity groups, and every Availability is the root of its own
+  // group, so the 56 slots take 6 RPCs each way and the 7 day summaries one more.
+  @Test
+  public void replacingWeekIsBatched() {
+    Instant monday = Instant.parse("2020-07-06T00:00:00Z");
+    List<Availability> week = new ArrayList<Availability>();
+    for (int day = 0; day < 7; day++) {
+      for (int slot = 0; slot < 8; slot++) {
+        Instant start = monday.plus(day, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+        start = start.plus(15 * slot, ChronoUnit.MINUTES);
+        week.add(
+            Availability.create(
+                "user1",
+                new TimeRange(start, start.plus(15, ChronoUnit.MINUTES)),
+                /*id=*/ -1,
+                /*scheduled=*/ false));
+      }
+    }
+    dao.createAll(week);
+
+    DatastoreRpcCounter rpcs = DatastoreRpcCounter.install();
+    try {
+      dao.deleteInRangeForUser("user1", monday, monday.plus(7, ChronoUnit.DAYS));
+      dao.createAll(week);
+    } finally {
+      rpcs.uninstall();
+    }
+
+    int slotRpcs = (week.size() + MAX_ENTITY_GROUPS_PER_RPC - 1) / MAX_ENTITY_GROUPS_PER_RPC;
+    Assert.assertEquals(1, rpcs.count("RunQuery"));
+    // The old slots, then the summaries they left empty.
+    Assert.assertEquals(slotRpcs + 1, rpcs.count("Delete"));
+    // The new slots, then their summaries.
+    Assert.assertEquals(slotRpcs + 1, rpcs.count("Put"));
+    Assert.assertEquals(2, rpcs.count("Get"));
+    Assert.assertEquals(0, rpcs.count("Commit"));
+    Assert.assertEquals(
+        56, dao.getInRangeForUser("user1", monday, monday.plus(7, ChronoUnit.DAYS)).size());
+  }
+
+  // Checks that deleteAll removes exactly the given availabilities and their summary slots.
+  @Test
+  public void deletesAllGiven() {
+    dao.create(availabilityOne);
+    dao.create(availabilityTwo);
+    dao.create(availabilityThree);
+    List<Availability> stored =
+        dao.getInRangeForAll(availabilityOne.when().start(), availabilityThree.when().end());
+
+    List<Availability> toDelete = new ArrayList<Availability>();
+    toDelete.add(stored.get(0));
+    toDelete.add(stored.get(2));
+    DatastoreRpcCounter rpcs = DatastoreRpcCounter.install();
+    try {
+      dao.deleteAll(toDelete);
+    } finally {
+      rpcs.uninstall();
+    }
+
+    List<Availability> expected = new ArrayList<Availability>();
+    expected.add(stored.get(1));
+    Assert.assertEquals(
+        expected,
+        dao.getInRangeForAll(availabilityOne.when().start(), availabilityThree.when().end()));
+    Set<String> expectedUsers = new HashSet<String>();
+    expectedUsers.add("user1");
+    Assert.assertEquals(
+        expectedUsers,
+        dao.getUsersAvailableInRange(
+            availabilityOne.when().start(), availabilityThree.when().end()));
+    // The availabilities, then user2's now empty summary.
+    Assert.assertEquals(2, rpcs.count("Delete"));
+  }
 }
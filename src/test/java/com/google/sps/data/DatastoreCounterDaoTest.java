@@ -0,0 +1,73 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DatastoreCounterDaoTest {
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+
+  private DatastoreCounterDao dao;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    dao = new DatastoreCounterDao();
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // Adds spread over shards are summed back into one total per field.
+  @Test
+  public void sumsAddsAcrossShards() {
+    for (int i = 0; i < 100; i++) {
+      dao.add("interviews", ImmutableMap.of("booked", 1L, "minutes", 60L));
+    }
+    dao.add("interviews", ImmutableMap.of("cancelled", 1L));
+
+    Map<String, Long> totals = dao.get("interviews");
+    Assert.assertEquals(ImmutableMap.of("booked", 100L, "minutes", 6000L, "cancelled", 1L), totals);
+    int shards =
+        DatastoreServiceFactory.getDatastoreService()
+            .prepare(new Query(DatastoreCounterDao.KIND))
+            .countEntities(FetchOptions.Builder.withDefaults());
+    Assert.assertTrue(shards > 1 && shards <= DatastoreCounterDao.SHARDS);
+  }
+
+  // Counters are kept apart, and one that was never added to is empty.
+  @Test
+  public void countersAreSeparate() {
+    dao.add("a", ImmutableMap.of("count", 2L));
+    Assert.assertEquals(ImmutableMap.of("count", 2L), dao.get("a"));
+    Assert.assertTrue(dao.get("b").isEmpty());
+  }
+}
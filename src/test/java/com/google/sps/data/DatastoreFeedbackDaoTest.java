@@ -0,0 +1,104 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DatastoreFeedbackDaoTest {
+  private static final Instant SUBMITTED = Instant.parse("2020-07-07T16:00:00Z");
+
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+
+  private DatastoreFeedbackDao dao;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    dao = new DatastoreFeedbackDao();
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // Feedback reads back the same as it was stored, under the id create returned.
+  @Test
+  public void createsAndGetsFeedback() {
+    Feedback stored = dao.create(feedback(SUBMITTED));
+    Assert.assertEquals(stored, dao.get(stored.id()).get());
+    Assert.assertFalse(dao.get(stored.id() + 1).isPresent());
+  }
+
+  // Only pending feedback that is due is returned, soonest due first, and finished feedback
+  // drops out of the due index.
+  @Test
+  public void getsDueFeedback() throws Exception {
+    Feedback later = dao.create(feedback(SUBMITTED.plus(Duration.ofMinutes(10))));
+    Feedback sooner = dao.create(feedback(SUBMITTED));
+    Feedback delivered = dao.create(feedback(SUBMITTED));
+    dao.update(delivered.delivered(SUBMITTED.plus(Duration.ofSeconds(5))));
+
+    Assert.assertEquals(1, dao.getDue(SUBMITTED, 10).size());
+    List<Feedback> due = dao.getDue(SUBMITTED.plus(Duration.ofHours(1)), 10);
+    Assert.assertEquals(2, due.size());
+    Assert.assertEquals(sooner.id(), due.get(0).id());
+    Assert.assertEquals(later.id(), due.get(1).id());
+
+    Entity entity =
+        DatastoreServiceFactory.getDatastoreService()
+            .get(KeyFactory.createKey(DatastoreFeedbackDao.KIND, delivered.id()));
+    Assert.assertFalse(entity.hasProperty("dueAt"));
+  }
+
+  // A lease succeeds once for the feedback as it was read, and moves it out of the due results
+  // until the lease ends.
+  @Test
+  public void leasesOnce() {
+    Feedback stored = dao.create(feedback(SUBMITTED));
+    Instant until = SUBMITTED.plus(Duration.ofMinutes(5));
+    Assert.assertTrue(dao.lease(stored, until));
+    Assert.assertFalse(dao.lease(stored, until));
+    Assert.assertTrue(dao.getDue(SUBMITTED.plus(Duration.ofMinutes(1)), 10).isEmpty());
+    Assert.assertEquals(1, dao.getDue(until, 10).size());
+  }
+
+  private static Feedback feedback(Instant submittedAt) {
+    return Feedback.create(
+        FeedbackKind.TO_INTERVIEWER,
+        /*scheduledInterviewId=*/ 7,
+        "interviewee",
+        "interviewer",
+        "interviewer@gmail.com",
+        ImmutableMap.of("{{question_1}}", "Clear explanations"),
+        submittedAt);
+  }
+}
@@ -27,8 +27,12 @@ import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestC
 import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.After;
 import org.junit.Assert;
@@ -137,4 +141,81 @@ public class DatastorePersonDaoTest {
     Optional<Person> expected = Optional.empty();
     Assert.assertEquals(expected, actual);
   }
+
+  // Checks that every stored Person asked for is returned in one batch, and that ids without a
+  // Person are left out.
+  @Test
+  public void getsAllPeople() {
+    Person b =
+        Person.create(
+            "id_b", "b@gmail.com", "b", "b", "", "", "", EnumSet.of(Job.PRODUCT_MANAGER), false);
+    dao.create(a);
+    dao.create(b);
+    Map<String, Person> actual = dao.getAll(Arrays.asList("id_a", "id_b", "$"));
+    Map<String, Person> expected = new HashMap<String, Person>();
+    expected.put("id_a", a);
+    expected.put("id_b", b);
+    Assert.assertEquals(expected, actual);
+  }
+
+  // Checks that qualified ids come from the job's property and follow updates to it.
+  @Test
+  public void getsQualifiedIds() {
+    Person b =
+        Person.create(
+            "id_b", "b@gmail.com", "b", "b", "", "", "", EnumSet.of(Job.PRODUCT_MANAGER), false);
+    dao.create(a);
+    dao.create(b);
+    dao.update(
+        Person.create(
+            "id_b", "b@gmail.com", "b", "b", "", "", "", EnumSet.of(Job.SOFTWARE_ENGINEER), false));
+
+    Assert.assertEquals(
+        new HashSet<String>(Arrays.asList("id_a", "id_b")),
+        dao.getQualifiedIds(Job.SOFTWARE_ENGINEER));
+    Assert.assertEquals(new HashSet<String>(), dao.getQualifiedIds(Job.PRODUCT_MANAGER));
+  }
+
+  // Checks that a Person saved with one boolean per job is still read and found by qualification,
+  // and that saving it again stores its jobs as a list instead.
+  @Test
+  public void migratesLegacyQualifications() {
+    Entity legacy = new Entity("Person", "id_c");
+    legacy.setProperty("id", "id_c");
+    legacy.setProperty("email", "c@gmail.com");
+    legacy.setProperty("firstName", "c");
+    legacy.setProperty("lastName", "c");
+    legacy.setProperty("company", "");
+    legacy.setProperty("job", "");
+    legacy.setProperty("linkedIn", "");
+    legacy.setProperty("okShadow", false);
+    for (Job job : Job.values()) {
+      legacy.setProperty(job.name(), job == Job.NETWORK_ENGINEER);
+    }
+    datastore.put(legacy);
+
+    Person person = dao.get("id_c").get();
+    Assert.assertEquals(EnumSet.of(Job.NETWORK_ENGINEER), person.qualifiedJobs());
+    Assert.assertEquals(
+        new HashSet<String>(Arrays.asList("id_c")), dao.getQualifiedIds(Job.NETWORK_ENGINEER));
+
+    dao.update(person);
+    Entity migrated = datastore.prepare(new Query("Person")).asSingleEntity();
+    Assert.assertFalse(migrated.hasProperty(Job.NETWORK_ENGINEER.name()));
+    Assert.assertEquals(
+        Arrays.asList("NETWORK_ENGINEER"), migrated.getProperty(DatastorePersonDao.QUALIFIED_JOBS));
+    Assert.assertEquals(person, dao.get("id_c").get());
+    Assert.assertEquals(
+        new HashSet<String>(Arrays.asList("id_c")), dao.getQualifiedIds(Job.NETWORK_ENGINEER));
+  }
+
+  // Checks that a Person without any qualifications round trips.
+  @Test
+  public void storesNoQualifications() {
+    Person b =
+        Person.create(
+            "id_b", "b@gmail.com", "b", "b", "", "", "", EnumSet.noneOf(Job.class), false);
+    dao.create(b);
+    Assert.assertEquals(b, dao.get("id_b").get());
+  }
 }
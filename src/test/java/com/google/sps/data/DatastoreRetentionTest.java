@@ -0,0 +1,176 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DatastoreRetentionTest {
+  private static final Instant NOW = Instant.parse("2020-10-01T10:00:00Z");
+  private static final int HORIZON_DAYS = 30;
+  // The cutoff is midnight UTC, 30 days before NOW.
+  private static final Instant CUTOFF = Instant.parse("2020-09-01T00:00:00Z");
+  private static final int UNLIMITED_RATE = Integer.MAX_VALUE;
+
+  private final LocalServiceTestHelper helper =
+      // High replication like production, with every write visible to queries right away.
+      new LocalServiceTestHelper(
+          new LocalDatastoreServiceTestConfig().setApplyAllHighRepJobPolicy());
+
+  private DatastoreService datastore;
+  private DatastoreAvailabilityDao availabilityDao;
+  private DatastoreScheduledInterviewDao scheduledInterviewDao;
+  private Clock clock;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    datastore = DatastoreServiceFactory.getDatastoreService();
+    availabilityDao = new DatastoreAvailabilityDao();
+    scheduledInterviewDao = new DatastoreScheduledInterviewDao();
+    clock = Clock.fixed(NOW, ZoneOffset.UTC);
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // Availability and day summaries from before the cutoff are deleted and interviews from before
+  // it are archived under the same id, while everything after it is left alone.
+  @Test
+  public void removesOnlyDataBeforeCutoff() throws Exception {
+    availabilityDao.create(availability("user1", CUTOFF.minus(15, ChronoUnit.MINUTES)));
+    availabilityDao.create(availability("user1", CUTOFF));
+    scheduledInterviewDao.create(interview(CUTOFF.minus(1, ChronoUnit.HOURS)));
+    scheduledInterviewDao.create(interview(CUTOFF));
+    long oldId =
+        scheduledInterviewDao.getInRange(CUTOFF.minus(1, ChronoUnit.DAYS), CUTOFF).get(0).id();
+
+    DatastoreRetention.Run run = retention(/*batchSize=*/ 10, /*maxBatchesPerRun=*/ 10).run();
+
+    Assert.assertTrue(run.passFinished());
+    Assert.assertEquals(CUTOFF.toString(), run.cutoff());
+    Assert.assertEquals(1, run.availabilitiesDeleted());
+    Assert.assertEquals(1, run.summariesDeleted());
+    Assert.assertEquals(1, run.interviewsArchived());
+    Assert.assertEquals(
+        Arrays.asList(CUTOFF),
+        availabilityDao.getInRangeForAll(CUTOFF.minus(1, ChronoUnit.DAYS), NOW).stream()
+            .map(avail -> avail.when().start())
+            .collect(Collectors.toList()));
+    Assert.assertEquals(
+        1, availabilityDao.getUsersAvailableInRange(CUTOFF.minus(1, ChronoUnit.DAYS), NOW).size());
+    Assert.assertEquals(Optional.empty(), scheduledInterviewDao.get(oldId));
+    Assert.assertEquals(1, scheduledInterviewDao.getForPerson("interviewer").size());
+    Entity archived = datastore.get(KeyFactory.createKey(DatastoreRetention.ARCHIVE_KIND, oldId));
+    Assert.assertEquals("interviewee", archived.getProperty("interviewee"));
+    Assert.assertTrue(archived.isUnindexedProperty("interviewee"));
+  }
+
+  // A backlog larger than one run is worked through over several runs that each stop after
+  // their batches, and nothing is left once the pass finishes.
+  @Test
+  public void resumesAcrossRuns() throws Exception {
+    Instant start = CUTOFF.minus(5, ChronoUnit.DAYS);
+    for (int i = 0; i < 7; i++) {
+      availabilityDao.create(availability("user" + i, start.plus(15 * i, ChronoUnit.MINUTES)));
+    }
+    DatastoreRetention retention = retention(/*batchSize=*/ 2, /*maxBatchesPerRun=*/ 2);
+
+    DatastoreRetention.Run first = retention.run();
+    Assert.assertFalse(first.passFinished());
+    Assert.assertEquals(2, first.batches());
+    Assert.assertEquals(4, first.availabilitiesDeleted());
+
+    long availabilitiesDeleted = first.availabilitiesDeleted();
+    long summariesDeleted = 0;
+    DatastoreRetention.Run run;
+    int runs = 1;
+    do {
+      run = retention.run();
+      availabilitiesDeleted += run.availabilitiesDeleted();
+      summariesDeleted += run.summariesDeleted();
+      runs++;
+    } while (!run.passFinished() && runs < 20);
+
+    Assert.assertTrue(run.passFinished());
+    Assert.assertEquals(7, availabilitiesDeleted);
+    Assert.assertEquals(7, summariesDeleted);
+    Assert.assertEquals(0, count("Availability"));
+    Assert.assertEquals(0, count(DatastoreAvailabilityDays.KIND));
+    Assert.assertEquals(0, count("RetentionCursor"));
+  }
+
+  // A pass keeps the cutoff it started with, even if the horizon changes before it finishes.
+  @Test
+  public void passKeepsItsCutoff() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      availabilityDao.create(availability("user1", CUTOFF.minus(15 * (i + 1), ChronoUnit.MINUTES)));
+    }
+    retention(/*batchSize=*/ 1, /*maxBatchesPerRun=*/ 1).run();
+
+    DatastoreRetention.Run resumed =
+        new DatastoreRetention(datastore, clock, /*horizonDays=*/ 365, 1, 1, UNLIMITED_RATE).run();
+
+    Assert.assertEquals(CUTOFF.toString(), resumed.cutoff());
+    Assert.assertEquals(1, resumed.availabilitiesDeleted());
+  }
+
+  private DatastoreRetention retention(int batchSize, int maxBatchesPerRun) {
+    return new DatastoreRetention(
+        datastore, clock, HORIZON_DAYS, batchSize, maxBatchesPerRun, UNLIMITED_RATE);
+  }
+
+  private int count(String kind) {
+    return datastore.prepare(new Query(kind)).countEntities(FetchOptions.Builder.withDefaults());
+  }
+
+  private static Availability availability(String userId, Instant start) {
+    return Availability.create(
+        userId, new TimeRange(start, start.plus(15, ChronoUnit.MINUTES)), -1, false);
+  }
+
+  private static ScheduledInterview interview(Instant start) {
+    return ScheduledInterview.create(
+        -1,
+        new TimeRange(start, start.plus(1, ChronoUnit.HOURS)),
+        "interviewer",
+        "interviewee",
+        "meet.google.com/abc",
+        Job.SOFTWARE_ENGINEER,
+        "");
+  }
+}
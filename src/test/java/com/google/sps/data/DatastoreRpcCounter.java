@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.apphosting.api.ApiProxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the Datastore RPCs made while it is installed, by method name such as "RunQuery" or
+ * "Delete", so tests can check how many round trips a DAO call costs. It must be uninstalled before
+ * LocalServiceTestHelper.tearDown, which expects its own delegate.
+ */
+final class DatastoreRpcCounter implements ApiProxy.Delegate<ApiProxy.Environment> {
+  private static final String DATASTORE_PACKAGE = "datastore_v3";
+  private final ApiProxy.Delegate<ApiProxy.Environment> delegate;
+  private final Map<String, Integer> calls = new ConcurrentHashMap<String, Integer>();
+
+  private DatastoreRpcCounter(ApiProxy.Delegate<ApiProxy.Environment> delegate) {
+    this.delegate = delegate;
+  }
+
+  // Starts counting calls made through ApiProxy.
+  static DatastoreRpcCounter install() {
+    DatastoreRpcCounter counter = new DatastoreRpcCounter(ApiProxy.getDelegate());
+    ApiProxy.setDelegate(counter);
+    return counter;
+  }
+
+  // Puts back the delegate that was in place when this was installed.
+  void uninstall() {
+    ApiProxy.setDelegate(delegate);
+  }
+
+  // The number of calls to the given Datastore method, such as "Get", since installed.
+  int count(String method) {
+    return calls.getOrDefault(method, 0);
+  }
+
+  private void record(String packageName, String methodName) {
+    if (DATASTORE_PACKAGE.equals(packageName)) {
+      calls.merge(methodName, 1, Integer::sum);
+    }
+  }
+
+  @Override
+  public byte[] makeSyncCall(
+      ApiProxy.Environment environment, String packageName, String methodName, byte[] request)
+      throws ApiProxy.ApiProxyException {
+    record(packageName, methodName);
+    return delegate.makeSyncCall(environment, packageName, methodName, request);
+  }
+
+  @Override
+  public Future<byte[]> makeAsyncCall(
+      ApiProxy.Environment environment,
+      String packageName,
+      String methodName,
+      byte[] request,
+      ApiProxy.ApiConfig apiConfig) {
+    record(packageName, methodName);
+    return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+  }
+
+  @Override
+  public void log(ApiProxy.Environment environment, ApiProxy.LogRecord record) {
+    delegate.log(environment, record);
+  }
+
+  @Override
+  public void flushLogs(ApiProxy.Environment environment) {
+    delegate.flushLogs(environment);
+  }
+
+  @Override
+  public List<Thread> getRequestThreads(ApiProxy.Environment environment) {
+    return delegate.getRequestThreads(environment);
+  }
+}
@@ -23,10 +23,15 @@ import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.Query;
 import com.google.appengine.api.datastore.Query.SortDirection;
 import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.dev.LocalTaskQueue;
 import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -117,9 +122,11 @@ public class DatastoreScheduledInterviewDaoTest {
           /*shadowId=*/ "user@company.org");
 
   private final LocalServiceTestHelper helper =
+      // High replication like production, so createAll's cross-group transactions are allowed.
       new LocalServiceTestHelper(
-          new LocalDatastoreServiceTestConfig()
-              .setDefaultHighRepJobPolicyUnappliedJobPercentage(0));
+          new LocalDatastoreServiceTestConfig().setApplyAllHighRepJobPolicy(),
+          // Booking count tasks are only queued, never run.
+          new LocalTaskQueueTestConfig().setDisableAutoTaskExecution(true));
 
   @Before
   public void setUp() {
@@ -299,6 +306,31 @@ public class DatastoreScheduledInterviewDaoTest {
     Assert.assertEquals(copyScheduledInterview2, storedScheduledInterview);
   }
 
+  // Tests deleting several scheduledInterviews with one batch delete.
+  @Test
+  public void deletesAllScheduledInterviews() {
+    dao.create(scheduledInterview1);
+    dao.create(scheduledInterview2);
+    dao.create(scheduledInterview3);
+    List<Long> ids = new ArrayList<Long>();
+    for (ScheduledInterview interview : dao.getForPerson("user@company.org")) {
+      ids.add(interview.id());
+    }
+
+    DatastoreRpcCounter rpcs = DatastoreRpcCounter.install();
+    try {
+      dao.deleteAll(ids);
+    } finally {
+      rpcs.uninstall();
+    }
+
+    Assert.assertEquals(2, ids.size());
+    Assert.assertEquals(1, rpcs.count("Delete"));
+    Entity entity = datastore.prepare(new Query("ScheduledInterview")).asSingleEntity();
+    Assert.assertEquals(
+        "user3@company.org", dao.entityToScheduledInterview(entity).interviewerId());
+  }
+
   // Tests updating a user's scheduledInterview.
   @Test
   public void updatesScheduledInterview() {
@@ -462,4 +494,108 @@ public class DatastoreScheduledInterviewDaoTest {
             Instant.parse("2020-07-06T11:00:10Z"), Instant.parse("2020-07-06T12:00:10Z"));
     Assert.assertEquals(observed.size(), 0);
   }
+
+  // Tests that createAll stores every interview and returns them with their allocated ids.
+  @Test
+  public void createsAll() {
+    List<ScheduledInterview> created =
+        dao.createAll(Arrays.asList(scheduledInterview1, scheduledInterview2));
+
+    Assert.assertEquals(2, created.size());
+    for (ScheduledInterview scheduledInterview : created) {
+      Assert.assertEquals(Optional.of(scheduledInterview), dao.get(scheduledInterview.id()));
+    }
+  }
+
+  // Tests that creating, moving and deleting interviews keeps the booking counts in step.
+  @Test
+  public void countsBookings() {
+    BookingStats stats = new BookingStats(new FakeCounterDao());
+    DatastoreScheduledInterviewDao countingDao = new DatastoreScheduledInterviewDao(stats);
+    LocalDate monday = LocalDate.parse("2020-07-06");
+    LocalDate nextMonday = LocalDate.parse("2020-07-13");
+    countingDao.create(scheduledInterview1);
+    List<ScheduledInterview> created =
+        countingDao.createAll(Arrays.asList(scheduledInterview2, scheduledInterview3));
+    Assert.assertEquals(
+        2, stats.interviewsForInterviewerInWeek("user@company.org", LocalDate.parse("2020-07-12")));
+    Assert.assertEquals(2, stats.interviewsForPositionOnDay(Job.PRODUCT_MANAGER, monday));
+
+    ScheduledInterview moved =
+        ScheduledInterview.create(
+            created.get(1).id(),
+            new TimeRange(
+                Instant.parse("2020-07-13T19:00:10Z"), Instant.parse("2020-07-13T20:00:10Z")),
+            "user3@company.org",
+            "user2@mail.com",
+            "meet_link",
+            Job.PRODUCT_MANAGER,
+            /*shadowId=*/ "");
+    countingDao.update(moved);
+    Assert.assertEquals(0, stats.interviewsForInterviewerInWeek("user3@company.org", monday));
+    Assert.assertEquals(1, stats.interviewsForInterviewerInWeek("user3@company.org", nextMonday));
+    Assert.assertEquals(1, stats.interviewsForPositionOnDay(Job.PRODUCT_MANAGER, monday));
+    Assert.assertEquals(1, stats.interviewsForPositionOnDay(Job.PRODUCT_MANAGER, nextMonday));
+
+    countingDao.delete(moved.id());
+    countingDao.deleteAll(Arrays.asList(created.get(0).id()));
+    Assert.assertEquals(0, stats.interviewsForInterviewerInWeek("user3@company.org", nextMonday));
+    Assert.assertEquals(1, stats.interviewsForInterviewerInWeek("user@company.org", monday));
+    Assert.assertEquals(0, stats.interviewsForPositionOnDay(Job.PRODUCT_MANAGER, monday));
+  }
+
+  // Tests that with a queue, a write only queues one task per counter it changes, in one add,
+  // and leaves the counts themselves to the tasks.
+  @Test
+  public void queuesBookingCounts() {
+    FakeCounterDao counterDao = new FakeCounterDao();
+    DatastoreScheduledInterviewDao queueingDao =
+        new DatastoreScheduledInterviewDao(
+            new BookingStats(counterDao, QueueFactory.getDefaultQueue()));
+
+    // Same interviewer and week, different positions: one interviewer and two position counters.
+    queueingDao.createAll(Arrays.asList(scheduledInterview1, scheduledInterview2));
+
+    LocalTaskQueue taskQueue = LocalTaskQueueTestConfig.getLocalTaskQueue();
+    String queueName = QueueFactory.getDefaultQueue().getQueueName();
+    Assert.assertEquals(3, taskQueue.getQueueStateInfo().get(queueName).getTaskInfo().size());
+    Assert.assertEquals(
+        0,
+        new BookingStats(counterDao)
+            .interviewsForInterviewerInWeek("user@company.org", LocalDate.parse("2020-07-06")));
+  }
+
+  // Tests that an interview is only booked if none of its availabilities has been taken, and that
+  // booking it marks them all scheduled.
+  @Test
+  public void createsIfFree() {
+    DatastoreAvailabilityDao availabilityDao = new DatastoreAvailabilityDao();
+    for (int i = 0; i < 4; i++) {
+      Instant start = scheduledInterview1.when().start().plus(15 * i, ChronoUnit.MINUTES);
+      availabilityDao.create(
+          Availability.create(
+              scheduledInterview1.interviewerId(),
+              new TimeRange(start, start.plus(15, ChronoUnit.MINUTES)),
+              /*id=*/ -1,
+              /*scheduled=*/ false));
+    }
+    List<Availability> slots =
+        availabilityDao.getInRangeForUser(
+            scheduledInterview1.interviewerId(),
+            scheduledInterview1.when().start(),
+            scheduledInterview1.when().end());
+
+    Optional<ScheduledInterview> booked =
+        dao.createIfFree(scheduledInterview1, slots, availabilityDao);
+    Optional<ScheduledInterview> bookedAgain =
+        dao.createIfFree(scheduledInterview4, slots, availabilityDao);
+
+    Assert.assertTrue(booked.isPresent());
+    Assert.assertEquals(booked, dao.get(booked.get().id()));
+    Assert.assertFalse(bookedAgain.isPresent());
+    Assert.assertEquals(1, dao.getForPerson(scheduledInterview1.interviewerId()).size());
+    for (Availability avail : slots) {
+      Assert.assertTrue(availabilityDao.get(avail.id()).get().scheduled());
+    }
+  }
 }
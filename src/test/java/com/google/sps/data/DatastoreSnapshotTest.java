@@ -0,0 +1,254 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Text;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.apphosting.api.ApiProxy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DatastoreSnapshotTest {
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+
+  private DatastoreService datastore;
+  private DatastoreSnapshot snapshot;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    datastore = DatastoreServiceFactory.getDatastoreService();
+    // Small pages, batches and chunks so a handful of entities exercises the cursors, several puts
+    // and several exports.
+    snapshot =
+        new DatastoreSnapshot(
+            datastore,
+            /*pageSize=*/ 2,
+            /*importBatchSize=*/ 3,
+            /*maxPagesPerExport=*/ 2,
+            /*maxImportEntities=*/ 10);
+    // The import writes from pool threads, which need this test's API environment to reach the
+    // local datastore the way request threads do in production.
+    ApiProxy.Environment environment = ApiProxy.getCurrentEnvironment();
+    executor =
+        Executors.newFixedThreadPool(
+            2,
+            runnable ->
+                new Thread(
+                    () -> {
+                      ApiProxy.setEnvironmentForCurrentThread(environment);
+                      runnable.run();
+                    }));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    helper.tearDown();
+  }
+
+  // Exporting, clearing the datastore and importing again restores every entity with the same
+  // keys, values and indexing.
+  @Test
+  public void roundTripRestoresEntities() throws Exception {
+    List<Entity> entities = new ArrayList<Entity>();
+    for (int i = 0; i < 5; i++) {
+      Entity person = new Entity("Person", "user" + i);
+      person.setProperty("email", "user" + i + "@company.org");
+      person.setProperty("okShadow", i % 2 == 0);
+      person.setProperty("qualifiedJobs", Arrays.asList("SOFTWARE_ENGINEER", "PRODUCT_MANAGER"));
+      entities.add(person);
+    }
+    for (int i = 0; i < 3; i++) {
+      Entity availability = new Entity("Availability");
+      availability.setProperty("userId", "user" + i);
+      availability.setProperty("startTime", 1594123200000L + i * 900000L);
+      availability.setProperty("scheduled", false);
+      entities.add(availability);
+    }
+    Entity feedback = new Entity(DatastoreFeedbackDao.KIND);
+    feedback.setProperty("status", "PENDING");
+    feedback.setUnindexedProperty("answers", new Text("{\"{{question_1}}\":\"Agree\"}"));
+    entities.add(feedback);
+    Entity day = new Entity(DatastoreAvailabilityDays.KIND, "user1:2020-07-07");
+    day.setProperty("userId", "user1");
+    day.setUnindexedProperty("slotStarts", Arrays.asList(1594123200000L, 1594124100000L));
+    entities.add(day);
+    datastore.put(entities);
+
+    StringWriter out = new StringWriter();
+    Assert.assertEquals(entities.size(), exportAll(out));
+    for (Entity entity : entities) {
+      datastore.delete(entity.getKey());
+    }
+
+    long imported =
+        snapshot.importFrom(new BufferedReader(new StringReader(out.toString())), executor);
+
+    Assert.assertEquals(entities.size(), imported);
+    for (Entity expected : entities) {
+      Entity actual = datastore.get(expected.getKey());
+      Assert.assertEquals(expected.getProperties(), actual.getProperties());
+      for (String property : expected.getProperties().keySet()) {
+        Assert.assertEquals(
+            expected.isUnindexedProperty(property), actual.isUnindexedProperty(property));
+      }
+    }
+  }
+
+  // Entities imported with numeric ids keep them reserved, so new entities don't overwrite them.
+  @Test
+  public void importReservesIds() throws Exception {
+    String lines =
+        "{\"kind\":\"ScheduledInterview\",\"id\":1,\"properties\":{},\"unindexed\":[]}\n"
+            + "{\"kind\":\"ScheduledInterview\",\"id\":3,\"properties\":{},\"unindexed\":[]}\n";
+
+    snapshot.importFrom(new BufferedReader(new StringReader(lines)), executor);
+
+    for (Key key : datastore.allocateIds("ScheduledInterview", 5)) {
+      Assert.assertTrue(key.getId() > 3);
+    }
+  }
+
+  // Importing the same snapshot again overwrites the entities rather than duplicating them.
+  @Test
+  public void importIsRepeatable() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      Entity interview = new Entity("ScheduledInterview");
+      interview.setProperty("interviewer", "user" + i);
+      datastore.put(interview);
+    }
+    StringWriter out = new StringWriter();
+    exportAll(out);
+
+    snapshot.importFrom(new BufferedReader(new StringReader(out.toString())), executor);
+
+    Assert.assertEquals(
+        4,
+        datastore
+            .prepare(new Query("ScheduledInterview"))
+            .countEntities(FetchOptions.Builder.withDefaults()));
+  }
+
+  // Kinds outside the snapshot, like reminder bookkeeping, aren't exported.
+  @Test
+  public void otherKindsNotExported() throws Exception {
+    datastore.put(new Entity("Person", "user1"));
+    datastore.put(new Entity("SentReminder", "1:DAY_BEFORE"));
+    StringWriter out = new StringWriter();
+
+    Assert.assertEquals(1, exportAll(out));
+    Assert.assertFalse(out.toString().contains("SentReminder"));
+  }
+
+  @Test
+  public void malformedLineRejected() {
+    String lines =
+        "{\"kind\":\"Person\",\"name\":\"user1\",\"properties\":{},\"unindexed\":[]}\n"
+            + "not json\n";
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> snapshot.importFrom(new BufferedReader(new StringReader(lines)), executor));
+  }
+
+  // Each export stops after maxPagesPerExport pages, and the chunks together hold every entity
+  // once, including where a chunk ends partway through a kind.
+  @Test
+  public void exportsInChunks() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      datastore.put(new Entity("Person", "user" + i));
+    }
+    for (int i = 0; i < 3; i++) {
+      datastore.put(new Entity("ScheduledInterview"));
+    }
+
+    List<Long> chunkSizes = new ArrayList<Long>();
+    Optional<String> next = Optional.empty();
+    StringWriter out = new StringWriter();
+    do {
+      DatastoreSnapshot.Export export = snapshot.export(out, next);
+      chunkSizes.add(export.written());
+      next = export.next();
+    } while (next.isPresent());
+
+    // Two pages a chunk: Person's three pages, then one for each empty kind, with the last of
+    // ScheduledInterview's two pages starting the fourth chunk.
+    Assert.assertEquals(Arrays.asList(4L, 1L, 2L, 1L, 0L), chunkSizes);
+    Assert.assertEquals(8, out.toString().split("\n").length);
+  }
+
+  @Test
+  public void badContinuationRejected() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> snapshot.export(new StringWriter(), Optional.of("not a continuation")));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> snapshot.export(new StringWriter(), Optional.of("99:")));
+  }
+
+  // An import larger than one request should take is refused rather than left to hit the
+  // request deadline.
+  @Test
+  public void oversizedImportRejected() {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i <= 10; i++) {
+      lines.append(
+          String.format(
+              "{\"kind\":\"Person\",\"name\":\"user%d\",\"properties\":{},\"unindexed\":[]}\n", i));
+    }
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            snapshot.importFrom(new BufferedReader(new StringReader(lines.toString())), executor));
+  }
+
+  // Exports every chunk of the snapshot to out and returns how many entities were written.
+  private long exportAll(StringWriter out) throws IOException {
+    long written = 0;
+    Optional<String> next = Optional.empty();
+    do {
+      DatastoreSnapshot.Export export = snapshot.export(out, next);
+      written += export.written();
+      next = export.next();
+    } while (next.isPresent());
+    return written;
+  }
+}
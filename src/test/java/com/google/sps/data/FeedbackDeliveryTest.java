@@ -0,0 +1,196 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableMap;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class FeedbackDeliveryTest {
+  private static final Instant SUBMITTED = Instant.parse("2020-07-07T16:00:00Z");
+
+  private FakeFeedbackDao feedbackDao;
+  private FlakyEmailSender emailSender;
+  private SettableClock clock;
+  private FeedbackDelivery delivery;
+
+  // A clock that only moves when the test moves it.
+  private static class SettableClock extends Clock {
+    private Instant now;
+
+    SettableClock(Instant now) {
+      this.now = now;
+    }
+
+    void set(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  // Responds with a server error to the first failures sends, then sends normally.
+  private static class FlakyEmailSender extends FakeEmailSender {
+    private int failures = 0;
+
+    FlakyEmailSender() throws IOException {
+      super(new Email("interviewme.business@gmail.com"));
+    }
+
+    @Override
+    public int sendEmail(Email recipient, String subject, Content content) throws IOException {
+      if (failures > 0) {
+        failures--;
+        return 500;
+      }
+      return super.sendEmail(recipient, subject, content);
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    feedbackDao = new FakeFeedbackDao();
+    emailSender = new FlakyEmailSender();
+    clock = new SettableClock(SUBMITTED);
+    delivery = new FeedbackDelivery(feedbackDao, emailSender, clock);
+  }
+
+  // Due feedback is rendered into its template, sent once and recorded with its latency.
+  @Test
+  public void deliversDueFeedback() {
+    Feedback stored = feedbackDao.create(feedback());
+    clock.set(SUBMITTED.plus(Duration.ofSeconds(30)));
+
+    FeedbackDelivery.Run run = delivery.deliverDue();
+    Assert.assertEquals(1, run.delivered());
+    Assert.assertEquals(30000, run.averageLatencyMillis());
+    Assert.assertEquals(30000, run.maxLatencyMillis());
+    List<Mail> sent = emailSender.getSentEmails();
+    Assert.assertEquals(1, sent.size());
+    Assert.assertEquals(FeedbackKind.TO_INTERVIEWEE.subject(), sent.get(0).getSubject());
+    String content = sent.get(0).getContent().get(0).getValue();
+    Assert.assertTrue(content, content.contains("Strong problem solving"));
+
+    Feedback delivered = feedbackDao.get(stored.id()).get();
+    Assert.assertEquals(Feedback.Status.DELIVERED, delivered.status());
+    Assert.assertEquals(1, delivered.attempts());
+    Assert.assertEquals(0, delivery.deliverDue().delivered());
+  }
+
+  // A failed send is retried after a delay that doubles with each attempt.
+  @Test
+  public void retriesWithBackoff() {
+    Feedback stored = feedbackDao.create(feedback());
+    emailSender.failures = 2;
+
+    Assert.assertEquals(1, delivery.deliverDue().retried());
+    Feedback retrying = feedbackDao.get(stored.id()).get();
+    Assert.assertEquals(SUBMITTED.plus(Duration.ofMinutes(1)), retrying.nextAttemptAt());
+    Assert.assertEquals("SendGrid responded 500", retrying.lastError());
+    Assert.assertEquals(0, delivery.deliverDue().due());
+
+    clock.set(SUBMITTED.plus(Duration.ofMinutes(1)));
+    Assert.assertEquals(1, delivery.deliverDue().retried());
+    Assert.assertEquals(
+        SUBMITTED.plus(Duration.ofMinutes(3)), feedbackDao.get(stored.id()).get().nextAttemptAt());
+
+    clock.set(SUBMITTED.plus(Duration.ofMinutes(3)));
+    Assert.assertEquals(1, delivery.deliverDue().delivered());
+    Assert.assertEquals(3, feedbackDao.get(stored.id()).get().attempts());
+  }
+
+  // Feedback whose every attempt fails is marked failed and no longer tried.
+  @Test
+  public void failsAfterMaxAttempts() {
+    Feedback stored = feedbackDao.create(feedback());
+    emailSender.failures = FeedbackDelivery.MAX_ATTEMPTS;
+
+    long failed = 0;
+    for (int i = 0; i < FeedbackDelivery.MAX_ATTEMPTS; i++) {
+      clock.set(feedbackDao.get(stored.id()).get().nextAttemptAt());
+      failed += delivery.deliverDue().failed();
+    }
+    Assert.assertEquals(1, failed);
+    Feedback failedFeedback = feedbackDao.get(stored.id()).get();
+    Assert.assertEquals(Feedback.Status.FAILED, failedFeedback.status());
+    Assert.assertEquals(FeedbackDelivery.MAX_ATTEMPTS, failedFeedback.attempts());
+    Assert.assertTrue(feedbackDao.getDue(clock.instant().plus(Duration.ofDays(1)), 10).isEmpty());
+    Assert.assertTrue(emailSender.getSentEmails().isEmpty());
+  }
+
+  // Feedback another run has leased is left to that run.
+  @Test
+  public void skipsLeasedFeedback() {
+    RacingFeedbackDao racingDao = new RacingFeedbackDao();
+    racingDao.create(feedback());
+
+    FeedbackDelivery.Run run = new FeedbackDelivery(racingDao, emailSender, clock).deliverDue();
+    Assert.assertEquals(1, run.alreadyLeased());
+    Assert.assertTrue(emailSender.getSentEmails().isEmpty());
+  }
+
+  // Loses every lease, as if another run always read the feedback first.
+  private static class RacingFeedbackDao extends FakeFeedbackDao {
+    @Override
+    public boolean lease(Feedback feedback, Instant until) {
+      return false;
+    }
+  }
+
+  private static Feedback feedback() {
+    Map<String, String> answers = new HashMap<String, String>();
+    answers.put("{{formatted_date}}", "Tuesday, July 7, 2020");
+    for (int i = 1; i <= FeedbackKind.TO_INTERVIEWEE.questionCount(); i++) {
+      answers.put(String.format("{{question_%s}}", i), "Strong problem solving");
+    }
+    return Feedback.create(
+        FeedbackKind.TO_INTERVIEWEE,
+        /*scheduledInterviewId=*/ 7,
+        "interviewer",
+        "interviewee",
+        "interviewee@gmail.com",
+        ImmutableMap.copyOf(answers),
+        SUBMITTED);
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class FeedbackStatsTest {
+  private static final Instant SUBMITTED = Instant.parse("2020-07-07T16:00:00Z");
+
+  private FeedbackStats stats;
+
+  @Before
+  public void setUp() {
+    stats = new FeedbackStats(new FakeCounterDao());
+  }
+
+  // Multiple choice answers are averaged per question for the interviewer and the position, and
+  // written answers are left out.
+  @Test
+  public void averagesScoredAnswers() {
+    stats.record(toInterviewer("ian", "Strongly Agree", "Agree"), Job.SOFTWARE_ENGINEER);
+    stats.record(toInterviewer("ian", "Agree", "Strongly Disagree"), Job.SOFTWARE_ENGINEER);
+    stats.record(toInterviewer("ines", "Neutral", "Neutral"), Job.SOFTWARE_ENGINEER);
+
+    FeedbackStats.Summary ian = stats.forInterviewer("ian");
+    Assert.assertEquals(2, ian.feedbackCount());
+    Assert.assertEquals(2, ian.questions().size());
+    Assert.assertEquals(2, ian.questions().get(1).answered());
+    Assert.assertEquals(4.5, ian.questions().get(1).averageScore(), 1e-9);
+    Assert.assertEquals(2.5, ian.questions().get(2).averageScore(), 1e-9);
+
+    FeedbackStats.Summary position =
+        stats.forPosition(Job.SOFTWARE_ENGINEER, FeedbackKind.TO_INTERVIEWER);
+    Assert.assertEquals(3, position.feedbackCount());
+    Assert.assertEquals(4.0, position.questions().get(1).averageScore(), 1e-9);
+  }
+
+  // Feedback on an interviewee counts towards its position but not towards any interviewer.
+  @Test
+  public void intervieweeFeedbackCountsForPositionOnly() {
+    Map<String, String> answers = new HashMap<String, String>();
+    answers.put("{{question_1}}", "Agree");
+    stats.record(
+        Feedback.create(
+            FeedbackKind.TO_INTERVIEWEE, 1, "ian", "eve", "eve@gmail.com", answers, SUBMITTED),
+        Job.PRODUCT_MANAGER);
+
+    Assert.assertEquals(0, stats.forInterviewer("ian").feedbackCount());
+    Assert.assertEquals(0, stats.forInterviewer("eve").feedbackCount());
+    Assert.assertEquals(
+        1, stats.forPosition(Job.PRODUCT_MANAGER, FeedbackKind.TO_INTERVIEWEE).feedbackCount());
+    Assert.assertEquals(
+        0, stats.forPosition(Job.PRODUCT_MANAGER, FeedbackKind.TO_INTERVIEWER).feedbackCount());
+  }
+
+  private static Feedback toInterviewer(String interviewerId, String first, String second) {
+    Map<String, String> answers = new HashMap<String, String>();
+    answers.put("{{question_1}}", first);
+    answers.put("{{question_2}}", second);
+    answers.put("{{question_8}}", "Very friendly");
+    return Feedback.create(
+        FeedbackKind.TO_INTERVIEWER,
+        1,
+        "eve",
+        interviewerId,
+        interviewerId + "@gmail.com",
+        answers,
+        SUBMITTED);
+  }
+}
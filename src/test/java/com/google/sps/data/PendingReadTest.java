@@ -0,0 +1,63 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class PendingReadTest {
+  // The read is only waited on when joined, and only the first time.
+  @Test
+  public void resolvesOnceOnJoin() {
+    AtomicInteger calls = new AtomicInteger();
+    PendingRead<Integer> read = PendingRead.waitingOn(() -> calls.incrementAndGet());
+
+    Assert.assertEquals(0, calls.get());
+    Assert.assertEquals(Integer.valueOf(1), read.join());
+    Assert.assertEquals(Integer.valueOf(1), read.join());
+    Assert.assertEquals(1, calls.get());
+  }
+
+  // A read that fails fails every join, with the cause the underlying Future gave.
+  @Test
+  public void failureUnwrapped() {
+    IllegalStateException cause = new IllegalStateException("lookup failed");
+    PendingRead<String> read =
+        PendingRead.waitingOn(
+            () -> {
+              throw new ExecutionException(cause);
+            });
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        read.join();
+        Assert.fail();
+      } catch (CompletionException e) {
+        Assert.assertSame(cause, e.getCause());
+      }
+    }
+  }
+
+  @Test
+  public void ofIsAlreadyRead() {
+    Assert.assertEquals("value", PendingRead.of("value").join());
+  }
+}
@@ -0,0 +1,243 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ReminderSchedulerTest {
+  private static final Instant INTERVIEW_START = Instant.parse("2020-07-07T15:00:00Z");
+
+  private CountingScheduledInterviewDao scheduledInterviewDao;
+  private FakePersonDao personDao;
+  private FakeReminderDao reminderDao;
+  private FakeEmailSender emailSender;
+  private SettableClock clock;
+  private ReminderScheduler scheduler;
+
+  // A clock that only moves when the test moves it.
+  private static class SettableClock extends Clock {
+    private Instant now;
+
+    SettableClock(Instant now) {
+      this.now = now;
+    }
+
+    void set(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  // Counts range queries, to check that runs query per kind of reminder rather than per bucket.
+  private static class CountingScheduledInterviewDao extends FakeScheduledInterviewDao {
+    private int rangeQueries = 0;
+
+    @Override
+    public List<ScheduledInterview> getInRange(Instant minTime, Instant maxTime) {
+      rangeQueries++;
+      return super.getInRange(minTime, maxTime);
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    scheduledInterviewDao = new CountingScheduledInterviewDao();
+    personDao = new FakePersonDao();
+    reminderDao = new FakeReminderDao();
+    emailSender = new FakeEmailSender(new Email("interviewme.business@gmail.com"));
+    clock = new SettableClock(Instant.parse("2020-07-01T00:00:00Z"));
+    scheduler =
+        new ReminderScheduler(scheduledInterviewDao, personDao, reminderDao, emailSender, clock);
+
+    personDao.create(person("interviewer", "Ian"));
+    personDao.create(person("interviewee", "Eve"));
+    personDao.create(person("shadow", "Sam"));
+  }
+
+  // The day before reminder goes out in the run that reaches its bucket, and only then.
+  @Test
+  public void dayBeforeReminderSentOnce() {
+    scheduleInterview("");
+    clock.set(INTERVIEW_START.minus(Duration.ofHours(24)).minus(Duration.ofMinutes(1)));
+    Assert.assertEquals(0, scheduler.runDueBuckets().emailsSent());
+
+    clock.set(INTERVIEW_START.minus(Duration.ofHours(24)).plus(Duration.ofMinutes(1)));
+    ReminderScheduler.Run run = scheduler.runDueBuckets();
+    Assert.assertEquals(1, run.bucketsProcessed());
+    Assert.assertEquals(1, run.remindersDue());
+    Assert.assertEquals(2, run.emailsSent());
+    Assert.assertEquals(
+        setOf("interviewer@gmail.com", "interviewee@gmail.com"), recipientsOf(sentEmails()));
+    Mail first = sentEmails().get(0);
+    Assert.assertEquals(ReminderKind.DAY_BEFORE.subject(), first.getSubject());
+    String content = first.getContent().get(0).getValue();
+    Assert.assertTrue(content, content.contains("tomorrow"));
+    Assert.assertTrue(content, content.contains("https://meet.google.com/abc"));
+
+    Assert.assertEquals(0, scheduler.runDueBuckets().emailsSent());
+    Assert.assertEquals(2, sentEmails().size());
+  }
+
+  // A run that has fallen behind processes every bucket since the last run, with one query per
+  // kind of reminder.
+  @Test
+  public void catchesUpOnMissedBuckets() {
+    scheduleInterview("shadow");
+    clock.set(INTERVIEW_START.minus(Duration.ofMinutes(40)));
+    scheduler.runDueBuckets();
+    scheduledInterviewDao.rangeQueries = 0;
+
+    clock.set(INTERVIEW_START.minus(Duration.ofMinutes(5)));
+    ReminderScheduler.Run run = scheduler.runDueBuckets();
+    Assert.assertEquals(7, run.bucketsProcessed());
+    Assert.assertEquals(ReminderKind.values().length, scheduledInterviewDao.rangeQueries);
+    Assert.assertEquals(3, run.emailsSent());
+    Assert.assertEquals(
+        setOf("interviewer@gmail.com", "interviewee@gmail.com", "shadow@gmail.com"),
+        recipientsOf(sentEmails()));
+    Assert.assertEquals(
+        ReminderKind.FIFTEEN_MINUTES_BEFORE.subject(), sentEmails().get(0).getSubject());
+  }
+
+  // Feedback nudges go to the interviewer and interviewee an hour after the interview ends, each
+  // with the form for their role.
+  @Test
+  public void feedbackNudgeSkipsShadow() {
+    scheduleInterview("shadow");
+    Instant nudgeTime = INTERVIEW_START.plus(Duration.ofHours(2));
+    clock.set(nudgeTime.minus(Duration.ofMinutes(10)));
+    scheduler.runDueBuckets();
+
+    clock.set(nudgeTime);
+    Assert.assertEquals(2, scheduler.runDueBuckets().emailsSent());
+    Assert.assertEquals(
+        setOf("interviewer@gmail.com", "interviewee@gmail.com"), recipientsOf(sentEmails()));
+    for (Mail mail : sentEmails()) {
+      String recipient = mail.getPersonalization().get(0).getTos().get(0).getEmail();
+      String role = recipient.startsWith("interviewer") ? "interviewer" : "interviewee";
+      String content = mail.getContent().get(0).getValue();
+      Assert.assertTrue(content, content.contains("role=" + role));
+    }
+  }
+
+  // A reminder claimed by an earlier or overlapping run is not sent again.
+  @Test
+  public void claimedReminderNotSentAgain() {
+    scheduleInterview("");
+    Instant due = INTERVIEW_START.minus(Duration.ofMinutes(15));
+    clock.set(due.minus(Duration.ofMinutes(5)));
+    scheduler.runDueBuckets();
+    clock.set(due);
+    scheduler.runDueBuckets();
+    Assert.assertEquals(2, sentEmails().size());
+
+    reminderDao.setLastProcessedBucket(ReminderScheduler.bucketOf(due) - 1);
+    ReminderScheduler.Run rerun = scheduler.runDueBuckets();
+    Assert.assertEquals(1, rerun.remindersAlreadyClaimed());
+    Assert.assertEquals(0, rerun.emailsSent());
+    Assert.assertEquals(2, sentEmails().size());
+  }
+
+  // After a long outage, stale buckets are skipped instead of sending very late reminders.
+  @Test
+  public void skipsBucketsPastCatchUpLimit() {
+    scheduleInterview("");
+    clock.set(INTERVIEW_START.minus(Duration.ofHours(25)));
+    scheduler.runDueBuckets();
+
+    clock.set(INTERVIEW_START.minus(Duration.ofHours(2)));
+    ReminderScheduler.Run run = scheduler.runDueBuckets();
+    Assert.assertEquals(ReminderScheduler.MAX_CATCH_UP_BUCKETS + 1, run.bucketsProcessed());
+    Assert.assertTrue(run.bucketsSkipped() > 0);
+    Assert.assertEquals(0, run.emailsSent());
+  }
+
+  private void scheduleInterview(String shadowId) {
+    scheduledInterviewDao.create(
+        ScheduledInterview.create(
+            -1,
+            new TimeRange(INTERVIEW_START, INTERVIEW_START.plus(Duration.ofHours(1))),
+            "interviewer",
+            "interviewee",
+            "https://meet.google.com/abc",
+            Job.SOFTWARE_ENGINEER,
+            shadowId));
+  }
+
+  private List<Mail> sentEmails() {
+    return emailSender.getSentEmails();
+  }
+
+  private static Person person(String id, String firstName) {
+    return Person.create(
+        id,
+        id + "@gmail.com",
+        firstName,
+        "Smith",
+        "Google",
+        "SWE",
+        "linkedIn",
+        EnumSet.of(Job.SOFTWARE_ENGINEER),
+        true);
+  }
+
+  private static Set<String> recipientsOf(List<Mail> mails) {
+    Set<String> recipients = new HashSet<String>();
+    for (Mail mail : mails) {
+      recipients.add(mail.getPersonalization().get(0).getTos().get(0).getEmail());
+    }
+    return recipients;
+  }
+
+  private static Set<String> setOf(String... values) {
+    Set<String> set = new HashSet<String>();
+    for (String value : values) {
+      set.add(value);
+    }
+    return set;
+  }
+}
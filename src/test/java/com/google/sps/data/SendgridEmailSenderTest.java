@@ -0,0 +1,178 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.sps.utils.EmailTemplate;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+// Sends through a local HTTP server standing in for SendGrid and checks the requests it receives.
+@RunWith(JUnit4.class)
+public final class SendgridEmailSenderTest {
+  private static final Email SENDER = new Email("interviewme.business@gmail.com");
+  private static final String SUBJECT = "Your mock interview is coming up!";
+  private static final EmailTemplate TEMPLATE =
+      EmailTemplate.parse("reminder", "Hi {{first_name}}, your interview is at {{time}}.\n");
+
+  private HttpServer server;
+  private List<JsonObject> requests;
+  // The status the server answers each request with, in order. Requests past the end get 202.
+  private List<Integer> statuses;
+  private SendgridEmailSender emailSender;
+
+  @Before
+  public void setUp() throws IOException {
+    requests = Collections.synchronizedList(new ArrayList<JsonObject>());
+    statuses = new ArrayList<Integer>();
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/v3/mail/send", this::handle);
+    server.start();
+
+    SendGrid client = new SendGrid("test-key", true);
+    client.setHost("localhost:" + server.getAddress().getPort());
+    emailSender = new SendgridEmailSender(SENDER, client);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] buffer = new byte[8192];
+      for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+        body.write(buffer, 0, read);
+      }
+    }
+    int status;
+    synchronized (requests) {
+      requests.add(
+          new Gson().fromJson(body.toString(StandardCharsets.UTF_8.name()), JsonObject.class));
+      status = requests.size() <= statuses.size() ? statuses.get(requests.size() - 1) : 202;
+    }
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+
+  // Recipients are grouped into as few requests as SendGrid allows, each carrying the template
+  // and one personalization per recipient.
+  @Test
+  public void groupsRecipientsIntoPersonalizations() {
+    List<EmailRecipient> recipients = recipients(2500, "3:00 PM");
+
+    List<EmailBatchResult> results = emailSender.sendBulkEmail(TEMPLATE, SUBJECT, recipients);
+
+    Assert.assertEquals(3, requests.size());
+    Assert.assertEquals(3, results.size());
+    int[] batchSizes = {1000, 1000, 500};
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(results.get(i).succeeded());
+      Assert.assertEquals(batchSizes[i], results.get(i).recipients().size());
+
+      JsonObject request = requests.get(i);
+      Assert.assertEquals(
+          SENDER.getEmail(), request.getAsJsonObject("from").get("email").getAsString());
+      Assert.assertEquals(SUBJECT, request.get("subject").getAsString());
+      JsonObject content = request.getAsJsonArray("content").get(0).getAsJsonObject();
+      Assert.assertEquals(TEMPLATE.text(), content.get("value").getAsString());
+      Assert.assertEquals(batchSizes[i], request.getAsJsonArray("personalizations").size());
+    }
+
+    JsonObject first = requests.get(0).getAsJsonArray("personalizations").get(0).getAsJsonObject();
+    JsonArray to = first.getAsJsonArray("to");
+    Assert.assertEquals(1, to.size());
+    Assert.assertEquals(
+        "person0@gmail.com", to.get(0).getAsJsonObject().get("email").getAsString());
+    JsonObject substitutions = first.getAsJsonObject("substitutions");
+    Assert.assertEquals("Person0", substitutions.get("{{first_name}}").getAsString());
+    Assert.assertEquals("3:00 PM", substitutions.get("{{time}}").getAsString());
+  }
+
+  // A failed request is reported for its batch without stopping the batches after it.
+  @Test
+  public void reportsEachBatch() {
+    statuses.add(202);
+    statuses.add(500);
+
+    List<EmailBatchResult> results =
+        emailSender.sendBulkEmail(TEMPLATE, SUBJECT, recipients(2001, "3:00 PM"));
+
+    Assert.assertEquals(3, results.size());
+    Assert.assertTrue(results.get(0).succeeded());
+    Assert.assertFalse(results.get(1).succeeded());
+    Assert.assertTrue(results.get(1).error().isPresent());
+    Assert.assertTrue(results.get(2).succeeded());
+    Assert.assertEquals(1, results.get(2).recipients().size());
+  }
+
+  // Substitutions too large for a personalization are rendered into their own email.
+  @Test
+  public void oversizedSubstitutionsSentRendered() {
+    char[] longTime = new char[SendgridEmailSender.MAX_SUBSTITUTION_BYTES];
+    Arrays.fill(longTime, 'x');
+    List<EmailRecipient> recipients = new ArrayList<EmailRecipient>(recipients(2, "3:00 PM"));
+    recipients.add(
+        EmailRecipient.create(
+            new Email("long@gmail.com"),
+            ImmutableMap.of("{{first_name}}", "Long", "{{time}}", new String(longTime))));
+
+    List<EmailBatchResult> results = emailSender.sendBulkEmail(TEMPLATE, SUBJECT, recipients);
+
+    Assert.assertEquals(2, results.size());
+    Assert.assertEquals(2, results.get(0).recipients().size());
+    Assert.assertEquals("long@gmail.com", results.get(1).recipients().get(0).getEmail());
+    JsonObject rendered = requests.get(1);
+    JsonObject personalization =
+        rendered.getAsJsonArray("personalizations").get(0).getAsJsonObject();
+    Assert.assertFalse(personalization.has("substitutions"));
+    Assert.assertEquals(
+        "Hi Long, your interview is at " + new String(longTime) + ".\n",
+        rendered.getAsJsonArray("content").get(0).getAsJsonObject().get("value").getAsString());
+  }
+
+  private static List<EmailRecipient> recipients(int count, String time) {
+    List<EmailRecipient> recipients = new ArrayList<EmailRecipient>();
+    for (int i = 0; i < count; i++) {
+      recipients.add(
+          EmailRecipient.create(
+              new Email(String.format("person%d@gmail.com", i)),
+              ImmutableMap.of("{{first_name}}", "Person" + i, "{{time}}", time)));
+    }
+    return recipients;
+  }
+}
@@ -0,0 +1,161 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class SortedTimeRangesTest {
+  private static final Instant BASE = Instant.parse("2020-07-06T08:00:00Z");
+  private static final int TRIALS = 500;
+
+  private final Instant TIME_9AM = Instant.parse("2020-07-06T09:00:00Z");
+  private final Instant TIME_930AM = Instant.parse("2020-07-06T09:30:00Z");
+  private final Instant TIME_10AM = Instant.parse("2020-07-06T10:00:00Z");
+  private final Instant TIME_11AM = Instant.parse("2020-07-06T11:00:00Z");
+  private final Instant TIME_12PM = Instant.parse("2020-07-06T12:00:00Z");
+
+  // The start of a range is contained but its end is not.
+  @Test
+  public void startIsContainedEndIsNot() {
+    SortedTimeRanges ranges =
+        SortedTimeRanges.of(Arrays.asList(new TimeRange(TIME_9AM, TIME_10AM)));
+    boolean[] contained = ranges.containsEach(Arrays.asList(TIME_9AM, TIME_930AM, TIME_10AM));
+    Assert.assertArrayEquals(new boolean[] {true, true, false}, contained);
+  }
+
+  // A short range nested after a long one must not hide the long range's end.
+  @Test
+  public void nestedRanges() {
+    SortedTimeRanges ranges =
+        SortedTimeRanges.of(
+            Arrays.asList(
+                new TimeRange(TIME_930AM, TIME_10AM), new TimeRange(TIME_9AM, TIME_12PM)));
+    boolean[] contained = ranges.containsEach(Arrays.asList(TIME_10AM, TIME_11AM, TIME_12PM));
+    Assert.assertArrayEquals(new boolean[] {true, true, false}, contained);
+  }
+
+  // Ranges without any duration contain nothing.
+  @Test
+  public void emptyRangeContainsNothing() {
+    SortedTimeRanges ranges = SortedTimeRanges.of(Arrays.asList(new TimeRange(TIME_9AM, TIME_9AM)));
+    Assert.assertArrayEquals(new boolean[] {false}, ranges.containsEach(Arrays.asList(TIME_9AM)));
+  }
+
+  @Test
+  public void unsortedInstantsRejected() {
+    SortedTimeRanges ranges =
+        SortedTimeRanges.of(Arrays.asList(new TimeRange(TIME_9AM, TIME_12PM)));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> ranges.containsEach(Arrays.asList(TIME_10AM, TIME_9AM)));
+  }
+
+  // For random ranges and instants, the sweep agrees with checking every instant against every
+  // range.
+  @Test
+  public void containsEachMatchesNestedLoop() {
+    Random random = new Random(26);
+    for (int trial = 0; trial < TRIALS; trial++) {
+      List<TimeRange> ranges = randomRanges(random);
+      List<Instant> instants = randomInstants(random);
+      instants.sort(Instant::compareTo);
+      boolean[] contained = SortedTimeRanges.of(ranges).containsEach(instants);
+      for (int i = 0; i < instants.size(); i++) {
+        Assert.assertEquals(
+            String.format("trial %d, instant %s, ranges %s", trial, instants.get(i), ranges),
+            nestedLoopContains(ranges, instants.get(i)),
+            contained[i]);
+      }
+    }
+  }
+
+  // For random interviews and unsorted slot encodings, itemsContained finds exactly the slots the
+  // servlets used to find with a nested loop.
+  @Test
+  public void itemsContainedMatchesNestedLoop() {
+    Random random = new Random(27);
+    for (int trial = 0; trial < TRIALS; trial++) {
+      List<ScheduledInterview> interviews = new ArrayList<ScheduledInterview>();
+      for (TimeRange range : randomRanges(random)) {
+        interviews.add(
+            ScheduledInterview.create(
+                -1, range, "interviewer", "interviewee", "", Job.SOFTWARE_ENGINEER, ""));
+      }
+      List<String> slots = new ArrayList<String>();
+      for (Instant instant : randomInstants(random)) {
+        slots.add(instant.toString());
+      }
+
+      Set<String> expected = new HashSet<String>();
+      for (String slot : slots) {
+        for (ScheduledInterview interview : interviews) {
+          if (interview.when().contains(Instant.parse(slot))) {
+            expected.add(slot);
+          }
+        }
+      }
+      Assert.assertEquals(
+          expected,
+          SortedTimeRanges.ofScheduledInterviews(interviews).itemsContained(slots, Instant::parse));
+    }
+  }
+
+  private static boolean nestedLoopContains(List<TimeRange> ranges, Instant instant) {
+    for (TimeRange range : ranges) {
+      if (range.contains(instant)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Ranges on a 15 minute grid over one day, including overlapping, nested and empty ranges.
+  private static List<TimeRange> randomRanges(Random random) {
+    List<TimeRange> ranges = new ArrayList<TimeRange>();
+    int count = random.nextInt(12);
+    for (int i = 0; i < count; i++) {
+      Instant start = BASE.plus(15 * random.nextInt(48), ChronoUnit.MINUTES);
+      ranges.add(new TimeRange(start, start.plus(15 * random.nextInt(9), ChronoUnit.MINUTES)));
+    }
+    return ranges;
+  }
+
+  // Unsorted instants on the same grid, with the occasional off-grid instant and duplicates.
+  private static List<Instant> randomInstants(Random random) {
+    List<Instant> instants = new ArrayList<Instant>();
+    int count = random.nextInt(40);
+    for (int i = 0; i < count; i++) {
+      int minutes = 15 * random.nextInt(56);
+      if (random.nextInt(5) == 0) {
+        minutes += random.nextInt(15);
+      }
+      instants.add(BASE.plus(minutes, ChronoUnit.MINUTES));
+    }
+    return instants;
+  }
+}
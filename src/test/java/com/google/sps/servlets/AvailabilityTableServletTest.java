@@ -0,0 +1,122 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalUserServiceTestConfig;
+import com.google.sps.data.Availability;
+import com.google.sps.data.AvailabilityTimeSlot;
+import com.google.sps.data.FakeAvailabilityDao;
+import com.google.sps.data.TimeRange;
+import com.google.sps.views.AvailabilityTableView;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class AvailabilityTableServletTest {
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalUserServiceTestConfig());
+  private static final String EMAIL = "user@gmail.com";
+  private static final String USER_ID = String.format("%d", EMAIL.hashCode());
+  private FakeAvailabilityDao availabilityDao;
+  private AvailabilityTableServlet availabilityTableServlet;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    helper.setEnvIsLoggedIn(true).setEnvEmail(EMAIL).setEnvAuthDomain("auth");
+    availabilityDao = new FakeAvailabilityDao();
+    availabilityTableServlet = new AvailabilityTableServlet();
+    availabilityTableServlet.init(
+        availabilityDao, Clock.fixed(Instant.parse("2020-07-14T12:00:00Z"), ZoneOffset.UTC));
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  @Test
+  public void forwardsTheWeekToTheView() throws IOException {
+    Instant start = Instant.parse("2020-07-15T13:15:00Z");
+    availabilityDao.create(
+        Availability.create(USER_ID, new TimeRange(start, start.plusSeconds(15 * 60)), -1, false));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("timeZoneOffset", "0");
+    request.addParameter("page", "0");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    availabilityTableServlet.doGet(request, response);
+
+    Assert.assertEquals(AvailabilityTableView.PATH, response.getForwardedUrl());
+    @SuppressWarnings("unchecked")
+    List<List<AvailabilityTimeSlot>> days =
+        (List<List<AvailabilityTimeSlot>>) request.getAttribute("availabilityTable");
+    Assert.assertEquals(7, days.size());
+    long selected =
+        days.stream()
+            .flatMap(List::stream)
+            .filter(slot -> slot.selected() && slot.utcEncoding().equals(start.toString()))
+            .count();
+    Assert.assertEquals(1, selected);
+  }
+
+  @Test
+  public void laterPagesShowLaterWeeks() throws IOException {
+    MockHttpServletRequest thisWeek = new MockHttpServletRequest();
+    thisWeek.addParameter("timeZoneOffset", "0");
+    thisWeek.addParameter("page", "0");
+    availabilityTableServlet.doGet(thisWeek, new MockHttpServletResponse());
+    MockHttpServletRequest nextWeek = new MockHttpServletRequest();
+    nextWeek.addParameter("timeZoneOffset", "0");
+    nextWeek.addParameter("page", "1");
+    availabilityTableServlet.doGet(nextWeek, new MockHttpServletResponse());
+
+    Assert.assertEquals(
+        Instant.parse(firstSlot(thisWeek)).plusSeconds(7 * 24 * 60 * 60),
+        Instant.parse(firstSlot(nextWeek)));
+  }
+
+  @Test
+  public void rejectsMissingParameters() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("timeZoneOffset", "0");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    availabilityTableServlet.doGet(request, response);
+
+    Assert.assertEquals(400, response.getStatus());
+    Assert.assertNull(response.getForwardedUrl());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String firstSlot(MockHttpServletRequest request) {
+    return ((List<List<AvailabilityTimeSlot>>) request.getAttribute("availabilityTable"))
+        .get(0)
+        .get(0)
+        .utcEncoding();
+  }
+}
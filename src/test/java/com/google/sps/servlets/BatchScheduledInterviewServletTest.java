@@ -0,0 +1,381 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalCapabilitiesServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.gson.Gson;
+import com.google.sps.data.Availability;
+import com.google.sps.data.BatchBookingResult;
+import com.google.sps.data.FakeAvailabilityDao;
+import com.google.sps.data.FakeCalendarAccess;
+import com.google.sps.data.FakeEmailSender;
+import com.google.sps.data.FakePersonDao;
+import com.google.sps.data.FakeScheduledInterviewDao;
+import com.google.sps.data.InterviewPostOrPutRequest;
+import com.google.sps.data.Job;
+import com.google.sps.data.Person;
+import com.google.sps.data.RandomAssignmentStrategy;
+import com.google.sps.data.ScheduledInterview;
+import com.google.sps.data.TimeRange;
+import com.sendgrid.helpers.mail.objects.Email;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class BatchScheduledInterviewServletTest {
+  private static final Instant MONDAY_9AM = Instant.parse("2020-07-20T09:00:00Z");
+  private static final String INTERVIEWEE_EMAIL = "user@company.org";
+
+  LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalCapabilitiesServiceTestConfig());
+  private FakeScheduledInterviewDao scheduledInterviewDao;
+  private CountingAvailabilityDao availabilityDao;
+  private CountingPersonDao personDao;
+  private FakeEmailSender emailSender;
+
+  private final Person interviewee = person(INTERVIEWEE_EMAIL, "Google", "PM", Job.PRODUCT_MANAGER);
+  private final Person googleSWE1 = person("user1@mail", "Google", "SWE", Job.SOFTWARE_ENGINEER);
+  private final Person googleSWE2 = person("user2@mail", "Google", "SWE", Job.SOFTWARE_ENGINEER);
+  private final Person googlePM = person("user3@mail", "Google", "PM", Job.PRODUCT_MANAGER);
+
+  @Before
+  public void setUp() throws IOException {
+    helper.setUp();
+    helper.setEnvIsLoggedIn(true).setEnvEmail(INTERVIEWEE_EMAIL).setEnvAuthDomain("auth");
+    emailSender = new FakeEmailSender(new Email("interviewme.business@gmail.com"));
+    resetDaos();
+  }
+
+  // Replaces every DAO with an empty one holding only the people.
+  private void resetDaos() {
+    scheduledInterviewDao = new FakeScheduledInterviewDao();
+    availabilityDao = new CountingAvailabilityDao();
+    personDao = new CountingPersonDao();
+    personDao.create(interviewee);
+    personDao.create(googleSWE1);
+    personDao.create(googleSWE2);
+    personDao.create(googlePM);
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // Every item with a free interviewer is booked, with both parties' availabilities taken and
+  // both parties emailed.
+  @Test
+  public void booksEveryFreeSlot() throws IOException {
+    addFreeHour(googleSWE1, MONDAY_9AM);
+    addFreeHour(googleSWE1, MONDAY_9AM.plus(2, ChronoUnit.HOURS));
+    addFreeHour(interviewee, MONDAY_9AM);
+
+    List<BatchBookingResult> results =
+        post(swe(MONDAY_9AM), swe(MONDAY_9AM.plus(2, ChronoUnit.HOURS)));
+
+    Assert.assertEquals(2, results.size());
+    List<ScheduledInterview> booked = scheduledInterviewDao.getForPerson(interviewee.id());
+    Assert.assertEquals(2, booked.size());
+    for (int i = 0; i < results.size(); i++) {
+      Assert.assertEquals(BatchBookingResult.Status.BOOKED, results.get(i).getStatus());
+      Optional<ScheduledInterview> interview =
+          scheduledInterviewDao.get(results.get(i).getInterviewId());
+      Assert.assertEquals(googleSWE1.id(), interview.get().interviewerId());
+      Assert.assertEquals(String.valueOf(interview.get().id()), interview.get().meetLink());
+    }
+    for (Availability avail : availabilityDao.getInRangeForAll(MONDAY_9AM, Instant.MAX)) {
+      Assert.assertTrue(avail.scheduled());
+    }
+    Assert.assertEquals(4, emailSender.getSentEmails().size());
+  }
+
+  // Each item gets its own status, and one item failing doesn't stop the others being booked.
+  @Test
+  public void reportsStatusPerItem() throws IOException {
+    addFreeHour(googleSWE1, MONDAY_9AM);
+    addFreeHour(googleSWE2, MONDAY_9AM);
+    addFreeHour(googlePM, MONDAY_9AM.plus(3, ChronoUnit.HOURS));
+
+    List<BatchBookingResult> results =
+        post(
+            swe(MONDAY_9AM),
+            // Overlaps the first item, even though a second interviewer is free then.
+            swe(MONDAY_9AM.plus(30, ChronoUnit.MINUTES)),
+            new InterviewPostOrPutRequest("Google", "SWE", "not a time", "SOFTWARE_ENGINEER"),
+            new InterviewPostOrPutRequest("Google", "SWE", MONDAY_9AM.toString(), "JANITOR"),
+            // googlePM is free but isn't qualified to give software engineering interviews.
+            swe(MONDAY_9AM.plus(3, ChronoUnit.HOURS)));
+
+    Assert.assertEquals(BatchBookingResult.Status.BOOKED, results.get(0).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.CONFLICT, results.get(1).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.INVALID, results.get(2).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.INVALID, results.get(3).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.NO_INTERVIEWER, results.get(4).getStatus());
+    Assert.assertNull(results.get(1).getInterviewId());
+    Assert.assertEquals(1, scheduledInterviewDao.getForPerson(interviewee.id()).size());
+  }
+
+  // An interview the user already has conflicts with an item at an overlapping time.
+  @Test
+  public void conflictsWithExistingInterview() throws IOException {
+    addFreeHour(googleSWE1, MONDAY_9AM.plus(30, ChronoUnit.MINUTES));
+    scheduledInterviewDao.create(
+        ScheduledInterview.create(
+            /*id=*/ -1,
+            new TimeRange(MONDAY_9AM, MONDAY_9AM.plus(1, ChronoUnit.HOURS)),
+            googleSWE2.id(),
+            interviewee.id(),
+            "meet_link",
+            Job.SOFTWARE_ENGINEER,
+            /*shadowId=*/ ""));
+
+    List<BatchBookingResult> results = post(swe(MONDAY_9AM.plus(30, ChronoUnit.MINUTES)));
+
+    Assert.assertEquals(BatchBookingResult.Status.CONFLICT, results.get(0).getStatus());
+  }
+
+  // Two items can't both be given the same interviewer's hour.
+  @Test
+  public void interviewerHourBookedOnce() throws IOException {
+    addFreeHour(googleSWE1, MONDAY_9AM);
+    helper.setEnvEmail(googlePM.email());
+    List<BatchBookingResult> first = post(swe(MONDAY_9AM));
+    helper.setEnvEmail(INTERVIEWEE_EMAIL);
+    List<BatchBookingResult> second = post(swe(MONDAY_9AM));
+
+    Assert.assertEquals(BatchBookingResult.Status.BOOKED, first.get(0).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.NO_INTERVIEWER, second.get(0).getStatus());
+  }
+
+  // An interviewer booked by someone else after the batch read their availability is reported as a
+  // conflict, and nothing is written for that item.
+  @Test
+  public void concurrentBookingConflicts() throws IOException {
+    addFreeHour(googleSWE1, MONDAY_9AM);
+    addFreeHour(googleSWE1, MONDAY_9AM.plus(2, ChronoUnit.HOURS));
+    availabilityDao.takeAfterRead = MONDAY_9AM;
+
+    List<BatchBookingResult> results =
+        post(swe(MONDAY_9AM), swe(MONDAY_9AM.plus(2, ChronoUnit.HOURS)));
+
+    Assert.assertEquals(BatchBookingResult.Status.CONFLICT, results.get(0).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.BOOKED, results.get(1).getStatus());
+    List<ScheduledInterview> booked = scheduledInterviewDao.getForPerson(interviewee.id());
+    Assert.assertEquals(1, booked.size());
+    Assert.assertEquals(MONDAY_9AM.plus(2, ChronoUnit.HOURS), booked.get(0).when().start());
+  }
+
+  @Test
+  public void emptyBatchRejected() throws IOException {
+    MockHttpServletResponse response = postRaw("[]");
+    Assert.assertEquals(400, response.getStatus());
+  }
+
+  @Test
+  public void oversizedBatchRejected() throws IOException {
+    List<InterviewPostOrPutRequest> items = new ArrayList<InterviewPostOrPutRequest>();
+    for (int i = 0; i <= BatchScheduledInterviewServlet.MAX_BATCH_SIZE; i++) {
+      items.add(swe(MONDAY_9AM.plus(i, ChronoUnit.HOURS)));
+    }
+    MockHttpServletResponse response = postRaw(new Gson().toJson(items));
+    Assert.assertEquals(400, response.getStatus());
+  }
+
+  // Booking a week of interviews in one batch reads far less than booking them one at a time.
+  @Test
+  public void batchReadsLessThanSequentialBookings() throws IOException {
+    int bookings = 8;
+    List<InterviewPostOrPutRequest> items = new ArrayList<InterviewPostOrPutRequest>();
+    for (int i = 0; i < bookings; i++) {
+      Instant start = MONDAY_9AM.plus(i, ChronoUnit.DAYS);
+      addFreeHour(googleSWE1, start);
+      addFreeHour(googleSWE2, start);
+      items.add(swe(start));
+    }
+
+    List<BatchBookingResult> results = post(items.toArray(new InterviewPostOrPutRequest[0]));
+    int batchReads = availabilityDao.reads + personDao.reads;
+    for (BatchBookingResult result : results) {
+      Assert.assertEquals(BatchBookingResult.Status.BOOKED, result.getStatus());
+    }
+
+    // The same bookings again from a fresh start, made one at a time.
+    resetDaos();
+    for (InterviewPostOrPutRequest item : items) {
+      Instant start = Instant.parse(item.getUtcStartTime());
+      addFreeHour(googleSWE1, start);
+      addFreeHour(googleSWE2, start);
+    }
+    ScheduledInterviewServlet servlet = new ScheduledInterviewServlet();
+    servlet.init(
+        scheduledInterviewDao,
+        availabilityDao,
+        personDao,
+        new FakeCalendarAccess(),
+        emailSender,
+        new RandomAssignmentStrategy(new Random(33)));
+    for (InterviewPostOrPutRequest item : items) {
+      MockHttpServletRequest request = new MockHttpServletRequest();
+      request.setContent(new Gson().toJson(item).getBytes(StandardCharsets.UTF_8));
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      servlet.doPost(request, response);
+      Assert.assertEquals(200, response.getStatus());
+    }
+    int sequentialReads = availabilityDao.reads + personDao.reads;
+
+    Assert.assertEquals(bookings, scheduledInterviewDao.getForPerson(interviewee.id()).size());
+    Assert.assertTrue(batchReads < sequentialReads);
+  }
+
+  // Items far apart in time only read everyone's availability for the hours they ask for, not
+  // for the time between them.
+  @Test
+  public void readsOnlyTheItemsHours() throws IOException {
+    Instant nextWeek = MONDAY_9AM.plus(7, ChronoUnit.DAYS);
+    addFreeHour(googleSWE1, MONDAY_9AM);
+    addFreeHour(googleSWE1, nextWeek);
+
+    List<BatchBookingResult> results = post(swe(MONDAY_9AM), swe(nextWeek));
+
+    Assert.assertEquals(BatchBookingResult.Status.BOOKED, results.get(0).getStatus());
+    Assert.assertEquals(BatchBookingResult.Status.BOOKED, results.get(1).getStatus());
+    Assert.assertEquals(Duration.ofHours(2), availabilityDao.spanReadForAll);
+  }
+
+  private List<BatchBookingResult> post(InterviewPostOrPutRequest... items) throws IOException {
+    MockHttpServletResponse response = postRaw(new Gson().toJson(items));
+    Assert.assertEquals(200, response.getStatus());
+    return Arrays.asList(
+        new Gson().fromJson(response.getContentAsString(), BatchBookingResult[].class));
+  }
+
+  private MockHttpServletResponse postRaw(String json) throws IOException {
+    BatchScheduledInterviewServlet servlet = new BatchScheduledInterviewServlet();
+    servlet.init(
+        scheduledInterviewDao,
+        availabilityDao,
+        personDao,
+        new FakeCalendarAccess(),
+        emailSender,
+        new RandomAssignmentStrategy(new Random(33)));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setContent(json.getBytes(StandardCharsets.UTF_8));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doPost(request, response);
+    return response;
+  }
+
+  private static InterviewPostOrPutRequest swe(Instant start) {
+    return new InterviewPostOrPutRequest("Google", "SWE", start.toString(), "SOFTWARE_ENGINEER");
+  }
+
+  // Adds the four 15 minute availabilities that make up an hour starting at start.
+  private void addFreeHour(Person person, Instant start) {
+    for (int i = 0; i < 4; i++) {
+      Instant slotStart = start.plus(15 * i, ChronoUnit.MINUTES);
+      availabilityDao.create(
+          Availability.create(
+              person.id(),
+              new TimeRange(slotStart, slotStart.plus(15, ChronoUnit.MINUTES)),
+              /*id=*/ -1,
+              /*scheduled=*/ false));
+    }
+  }
+
+  private static Person person(String email, String company, String job, Job qualified) {
+    return Person.create(
+        String.format("%d", email.hashCode()),
+        email,
+        "First",
+        "Last",
+        company,
+        job,
+        "linkedIn",
+        EnumSet.of(qualified),
+        /*okShadow=*/ true);
+  }
+
+  // Counts every availability query made, and how much time the reads for all users covered. If
+  // takeAfterRead is set, the slot starting then is scheduled as soon as it has been read, as if
+  // another booking took it.
+  private static class CountingAvailabilityDao extends FakeAvailabilityDao {
+    int reads = 0;
+    Duration spanReadForAll = Duration.ZERO;
+    Instant takeAfterRead = null;
+
+    @Override
+    public List<Availability> getInRangeForUser(String userId, Instant minTime, Instant maxTime) {
+      reads++;
+      return super.getInRangeForUser(userId, minTime, maxTime);
+    }
+
+    @Override
+    public List<Availability> getInRangeForAll(Instant minTime, Instant maxTime) {
+      reads++;
+      spanReadForAll = spanReadForAll.plus(Duration.between(minTime, maxTime));
+      List<Availability> availabilities = super.getInRangeForAll(minTime, maxTime);
+      for (Availability avail : availabilities) {
+        if (avail.when().start().equals(takeAfterRead)) {
+          update(avail.withScheduled(true));
+        }
+      }
+      return availabilities;
+    }
+
+    @Override
+    public Set<String> getUsersAvailableInRange(Instant minTime, Instant maxTime) {
+      reads++;
+      return super.getUsersAvailableInRange(minTime, maxTime);
+    }
+  }
+
+  // Counts every Person read, whether of one person or a batch.
+  private static class CountingPersonDao extends FakePersonDao {
+    int reads = 0;
+
+    @Override
+    public Optional<Person> get(String id) {
+      reads++;
+      return super.get(id);
+    }
+
+    @Override
+    public Map<String, Person> getAll(Collection<String> ids) {
+      reads++;
+      return super.getAll(ids);
+    }
+  }
+}
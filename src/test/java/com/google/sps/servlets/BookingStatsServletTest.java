@@ -0,0 +1,114 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalUserServiceTestConfig;
+import com.google.common.collect.ImmutableList;
+import com.google.sps.data.BookingStats;
+import com.google.sps.data.FakeCounterDao;
+import com.google.sps.data.Job;
+import com.google.sps.data.ScheduledInterview;
+import com.google.sps.data.TimeRange;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class BookingStatsServletTest {
+  LocalServiceTestHelper helper = new LocalServiceTestHelper(new LocalUserServiceTestConfig());
+  private BookingStats bookingStats;
+  private BookingStatsServlet servlet;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    bookingStats = new BookingStats(new FakeCounterDao());
+    servlet = new BookingStatsServlet();
+    servlet.init(bookingStats, Clock.fixed(Instant.parse("2020-07-08T12:00:00Z"), ZoneOffset.UTC));
+    bookingStats.record(
+        ImmutableList.of(),
+        ImmutableList.of(
+            ScheduledInterview.create(
+                1,
+                new TimeRange(
+                    Instant.parse("2020-07-06T16:00:00Z"), Instant.parse("2020-07-06T17:00:00Z")),
+                emailToId("ian@company.org"),
+                emailToId("eve@mail.com"),
+                "meet_link",
+                Job.SOFTWARE_ENGINEER,
+                /*shadowId=*/ "")));
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // An interviewer reads their own count for the current week by default.
+  @Test
+  public void interviewerReadsOwnWeek() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("ian@company.org").setEnvAuthDomain("auth");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(new MockHttpServletRequest(), response);
+    Assert.assertEquals(200, response.getStatus());
+    Assert.assertTrue(response.getContentAsString().contains("\"interviews\":1"));
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("date", "2020-07-13");
+    response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertTrue(response.getContentAsString().contains("\"interviews\":0"));
+  }
+
+  // Only admins may read another interviewer's count or a position's.
+  @Test
+  public void othersCountsNeedAdmin() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("eve@mail.com").setEnvAuthDomain("auth");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("interviewer", emailToId("ian@company.org"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(403, response.getStatus());
+
+    request = new MockHttpServletRequest();
+    request.addParameter("position", Job.SOFTWARE_ENGINEER.name());
+    response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(403, response.getStatus());
+
+    helper.setEnvIsAdmin(true);
+    request = new MockHttpServletRequest();
+    request.addParameter("position", Job.SOFTWARE_ENGINEER.name());
+    request.addParameter("date", "2020-07-06");
+    response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(200, response.getStatus());
+    Assert.assertTrue(response.getContentAsString().contains("\"interviews\":1"));
+  }
+
+  private static String emailToId(String email) {
+    return String.format("%d", email.hashCode());
+  }
+}
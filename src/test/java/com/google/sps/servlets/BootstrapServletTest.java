@@ -0,0 +1,127 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalUserServiceTestConfig;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.sps.data.FakePersonDao;
+import com.google.sps.data.Job;
+import com.google.sps.data.Person;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class BootstrapServletTest {
+  LocalServiceTestHelper helper = new LocalServiceTestHelper(new LocalUserServiceTestConfig());
+  private FakePersonDao personDao;
+  private BootstrapServlet servlet;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    personDao = new FakePersonDao();
+    servlet = new BootstrapServlet();
+    servlet.init(personDao);
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  @Test
+  public void loggedOutUserGetsLoginOnly() throws IOException {
+    helper.setEnvIsLoggedIn(false);
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("view", "scheduled-interviews");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+
+    JsonObject bootstrap = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    Assert.assertFalse(bootstrap.getAsJsonObject("login").get("loggedIn").getAsBoolean());
+    Assert.assertFalse(bootstrap.has("person"));
+    Assert.assertFalse(bootstrap.has("view"));
+    Assert.assertTrue(response.getIncludedUrls().isEmpty());
+  }
+
+  // A registered user gets their login, their Person and the view in one response.
+  @Test
+  public void registeredUserGetsPersonAndView() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@gmail.com").setEnvAuthDomain("auth");
+    personDao.create(
+        Person.create(
+            emailToId("user@gmail.com"),
+            "user@gmail.com",
+            "User",
+            "Name",
+            "Google",
+            "SWE",
+            "",
+            EnumSet.of(Job.SOFTWARE_ENGINEER),
+            true));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("view", "scheduled-interviews");
+    request.addParameter("timeZone", "Etc/UCT");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+
+    JsonObject bootstrap = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    Assert.assertTrue(bootstrap.getAsJsonObject("login").get("loggedIn").getAsBoolean());
+    Assert.assertEquals("User", bootstrap.getAsJsonObject("person").get("firstName").getAsString());
+    Assert.assertEquals(200, bootstrap.get("viewStatus").getAsInt());
+    Assert.assertTrue(bootstrap.has("view"));
+    Assert.assertEquals(Arrays.asList("/scheduled-interviews"), response.getIncludedUrls());
+  }
+
+  // Unregistered users are sent to registration, so they don't get the view.
+  @Test
+  public void unregisteredUserGetsNoView() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@gmail.com").setEnvAuthDomain("auth");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("view", "availability");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+
+    JsonObject bootstrap = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    Assert.assertTrue(bootstrap.getAsJsonObject("login").get("loggedIn").getAsBoolean());
+    Assert.assertFalse(bootstrap.has("person"));
+    Assert.assertFalse(bootstrap.has("view"));
+  }
+
+  @Test
+  public void unknownViewRejected() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@gmail.com").setEnvAuthDomain("auth");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("view", "/snapshot");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(400, response.getStatus());
+  }
+
+  private static String emailToId(String email) {
+    return String.format("%d", email.hashCode());
+  }
+}
@@ -0,0 +1,138 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalUserServiceTestConfig;
+import com.google.sps.data.FakePersonDao;
+import com.google.sps.data.Job;
+import com.google.sps.data.Person;
+import java.util.EnumSet;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+/** Tests CurrentUser. */
+@RunWith(JUnit4.class)
+public final class CurrentUserTest {
+  private LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalUserServiceTestConfig());
+  private CountingPersonDao personDao;
+  private MockHttpSession session;
+  private String userId;
+
+  // Counts how often a profile is read, to tell cached reads apart.
+  private static class CountingPersonDao extends FakePersonDao {
+    int reads = 0;
+
+    @Override
+    public Optional<Person> get(String id) {
+      reads++;
+      return super.get(id);
+    }
+  }
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@gmail.com").setEnvAuthDomain("auth");
+    personDao = new CountingPersonDao();
+    session = new MockHttpSession();
+    userId = String.format("%d", "user@gmail.com".hashCode());
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // The local user service has no user ids, so the email's hash code stands in for one.
+  @Test
+  public void resolvesSignedInUser() {
+    CurrentUser currentUser = CurrentUser.of(new MockHttpServletRequest());
+    Assert.assertTrue(currentUser.isLoggedIn());
+    Assert.assertFalse(currentUser.isAdmin());
+    Assert.assertEquals("user@gmail.com", currentUser.email());
+    Assert.assertEquals(userId, currentUser.userId());
+  }
+
+  // The user is resolved once and then shared by everything handling the request.
+  @Test
+  public void resolvedOncePerRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    Assert.assertSame(CurrentUser.of(request), CurrentUser.of(request));
+  }
+
+  @Test
+  public void signedOutUserHasNoId() {
+    helper.setEnvIsLoggedIn(false);
+    CurrentUser currentUser = CurrentUser.of(new MockHttpServletRequest());
+    Assert.assertFalse(currentUser.isLoggedIn());
+    Assertions.assertThrows(IllegalStateException.class, () -> currentUser.userId());
+  }
+
+  // Requests in the same session read the profile once, including when there isn't one yet.
+  @Test
+  public void profileKeptInSession() {
+    Assert.assertEquals(Optional.empty(), profile());
+    personDao.create(person());
+    Assert.assertEquals(Optional.empty(), profile());
+    Assert.assertEquals(1, personDao.reads);
+  }
+
+  // A changed profile is read again once the old copy is forgotten.
+  @Test
+  public void forgottenProfileReadAgain() {
+    profile();
+    personDao.create(person());
+    MockHttpServletRequest request = request();
+    CurrentUser.forgetProfile(request);
+    Assert.assertEquals(Optional.of(person()), CurrentUser.of(request).profile(request, personDao));
+    Assert.assertEquals(2, personDao.reads);
+  }
+
+  // A session's profile is never handed to a different user.
+  @Test
+  public void otherUsersProfileNotShared() {
+    personDao.create(person());
+    profile();
+    helper.setEnvEmail("other@gmail.com");
+    Assert.assertEquals(Optional.empty(), profile());
+    Assert.assertEquals(2, personDao.reads);
+  }
+
+  private Optional<Person> profile() {
+    MockHttpServletRequest request = request();
+    return CurrentUser.of(request).profile(request, personDao);
+  }
+
+  private MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+    return request;
+  }
+
+  private Person person() {
+    return Person.create(
+        userId, "user@gmail.com", "User", "Name", "", "", "", EnumSet.noneOf(Job.class), true);
+  }
+}
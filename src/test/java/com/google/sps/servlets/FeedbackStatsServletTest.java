@@ -0,0 +1,113 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.appengine.tools.development.testing.LocalUserServiceTestConfig;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.sps.data.FakeCounterDao;
+import com.google.sps.data.Feedback;
+import com.google.sps.data.FeedbackKind;
+import com.google.sps.data.FeedbackStats;
+import com.google.sps.data.Job;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class FeedbackStatsServletTest {
+  LocalServiceTestHelper helper = new LocalServiceTestHelper(new LocalUserServiceTestConfig());
+  private FeedbackStats feedbackStats;
+  private FeedbackStatsServlet servlet;
+
+  @Before
+  public void setUp() {
+    helper.setUp();
+    feedbackStats = new FeedbackStats(new FakeCounterDao());
+    servlet = new FeedbackStatsServlet();
+    servlet.init(feedbackStats);
+    Map<String, String> answers = new HashMap<String, String>();
+    answers.put("{{question_1}}", "Strongly Agree");
+    feedbackStats.record(
+        Feedback.create(
+            FeedbackKind.TO_INTERVIEWER,
+            1,
+            emailToId("eve@mail.com"),
+            emailToId("ian@company.org"),
+            "ian@company.org",
+            answers,
+            Instant.parse("2020-07-07T16:00:00Z")),
+        Job.SOFTWARE_ENGINEER);
+  }
+
+  @After
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  // An interviewer reads the summary of their own feedback by default.
+  @Test
+  public void interviewerReadsOwnSummary() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("ian@company.org").setEnvAuthDomain("auth");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(new MockHttpServletRequest(), response);
+    Assert.assertEquals(200, response.getStatus());
+    JsonObject summary = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    Assert.assertEquals(1, summary.get("feedbackCount").getAsLong());
+    Assert.assertEquals(
+        5.0,
+        summary.getAsJsonObject("questions").getAsJsonObject("1").get("averageScore").getAsDouble(),
+        1e-9);
+  }
+
+  // Only admins may read another interviewer's summary or a position's.
+  @Test
+  public void othersSummariesNeedAdmin() throws IOException {
+    helper.setEnvIsLoggedIn(true).setEnvEmail("eve@mail.com").setEnvAuthDomain("auth");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addParameter("interviewer", emailToId("ian@company.org"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(403, response.getStatus());
+
+    request = new MockHttpServletRequest();
+    request.addParameter("position", Job.SOFTWARE_ENGINEER.name());
+    response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(403, response.getStatus());
+
+    helper.setEnvIsAdmin(true);
+    request = new MockHttpServletRequest();
+    request.addParameter("position", Job.SOFTWARE_ENGINEER.name());
+    response = new MockHttpServletResponse();
+    servlet.doGet(request, response);
+    Assert.assertEquals(200, response.getStatus());
+    Assert.assertTrue(response.getContentAsString().contains("\"feedbackCount\":1"));
+  }
+
+  private static String emailToId(String email) {
+    return String.format("%d", email.hashCode());
+  }
+}
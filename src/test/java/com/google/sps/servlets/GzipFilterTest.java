@@ -0,0 +1,101 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class GzipFilterTest {
+  private static final String LARGE_JSON =
+      "{\"padding\":\"" + Strings.repeat("x", GzipFilter.MIN_GZIP_BYTES) + "\"}";
+
+  @Test
+  public void largeJsonCompressed() throws IOException, ServletException {
+    MockHttpServletResponse response = filter(jsonServlet(LARGE_JSON), "gzip, deflate");
+    Assert.assertEquals("gzip", response.getHeader("Content-Encoding"));
+    Assert.assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    byte[] body =
+        ByteStreams.toByteArray(
+            new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+    Assert.assertEquals(LARGE_JSON, new String(body, "ISO-8859-1"));
+  }
+
+  // Compressing a few bytes costs more than it saves.
+  @Test
+  public void smallJsonSentAsItIs() throws IOException, ServletException {
+    MockHttpServletResponse response = filter(jsonServlet("{}"), "gzip");
+    Assert.assertNull(response.getHeader("Content-Encoding"));
+    Assert.assertEquals("{}", response.getContentAsString());
+  }
+
+  @Test
+  public void notCompressedWithoutAcceptEncoding() throws IOException, ServletException {
+    MockHttpServletResponse response = filter(jsonServlet(LARGE_JSON), null);
+    Assert.assertNull(response.getHeader("Content-Encoding"));
+    Assert.assertEquals(LARGE_JSON, response.getContentAsString());
+  }
+
+  @Test
+  public void errorsPassedThrough() throws IOException, ServletException {
+    HttpServlet servlet =
+        new HttpServlet() {
+          @Override
+          public void doGet(HttpServletRequest request, HttpServletResponse response)
+              throws IOException {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+          }
+        };
+    MockHttpServletResponse response = filter(servlet, "gzip");
+    Assert.assertEquals(HttpServletResponse.SC_FORBIDDEN, response.getStatus());
+    Assert.assertNull(response.getHeader("Content-Encoding"));
+  }
+
+  private static MockHttpServletResponse filter(HttpServlet servlet, String acceptEncoding)
+      throws IOException, ServletException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bootstrap");
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new GzipFilter().doFilter(request, response, new MockFilterChain(servlet));
+    return response;
+  }
+
+  private static HttpServlet jsonServlet(String json) {
+    return new HttpServlet() {
+      @Override
+      public void doGet(HttpServletRequest request, HttpServletResponse response)
+          throws IOException {
+        response.setContentType("application/json;");
+        response.getWriter().print(json);
+      }
+    };
+  }
+}
@@ -25,19 +25,25 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
-import com.google.sps.data.FakeEmailSender;
+import com.google.sps.data.FakeCounterDao;
+import com.google.sps.data.FakeFeedbackDao;
+import com.google.sps.data.Feedback;
+import com.google.sps.data.FeedbackKind;
+import com.google.sps.data.FeedbackStats;
 import com.google.sps.data.FakeScheduledInterviewDao;
 import com.google.sps.data.FakePersonDao;
 import com.google.sps.data.Job;
+import com.google.sps.data.Person;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.TimeRange;
 import com.google.sps.servlets.IntervieweeFeedbackServlet;
-import com.sendgrid.helpers.mail.objects.Email;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import org.junit.After;
 import org.junit.Assert;
@@ -56,7 +62,7 @@ public final class IntervieweeFeedbackServletTest {
       new LocalServiceTestHelper(new LocalCapabilitiesServiceTestConfig());
   private FakeScheduledInterviewDao scheduledInterviewDao;
   private FakePersonDao personDao;
-  private FakeEmailSender emailSender;
+  private FakeFeedbackDao feedbackDao;
   private final ScheduledInterview scheduledInterview =
       ScheduledInterview.create(
           /*id=*/ (long) -1,
@@ -71,11 +77,7 @@ public final class IntervieweeFeedbackServletTest {
   @Before
   public void setUp() {
     helper.setUp();
-    try {
-      emailSender = new FakeEmailSender(new Email("interviewme.business@gmail.com"));
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    feedbackDao = new FakeFeedbackDao();
     scheduledInterviewDao = new FakeScheduledInterviewDao();
     personDao = new FakePersonDao();
   }
@@ -89,7 +91,12 @@ public final class IntervieweeFeedbackServletTest {
   @Test
   public void interviewIdDoesNotExist() throws IOException {
     IntervieweeFeedbackServlet intervieweeFeedbackServlet = new IntervieweeFeedbackServlet();
-    intervieweeFeedbackServlet.init(scheduledInterviewDao, personDao, emailSender);
+    intervieweeFeedbackServlet.init(
+        scheduledInterviewDao,
+        personDao,
+        feedbackDao,
+        new FeedbackStats(new FakeCounterDao()),
+        Clock.systemUTC());
     scheduledInterviewDao.create(scheduledInterview);
     MockHttpServletRequest postRequest = new MockHttpServletRequest();
     MockHttpServletResponse postResponse = new MockHttpServletResponse();
@@ -105,7 +112,12 @@ public final class IntervieweeFeedbackServletTest {
   public void invalidUser() throws IOException {
     IntervieweeFeedbackServlet intervieweeFeedbackServlet = new IntervieweeFeedbackServlet();
     helper.setEnvIsLoggedIn(true).setEnvEmail("user@mail.com").setEnvAuthDomain("auth");
-    intervieweeFeedbackServlet.init(scheduledInterviewDao, personDao, emailSender);
+    intervieweeFeedbackServlet.init(
+        scheduledInterviewDao,
+        personDao,
+        feedbackDao,
+        new FeedbackStats(new FakeCounterDao()),
+        Clock.systemUTC());
     scheduledInterviewDao.create(scheduledInterview);
     List<ScheduledInterview> scheduledInterviews =
         scheduledInterviewDao.getForPerson(emailToId("user@mail.com"));
@@ -117,6 +129,49 @@ public final class IntervieweeFeedbackServletTest {
     Assert.assertEquals(401, postResponse.getStatus());
   }
 
+  // Tests that feedback is stored for the interviewee and the interviewer redirected before it is
+  // emailed.
+  @Test
+  public void storesFeedbackForDelivery() throws IOException {
+    IntervieweeFeedbackServlet intervieweeFeedbackServlet = new IntervieweeFeedbackServlet();
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@company.org").setEnvAuthDomain("auth");
+    intervieweeFeedbackServlet.init(
+        scheduledInterviewDao,
+        personDao,
+        feedbackDao,
+        new FeedbackStats(new FakeCounterDao()),
+        Clock.systemUTC());
+    scheduledInterviewDao.create(scheduledInterview);
+    personDao.create(
+        Person.create(
+            emailToId("user@mail.com"),
+            "user@mail.com",
+            "First",
+            "Last",
+            "",
+            "",
+            "",
+            EnumSet.noneOf(Job.class),
+            false));
+    long id = scheduledInterviewDao.getForPerson(emailToId("user@mail.com")).get(0).id();
+    MockHttpServletRequest postRequest = new MockHttpServletRequest();
+    MockHttpServletResponse postResponse = new MockHttpServletResponse();
+    postRequest.addParameter("interviewId", String.valueOf(id));
+    postRequest.addParameter("questionCount", "11");
+    postRequest.addParameter("question1", "Great communication");
+    intervieweeFeedbackServlet.doPost(postRequest, postResponse);
+    Assert.assertEquals("/scheduled-interviews.html", postResponse.getRedirectedUrl());
+
+    List<Feedback> due = feedbackDao.getDue(Instant.now(), 10);
+    Assert.assertEquals(1, due.size());
+    Feedback feedback = due.get(0);
+    Assert.assertEquals(FeedbackKind.TO_INTERVIEWEE, feedback.kind());
+    Assert.assertEquals("user@mail.com", feedback.recipientEmail());
+    Assert.assertEquals(emailToId("user@company.org"), feedback.authorId());
+    Assert.assertEquals("Great communication", feedback.answers().get("{{question_1}}"));
+    Assert.assertEquals("", feedback.answers().get("{{question_2}}"));
+  }
+
   private String emailToId(String email) {
     return String.format("%d", email.hashCode());
   }
@@ -25,17 +25,19 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
-import com.google.sps.data.FakeEmailSender;
+import com.google.sps.data.FakeCounterDao;
+import com.google.sps.data.FakeFeedbackDao;
 import com.google.sps.data.FakeScheduledInterviewDao;
+import com.google.sps.data.FeedbackStats;
 import com.google.sps.data.FakePersonDao;
 import com.google.sps.data.Job;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.TimeRange;
 import com.google.sps.servlets.InterviewerFeedbackServlet;
-import com.sendgrid.helpers.mail.objects.Email;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -56,7 +58,7 @@ public final class InterviewerFeedbackServletTest {
       new LocalServiceTestHelper(new LocalCapabilitiesServiceTestConfig());
   private FakeScheduledInterviewDao scheduledInterviewDao;
   private FakePersonDao personDao;
-  private FakeEmailSender emailSender;
+  private FakeFeedbackDao feedbackDao;
   private final ScheduledInterview scheduledInterview =
       ScheduledInterview.create(
           /*id=*/ (long) -1,
@@ -71,11 +73,7 @@ public final class InterviewerFeedbackServletTest {
   @Before
   public void setUp() {
     helper.setUp();
-    try {
-      emailSender = new FakeEmailSender(new Email("interviewme.business@gmail.com"));
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    feedbackDao = new FakeFeedbackDao();
     scheduledInterviewDao = new FakeScheduledInterviewDao();
     personDao = new FakePersonDao();
   }
@@ -90,7 +88,12 @@ public final class InterviewerFeedbackServletTest {
   public void interviewIdDoesNotExist() throws IOException {
     InterviewerFeedbackServlet interviewerFeedbackServlet = new InterviewerFeedbackServlet();
     helper.setEnvIsLoggedIn(true).setEnvEmail("user@company.org").setEnvAuthDomain("auth");
-    interviewerFeedbackServlet.init(scheduledInterviewDao, personDao, emailSender);
+    interviewerFeedbackServlet.init(
+        scheduledInterviewDao,
+        personDao,
+        feedbackDao,
+        new FeedbackStats(new FakeCounterDao()),
+        Clock.systemUTC());
     scheduledInterviewDao.create(scheduledInterview);
     MockHttpServletRequest postRequest = new MockHttpServletRequest();
     MockHttpServletResponse postResponse = new MockHttpServletResponse();
@@ -105,7 +108,12 @@ public final class InterviewerFeedbackServletTest {
   public void invalidUser() throws IOException {
     InterviewerFeedbackServlet interviewerFeedbackServlet = new InterviewerFeedbackServlet();
     helper.setEnvIsLoggedIn(true).setEnvEmail("user@company.org").setEnvAuthDomain("auth");
-    interviewerFeedbackServlet.init(scheduledInterviewDao, personDao, emailSender);
+    interviewerFeedbackServlet.init(
+        scheduledInterviewDao,
+        personDao,
+        feedbackDao,
+        new FeedbackStats(new FakeCounterDao()),
+        Clock.systemUTC());
     scheduledInterviewDao.create(scheduledInterview);
     List<ScheduledInterview> scheduledInterviews =
         scheduledInterviewDao.getForPerson(emailToId("user@company.org"));
@@ -31,13 +31,17 @@ import com.google.sps.data.Person;
 import com.google.sps.data.PossibleInterviewSlot;
 import com.google.sps.data.ScheduledInterview;
 import com.google.sps.data.TimeRange;
+import com.google.sps.utils.TokenBucketLimiter;
 import java.io.IOException;
 import javax.servlet.ServletException;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -456,4 +460,74 @@ public final class LoadInterviewsServletTest {
     expected.add(day);
     Assert.assertEquals(expected, possibleInterviewSlots);
   }
+
+  // Searches past the user's limit are turned away with a hint of when to try again.
+  @Test
+  public void searchesOverLimitRejected() throws IOException {
+    Instant now = Instant.parse("2020-07-07T13:15:00Z");
+    LoadInterviewsServlet servlet = new LoadInterviewsServlet();
+    servlet.init(
+        availabilityDao,
+        scheduledInterviewDao,
+        personDao,
+        now,
+        new TokenBucketLimiter(
+            Clock.fixed(now, ZoneOffset.UTC), /*capacity=*/ 2, /*tokensPerSecond=*/ 0.5));
+    helper.setEnvIsLoggedIn(true).setEnvEmail("person@gmail.com").setEnvAuthDomain("auth");
+    List<MockHttpServletResponse> responses = new ArrayList<MockHttpServletResponse>();
+    for (int i = 0; i < 3; i++) {
+      MockHttpServletRequest getRequest = new MockHttpServletRequest();
+      getRequest.addParameter("timeZoneOffset", "0");
+      getRequest.addParameter("position", "SOFTWARE_ENGINEER");
+      MockHttpServletResponse getResponse = new MockHttpServletResponse();
+      servlet.doGet(getRequest, getResponse);
+      responses.add(getResponse);
+    }
+
+    Assert.assertEquals(200, responses.get(1).getStatus());
+    Assert.assertEquals(429, responses.get(2).getStatus());
+    Assert.assertEquals("2", responses.get(2).getHeader("Retry-After"));
+  }
+
+  // Interviewees searching the same position share one search for interviewers, and each still
+  // gets results filtered for them.
+  @Test
+  public void searchSharedBetweenUsers() throws IOException {
+    CountingAvailabilityDao countingDao = new CountingAvailabilityDao();
+    LoadInterviewsServlet servlet = new LoadInterviewsServlet();
+    servlet.init(
+        countingDao, scheduledInterviewDao, personDao, Instant.parse("2020-07-07T13:15:00Z"));
+    personDao.create(qualifiedSWEAndNE);
+    personDao.create(qualifiedSWE);
+    countingDao.create(qualifiedSWEAndNEAvail1);
+    countingDao.create(qualifiedSWEAndNEAvail2);
+    countingDao.create(qualifiedSWEAndNEAvail3);
+    countingDao.create(qualifiedSWEAndNEAvail4);
+
+    helper.setEnvIsLoggedIn(true).setEnvEmail("person@gmail.com").setEnvAuthDomain("auth");
+    MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+    otherRequest.addParameter("timeZoneOffset", "0");
+    otherRequest.addParameter("position", "SOFTWARE_ENGINEER");
+    servlet.doGet(otherRequest, new MockHttpServletResponse());
+    // The interviewer searching for an interview of their own isn't offered their own hour.
+    helper.setEnvEmail(qualifiedSWEAndNEEmail);
+    MockHttpServletRequest selfRequest = new MockHttpServletRequest();
+    selfRequest.addParameter("timeZoneOffset", "0");
+    selfRequest.addParameter("position", "SOFTWARE_ENGINEER");
+    servlet.doGet(selfRequest, new MockHttpServletResponse());
+
+    Assert.assertEquals(1, countingDao.usersAvailableQueries);
+    Assert.assertEquals(1, ((List<?>) otherRequest.getAttribute("monthList")).size());
+    Assert.assertEquals(0, ((List<?>) selfRequest.getAttribute("monthList")).size());
+  }
+
+  private static class CountingAvailabilityDao extends FakeAvailabilityDao {
+    private int usersAvailableQueries = 0;
+
+    @Override
+    public Set<String> getUsersAvailableInRange(Instant minTime, Instant maxTime) {
+      usersAvailableQueries++;
+      return super.getUsersAvailableInRange(minTime, maxTime);
+    }
+  }
 }
@@ -43,10 +43,13 @@ import org.junit.Test;
 import com.google.gson.JsonSyntaxException;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import javax.servlet.ServletException;
 
@@ -345,4 +348,103 @@ public final class ShowInterviewersServletTest {
     expected.add(googleNEDetails);
     Assert.assertEquals(expected, actual);
   }
+
+  // The number of reads made to show the interviewers for an hour doesn't grow with the number of
+  // people available then.
+  @Test
+  public void readsDoNotGrowWithInterviewers() throws IOException {
+    CountingAvailabilityDao countingAvailabilityDao = new CountingAvailabilityDao();
+    CountingPersonDao countingPersonDao = new CountingPersonDao();
+    ShowInterviewersServlet servlet = new ShowInterviewersServlet();
+    servlet.init(countingAvailabilityDao, countingPersonDao);
+    helper.setEnvIsLoggedIn(true).setEnvEmail("user@gmail.com").setEnvAuthDomain("auth");
+
+    addFreeInterviewer(countingAvailabilityDao, countingPersonDao, 0);
+    showInterviewers(servlet);
+    int readsForOne = countingAvailabilityDao.reads + countingPersonDao.reads;
+    for (int i = 1; i < 10; i++) {
+      addFreeInterviewer(countingAvailabilityDao, countingPersonDao, i);
+    }
+    countingAvailabilityDao.reads = 0;
+    countingPersonDao.reads = 0;
+    Set<PossibleInterviewer> shown = showInterviewers(servlet);
+
+    Assert.assertEquals(10, shown.size());
+    Assert.assertEquals(readsForOne, countingAvailabilityDao.reads + countingPersonDao.reads);
+  }
+
+  private Set<PossibleInterviewer> showInterviewers(ShowInterviewersServlet servlet)
+      throws IOException {
+    MockHttpServletRequest getRequest = new MockHttpServletRequest();
+    getRequest.addParameter("utcStartTime", "2020-07-07T13:30:00Z");
+    getRequest.addParameter("position", "SOFTWARE_ENGINEER");
+    servlet.doGet(getRequest, new MockHttpServletResponse());
+    return (Set<PossibleInterviewer>) getRequest.getAttribute("interviewers");
+  }
+
+  // Adds a software engineer at their own company who is free from 1:30 PM to 2:30 PM.
+  private static void addFreeInterviewer(
+      FakeAvailabilityDao availabilityDao, FakePersonDao personDao, int number) {
+    String id = "interviewer" + number;
+    personDao.create(
+        Person.create(
+            id,
+            id + "@mail",
+            "First",
+            "Last",
+            "Company" + number,
+            "SWE",
+            "linkedIn",
+            EnumSet.of(Job.SOFTWARE_ENGINEER),
+            /*okShadow=*/ true));
+    Instant start = Instant.parse("2020-07-07T13:30:00Z");
+    for (int i = 0; i < 4; i++) {
+      availabilityDao.create(
+          Availability.create(
+              id,
+              new TimeRange(start.plusSeconds(900 * i), start.plusSeconds(900 * (i + 1))),
+              /*id=*/ -1,
+              /*scheduled=*/ false));
+    }
+  }
+
+  // Counts every availability query made by the servlet.
+  private static class CountingAvailabilityDao extends FakeAvailabilityDao {
+    int reads = 0;
+
+    @Override
+    public List<Availability> getInRangeForUser(String userId, Instant minTime, Instant maxTime) {
+      reads++;
+      return super.getInRangeForUser(userId, minTime, maxTime);
+    }
+
+    @Override
+    public Set<String> getUsersAvailableInRange(Instant minTime, Instant maxTime) {
+      reads++;
+      return super.getUsersAvailableInRange(minTime, maxTime);
+    }
+
+    @Override
+    public Set<String> getUsersFreeThroughout(Instant minTime, Instant maxTime) {
+      reads++;
+      return super.getUsersFreeThroughout(minTime, maxTime);
+    }
+  }
+
+  // Counts every Person read, whether of one person or a batch.
+  private static class CountingPersonDao extends FakePersonDao {
+    int reads = 0;
+
+    @Override
+    public Optional<Person> get(String id) {
+      reads++;
+      return super.get(id);
+    }
+
+    @Override
+    public Map<String, Person> getAll(Collection<String> ids) {
+      reads++;
+      return super.getAll(ids);
+    }
+  }
 }
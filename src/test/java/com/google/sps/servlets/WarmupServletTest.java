@@ -0,0 +1,77 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class WarmupServletTest {
+  @Test
+  public void runsStepsInOrderAndReportsTheirTimes() throws IOException {
+    List<String> ran = new ArrayList<String>();
+    WarmupServlet warmupServlet = new WarmupServlet();
+    warmupServlet.init(
+        ImmutableMap.of("first", () -> ran.add("first"), "second", () -> ran.add("second")));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    warmupServlet.doGet(new MockHttpServletRequest(), response);
+
+    Assert.assertEquals(ImmutableList.of("first", "second"), ran);
+    Assert.assertEquals(200, response.getStatus());
+    JsonObject timings = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    JsonObject steps = timings.getAsJsonObject("stepsMs");
+    Assert.assertEquals(ImmutableList.of("first", "second"), ImmutableList.copyOf(steps.keySet()));
+    Assert.assertTrue(timings.get("totalMs").getAsDouble() >= 0);
+    Assert.assertTrue(timings.get("sinceJvmStartMs").getAsLong() > 0);
+    Assert.assertEquals(0, timings.getAsJsonArray("failed").size());
+  }
+
+  // A failed step is built again on first use, so warm-up carries on and reports it.
+  @Test
+  public void failedStepDoesNotStopTheOthers() throws IOException {
+    List<String> ran = new ArrayList<String>();
+    WarmupServlet warmupServlet = new WarmupServlet();
+    warmupServlet.init(
+        ImmutableMap.of(
+            "secrets",
+            () -> {
+              throw new RuntimeException("Secret Manager is unavailable");
+            },
+            "templates",
+            () -> ran.add("templates")));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    warmupServlet.doGet(new MockHttpServletRequest(), response);
+
+    Assert.assertEquals(ImmutableList.of("templates"), ran);
+    Assert.assertEquals(200, response.getStatus());
+    JsonObject timings = new JsonParser().parse(response.getContentAsString()).getAsJsonObject();
+    Assert.assertEquals(1, timings.getAsJsonArray("failed").size());
+    Assert.assertEquals("secrets", timings.getAsJsonArray("failed").get(0).getAsString());
+    Assert.assertTrue(timings.getAsJsonObject("stepsMs").has("secrets"));
+  }
+}
@@ -0,0 +1,138 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class AssetPipelineTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  // Pages are pointed at minified, fingerprinted copies of their own assets and nothing else.
+  @Test
+  public void fingerprintsAssetsAndRewritesPages() throws IOException {
+    Path webapp = folder.newFolder("webapp").toPath();
+    write(
+        webapp.resolve("index.html"),
+        "<link rel=\"stylesheet\" href=\"style.css\">\n"
+            + "<script src=\"https://code.jquery.com/jquery.js\"></script>\n"
+            + "<script src=\"app.js\"></script>\n"
+            + "<a href=\"/profile.html\">Profile</a>\n");
+    write(webapp.resolve("app.js"), "// Says hello.\nfunction hello() {\n  return 1;\n}\n");
+    write(webapp.resolve("style.css"), "body {\n  margin: 0;\n}\n");
+    Files.createDirectories(webapp.resolve("WEB-INF"));
+    write(webapp.resolve("WEB-INF/appengine-web.xml"), "<appengine-web-app/>\n");
+    Path output = folder.getRoot().toPath().resolve("output");
+
+    ImmutableMap<String, String> assets = AssetPipeline.run(webapp, output);
+
+    String js = assets.get("/app.js");
+    String css = assets.get("/style.css");
+    Assert.assertEquals(2, assets.size());
+    Assert.assertTrue(js, js.matches("/assets/app\\.[0-9a-f]{10}\\.js"));
+    Assert.assertEquals(
+        "function hello() {\nreturn 1;\n}\n", read(output.resolve(js.substring(1))));
+    Assert.assertEquals("body{margin: 0}", read(output.resolve(css.substring(1))));
+    Assert.assertEquals(
+        String.format(
+            "<link rel=\"stylesheet\" href=\"%s\">\n"
+                + "<script src=\"https://code.jquery.com/jquery.js\"></script>\n"
+                + "<script src=\"%s\"></script>\n"
+                + "<a href=\"/profile.html\">Profile</a>\n",
+            css, js),
+        read(output.resolve("index.html")));
+    // Everything else is copied as it is.
+    Assert.assertEquals(
+        "<appengine-web-app/>\n", read(output.resolve("WEB-INF/appengine-web.xml")));
+    Assert.assertEquals(read(webapp.resolve("app.js")), read(output.resolve("app.js")));
+  }
+
+  // An asset's name only changes when its contents do.
+  @Test
+  public void fingerprintFollowsContents() {
+    Assert.assertEquals(
+        AssetPipeline.fingerprint("/app.js", "a"), AssetPipeline.fingerprint("/app.js", "a"));
+    Assert.assertNotEquals(
+        AssetPipeline.fingerprint("/app.js", "a"), AssetPipeline.fingerprint("/app.js", "b"));
+  }
+
+  @Test
+  public void referencesResolvedRelativeToPage() {
+    ImmutableMap<String, String> assets = ImmutableMap.of("/js/app.js", "/assets/js/app.1.js");
+    Assert.assertEquals(
+        "<script src=\"/assets/js/app.1.js\"></script>",
+        AssetPipeline.rewriteReferences(
+            "/pages/index.html", "<script src=\"../js/app.js\"></script>", assets));
+    Assert.assertEquals(
+        "<script src=\"app.js\"></script>",
+        AssetPipeline.rewriteReferences(
+            "/pages/index.html", "<script src=\"app.js\"></script>", assets));
+  }
+
+  // Comments and indentation go, but the contents of template literals are left alone.
+  @Test
+  public void minifyJsKeepsTemplateLiterals() {
+    String source =
+        "/**\n"
+            + " * Loads the page.\n"
+            + " */\n"
+            + "function load() {\n"
+            + "  // Fetch the cards.\n"
+            + "  const url = `/cards?a=${a}`; // Trailing comments stay.\n"
+            + "  const html = `\n"
+            + "    <div>\n"
+            + "      // Not a comment.\n"
+            + "    </div>`;\n"
+            + "\n"
+            + "  return html;\n"
+            + "}\n";
+    Assert.assertEquals(
+        "function load() {\n"
+            + "const url = `/cards?a=${a}`; // Trailing comments stay.\n"
+            + "const html = `\n"
+            + "    <div>\n"
+            + "      // Not a comment.\n"
+            + "    </div>`;\n"
+            + "return html;\n"
+            + "}\n",
+        AssetPipeline.minifyJs(source));
+  }
+
+  @Test
+  public void minifyCss() {
+    Assert.assertEquals(
+        ".a,.b{color: red}.c{margin: 0 auto}",
+        AssetPipeline.minifyCss(
+            "/* Cards. */\n.a, .b {\n  color: red;\n}\n\n.c {\n  margin: 0 auto;\n}\n"));
+  }
+
+  private static void write(Path file, String contents) throws IOException {
+    Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class EmailTemplateTest {
+
+  @Test
+  public void rendersEveryPlaceholder() {
+    EmailTemplate template =
+        EmailTemplate.parse("test", "Hi {{name}}, see you on {{date}}. Bye {{name}}!");
+    String rendered =
+        template.render(ImmutableMap.of("{{name}}", "Tess", "{{date}}", "June 6, 2022"));
+    Assert.assertEquals("Hi Tess, see you on June 6, 2022. Bye Tess!", rendered);
+  }
+
+  // Values are inserted once, so one that looks like a placeholder is left alone.
+  @Test
+  public void valuesAreNotRenderedAgain() {
+    EmailTemplate template = EmailTemplate.parse("test", "{{first}} and {{second}}");
+    String rendered =
+        template.render(ImmutableMap.of("{{first}}", "{{second}}", "{{second}}", "two"));
+    Assert.assertEquals("{{second}} and two", rendered);
+  }
+
+  @Test
+  public void placeholderWithoutValueIsLeft() {
+    EmailTemplate template = EmailTemplate.parse("test", "{{first}} and {{second}}");
+    Assert.assertEquals("one and {{second}}", template.render(ImmutableMap.of("{{first}}", "one")));
+  }
+
+  @Test
+  public void textWithoutPlaceholders() {
+    EmailTemplate template = EmailTemplate.parse("test", "Nothing to fill in.\n");
+    Assert.assertEquals(ImmutableSet.of(), template.placeholders());
+    Assert.assertEquals("Nothing to fill in.\n", template.render(ImmutableMap.of()));
+  }
+
+  @Test
+  public void unfilledPlaceholderRejected() {
+    EmailTemplate template = EmailTemplate.parse("test", "{{first}} and {{second}}");
+    template.checkFilledBy(ImmutableSet.of("{{first}}", "{{second}}", "{{third}}"));
+    Assertions.assertThrows(
+        IllegalStateException.class, () -> template.checkFilledBy(ImmutableSet.of("{{first}}")));
+  }
+
+  // Every template on the classpath renders the same as replacing each placeholder in turn.
+  @Test
+  public void classpathTemplatesMatchReplacingInTurn() {
+    Assert.assertTrue(EmailTemplates.all().containsKey("NewInterview_Shadow.txt"));
+    for (EmailTemplate template : EmailTemplates.all().values()) {
+      Map<String, String> values = new HashMap<String, String>();
+      for (String placeholder : template.placeholders()) {
+        values.put(placeholder, "value of " + placeholder.replaceAll("[{}]", ""));
+      }
+      String expected = template.render(ImmutableMap.of());
+      for (Map.Entry<String, String> value : values.entrySet()) {
+        expected = expected.replace(value.getKey(), value.getValue());
+      }
+      Assert.assertEquals(template.name(), expected, template.render(values));
+    }
+  }
+
+  @Test
+  public void unknownTemplateRejected() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> EmailTemplates.get("NoSuchTemplate.txt"));
+  }
+}
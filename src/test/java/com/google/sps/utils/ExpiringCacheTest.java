@@ -0,0 +1,107 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ExpiringCacheTest {
+  private static final Duration TTL = Duration.ofSeconds(30);
+
+  private SettableClock clock;
+  private ExpiringCache<String, String> cache;
+  private AtomicInteger computations;
+
+  private static class SettableClock extends Clock {
+    private Instant now = Instant.parse("2020-07-07T12:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Before
+  public void setUp() {
+    clock = new SettableClock();
+    cache = new ExpiringCache<String, String>(clock, TTL, value -> !value.isEmpty());
+    computations = new AtomicInteger();
+  }
+
+  @Test
+  public void valueReusedUntilExpired() {
+    Assert.assertEquals("value1", cache.get("key", this::compute));
+    clock.advance(TTL.minusSeconds(1));
+    Assert.assertEquals("value1", cache.get("key", this::compute));
+    clock.advance(Duration.ofSeconds(1));
+    Assert.assertEquals("value2", cache.get("key", this::compute));
+    Assert.assertEquals(1, cache.hits());
+    Assert.assertEquals(2, cache.misses());
+  }
+
+  @Test
+  public void invalidateAllDropsValues() {
+    cache.get("key", this::compute);
+    cache.invalidateAll();
+    Assert.assertEquals("value2", cache.get("key", this::compute));
+  }
+
+  // A value computed while an invalidation happened may predate the change, so it isn't kept.
+  @Test
+  public void valueComputedDuringInvalidationNotKept() {
+    cache.get(
+        "key",
+        () -> {
+          cache.invalidateAll();
+          return compute();
+        });
+    Assert.assertEquals("value2", cache.get("key", this::compute));
+  }
+
+  @Test
+  public void uncacheableValueNotKept() {
+    Assert.assertEquals("", cache.get("key", () -> ""));
+    Assert.assertEquals("value1", cache.get("key", this::compute));
+    Assert.assertEquals("value1", cache.get("key", this::compute));
+  }
+
+  private String compute() {
+    return "value" + computations.incrementAndGet();
+  }
+}
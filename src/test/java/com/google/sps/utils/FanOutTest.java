@@ -0,0 +1,110 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class FanOutTest {
+  // Every read finishing in time means a complete result.
+  @Test
+  public void collectsAllResults() {
+    Map<String, Supplier<Integer>> reads = new LinkedHashMap<String, Supplier<Integer>>();
+    for (int i = 0; i < 20; i++) {
+      int value = i;
+      reads.put("read" + i, () -> value * value);
+    }
+    FanOut.Result<String, Integer> result =
+        FanOut.collect(reads, Clock.systemUTC(), Duration.ofSeconds(5));
+    Assert.assertFalse(result.isPartial());
+    Assert.assertEquals(20, result.results().size());
+    Assert.assertEquals(Integer.valueOf(49), result.results().get("read7"));
+  }
+
+  // Reads not yet waited on when the deadline passes are reported missing while the others are
+  // kept.
+  @Test
+  public void readsLeftOutAfterDeadline() {
+    SettableClock clock = new SettableClock(Instant.parse("2020-07-07T13:15:00Z"));
+    Map<String, Supplier<String>> reads = new LinkedHashMap<String, Supplier<String>>();
+    reads.put("fast", () -> "done");
+    reads.put(
+        "slow",
+        () -> {
+          clock.advanceMillis(10000);
+          return "late";
+        });
+    reads.put("after", () -> "never waited on");
+    FanOut.Result<String, String> result = FanOut.collect(reads, clock, Duration.ofSeconds(5));
+    Assert.assertEquals(ImmutableMap.of("fast", "done", "slow", "late"), result.results());
+    Assert.assertEquals(ImmutableSet.of("after"), result.missing());
+  }
+
+  // A read that throws is reported missing rather than failing the whole fan out.
+  @Test
+  public void failingReadLeftOut() {
+    Map<String, Supplier<String>> reads = new LinkedHashMap<String, Supplier<String>>();
+    reads.put("ok", () -> "done");
+    reads.put(
+        "broken",
+        () -> {
+          throw new IllegalStateException("query failed");
+        });
+    FanOut.Result<String, String> result =
+        FanOut.collect(reads, Clock.systemUTC(), Duration.ofSeconds(5));
+    Assert.assertEquals(ImmutableMap.of("ok", "done"), result.results());
+    Assert.assertEquals(ImmutableSet.of("broken"), result.missing());
+  }
+
+  private static class SettableClock extends Clock {
+    private Instant now;
+
+    SettableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advanceMillis(long millis) {
+      now = now.plusMillis(millis);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
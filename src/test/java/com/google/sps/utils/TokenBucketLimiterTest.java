@@ -0,0 +1,115 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.utils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class TokenBucketLimiterTest {
+  private static final Instant START = Instant.parse("2020-07-07T12:00:00Z");
+
+  private SettableClock clock;
+  private TokenBucketLimiter limiter;
+
+  private static class SettableClock extends Clock {
+    private Instant now;
+
+    SettableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advanceMillis(long millis) {
+      now = now.plusMillis(millis);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Before
+  public void setUp() {
+    clock = new SettableClock(START);
+    limiter = new TokenBucketLimiter(clock, /*capacity=*/ 3, /*tokensPerSecond=*/ 0.5);
+  }
+
+  // A key can burst up to the capacity and is then turned away.
+  @Test
+  public void burstUpToCapacity() {
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(limiter.tryAcquire("user1"));
+    }
+    Assert.assertFalse(limiter.tryAcquire("user1"));
+    Assert.assertEquals(3, limiter.allowed());
+    Assert.assertEquals(1, limiter.rejected());
+  }
+
+  // An empty bucket allows one more action once a token's worth of time has passed.
+  @Test
+  public void refillsOverTime() {
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("user1");
+    }
+    clock.advanceMillis(1999);
+    Assert.assertFalse(limiter.tryAcquire("user1"));
+    clock.advanceMillis(1);
+    Assert.assertTrue(limiter.tryAcquire("user1"));
+    Assert.assertFalse(limiter.tryAcquire("user1"));
+    Assert.assertEquals(2, limiter.secondsPerToken());
+  }
+
+  @Test
+  public void keysLimitedSeparately() {
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("user1");
+    }
+    Assert.assertFalse(limiter.tryAcquire("user1"));
+    Assert.assertTrue(limiter.tryAcquire("user2"));
+  }
+
+  // Once there are too many buckets, the ones that have refilled are dropped and the rest kept.
+  @Test
+  public void fullBucketsDropped() {
+    for (int i = 0; i < TokenBucketLimiter.MAX_BUCKETS; i++) {
+      limiter.tryAcquire("user" + i);
+    }
+    clock.advanceMillis(10000);
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("busy");
+    }
+
+    Assert.assertEquals(1, limiter.trackedKeys());
+    Assert.assertFalse(limiter.tryAcquire("busy"));
+  }
+}
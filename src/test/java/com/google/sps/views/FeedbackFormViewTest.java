@@ -0,0 +1,62 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import java.io.IOException;
+import javax.servlet.RequestDispatcher;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class FeedbackFormViewTest {
+  @Test
+  public void closedFeedback() throws IOException {
+    String html = render(false, "Interviewer");
+
+    Assert.assertTrue(html.contains("You may not submit feedback yet."));
+    Assert.assertFalse(html.contains("<form"));
+  }
+
+  // Interviewers give feedback on their interviewee and interviewees on their interviewer.
+  @Test
+  public void formForEachRole() throws IOException {
+    String interviewerForm = render(true, "Interviewer");
+    String intervieweeForm = render(true, "Interviewee");
+
+    Assert.assertFalse(interviewerForm.contains("You may not submit feedback yet."));
+    Assert.assertTrue(interviewerForm.contains("<form"));
+    Assert.assertTrue(intervieweeForm.contains("<form"));
+    Assert.assertNotEquals(interviewerForm, intervieweeForm);
+  }
+
+  @Test
+  public void shadowsGetNoForm() throws IOException {
+    Assert.assertEquals("", render(true, "Shadow"));
+  }
+
+  private static String render(boolean feedbackOpen, String role) throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(RequestDispatcher.FORWARD_REQUEST_URI, "/feedback");
+    request.setAttribute("feedbackOpen", feedbackOpen);
+    request.setAttribute("role", role);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new FeedbackFormView().doGet(request, response);
+    return response.getContentAsString();
+  }
+}
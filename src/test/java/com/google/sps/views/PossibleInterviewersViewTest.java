@@ -0,0 +1,102 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.views;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.sps.data.PossibleInterviewer;
+import java.io.IOException;
+import javax.servlet.RequestDispatcher;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@RunWith(JUnit4.class)
+public final class PossibleInterviewersViewTest {
+  @Test
+  public void rendersARowPerInterviewer() throws IOException {
+    MockHttpServletRequest request = forwardedRequest();
+    request.setAttribute(
+        "interviewers",
+        ImmutableSet.of(
+            PossibleInterviewer.create("Google", "Software Engineer"),
+            PossibleInterviewer.create("Acme", "Product Manager")));
+    request.addParameter("utcStartTime", "2020-07-15T13:15:00Z");
+    request.addParameter("time", "1:15 PM");
+    request.addParameter("date", "Wednesday 7/15");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new PossibleInterviewersView().doGet(request, response);
+
+    String html = response.getContentAsString();
+    Assert.assertTrue(html.contains("<td class=\"check-specified\">Google</td>"));
+    Assert.assertTrue(html.contains("<td class=\"check-specified\">Product Manager</td>"));
+    Assert.assertTrue(
+        html.contains(
+            "data-utc=\"2020-07-15T13:15:00Z\" data-time=\"1:15 PM\""
+                + " data-date=\"Wednesday 7/15\""));
+    Assert.assertEquals(2, html.split("onclick=\"selectInterview\\(this\\)\"").length - 1);
+  }
+
+  @Test
+  public void escapesValues() throws IOException {
+    MockHttpServletRequest request = forwardedRequest();
+    request.setAttribute(
+        "interviewers",
+        ImmutableSet.of(PossibleInterviewer.create("<script>alert(1)</script>", "A & B")));
+    request.addParameter("utcStartTime", "\" onclick=\"alert(1)");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new PossibleInterviewersView().doGet(request, response);
+
+    String html = response.getContentAsString();
+    Assert.assertFalse(html.contains("<script>"));
+    Assert.assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"));
+    Assert.assertTrue(html.contains("A &amp; B"));
+    Assert.assertTrue(html.contains("data-utc=\"&quot; onclick=&quot;alert(1)\""));
+  }
+
+  @Test
+  public void reportsRenderTime() throws IOException {
+    MockHttpServletRequest request = forwardedRequest();
+    request.setAttribute("interviewers", ImmutableSet.of());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new PossibleInterviewersView().doGet(request, response);
+
+    Assert.assertTrue(response.getHeader("Server-Timing").startsWith("render;dur="));
+  }
+
+  // Views are only meant to be forwarded to, so a request straight to one finds nothing.
+  @Test
+  public void directRequestNotFound() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new PossibleInterviewersView().doGet(request, response);
+
+    Assert.assertEquals(404, response.getStatus());
+    Assert.assertEquals("", response.getContentAsString());
+  }
+
+  // A request as ShowInterviewersServlet forwards it.
+  private static MockHttpServletRequest forwardedRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(RequestDispatcher.FORWARD_REQUEST_URI, "/show-interviewers");
+    return request;
+  }
+}